@@ -0,0 +1,178 @@
+package builder.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A minimal benchmark harness in the style of JMH, for measuring average time per operation.
+ *
+ * <p>Each benchmark is run for a number of warmup iterations, whose results are discarded, then a
+ * number of measurement iterations. Every iteration starts from a fresh fixture (like a JMH
+ * {@code @Setup(Level.Iteration)} method) and repeatedly calls the fixture's operation until the
+ * iteration time has elapsed. Results of operations are folded into a volatile sink so the JIT
+ * cannot eliminate them.
+ */
+public class Bench {
+
+    /**
+     * A benchmark operation prepared by a fixture.
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        /**
+         * Run the operation once.
+         *
+         * @return Any result of the operation, consumed to prevent dead code elimination.
+         * @throws Exception If the operation fails, aborting the benchmark.
+         */
+        Object run() throws Exception;
+    }
+
+    /**
+     * Prepares a fresh operation for each iteration. Setup time is not measured.
+     */
+    @FunctionalInterface
+    public interface Fixture {
+
+        /**
+         * Prepare the state for an iteration.
+         *
+         * @return The operation to measure.
+         * @throws Exception If the setup fails, aborting the benchmark.
+         */
+        Operation setup() throws Exception;
+    }
+
+    /** The average and error of a benchmark's measurement iterations. */
+    public static class Result {
+        private final String name;
+        private final String params;
+        private final double[] scores;
+
+        private Result(String name, String params, double[] scores) {
+            this.name = name;
+            this.params = params;
+            this.scores = scores;
+        }
+
+        /**
+         * Returns the mean time per operation over all measurement iterations.
+         *
+         * @return The mean score in nanoseconds per operation.
+         */
+        public double getScore() {
+            double total = 0;
+            for (double score : scores) {
+                total += score;
+            }
+            return total / scores.length;
+        }
+
+        /**
+         * Returns the sample standard deviation of the measurement iterations.
+         *
+         * @return The standard deviation in nanoseconds per operation.
+         */
+        public double getError() {
+            if (scores.length < 2) {
+                return 0;
+            }
+            double mean = getScore();
+            double sum = 0;
+            for (double score : scores) {
+                sum += (score - mean) * (score - mean);
+            }
+            return Math.sqrt(sum / (scores.length - 1));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ROOT,
+                    "%-32s %-28s avgt %3d %14.1f +- %10.1f ns/op",
+                    name,
+                    params,
+                    scores.length,
+                    getScore(),
+                    getError());
+        }
+    }
+
+    private static volatile int sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * Construct a new harness.
+     *
+     * @param warmupIterations The number of unmeasured iterations run before measuring.
+     * @param measurementIterations The number of measured iterations.
+     * @param iterationMillis The minimum length of each iteration in milliseconds.
+     */
+    public Bench(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Run a benchmark and print its result.
+     *
+     * @param name The name of the benchmarked method.
+     * @param params A description of the benchmark's parameters.
+     * @param fixture Prepares the operation for each iteration.
+     * @return The result of the benchmark.
+     * @throws Exception If the fixture or operation fails.
+     */
+    public Result run(String name, String params, Fixture fixture) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(fixture.setup());
+        }
+        double[] scores = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            scores[i] = iteration(fixture.setup());
+        }
+        Result result = new Result(name, params, scores);
+        results.add(result);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Returns the results of every benchmark run so far.
+     *
+     * @return The results in the order they were run.
+     */
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Run the operation until the iteration time elapses.
+     *
+     * @return The average time per operation in nanoseconds.
+     */
+    private double iteration(Operation operation) throws Exception {
+        int hash = 0;
+        long operations = 0;
+        long batch = 1;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (long i = 0; i < batch; i++) {
+                Object result = operation.run();
+                hash += result == null ? 0 : System.identityHashCode(result);
+            }
+            operations += batch;
+            batch = Math.min(batch * 2, 1 << 16);
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        sink += hash;
+        return (double) elapsed / operations;
+    }
+}
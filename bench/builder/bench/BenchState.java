@@ -0,0 +1,86 @@
+package builder.bench;
+
+import engine.EngineState;
+import engine.input.KeyState;
+import engine.input.MouseState;
+import engine.renderer.Dimensions;
+
+import java.util.List;
+
+/**
+ * An engine state with no input held, whose tick is advanced by the benchmark.
+ */
+public class BenchState implements EngineState, MouseState, KeyState {
+
+    private final Dimensions dimensions;
+    private int tick = 0;
+
+    /**
+     * Construct a new state at tick 0.
+     *
+     * @param dimensions The dimensions of the benchmarked game.
+     */
+    public BenchState(Dimensions dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    /** Advance to the next tick. */
+    public void advance() {
+        tick++;
+    }
+
+    @Override
+    public Dimensions getDimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public MouseState getMouse() {
+        return this;
+    }
+
+    @Override
+    public KeyState getKeys() {
+        return this;
+    }
+
+    @Override
+    public int currentTick() {
+        return tick;
+    }
+
+    @Override
+    public int getMouseX() {
+        return 0;
+    }
+
+    @Override
+    public int getMouseY() {
+        return 0;
+    }
+
+    @Override
+    public boolean isLeftPressed() {
+        return false;
+    }
+
+    @Override
+    public boolean isRightPressed() {
+        return false;
+    }
+
+    @Override
+    public boolean isMiddlePressed() {
+        return false;
+    }
+
+    @Override
+    public List<Character> getDown() {
+        return List.of();
+    }
+
+    @Override
+    public boolean isDown(char character) {
+        return false;
+    }
+}
@@ -0,0 +1,412 @@
+package builder.bench;
+
+import builder.JavaBeanFarm;
+import builder.JavaBeanGameState;
+import builder.entities.npc.GuardBee;
+import builder.entities.npc.NpcManager;
+import builder.entities.npc.Steering;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.npc.enemies.Magpie;
+import builder.entities.npc.enemies.Pigeon;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Tile;
+import builder.inventory.TinyInventory;
+import builder.player.ChickenFarmer;
+import builder.ui.BufferedGame;
+import builder.world.BeanWorld;
+import builder.world.OverlayBuilder;
+import builder.world.WorldBuilder;
+
+import engine.renderer.Dimensions;
+import engine.renderer.TileGrid;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks of the per-tick hot paths of the game, and of loading maps.
+ *
+ * <p>Covered methods are {@link JavaBeanFarm#tick} (also publishing frames to a {@link
+ * BufferedGame}), {@link BeanWorld#tilesAtPosition}, {@link Steering#directionTo}, {@link
+ * Pigeon#tick}, {@link GuardBee#tick}, {@link OverlayBuilder#getSection}, {@link
+ * WorldBuilder#fromString}, and saving, checkpointing and loading snapshots via {@link
+ * JavaBeanFarm#save}, {@link JavaBeanFarm#checkpoint} and {@link JavaBeanFarm#load}. Game
+ * benchmarks run over every map in {@code resources/testmaps} with a matching details file,
+ * plus synthetic maps with many spawners. Entity benchmarks are parameterised over entity
+ * counts. All random inputs are seeded, so runs are reproducible.
+ *
+ * <p>Compile against the game and run from the project root:
+ *
+ * <pre>
+ * javac -d out -cp lib/engine.jar $(find src bench -name '*.java')
+ * java -cp out:lib/engine.jar builder.bench.HotPathBenchmarks [--quick] [filter]
+ * </pre>
+ *
+ * <p>The optional filter is a regular expression matched against benchmark names, e.g. {@code
+ * Pigeon}. {@code --quick} runs fewer, shorter iterations for a rough result.
+ */
+public class HotPathBenchmarks {
+
+    private static final String TEST_MAPS = "resources/testmaps";
+    private static final int WINDOW_SIZE = 800;
+    private static final int[] ENTITY_COUNTS = {10, 100, 1000};
+    private static final int[] SPAWNER_COUNTS = {10, 100};
+    private static final long SEED = 2002;
+    private static final int SNAPSHOT_WARMUP_TICKS = 1000;
+
+    private final Bench bench;
+    private final Pattern filter;
+
+    private HotPathBenchmarks(Bench bench, Pattern filter) {
+        this.bench = bench;
+        this.filter = filter;
+    }
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args Optionally {@code --quick}, then optionally a regular expression selecting
+     *     benchmarks by name.
+     * @throws Exception If a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean quick = arguments.remove("--quick");
+        Bench bench = quick ? new Bench(1, 3, 200) : new Bench(5, 10, 1000);
+        Pattern filter = Pattern.compile(arguments.isEmpty() ? ".*" : arguments.get(0));
+        checkRoot();
+        new HotPathBenchmarks(bench, filter).runAll();
+    }
+
+    private boolean selected(String name) {
+        return filter.matcher(name).find();
+    }
+
+    private void runAll() throws Exception {
+        for (String map : testMaps()) {
+            String mapText = Files.readString(Path.of(TEST_MAPS, map + ".map"));
+            String detailsText = Files.readString(Path.of(TEST_MAPS, map + ".details"));
+            farmTick("map=" + map, mapText, detailsText);
+        }
+        for (int spawners : SPAWNER_COUNTS) {
+            String mapText = SyntheticMaps.map(25, SEED);
+            String detailsText = SyntheticMaps.details(WINDOW_SIZE, spawners, spawners, SEED);
+            farmTick("synthetic spawners=" + spawners, mapText, detailsText);
+        }
+
+        String bigMap = Files.readString(Path.of(TEST_MAPS, "bigTest.map"));
+        String bigDetails = Files.readString(Path.of(TEST_MAPS, "bigTest.details"));
+        tilesAtPosition(bigMap);
+        steering();
+        for (int count : ENTITY_COUNTS) {
+            pigeonTick(bigMap, count);
+            guardBeeTick(bigMap, count);
+        }
+        getSection("map=bigTest", bigDetails);
+        for (int spawners : SPAWNER_COUNTS) {
+            getSection(
+                    "synthetic spawners=" + spawners,
+                    SyntheticMaps.details(WINDOW_SIZE, spawners, spawners, SEED));
+        }
+        fromString("map=bigTest", bigMap);
+        fromString("synthetic tiles=100", SyntheticMaps.map(100, SEED));
+
+        snapshot("map=bigTest", bigMap, bigDetails);
+        snapshot(
+                "synthetic spawners=100",
+                SyntheticMaps.map(25, SEED),
+                SyntheticMaps.details(WINDOW_SIZE, 100, 100, SEED));
+    }
+
+    /** Returns the names of the test maps which have a matching details file. */
+    private static List<String> testMaps() {
+        List<String> maps = new ArrayList<>();
+        String[] files = new File(TEST_MAPS).list();
+        if (files == null) {
+            return maps;
+        }
+        Arrays.sort(files);
+        for (String file : files) {
+            if (file.endsWith(".map")) {
+                String name = file.substring(0, file.length() - ".map".length());
+                if (new File(TEST_MAPS, name + ".details").exists()) {
+                    maps.add(name);
+                }
+            }
+        }
+        return maps;
+    }
+
+    /** Returns dimensions matching the number of rows in the given map. */
+    private static Dimensions dimensionsOf(String mapText) {
+        return new TileGrid(mapText.split("\n").length, WINDOW_SIZE);
+    }
+
+    private void farmTick(String params, String mapText, String detailsText) throws Exception {
+        Dimensions dimensions = dimensionsOf(mapText);
+        if (selected("JavaBeanFarm.bufferedTick")) {
+            bench.run(
+                    "JavaBeanFarm.bufferedTick",
+                    params,
+                    () -> {
+                        JavaBeanFarm farm =
+                                new JavaBeanFarm(
+                                        dimensions,
+                                        new StringReader(mapText),
+                                        new StringReader(detailsText));
+                        BufferedGame game = new BufferedGame(farm, farm.publishFrames());
+                        BenchState state = new BenchState(dimensions);
+                        return () -> {
+                            game.tick(state);
+                            state.advance();
+                            return game.render();
+                        };
+                    });
+        }
+        if (!selected("JavaBeanFarm.tick")) {
+            return;
+        }
+        bench.run(
+                "JavaBeanFarm.tick",
+                params,
+                () -> {
+                    JavaBeanFarm farm =
+                            new JavaBeanFarm(
+                                    dimensions,
+                                    new StringReader(mapText),
+                                    new StringReader(detailsText));
+                    BenchState state = new BenchState(dimensions);
+                    return () -> {
+                        farm.tick(state);
+                        state.advance();
+                        return farm.render();
+                    };
+                });
+    }
+
+    private void tilesAtPosition(String mapText) throws Exception {
+        if (!selected("BeanWorld.tilesAtPosition")) {
+            return;
+        }
+        Dimensions dimensions = dimensionsOf(mapText);
+        BeanWorld world = WorldBuilder.fromTiles(WorldBuilder.fromString(dimensions, mapText));
+        Random random = new Random(SEED);
+        int[] positions = new int[1024];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = random.nextInt(WINDOW_SIZE);
+        }
+        bench.run(
+                "BeanWorld.tilesAtPosition",
+                "map=bigTest",
+                () -> {
+                    int[] next = {0};
+                    return () -> {
+                        int i = next[0];
+                        next[0] = (i + 2) & (positions.length - 1);
+                        return world.tilesAtPosition(positions[i], positions[i + 1], dimensions);
+                    };
+                });
+    }
+
+    private void steering() throws Exception {
+        if (!selected("Steering.directionTo")) {
+            return;
+        }
+        Random random = new Random(SEED);
+        int[] offsets = new int[1024];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = random.nextInt(2 * WINDOW_SIZE) - WINDOW_SIZE;
+        }
+        bench.run(
+                "Steering.directionTo",
+                "offsets=" + offsets.length / 2 + " then step",
+                () -> () -> {
+                    int moved = 0;
+                    for (int i = 0; i < offsets.length; i += 2) {
+                        int direction = Steering.directionTo(offsets[i], offsets[i + 1]);
+                        moved += Steering.stepX(direction, 2) + Steering.stepY(direction, 2);
+                    }
+                    return moved;
+                });
+    }
+
+    /** Returns a game state over the given map with cabbages planted on some dirt tiles. */
+    private static JavaBeanGameState plantedGame(Dimensions dimensions, String mapText)
+            throws Exception {
+        BeanWorld world = WorldBuilder.fromTiles(WorldBuilder.fromString(dimensions, mapText));
+        int planted = 0;
+        for (Tile tile : world.allTiles()) {
+            if (tile instanceof Dirt && planted < 10) {
+                ((Dirt) tile).till();
+                ((Dirt) tile).plant(new TinyInventory(5, 100, 100));
+                planted++;
+            }
+        }
+        return new JavaBeanGameState(
+                world,
+                new ChickenFarmer(WINDOW_SIZE / 2, WINDOW_SIZE / 2),
+                new TinyInventory(5, 2, 3),
+                new NpcManager(),
+                new EnemyManager(dimensions));
+    }
+
+    private void pigeonTick(String mapText, int count) throws Exception {
+        if (!selected("Pigeon.tick")) {
+            return;
+        }
+        Dimensions dimensions = dimensionsOf(mapText);
+        bench.run(
+                "Pigeon.tick",
+                "pigeons=" + count,
+                () -> {
+                    JavaBeanGameState game = plantedGame(dimensions, mapText);
+                    BenchState state = new BenchState(dimensions);
+                    Random random = new Random(SEED);
+                    List<Pigeon> pigeons = new ArrayList<>();
+                    for (int i = 0; i < count; i++) {
+                        Pigeon pigeon =
+                                new Pigeon(
+                                        random.nextInt(WINDOW_SIZE),
+                                        random.nextInt(WINDOW_SIZE),
+                                        game.getPlayer());
+                        pigeons.add(pigeon);
+                        game.getEnemies().getBirds().add(pigeon);
+                    }
+                    return () -> {
+                        for (int i = 0; i < pigeons.size(); i++) {
+                            pigeons.get(i).tick(state, game);
+                        }
+                        state.advance();
+                        return pigeons;
+                    };
+                });
+    }
+
+    private void guardBeeTick(String mapText, int count) throws Exception {
+        if (!selected("GuardBee.tick")) {
+            return;
+        }
+        Dimensions dimensions = dimensionsOf(mapText);
+        bench.run(
+                "GuardBee.tick",
+                "bees=" + count + " magpies=" + count,
+                () -> {
+                    JavaBeanGameState game = plantedGame(dimensions, mapText);
+                    BenchState state = new BenchState(dimensions);
+                    Random random = new Random(SEED);
+                    List<GuardBee> bees = new ArrayList<>();
+                    for (int i = 0; i < count; i++) {
+                        Magpie magpie =
+                                new Magpie(
+                                        random.nextInt(WINDOW_SIZE),
+                                        random.nextInt(WINDOW_SIZE),
+                                        game.getPlayer());
+                        game.getEnemies().getBirds().add(magpie);
+                        bees.add(
+                                new GuardBee(
+                                        random.nextInt(WINDOW_SIZE),
+                                        random.nextInt(WINDOW_SIZE),
+                                        magpie));
+                    }
+                    return () -> {
+                        for (int i = 0; i < bees.size(); i++) {
+                            bees.get(i).tick(state, game);
+                        }
+                        state.advance();
+                        return bees;
+                    };
+                });
+    }
+
+    private void getSection(String params, String detailsText) throws Exception {
+        if (!selected("OverlayBuilder.getSection")) {
+            return;
+        }
+        bench.run(
+                "OverlayBuilder.getSection",
+                params,
+                () -> () -> OverlayBuilder.getSection("pigeonspawner", detailsText));
+    }
+
+    private void fromString(String params, String mapText) throws Exception {
+        if (!selected("WorldBuilder.fromString")) {
+            return;
+        }
+        Dimensions dimensions = dimensionsOf(mapText);
+        bench.run(
+                "WorldBuilder.fromString",
+                params,
+                () -> () -> WorldBuilder.fromString(dimensions, mapText));
+    }
+
+    /**
+     * Saves, checkpoints and loads a farm which has been played for a while so it is full of
+     * entities.
+     */
+    private void snapshot(String params, String mapText, String detailsText) throws Exception {
+        if (!selected("JavaBeanFarm.save")
+                && !selected("JavaBeanFarm.checkpoint")
+                && !selected("JavaBeanFarm.load")) {
+            return;
+        }
+        Dimensions dimensions = dimensionsOf(mapText);
+        JavaBeanFarm farm =
+                new JavaBeanFarm(
+                        dimensions, new StringReader(mapText), new StringReader(detailsText));
+        BenchState state = new BenchState(dimensions);
+        for (int i = 0; i < SNAPSHOT_WARMUP_TICKS; i++) {
+            farm.tick(state);
+            state.advance();
+        }
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        farm.save(Channels.newChannel(saved));
+        byte[] bytes = saved.toByteArray();
+        String snapshotParams = params + " bytes=" + bytes.length;
+        if (selected("JavaBeanFarm.save")) {
+            bench.run(
+                    "JavaBeanFarm.save",
+                    snapshotParams,
+                    () -> () -> {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+                        farm.save(Channels.newChannel(out));
+                        return out;
+                    });
+        }
+        if (selected("JavaBeanFarm.checkpoint")) {
+            farm.save(Channels.newChannel(new ByteArrayOutputStream()));
+            bench.run(
+                    "JavaBeanFarm.checkpoint",
+                    snapshotParams,
+                    () -> () -> {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        farm.checkpoint(Channels.newChannel(out));
+                        return out;
+                    });
+        }
+        if (selected("JavaBeanFarm.load")) {
+            bench.run(
+                    "JavaBeanFarm.load",
+                    snapshotParams,
+                    () -> () -> JavaBeanFarm.load(
+                            Channels.newChannel(new ByteArrayInputStream(bytes))));
+        }
+    }
+
+    /** Fail with a clear error if the benchmarks are not run from the project root. */
+    private static void checkRoot() throws IOException {
+        if (!new File(TEST_MAPS).isDirectory()) {
+            throw new IOException("Run from the project root, " + TEST_MAPS + " not found");
+        }
+    }
+}
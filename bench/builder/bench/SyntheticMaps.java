@@ -0,0 +1,70 @@
+package builder.bench;
+
+import java.util.Random;
+import java.util.StringJoiner;
+
+/**
+ * Generates map and details contents for benchmarks, with a configurable number of spawners.
+ */
+public class SyntheticMaps {
+
+    private static final char[] TERRAIN = {'g', 'g', 'g', 'd', 'd', 'w', 'o'};
+
+    /**
+     * Generate a square map of random terrain, seeded so runs are reproducible.
+     *
+     * @param tilesPerRow The number of tiles in each row and column.
+     * @param seed The seed for the terrain.
+     * @return The contents of a .map file.
+     */
+    public static String map(int tilesPerRow, long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < tilesPerRow; row++) {
+            for (int col = 0; col < tilesPerRow; col++) {
+                builder.append(TERRAIN[random.nextInt(TERRAIN.length)]);
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Generate details with the player in the centre and the given number of each spawner type
+     * and cabbages, at random positions seeded so runs are reproducible.
+     *
+     * @param windowSize The size of the window in pixels.
+     * @param spawners The number of each type of spawner.
+     * @param cabbages The number of cabbages.
+     * @param seed The seed for positions and durations.
+     * @return The contents of a .details file.
+     */
+    public static String details(int windowSize, int spawners, int cabbages, long seed) {
+        Random random = new Random(seed);
+        StringJoiner joiner = new StringJoiner("\n");
+        joiner.add(":chickenFarmer:");
+        joiner.add("|x:" + windowSize / 2 + " y:" + windowSize / 2 + " coins:2 food:3");
+        joiner.add("end;");
+        joiner.add("");
+        joiner.add(":cabbages:");
+        for (int i = 0; i < cabbages; i++) {
+            joiner.add("|x:" + random.nextInt(windowSize) + " y:" + random.nextInt(windowSize));
+        }
+        joiner.add("end;");
+        for (String type : new String[] {"magpiespawner", "eaglespawner", "pigeonspawner"}) {
+            joiner.add("");
+            joiner.add(":" + type + ":");
+            for (int i = 0; i < spawners; i++) {
+                joiner.add(
+                        "|x:"
+                                + random.nextInt(windowSize)
+                                + " y:"
+                                + random.nextInt(windowSize)
+                                + " duration:"
+                                + (50 + random.nextInt(300)));
+            }
+            joiner.add("end;");
+        }
+        return joiner.toString();
+    }
+}
@@ -1,4 +1,8 @@
 import builder.JavaBeanFarm;
+import builder.headless.InputRecorder;
+import builder.metrics.TickProfiler;
+import builder.ui.BufferedGame;
+import builder.ui.SpriteGallery;
 import builder.world.WorldLoadException;
 
 import engine.Engine;
@@ -6,8 +10,12 @@ import engine.game.Game;
 import engine.renderer.Dimensions;
 import engine.renderer.TileGrid;
 
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A main class to execute the JavaBean game.
@@ -18,6 +26,12 @@ public class Main {
     private static final int SIZE = 800;
     private static final int TILES_PER_ROW = 25;
 
+    /** The system property naming a file to record the session's input to, if set. */
+    private static final String RECORD_PROPERTY = "javabean.record";
+
+    /** How long to park the game loop while waiting for the next tick. */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
     /**
      * Start the game.
      *
@@ -27,9 +41,34 @@ public class Main {
      */
     public static void main(String[] args) throws IOException, WorldLoadException {
         Dimensions dimensions = new TileGrid(TILES_PER_ROW, SIZE);
-        Game game =
+        // parse every art file in parallel, rather than one by one as the game first needs each
+        SpriteGallery.warmUp();
+        JavaBeanFarm game =
                 new JavaBeanFarm(dimensions, new FileReader("resources/uqLogo.map"), new FileReader("resources/uqLogo.details"));
-        Engine engine = new Engine(game, dimensions);
+        Game running = game;
+        // Run with -Djavabean.record=<file> to record input for builder.headless.InputReplayer
+        String recording = System.getProperty(RECORD_PROPERTY);
+        if (recording != null) {
+            InputRecorder recorder =
+                    new InputRecorder(game, new FileOutputStream(recording).getChannel());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            running = recorder;
+        }
+        // draw immutable frames, so the display never shows a tick part way through
+        Engine engine = new Engine(new BufferedGame(running, game.publishFrames()), dimensions);
+
+        // Run with -Djavabean.profile=true to print tick timings on exit
+        TickProfiler profiler = game.getProfiler();
+        if (profiler.isEnabled()) {
+            System.out.print(SpriteGallery.loadReport());
+            profiler.dumpOnShutdown(System.out);
+        }
 
         // Optionally uncomment this line to turn on debug mode
         // engine.debug().on();
@@ -40,12 +79,16 @@ public class Main {
     /**
      * Helper method to run the game loop.
      *
+     * <p>The loop parks briefly while waiting for the next tick rather than spinning.
+     *
      * @param engine The engine instance to execute.
      */
     private static void run(Engine engine) {
         while (engine.isRunning()) {
             if (engine.isTimeForNextTick()) {
                 engine.tick();
+            } else {
+                LockSupport.parkNanos(IDLE_NANOS);
             }
         }
     }
@@ -5,6 +5,7 @@ import builder.entities.npc.enemies.EnemyManager;
 import builder.entities.tiles.Tile;
 import builder.inventory.Inventory;
 import builder.player.Player;
+import builder.timing.TimingWheel;
 import builder.world.World;
 
 /**
@@ -47,4 +48,28 @@ public interface GameState {
      * @return The inventory of the player.
      */
     Inventory getInventory();
+
+    /**
+     * Returns temporary lists for use during the current tick, see {@link TickScratch}.
+     *
+     * <p>States that last a single tick may use the default, a new scratch for each call.
+     *
+     * @return The scratch for the current tick.
+     */
+    default TickScratch getScratch() {
+        return new TickScratch();
+    }
+
+    /**
+     * Returns the game's timing wheel, advanced once at the start of each tick, which timers may
+     * be scheduled on rather than being ticked by their owners (see {@link
+     * builder.timing.TrackedRepeatingTimer#schedule}).
+     *
+     * <p>States without a wheel may use the default, in which case owners tick their own timers.
+     *
+     * @return The wheel of the game, or null if it has none.
+     */
+    default TimingWheel getTimers() {
+        return null;
+    }
 }
@@ -15,10 +15,16 @@ import builder.inventory.items.Jackhammer;
 import builder.inventory.items.Pole;
 import builder.inventory.ui.InventoryOverlay;
 import builder.inventory.ui.ResourceOverlay;
+import builder.metrics.TickProfiler;
 import builder.player.PlayerManager;
+import builder.snapshot.ChangeJournal;
+import builder.snapshot.Snapshot;
+import builder.timing.TimingWheel;
 import builder.ui.Overlay;
+import builder.ui.RenderFrames;
 import builder.world.BeanWorld;
 import builder.world.CabbageDetails;
+import builder.world.DetailsHandler;
 import builder.world.OverlayBuilder;
 import builder.world.PlayerDetails;
 import builder.world.SpawnerDetails;
@@ -30,13 +36,13 @@ import engine.game.Game;
 import engine.renderer.Dimensions;
 import engine.renderer.Renderable;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.StringJoiner;
 
 /**
  * JavaBeans, a farming game.
@@ -54,6 +60,8 @@ import java.util.StringJoiner;
  */
 public class JavaBeanFarm implements Game {
 
+    private final Dimensions dimensions;
+
     private final PlayerManager playerManager;
 
     private final NpcManager npcs;
@@ -64,14 +72,80 @@ public class JavaBeanFarm implements Game {
     private final Inventory inventory;
     private final List<Overlay> overlays = new ArrayList<>();
 
-    private String readAllReader(Reader reader) throws IOException {
-        BufferedReader br = new BufferedReader(reader);
-        StringJoiner sb = new StringJoiner(System.lineSeparator());
-        String line;
-        while ((line = br.readLine()) != null) {
-            sb.add(line);
+    /** The state handed to every part of the game each tick, kept for the life of the game. */
+    private final JavaBeanGameState game;
+
+    /** The wheel timers of the game are scheduled on, advanced at the start of each tick. */
+    private final TimingWheel timers = new TimingWheel();
+
+    /** Records timings of each phase of {@link #tick(EngineState)} and of {@link #render()}. */
+    private final TickProfiler profiler = new TickProfiler();
+
+    /** Refilled to publish each frame, so that rendering a frame does not build a new list. */
+    private final FrameList published = new FrameList();
+
+    /**
+     * The lists handed to the engine by {@link #render()}, refilled in turn. The engine draws a
+     * list on its own thread after the next tick has started, so a list is only refilled once two
+     * later frames have been rendered.
+     */
+    private final List<FrameList> drawn =
+            List.of(new FrameList(), new FrameList(), new FrameList());
+
+    /** The index in {@link #drawn} of the list the next frame is rendered to. */
+    private int nextDrawn = 0;
+
+    /** Frames published at the end of each tick for drawing on another thread, if publishing. */
+    private RenderFrames frames;
+
+    /** Records changes to the world since the game was last saved or loaded, if it has been. */
+    private ChangeJournal journal;
+
+    /**
+     * A list refilled with every frame rendered to it, starting with the renderables of the world
+     * as of a version of the world (see {@link BeanWorld#getLayerVersion()}).
+     */
+    private static class FrameList {
+        private final List<Renderable> renderables = new ArrayList<>();
+        private int worldVersion = -1;
+        private int worldSize = 0;
+    }
+
+    /** Collects the entries of a .details file read by {@link OverlayBuilder#parse}. */
+    private static class DetailsLoader implements DetailsHandler {
+        private PlayerDetails player;
+        private final List<CabbageDetails> cabbages = new ArrayList<>();
+        private final List<SpawnerDetails> magpieSpawners = new ArrayList<>();
+        private final List<SpawnerDetails> eagleSpawners = new ArrayList<>();
+        private final List<SpawnerDetails> pigeonSpawners = new ArrayList<>();
+
+        @Override
+        public void player(PlayerDetails details) {
+            // right now we only expect there to ever be one chicken farmer entry
+            if (player == null) {
+                player = details;
+            }
+        }
+
+        @Override
+        public void cabbage(CabbageDetails details) {
+            cabbages.add(details);
+        }
+
+        @Override
+        public void magpieSpawner(SpawnerDetails details) {
+            magpieSpawners.add(details);
+        }
+
+        @Override
+        public void eagleSpawner(SpawnerDetails details) {
+            eagleSpawners.add(details);
+        }
+
+        @Override
+        public void pigeonSpawner(SpawnerDetails details) {
+            pigeonSpawners.add(details);
         }
-        return sb.toString();
     }
 
     /**
@@ -90,32 +164,33 @@ public class JavaBeanFarm implements Game {
     public JavaBeanFarm(Dimensions dimensions, Reader mapReader, Reader detailReader)
             throws IOException, WorldLoadException {
 
-        final String detailsContent = readAllReader(detailReader);
-        final PlayerDetails playerDetails = OverlayBuilder.getPlayerDetailsFromFile(detailsContent);
+        final DetailsLoader details = new DetailsLoader();
+        OverlayBuilder.parse(detailReader, details);
+        final PlayerDetails playerDetails = details.player;
+        if (playerDetails == null) {
+            throw new IOException("Details have no chicken farmer entry");
+        }
+        this.dimensions = dimensions;
         this.playerManager = new PlayerManager(playerDetails.getX(), playerDetails.getY());
         this.npcs = new NpcManager();
         this.enemies = new EnemyManager(dimensions);
-        final List<SpawnerDetails> magpieSpawnPoints =
-                OverlayBuilder.getMagpieSpawnDetailsFromString(detailsContent);
-        for (SpawnerDetails spawnerDetails : magpieSpawnPoints) {
+        this.npcs.setProfiler(profiler);
+        this.enemies.setProfiler(profiler);
+        for (SpawnerDetails spawnerDetails : details.magpieSpawners) {
             this.enemies.add(
                     new MagpieSpawner(
                             spawnerDetails.getX(),
                             spawnerDetails.getY(),
                             spawnerDetails.getDuration()));
         }
-        final List<SpawnerDetails> eagleSpawnPoints =
-                OverlayBuilder.getEagleSpawnDetailsFromString(detailsContent);
-        for (SpawnerDetails spawnerDetails : eagleSpawnPoints) {
+        for (SpawnerDetails spawnerDetails : details.eagleSpawners) {
             this.enemies.add(
                     new EagleSpawner(
                             spawnerDetails.getX(),
                             spawnerDetails.getY(),
                             spawnerDetails.getDuration()));
         }
-        final List<SpawnerDetails> pigeonSpawnPoints =
-                OverlayBuilder.getPigeonSpawnDetailsFromString(detailsContent);
-        for (SpawnerDetails spawnerDetails : pigeonSpawnPoints) {
+        for (SpawnerDetails spawnerDetails : details.pigeonSpawners) {
             this.enemies.add(
                     new PigeonSpawner(
                             spawnerDetails.getX(),
@@ -123,13 +198,10 @@ public class JavaBeanFarm implements Game {
                             spawnerDetails.getDuration()));
         }
 
-        String worldContent = readAllReader(mapReader);
-        this.world = WorldBuilder.fromTiles(WorldBuilder.fromString(dimensions, worldContent));
+        this.world = WorldBuilder.worldFromReader(dimensions, mapReader);
 
-        final List<CabbageDetails> cabbageSpawnPoints =
-                OverlayBuilder.getCabbageSpawnDetailsFromString(detailsContent);
         for (CabbageDetails cabbageDetails :
-                cabbageSpawnPoints) { // HACK - can I improve this?
+                details.cabbages) { // HACK - can I improve this?
             final int positionX = cabbageDetails.getX();
             final int positionY = cabbageDetails.getY();
             final List<Tile> tiles = this.world.tilesAtPosition(positionX, positionY, dimensions);
@@ -157,6 +229,31 @@ public class JavaBeanFarm implements Game {
 
         this.overlays.add(new InventoryOverlay(dimensions, inventorySize));
         this.overlays.add(new ResourceOverlay(dimensions));
+        this.game =
+                new JavaBeanGameState(
+                        world, playerManager.getPlayer(), inventory, npcs, enemies, timers);
+    }
+
+    /**
+     * Constructs a JavaBean Farm game continuing from the state captured in a snapshot.
+     *
+     * @param snapshot The snapshot to continue from.
+     */
+    private JavaBeanFarm(Snapshot snapshot) {
+        this.dimensions = snapshot.getDimensions();
+        this.playerManager = snapshot.getPlayerManager();
+        this.npcs = snapshot.getNpcs();
+        this.enemies = snapshot.getEnemies();
+        this.world = snapshot.getWorld();
+        this.inventory = snapshot.getInventory();
+        this.npcs.setProfiler(profiler);
+        this.enemies.setProfiler(profiler);
+
+        this.overlays.add(new InventoryOverlay(dimensions, inventory.getCapacity()));
+        this.overlays.add(new ResourceOverlay(dimensions));
+        this.game =
+                new JavaBeanGameState(
+                        world, playerManager.getPlayer(), inventory, npcs, enemies, timers);
     }
 
     /**
@@ -174,6 +271,70 @@ public class JavaBeanFarm implements Game {
         this(dimensions, new FileReader(mapFile), new FileReader(detailsFile));
     }
 
+    /**
+     * Loads a JavaBean Farm game previously saved via {@link #save(WritableByteChannel)},
+     * followed by any checkpoints written since via {@link #checkpoint(WritableByteChannel)}.
+     *
+     * <p>Further checkpoints of the loaded game continue on from the last checkpoint loaded.
+     *
+     * @param channel The channel to read the saved game from, which is not closed.
+     * @param checkpoints The channels to read each checkpoint from in the order they were
+     *     written, which are not closed.
+     * @return A new game continuing from the saved state as of the last checkpoint.
+     * @throws IOException If a channel cannot be read or does not contain a saved game or a
+     *     checkpoint following on from the saved game.
+     */
+    public static JavaBeanFarm load(ReadableByteChannel channel,
+            ReadableByteChannel... checkpoints) throws IOException {
+        Snapshot snapshot = Snapshot.read(channel);
+        ChangeJournal journal = new ChangeJournal(snapshot.getWorld());
+        for (ReadableByteChannel checkpoint : checkpoints) {
+            snapshot = journal.apply(snapshot, checkpoint);
+        }
+        JavaBeanFarm farm = new JavaBeanFarm(snapshot);
+        farm.journal = journal;
+        return farm;
+    }
+
+    /**
+     * Saves the current state of the game to the given channel as a binary {@link Snapshot}, so
+     * that it can be continued later via {@link #load(ReadableByteChannel,
+     * ReadableByteChannel...)}. Later checkpoints are relative to the most recent save.
+     *
+     * <p>Saving between ticks captures everything needed for the loaded game to continue exactly
+     * as this game would, given the same input.
+     *
+     * @param channel The channel to write the game to, which is not closed.
+     * @throws IOException If the channel cannot be written to.
+     */
+    public void save(WritableByteChannel channel) throws IOException {
+        snapshot().write(channel);
+        journal = new ChangeJournal(world);
+    }
+
+    /**
+     * Saves the changes made to the game since it was last saved or checkpointed to the given
+     * channel, so that it can be continued later by loading the last save followed by every
+     * checkpoint since, see {@link #load(ReadableByteChannel, ReadableByteChannel...)}.
+     *
+     * <p>A checkpoint only includes the parts of the world that have changed or are active, so
+     * is typically much smaller and quicker to write than a save.
+     *
+     * @param channel The channel to write the checkpoint to, which is not closed.
+     * @throws IOException If the channel cannot be written to.
+     * @throws IllegalStateException If the game has not been saved or loaded.
+     */
+    public void checkpoint(WritableByteChannel channel) throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Game must be saved before it can be checkpointed");
+        }
+        journal.checkpoint(snapshot(), channel);
+    }
+
+    private Snapshot snapshot() {
+        return new Snapshot(dimensions, playerManager, inventory, world, npcs, enemies);
+    }
+
     /**
      * Ticks the internal game state forward by one frame. a
      *
@@ -185,24 +346,87 @@ public class JavaBeanFarm implements Game {
      *     GameState)}.
      */
     public void tick(EngineState state) {
-        GameState game =
-                new JavaBeanGameState(
-                        world, playerManager.getPlayer(), inventory, this.npcs, this.enemies);
+        final long tickStart = profiler.start();
+        game.getScratch().reset();
+        long start = profiler.start();
+        this.timers.advance();
+        profiler.stop("phase/timers", start);
+
+        start = profiler.start();
         this.playerManager.tick(state, game);
+        profiler.stop("phase/player", start);
+
+        start = profiler.start();
         this.npcs.tick(state, game);
+        profiler.stop("phase/npcs", start);
+
+        start = profiler.start();
         this.enemies.tick(state, game);
+        profiler.stop("phase/enemies", start);
 
+        start = profiler.start();
         this.world.tick(state, game);
+        profiler.stop("phase/world", start);
 
-        for (Overlay overlay : overlays) {
+        start = profiler.start();
+        for (int i = 0; i < overlays.size(); i++) {
+            Overlay overlay = overlays.get(i);
             overlay.tick(state, game);
         }
+        profiler.stop("phase/overlays", start);
 
+        start = profiler.start();
         this.npcs.interact(state, game);
         this.enemies.interact(state, game);
+        profiler.stop("phase/interact", start);
 
+        start = profiler.start();
         this.npcs.cleanup();
         this.enemies.cleanup();
+        profiler.stop("phase/cleanup", start);
+
+        if (frames != null) {
+            start = profiler.start();
+            frames.publish(renderInto(published), state.currentTick());
+            profiler.stop("phase/publish", start);
+        }
+        profiler.stop("tick", tickStart);
+    }
+
+    /**
+     * Publish a frame of the game at the end of every tick from now on, so that frames can be
+     * drawn on another thread while the game ticks (see {@link builder.ui.BufferedGame}).
+     *
+     * @return The frames the game publishes to.
+     */
+    public RenderFrames publishFrames() {
+        if (frames == null) {
+            frames = new RenderFrames();
+        }
+        return frames;
+    }
+
+    /**
+     * Returns the dimensions of the game.
+     *
+     * @return The game dimensions.
+     */
+    public Dimensions getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the profiler recording how long each phase of a tick takes.
+     *
+     * <p>Phases are recorded under {@code phase/}, the whole tick under {@code tick}, rendering
+     * under {@code render}, and individual NPCs, enemies and spawners by type under {@code npc/},
+     * {@code enemy/} and {@code spawner/}. The profiler is disabled unless the {@value
+     * TickProfiler#PROPERTY} system property is set, see {@link TickProfiler#setEnabled(boolean)}.
+     *
+     * @return The game's profiler.
+     */
+    public TickProfiler getProfiler() {
+        return profiler;
     }
 
     /**
@@ -216,23 +440,52 @@ public class JavaBeanFarm implements Game {
      *     rendered after the world but before overlays.
      *     <p>Overlays, i.e., {@link ResourceOverlay} and {@link InventoryOverlay} must be rendered
      *     last in any order.
+     *     <p>The engine keeps the returned list and draws it on another thread, so the list is not
+     *     changed until two later frames have been rendered.
      */
     @Override
     public List<Renderable> render() {
+        FrameList frame = drawn.get(nextDrawn);
+        nextDrawn = (nextDrawn + 1) % drawn.size();
+        return renderInto(frame);
+    }
 
-        List<Renderable> renderables = new ArrayList<>();
-
-        renderables.addAll(this.world.render());
+    /**
+     * Render the game into a list reused between frames, in the order documented by {@link
+     * #render()}.
+     *
+     * <p>The renderables of the world rarely change, so they are kept from the frame last rendered
+     * to the list, with only the world's edits since made to them (see {@link
+     * BeanWorld#replayLayer}).
+     *
+     * @param frame The list to render to.
+     * @return The list rendered to.
+     */
+    private List<Renderable> renderInto(FrameList frame) {
+        final long start = profiler.start();
+        List<Renderable> renderables = frame.renderables;
+        for (int i = renderables.size() - 1; i >= frame.worldSize; i--) {
+            renderables.remove(i);
+        }
+        if (this.world.getLayerVersion() != frame.worldVersion
+                && !this.world.replayLayer(frame.worldVersion, renderables)) {
+            renderables.clear();
+            this.world.renderInto(renderables);
+        }
+        frame.worldVersion = this.world.getLayerVersion();
+        frame.worldSize = renderables.size();
 
-        renderables.addAll(this.npcs.render());
-        renderables.addAll(this.enemies.render());
+        this.npcs.renderInto(renderables);
+        this.enemies.renderInto(renderables);
 
-        renderables.addAll(this.playerManager.render());
+        this.playerManager.renderInto(renderables);
 
-        for (Overlay overlay : overlays) {
-            renderables.addAll(overlay.render());
+        for (int i = 0; i < overlays.size(); i++) {
+            Overlay overlay = overlays.get(i);
+            overlay.renderInto(renderables);
         }
 
+        profiler.stop("render", start);
         return renderables;
     }
 }
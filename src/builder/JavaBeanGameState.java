@@ -4,12 +4,17 @@ import builder.entities.npc.NpcManager;
 import builder.entities.npc.enemies.EnemyManager;
 import builder.inventory.Inventory;
 import builder.player.Player;
+import builder.timing.TimingWheel;
 import builder.world.World;
 
 /**
  * An implementation of the game state for the JavaBean game. Stores the world, player, and
  * inventory.
  *
+ * <p>A game keeps a single state for its whole life, so every getter returns the same instance
+ * each tick. The state's {@link TickScratch} is reset, and its {@link TimingWheel} advanced, by
+ * the game at the start of each tick.
+ *
  * @hint As with {@link GameState}, you can create this class incrementally through each stage.
  */
 public class JavaBeanGameState implements GameState {
@@ -18,6 +23,8 @@ public class JavaBeanGameState implements GameState {
     private final Inventory inventory;
     private final NpcManager npcs;
     private final EnemyManager enemies;
+    private final TickScratch scratch = new TickScratch();
+    private final TimingWheel timers;
 
     /**
      * Construct a new instance storing the given world, player, and inventory.
@@ -32,11 +39,31 @@ public class JavaBeanGameState implements GameState {
             Inventory inventory,
             NpcManager npcs,
             EnemyManager enemies) {
+        this(world, player, inventory, npcs, enemies, null);
+    }
+
+    /**
+     * Construct a new instance storing the given world, player, inventory and timing wheel.
+     *
+     * @param world The world of the game.
+     * @param player The player of the game.
+     * @param inventory The inventory of the player.
+     * @param timers The wheel the game advances each tick, or null if timers are ticked by their
+     *     owners.
+     */
+    public JavaBeanGameState(
+            World world,
+            Player player,
+            Inventory inventory,
+            NpcManager npcs,
+            EnemyManager enemies,
+            TimingWheel timers) {
         this.world = world;
         this.player = player;
         this.inventory = inventory;
         this.npcs = npcs;
         this.enemies = enemies;
+        this.timers = timers;
     }
 
     public NpcManager getNpcs() {
@@ -71,4 +98,14 @@ public class JavaBeanGameState implements GameState {
     public Inventory getInventory() {
         return inventory;
     }
+
+    @Override
+    public TickScratch getScratch() {
+        return scratch;
+    }
+
+    @Override
+    public TimingWheel getTimers() {
+        return timers;
+    }
 }
@@ -0,0 +1,55 @@
+package builder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Temporary lists for use within a single tick, reused from tick to tick so that collecting
+ * entities during a tick does not allocate.
+ *
+ * <p>A list from {@link #list()} is empty when handed out and must not be kept past the end of
+ * the tick, as it is cleared and handed out again once the scratch is {@link #reset()} at the
+ * start of the next tick. Scratch lists are not thread safe, so they must only be used by the
+ * thread ticking the game.
+ */
+public class TickScratch {
+
+    /** Every list allocated so far, those before {@link #used} handed out this tick. */
+    private final List<List<?>> lists = new ArrayList<>();
+
+    private int used = 0;
+
+    /**
+     * Returns an empty list to use until the end of the current tick.
+     *
+     * @param <T> The type of element in the list.
+     * @return An empty list, not handed out again this tick.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> list() {
+        if (used == lists.size()) {
+            lists.add(new ArrayList<>());
+        }
+        return (List<T>) lists.get(used++);
+    }
+
+    /**
+     * Take back every list handed out, emptying each so the entities collected can be garbage
+     * collected. Called at the start of each tick.
+     */
+    public void reset() {
+        for (int i = 0; i < used; i++) {
+            lists.get(i).clear();
+        }
+        used = 0;
+    }
+
+    /**
+     * Returns the number of lists allocated so far, i.e. the most handed out in a single tick.
+     *
+     * @return The number of lists allocated.
+     */
+    public int getAllocated() {
+        return lists.size();
+    }
+}
@@ -0,0 +1,37 @@
+package builder.entities;
+
+import builder.timing.TimingWheel;
+
+import engine.EngineState;
+
+/**
+ * A game component that can go without being ticked until something it has scheduled on the
+ * game's {@link TimingWheel} is due.
+ *
+ * <p>While asleep, ticking the component has no effect other than on the ticks it is woken for,
+ * so its owner may stop ticking it until it is woken. Once woken, the component must be ticked
+ * again on that tick (after the wheel has been advanced) and every tick after, until it is put to
+ * sleep again.
+ */
+public interface Dormant {
+
+    /**
+     * Put the component to sleep until the given runnable is called by the wheel, or by the
+     * component when it changes in some other way that requires it to be ticked (e.g. it is
+     * marked for removal). Putting a sleeping component to sleep again replaces the runnable.
+     *
+     * <p>Should be called after the component has been ticked, once the given wheel has been
+     * advanced to the current tick.
+     *
+     * @param timers The wheel to schedule on.
+     * @param onWake Called once the component needs to be ticked again.
+     * @return true if the component is asleep, false if it must still be ticked every tick.
+     */
+    boolean sleep(TimingWheel timers, Runnable onWake);
+
+    /**
+     * Wake the component, so that it is ticked by its owner every tick (see {@link
+     * engine.game.HasTick#tick(EngineState)}) and no longer scheduled on a wheel.
+     */
+    void wake();
+}
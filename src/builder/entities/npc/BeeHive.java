@@ -2,13 +2,13 @@ package builder.entities.npc;
 
 import builder.GameState;
 import builder.entities.npc.enemies.Enemy;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.timing.TimingWheel;
+import builder.timing.TrackedRepeatingTimer;
 import builder.ui.SpriteGallery;
 
 import engine.EngineState;
 import engine.art.sprites.SpriteGroup;
-import engine.timing.RepeatingTimer;
-
-import java.util.ArrayList;
 
 /**
  * Represents a bee hive that can spawn guard bees to defend against enemies.
@@ -23,7 +23,8 @@ public class BeeHive extends Npc {
     private static final SpriteGroup ART = SpriteGallery.hive;
 
     private boolean loaded = true;
-    private final RepeatingTimer reloadTimer = new RepeatingTimer(TIMER_DURATION);
+    private final TrackedRepeatingTimer reloadTimer =
+            new TrackedRepeatingTimer(TIMER_DURATION);
 
     /**
      * Constructs a new BeeHive at the specified position.
@@ -46,19 +47,36 @@ public class BeeHive extends Npc {
     @Override
     public void tick(EngineState state, GameState game) {
         super.tick(state);
-        updateReloadStatus();
+        updateReloadStatus(game);
     }
 
     /**
      * Updates the reload status of the hive based on the timer.
+     *
+     * <p>If the game has a timing wheel, the timer of an unloaded hive is scheduled on it after
+     * its first tick, and the wheel reloads the hive once the timer finishes.
+     *
+     * @param game The current game state.
      */
-    private void updateReloadStatus() {
-        if (!loaded) {
-            reloadTimer.tick();
-            if (reloadTimer.isFinished()) {
-                loaded = true;
-            }
+    private void updateReloadStatus(GameState game) {
+        if (loaded || reloadTimer.isScheduled()) {
+            return;
         }
+        reloadTimer.tick();
+        if (reloadTimer.isFinished()) {
+            loaded = true;
+            return;
+        }
+        TimingWheel timers = game.getTimers();
+        if (timers != null) {
+            reloadTimer.schedule(timers, this::reload);
+        }
+    }
+
+    /** Reload the hive once its scheduled timer finishes, leaving the timer to the hive again. */
+    private void reload() {
+        reloadTimer.unschedule();
+        loaded = true;
     }
 
     /**
@@ -79,39 +97,55 @@ public class BeeHive extends Npc {
      * @param game The current game state.
      */
     private void attemptBeeSpawn(GameState game) {
-        GuardBee bee = createBeeIfEnemyInRange(game.getEnemies().getBirds());
-        if (bee != null) {
-            game.getNpcs().getNpcs().add(bee);
+        Enemy enemy = findEnemyInRange(game.getEnemies());
+        if (enemy != null) {
+            game.getNpcs().spawnGuardBee(getX(), getY(), enemy);
             loaded = false;
         }
     }
 
     /**
-     * Creates a guard bee if any enemy is within detection range.
+     * Finds the enemy a guard bee should be spawned to attack.
      *
-     * @param enemies The list of enemies to check.
-     * @return A new GuardBee targeting the nearest enemy, or null if none in range.
+     * @param enemies The enemy manager to search for enemies.
+     * @return The first listed enemy within detection range, or null if none in range or the hive
+     *     is not loaded.
      */
-    private GuardBee createBeeIfEnemyInRange(ArrayList<Enemy> enemies) {
+    private Enemy findEnemyInRange(EnemyManager enemies) {
         if (!loaded) {
             return null;
         }
+        return enemies.firstEnemyWithin(getX(), getY(), DETECTION_DISTANCE);
+    }
 
-        for (Enemy enemy : enemies) {
-            if (isEnemyInRange(enemy)) {
-                return new GuardBee(getX(), getY(), enemy);
-            }
+    /**
+     * Whether the hive is ready to release another bee.
+     *
+     * @return true if the hive is loaded.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Sets whether the hive is ready to release another bee.
+     *
+     * @param loaded true if the hive is loaded.
+     */
+    public void setLoaded(boolean loaded) {
+        if (loaded) {
+            // a loaded hive's timer does not count, so it must stop following the wheel
+            reloadTimer.unschedule();
         }
-        return null;
+        this.loaded = loaded;
     }
 
     /**
-     * Checks if an enemy is within detection range of this bee hive.
+     * Returns the timer counting down until an unloaded hive reloads.
      *
-     * @param enemy The enemy to check distance for.
-     * @return true if the enemy is within detection range, false otherwise.
+     * @return The reload timer of the hive.
      */
-    private boolean isEnemyInRange(Enemy enemy) {
-        return distanceFrom(enemy) < DETECTION_DISTANCE;
+    public TrackedRepeatingTimer getReloadTimer() {
+        return reloadTimer;
     }
 }
\ No newline at end of file
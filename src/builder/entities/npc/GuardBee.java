@@ -2,21 +2,24 @@ package builder.entities.npc;
 
 import builder.GameState;
 import builder.entities.npc.enemies.Enemy;
+import builder.timing.TrackedFixedTimer;
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Facing;
+import builder.ui.SpriteTable;
 
 import engine.EngineState;
-import engine.art.sprites.SpriteGroup;
 import engine.game.HasPosition;
+import engine.game.Position;
 import engine.timing.FixedTimer;
 
 /**
  * Represents a guard bee that tracks and attacks enemies.
  */
-public class GuardBee extends Npc implements Expirable {
+public class GuardBee extends Npc implements Expirable, Recyclable, TwoPhaseTickable {
 
     private static final int SPEED = 2;
     private static final int DEFAULT_LIFESPAN = 300;
-    private static final SpriteGroup ART = SpriteGallery.bee;
+    private static final SpriteTable<Facing> ART = SpriteGallery.beeTable;
 
     // Direction angle ranges for sprite selection
     private static final int UP_MIN_ANGLE = 230;
@@ -26,10 +29,17 @@ public class GuardBee extends Npc implements Expirable {
     private static final int RIGHT_MIN_ANGLE = 310;
     private static final int RIGHT_MAX_ANGLE = 40;
 
-    private final int spawnX;
-    private final int spawnY;
-    private FixedTimer lifespan = new FixedTimer(DEFAULT_LIFESPAN);
-    private final HasPosition trackedTarget;
+    private int spawnX;
+    private int spawnY;
+    private FixedTimer lifespan = new TrackedFixedTimer(DEFAULT_LIFESPAN);
+    private HasPosition trackedTarget;
+    /** The generation of the tracked target if it is an npc, see {@link #followTarget()}. */
+    private int targetGeneration;
+    /** The position of the tracked target when it was last read. */
+    private int targetX;
+    private int targetY;
+    /** The enemy collided with while planning, removed when applying. */
+    private Enemy collided;
 
     /**
      * Constructs a new GuardBee at the specified position targeting the given enemy.
@@ -42,16 +52,57 @@ public class GuardBee extends Npc implements Expirable {
         super(x, y);
         this.spawnX = x;
         this.spawnY = y;
-        this.trackedTarget = trackedTarget;
+        track(trackedTarget);
         this.setSpeed(SPEED);
-        this.setSprite(ART.getSprite("default"));
+        this.setSprite(ART.get(Facing.DEFAULT));
         initializeDirection();
     }
 
+    @Override
+    public void respawn(int x, int y, HasPosition trackedTarget) {
+        respawnAt(x, y);
+        this.spawnX = x;
+        this.spawnY = y;
+        track(trackedTarget);
+        this.collided = null;
+        this.lifespan = TrackedFixedTimer.restart(lifespan, DEFAULT_LIFESPAN);
+        this.setSpeed(SPEED);
+        this.setSprite(ART.get(Facing.DEFAULT));
+        initializeDirection();
+    }
+
+    private void track(HasPosition trackedTarget) {
+        this.trackedTarget = trackedTarget;
+        if (trackedTarget instanceof Npc npc) {
+            this.targetGeneration = npc.getGeneration();
+        }
+    }
+
+    /**
+     * Returns the position this bee is heading towards, recording where it is. Only called while
+     * the bee is constructed or ticked.
+     *
+     * <p>A bee keeps heading to where its enemy was after the enemy is removed. Removed enemies
+     * may be reused by a pool (see {@link NpcPool}), so once the enemy has been reused the bee
+     * stops tracking it and heads to where the enemy was when it was last read instead.
+     */
+    private HasPosition followTarget() {
+        if (isTargetReused()) {
+            trackedTarget = new Position(targetX, targetY);
+        }
+        targetX = trackedTarget.getX();
+        targetY = trackedTarget.getY();
+        return trackedTarget;
+    }
+
+    /** Whether the tracked enemy has been reused by a pool since the bee started tracking it. */
+    private boolean isTargetReused() {
+        return trackedTarget instanceof Npc npc && npc.getGeneration() != targetGeneration;
+    }
+
     private void initializeDirection() {
-        double deltaX = trackedTarget.getX() - getX();
-        double deltaY = trackedTarget.getY() - getY();
-        setDirection((int) Math.toDegrees(Math.atan2(deltaY, deltaX)));
+        HasPosition target = followTarget();
+        setDirection(Steering.directionTo(target.getX() - getX(), target.getY() - getY()));
     }
 
     @Override
@@ -66,6 +117,16 @@ public class GuardBee extends Npc implements Expirable {
 
     @Override
     public void tick(EngineState state, GameState game) {
+        plan(state, game);
+        apply(state, game);
+    }
+
+    /**
+     * Steer and move the bee, or if it has collided with an enemy, remove it. The enemy is only
+     * removed when applying.
+     */
+    @Override
+    public void plan(EngineState state, GameState game) {
         super.tick(state);
 
         if (checkAndHandleCollision(state, game)) {
@@ -79,21 +140,26 @@ public class GuardBee extends Npc implements Expirable {
     }
 
     private boolean checkAndHandleCollision(EngineState state, GameState game) {
-        for (Enemy enemy : game.getEnemies().getAll()) {
-            if (isCollidingWith(enemy, state)) {
-                handleCollision(enemy);
-                return true;
-            }
+        Enemy enemy = game.getEnemies()
+                .firstEnemyWithin(getX(), getY(), state.getDimensions().tileSize());
+        if (enemy != null) {
+            handleCollision(enemy);
+            return true;
         }
         return false;
     }
 
-    private boolean isCollidingWith(Enemy enemy, EngineState state) {
-        return distanceFrom(enemy) < state.getDimensions().tileSize();
+    /** Remove any enemy collided with while planning. */
+    @Override
+    public void apply(EngineState state, GameState game) {
+        if (collided != null) {
+            collided.markForRemoval();
+            collided = null;
+        }
     }
 
     private void handleCollision(Enemy enemy) {
-        enemy.markForRemoval();
+        collided = enemy;
         markForRemoval();
     }
 
@@ -106,28 +172,25 @@ public class GuardBee extends Npc implements Expirable {
     }
 
     private void updateDirectionToTarget() {
-        double deltaX = trackedTarget.getX() - getX();
-        double deltaY = trackedTarget.getY() - getY();
-        setDirection((int) Math.toDegrees(Math.atan2(deltaY, deltaX)));
+        HasPosition target = followTarget();
+        setDirection(Steering.directionTo(target.getX() - getX(), target.getY() - getY()));
     }
 
     private void updateDirectionToSpawn() {
-        double deltaX = spawnX - getX();
-        double deltaY = spawnY - getY();
-        setDirection((int) Math.toDegrees(Math.atan2(deltaY, deltaX)));
+        setDirection(Steering.directionTo(spawnX - getX(), spawnY - getY()));
     }
 
     private void updateArtBasedOnDirection() {
         int direction = getDirection();
 
         if (isGoingDown(direction)) {
-            setSprite(ART.getSprite("down"));
+            setSprite(ART.get(Facing.DOWN));
         } else if (isGoingUp(direction)) {
-            setSprite(ART.getSprite("up"));
+            setSprite(ART.get(Facing.UP));
         } else if (isGoingRight(direction)) {
-            setSprite(ART.getSprite("right"));
+            setSprite(ART.get(Facing.RIGHT));
         } else {
-            setSprite(ART.getSprite("left"));
+            setSprite(ART.get(Facing.LEFT));
         }
     }
 
@@ -149,4 +212,36 @@ public class GuardBee extends Npc implements Expirable {
             markForRemoval();
         }
     }
+
+    /**
+     * Returns the x-axis (horizontal) coordinate this bee spawned at.
+     *
+     * @return The spawn x coordinate in pixels.
+     */
+    public int getSpawnX() {
+        return spawnX;
+    }
+
+    /**
+     * Returns the y-axis (vertical) coordinate this bee spawned at.
+     *
+     * @return The spawn y coordinate in pixels.
+     */
+    public int getSpawnY() {
+        return spawnY;
+    }
+
+    /**
+     * Returns the position this bee is heading towards. If the tracked enemy has been reused
+     * since the bee last ticked, this is where the enemy was when the bee last read it, as the
+     * bee will head there on its next tick.
+     *
+     * @return The tracked target, or null if the bee has no target.
+     */
+    public HasPosition getTrackedTarget() {
+        if (isTargetReused()) {
+            return new Position(targetX, targetY);
+        }
+        return trackedTarget;
+    }
 }
\ No newline at end of file
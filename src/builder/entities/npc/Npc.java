@@ -15,6 +15,14 @@ public class Npc extends Entity implements Interactable, Tickable, Directable {
 
     private int direction = 0;
     private double speed = 1;
+    private boolean removed = false;
+    private int generation = 0;
+
+    /** The identifier of the current generation, built once as every rendered frame reads it. */
+    private String id;
+
+    /** Whether this npc is waiting in an {@link NpcPool} to be reused. */
+    boolean pooled = false;
 
     /**
      * Constructs a new NPC at the specified position.
@@ -62,12 +70,72 @@ public class Npc extends Entity implements Interactable, Tickable, Directable {
         this.direction = direction;
     }
 
+    /**
+     * Returns a unique identifier of this npc. Each {@link #getGeneration() generation} of an npc
+     * is identified separately, as it is a different npc to the rest of the game.
+     *
+     * @return The identifier of this generation of the npc.
+     */
+    @Override
+    public String getID() {
+        if (id == null) {
+            id = generation == 0 ? super.getID() : super.getID() + "/" + generation;
+        }
+        return id;
+    }
+
+    @Override
+    public boolean isMarkedForRemoval() {
+        return removed;
+    }
+
+    @Override
+    public void markForRemoval() {
+        this.removed = true;
+    }
+
+    /**
+     * Returns the number of times this npc has been reused by an {@link NpcPool}. Anything
+     * holding on to an npc after it has been removed can compare generations to tell whether it
+     * is still the npc it first saw.
+     *
+     * @return The generation of this npc, 0 until it is first reused.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Bring this npc back from its pool as a new generation that is no longer marked for
+     * removal, before it is {@link Recyclable#respawn respawned}.
+     */
+    void revive() {
+        this.removed = false;
+        this.pooled = false;
+        this.generation++;
+        this.id = null;
+    }
+
+    /**
+     * Move this npc to the given position and reset its direction and speed to those of a newly
+     * constructed npc, for subclasses {@link Recyclable#respawn respawning} it.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     */
+    protected void respawnAt(int x, int y) {
+        this.setX(x);
+        this.setY(y);
+        this.direction = 0;
+        this.speed = 1;
+    }
+
     /**
      * Adjust the X and Y of this NPC based on its direction and speed.
      */
     public void move() {
-        final int deltaX = (int) Math.round(Math.cos(Math.toRadians(this.direction)) * this.speed);
-        final int deltaY = (int) Math.round(Math.sin(Math.toRadians(this.direction)) * this.speed);
+        final int deltaX = Steering.stepX(this.direction, this.speed);
+        final int deltaY = Steering.stepY(this.direction, this.speed);
         this.setX(this.getX() + deltaX);
         this.setY(this.getY() + deltaY);
     }
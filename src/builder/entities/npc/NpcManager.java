@@ -3,9 +3,11 @@ package builder.entities.npc;
 import builder.GameState;
 import builder.Tickable;
 import builder.entities.Interactable;
+import builder.metrics.TickProfiler;
 import builder.ui.RenderableGroup;
 
 import engine.EngineState;
+import engine.game.HasPosition;
 import engine.renderer.Renderable;
 
 import java.util.ArrayList;
@@ -16,6 +18,10 @@ import java.util.List;
  */
 public class NpcManager implements Interactable, Tickable, RenderableGroup {
     private final ArrayList<Npc> npcs = new ArrayList<>();
+    private TickProfiler profiler = new TickProfiler(false);
+    private TickProfiler.Group npcTimings = profiler.group("npc");
+    private TwoPhaseTicker ticker = new TwoPhaseTicker();
+    private final NpcPool<GuardBee> bees = new NpcPool<>(GuardBee.class, GuardBee::new);
 
     /**
      * Constructs a new NpcManager.
@@ -32,16 +38,42 @@ public class NpcManager implements Interactable, Tickable, RenderableGroup {
     }
 
     /**
-     * Removes all NPCs that are marked for removal.
+     * Gets the pool guard bees are spawned from.
+     *
+     * @return The pool of guard bees.
+     */
+    public NpcPool<GuardBee> getGuardBeePool() {
+        return bees;
+    }
+
+    /**
+     * Removes all NPCs that are marked for removal, releasing guard bees to their pool to be
+     * spawned again.
      */
     public void cleanup() {
         for (int i = this.npcs.size() - 1; i >= 0; i -= 1) {
-            if (this.npcs.get(i).isMarkedForRemoval()) {
+            Npc npc = this.npcs.get(i);
+            if (npc.isMarkedForRemoval()) {
                 this.npcs.remove(i);
+                bees.release(npc);
             }
         }
     }
 
+    /**
+     * Spawns a guard bee from the pool and adds it to the manager.
+     *
+     * @param x The x-coordinate of the bee's spawn position.
+     * @param y The y-coordinate of the bee's spawn position.
+     * @param target The enemy target to track and attack.
+     * @return The spawned guard bee.
+     */
+    public GuardBee spawnGuardBee(int x, int y, HasPosition target) {
+        GuardBee bee = bees.obtain(x, y, target);
+        this.npcs.add(bee);
+        return bee;
+    }
+
     /**
      * Adds an NPC to the manager for tracking and management.
      *
@@ -51,38 +83,105 @@ public class NpcManager implements Interactable, Tickable, RenderableGroup {
         this.npcs.add(npc);
     }
 
+    /**
+     * Set the profiler that timings of each NPC tick are recorded to, grouped by NPC type under
+     * {@code npc/}.
+     *
+     * @param profiler The profiler to record to.
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+        this.npcTimings = profiler.group("npc");
+    }
+
+    /**
+     * Set the ticker used to plan the ticks of large swarms of npcs in parallel.
+     *
+     * @param ticker The ticker to use from the next tick onwards.
+     */
+    public void setTicker(TwoPhaseTicker ticker) {
+        this.ticker = ticker;
+    }
+
+    /**
+     * Tick every npc.
+     *
+     * <p>If there are enough npcs (see {@link TwoPhaseTicker#isParallel(int)}), the npcs that can
+     * (see {@link TwoPhaseTickable}) plan their ticks in parallel, then every npc is applied or
+     * ticked one after another in order, which gives the same result as ticking them in order.
+     * The time spent planning is recorded under {@code npc/plan}, and only the time spent
+     * applying or ticking is recorded by type.
+     *
+     * @param state The state of the engine.
+     * @param game The state of the game.
+     */
     @Override
     public void tick(EngineState state, GameState game) {
         this.cleanup();
-        for (Npc npc : npcs) {
+        if (ticker.isParallel(npcs.size())) {
+            tickInParallel(state, game);
+            return;
+        }
+        for (int i = 0; i < npcs.size(); i++) {
+            Npc npc = npcs.get(i);
+            long start = profiler.start();
             npc.tick(state, game);
+            npcTimings.stop(npc.getClass(), start);
+        }
+    }
+
+    private void tickInParallel(EngineState state, GameState game) {
+        // bees look up nearby enemies while planning, so the lookup must be brought up to date
+        game.getEnemies().syncGrid();
+        long start = profiler.start();
+        ticker.plan(npcs, state, game);
+        profiler.stop("npc/plan", start);
+        for (int i = 0; i < npcs.size(); i++) {
+            Npc npc = npcs.get(i);
+            start = profiler.start();
+            if (npc instanceof TwoPhaseTickable split) {
+                split.apply(state, game);
+            } else {
+                npc.tick(state, game);
+            }
+            npcTimings.stop(npc.getClass(), start);
         }
     }
 
     @Override
     public void interact(EngineState state, GameState game) {
-        for (Interactable interactable : this.getInteractables()) {
+        // interacting may add npcs, so interact with a copy of the interactables
+        List<Interactable> interactables = game.getScratch().list();
+        this.collectInteractables(interactables);
+        for (int i = 0; i < interactables.size(); i++) {
+            Interactable interactable = interactables.get(i);
             interactable.interact(state, game);
         }
     }
 
     /**
-     * Returns an ArrayList of Interactable NPCs.
+     * Adds each Interactable NPC to the given list.
      *
-     * @return An ArrayList of Interactable NPCs.
+     * @param interactables The list to add Interactable NPCs to.
      */
-    private ArrayList<Interactable> getInteractables() {
-        final ArrayList<Interactable> interactables = new ArrayList<>();
-        for (Npc npc : npcs) {
+    private void collectInteractables(List<Interactable> interactables) {
+        for (int i = 0; i < npcs.size(); i++) {
+            Npc npc = npcs.get(i);
             if (npc instanceof Interactable) {
                 interactables.add(npc);
             }
         }
-        return interactables;
     }
 
     @Override
     public List<Renderable> render() {
         return new ArrayList<>(this.npcs);
     }
+
+    @Override
+    public void renderInto(List<Renderable> renderables) {
+        for (int i = 0; i < this.npcs.size(); i++) {
+            renderables.add(this.npcs.get(i));
+        }
+    }
 }
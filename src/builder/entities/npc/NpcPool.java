@@ -0,0 +1,171 @@
+package builder.entities.npc;
+
+import engine.game.HasPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recycles short-lived npcs of one type, so that spawning one reuses an npc that has been removed
+ * rather than constructing a new one.
+ *
+ * <p>Removed npcs are {@link #release released} to the pool by their manager, and {@link #obtain
+ * obtaining} an npc {@link Recyclable#respawn respawns} the most recently released one as a new
+ * {@link Npc#getGeneration() generation}. An npc is only constructed if the pool is empty, which
+ * is counted as a miss, while reusing one is counted as a hit.
+ *
+ * <p>The pool holds at most its capacity of npcs, so a burst of removals cannot keep more npcs
+ * alive than the pool could hand out again. Pools are not thread safe, so they must only be used
+ * by the thread ticking the game.
+ *
+ * @param <T> The type of npc pooled.
+ */
+public class NpcPool<T extends Npc & Recyclable> {
+
+    /** The most npcs held by a pool unless another capacity is given. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Constructs an npc when the pool is empty.
+     *
+     * @param <T> The type of npc constructed.
+     */
+    @FunctionalInterface
+    public interface Factory<T> {
+        /**
+         * Construct a new npc.
+         *
+         * @param x The x-coordinate of the spawn position.
+         * @param y The y-coordinate of the spawn position.
+         * @param target The position to track.
+         * @return The new npc.
+         */
+        T create(int x, int y, HasPosition target);
+    }
+
+    private final Class<T> type;
+    private final Factory<T> factory;
+    private final List<T> free = new ArrayList<>();
+    private int capacity;
+    private int hits = 0;
+    private int misses = 0;
+
+    /**
+     * Construct an empty pool of the given type of npc with the default capacity.
+     *
+     * @param type The type of npc pooled, only npcs of exactly this class are accepted.
+     * @param factory Constructs a new npc when the pool is empty.
+     */
+    public NpcPool(Class<T> type, Factory<T> factory) {
+        this(type, factory, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct an empty pool of the given type of npc holding at most the given number of npcs.
+     *
+     * @param type The type of npc pooled, only npcs of exactly this class are accepted.
+     * @param factory Constructs a new npc when the pool is empty.
+     * @param capacity The most npcs to hold, 0 to never reuse an npc.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public NpcPool(Class<T> type, Factory<T> factory, int capacity) {
+        this.type = type;
+        this.factory = factory;
+        this.capacity = checkCapacity(capacity);
+    }
+
+    /**
+     * Returns an npc spawned at the given position tracking the given target, reusing a released
+     * npc if there is one.
+     *
+     * @param x The x-coordinate of the spawn position.
+     * @param y The y-coordinate of the spawn position.
+     * @param target The position to track.
+     * @return An npc in the same state as one newly constructed with the given arguments.
+     */
+    public T obtain(int x, int y, HasPosition target) {
+        if (free.isEmpty()) {
+            misses++;
+            return factory.create(x, y, target);
+        }
+        hits++;
+        T npc = free.remove(free.size() - 1);
+        npc.revive();
+        npc.respawn(x, y, target);
+        return npc;
+    }
+
+    /**
+     * Hand an npc that has been removed from the game back to the pool to be reused.
+     *
+     * <p>The npc is ignored if it is not exactly of the pooled type (e.g. a subclass), is already
+     * in the pool, or the pool is full. Nothing may use the npc once it has been accepted.
+     *
+     * @param npc The removed npc.
+     * @return true if the npc was accepted into the pool.
+     */
+    public boolean release(Npc npc) {
+        if (npc.getClass() != type || npc.pooled || free.size() >= capacity) {
+            return false;
+        }
+        npc.pooled = true;
+        free.add(type.cast(npc));
+        return true;
+    }
+
+    /**
+     * Set the most npcs to hold, dropping any released npcs beyond the new capacity.
+     *
+     * @param capacity The most npcs to hold, 0 to never reuse an npc.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = checkCapacity(capacity);
+        while (free.size() > capacity) {
+            free.remove(free.size() - 1).pooled = false;
+        }
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the most npcs the pool holds.
+     *
+     * @return The capacity of the pool.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of released npcs waiting to be reused.
+     *
+     * @return The number of npcs in the pool.
+     */
+    public int size() {
+        return free.size();
+    }
+
+    /**
+     * Returns the number of npcs obtained by reusing a released npc.
+     *
+     * @return The number of hits.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of npcs obtained by constructing a new npc, as the pool was empty.
+     *
+     * @return The number of misses.
+     */
+    public int getMisses() {
+        return misses;
+    }
+}
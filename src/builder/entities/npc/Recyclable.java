@@ -0,0 +1,19 @@
+package builder.entities.npc;
+
+import engine.game.HasPosition;
+
+/**
+ * Indicates an npc that can be reused by an {@link NpcPool} once it has been removed, rather than
+ * constructing a new one.
+ */
+public interface Recyclable {
+    /**
+     * Reset this npc to the state it would have if it were newly constructed with the given
+     * arguments: its position, spawn point, target, lifespan and any attacking or stolen state.
+     *
+     * @param x The x-coordinate of the spawn position.
+     * @param y The y-coordinate of the spawn position.
+     * @param target The position to track, as given to the constructor.
+     */
+    void respawn(int x, int y, HasPosition target);
+}
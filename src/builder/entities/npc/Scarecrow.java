@@ -21,6 +21,9 @@ public class Scarecrow extends Npc {
     private static final int SCARE_RADIUS_MULTIPLIER = 4;
     private static final SpriteGroup ART = SpriteGallery.scarecrow;
 
+    /** Reused between interactions to collect the birds within the scare radius. */
+    private final List<Enemy> nearbyBirds = new ArrayList<>();
+
     /**
      * Constructs a new Scarecrow at the specified position.
      *
@@ -50,50 +53,15 @@ public class Scarecrow extends Npc {
     }
 
     private void scareAwayBirds(GameState game, int scareRadius) {
-        List<Magpie> magpies = extractMagpies(game);
-        List<Pigeon> pigeons = extractPigeons(game);
-
-        scareAwayMagpies(magpies, scareRadius);
-        scareAwayPigeons(pigeons, scareRadius);
-    }
-
-    private List<Magpie> extractMagpies(GameState game) {
-        List<Magpie> magpies = new ArrayList<>();
-        for (Enemy bird : game.getEnemies().getBirds()) {
+        nearbyBirds.clear();
+        game.getEnemies().enemiesWithin(getX(), getY(), scareRadius, nearbyBirds);
+        for (Enemy bird : nearbyBirds) {
             if (bird instanceof Magpie magpie) {
-                magpies.add(magpie);
-            }
-        }
-        return magpies;
-    }
-
-    private List<Pigeon> extractPigeons(GameState game) {
-        List<Pigeon> pigeons = new ArrayList<>();
-        for (Enemy bird : game.getEnemies().getBirds()) {
-            if (bird instanceof Pigeon pigeon) {
-                pigeons.add(pigeon);
-            }
-        }
-        return pigeons;
-    }
-
-    private void scareAwayMagpies(List<Magpie> magpies, int scareRadius) {
-        for (Magpie magpie : magpies) {
-            if (isWithinScareRadius(magpie, scareRadius)) {
                 magpie.setAttacking(false);
-            }
-        }
-    }
-
-    private void scareAwayPigeons(List<Pigeon> pigeons, int scareRadius) {
-        for (Pigeon pigeon : pigeons) {
-            if (isWithinScareRadius(pigeon, scareRadius)) {
+            } else if (bird instanceof Pigeon pigeon) {
                 pigeon.setAttacking(false);
             }
         }
-    }
-
-    private boolean isWithinScareRadius(Enemy bird, int scareRadius) {
-        return distanceFrom(bird) < scareRadius;
+        nearbyBirds.clear();
     }
 }
\ No newline at end of file
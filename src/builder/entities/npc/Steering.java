@@ -0,0 +1,150 @@
+package builder.entities.npc;
+
+/**
+ * Integer steering for npcs, using tables built once rather than trigonometry every tick.
+ *
+ * <p>Npcs store their direction as a whole number of degrees and move by whole pixels, so both
+ * turning towards a position and taking a step only ever produce integers. {@link
+ * #directionTo(int, int)} finds the direction by searching a table of tangents, and {@link
+ * #stepX(int, double)} and {@link #stepY(int, double)} look up steps for whole speeds. Both give
+ * exactly the results of the trigonometry they replace (see the methods), which they fall back
+ * to outside the range of their tables.
+ */
+public final class Steering {
+
+    /** The largest distance along either axis that directions are looked up for. */
+    static final int MAX_LOOKUP_DISTANCE = 2048;
+
+    /** The largest speed that steps are looked up for. */
+    static final int MAX_LOOKUP_SPEED = 8;
+
+    /** Directions from -360 to 360 degrees are looked up. */
+    private static final int MAX_LOOKUP_DIRECTION = 360;
+
+    /** The tangent of each whole degree from 0 to 90, where directions turn to the next. */
+    private static final double[] TANGENTS = new double[91];
+
+    /** The step along each axis in each direction, indexed by speed then direction. */
+    private static final int[][] STEP_X = new int[MAX_LOOKUP_SPEED + 1][];
+    private static final int[][] STEP_Y = new int[MAX_LOOKUP_SPEED + 1][];
+
+    /** The directions of diagonals, as rounded by the trigonometry. */
+    private static final int DIAGONAL = slowDirectionTo(1, 1);
+    private static final int BACK_DIAGONAL = slowDirectionTo(-1, 1);
+
+    static {
+        for (int degrees = 0; degrees <= 90; degrees++) {
+            TANGENTS[degrees] = Math.tan(Math.toRadians(degrees));
+        }
+        for (int speed = 0; speed <= MAX_LOOKUP_SPEED; speed++) {
+            STEP_X[speed] = new int[2 * MAX_LOOKUP_DIRECTION + 1];
+            STEP_Y[speed] = new int[2 * MAX_LOOKUP_DIRECTION + 1];
+            for (int direction = -MAX_LOOKUP_DIRECTION; direction <= MAX_LOOKUP_DIRECTION;
+                    direction++) {
+                STEP_X[speed][direction + MAX_LOOKUP_DIRECTION] = slowStepX(direction, speed);
+                STEP_Y[speed][direction + MAX_LOOKUP_DIRECTION] = slowStepY(direction, speed);
+            }
+        }
+    }
+
+    private Steering() {}
+
+    /**
+     * Returns the direction of the given offset in whole degrees, between -180 and 180, rounded
+     * towards zero. This is exactly {@code (int) Math.toDegrees(Math.atan2(deltaY, deltaX))}.
+     *
+     * @param deltaX The horizontal offset in pixels.
+     * @param deltaY The vertical offset in pixels.
+     * @return The direction in degrees, 0 for no offset.
+     */
+    public static int directionTo(int deltaX, int deltaY) {
+        if (deltaX < -MAX_LOOKUP_DISTANCE || deltaX > MAX_LOOKUP_DISTANCE
+                || deltaY < -MAX_LOOKUP_DISTANCE || deltaY > MAX_LOOKUP_DISTANCE) {
+            return slowDirectionTo(deltaX, deltaY);
+        }
+        int across = Math.abs(deltaX);
+        int along = Math.abs(deltaY);
+        int degrees;
+        if (deltaY == 0) {
+            degrees = deltaX < 0 ? 180 : 0;
+        } else if (deltaX == 0) {
+            degrees = 90;
+        } else if (across == along) {
+            degrees = deltaX > 0 ? DIAGONAL : BACK_DIAGONAL;
+        } else {
+            degrees = firstQuadrant(across, along);
+            if (deltaX < 0) {
+                // the angle is never a whole degree, so the back half rounds down to 179 - degrees
+                degrees = 179 - degrees;
+            }
+        }
+        return deltaY < 0 ? -degrees : degrees;
+    }
+
+    /**
+     * Returns the whole degrees of the angle of a positive offset that is not diagonal, found by
+     * searching for the last tangent it reaches.
+     */
+    private static int firstQuadrant(int across, int along) {
+        int low = 0;
+        int high = 90;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (along >= across * TANGENTS[middle]) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the horizontal step taken moving at the given speed in the given direction. This
+     * is exactly {@code (int) Math.round(Math.cos(Math.toRadians(direction)) * speed)}.
+     *
+     * @param direction The direction in degrees.
+     * @param speed The speed in pixels per step.
+     * @return The horizontal step in pixels.
+     */
+    public static int stepX(int direction, double speed) {
+        int whole = (int) speed;
+        if (whole == speed && whole >= 0 && whole <= MAX_LOOKUP_SPEED
+                && direction >= -MAX_LOOKUP_DIRECTION && direction <= MAX_LOOKUP_DIRECTION) {
+            return STEP_X[whole][direction + MAX_LOOKUP_DIRECTION];
+        }
+        return slowStepX(direction, speed);
+    }
+
+    /**
+     * Returns the vertical step taken moving at the given speed in the given direction. This is
+     * exactly {@code (int) Math.round(Math.sin(Math.toRadians(direction)) * speed)}.
+     *
+     * @param direction The direction in degrees.
+     * @param speed The speed in pixels per step.
+     * @return The vertical step in pixels.
+     */
+    public static int stepY(int direction, double speed) {
+        int whole = (int) speed;
+        if (whole == speed && whole >= 0 && whole <= MAX_LOOKUP_SPEED
+                && direction >= -MAX_LOOKUP_DIRECTION && direction <= MAX_LOOKUP_DIRECTION) {
+            return STEP_Y[whole][direction + MAX_LOOKUP_DIRECTION];
+        }
+        return slowStepY(direction, speed);
+    }
+
+    /** The trigonometry replaced by {@link #directionTo(int, int)}. */
+    static int slowDirectionTo(int deltaX, int deltaY) {
+        return (int) Math.toDegrees(Math.atan2(deltaY, deltaX));
+    }
+
+    /** The trigonometry replaced by {@link #stepX(int, double)}. */
+    static int slowStepX(int direction, double speed) {
+        return (int) Math.round(Math.cos(Math.toRadians(direction)) * speed);
+    }
+
+    /** The trigonometry replaced by {@link #stepY(int, double)}. */
+    static int slowStepY(int direction, double speed) {
+        return (int) Math.round(Math.sin(Math.toRadians(direction)) * speed);
+    }
+}
@@ -0,0 +1,40 @@
+package builder.entities.npc;
+
+import builder.GameState;
+import builder.Tickable;
+
+import engine.EngineState;
+
+/**
+ * An npc whose tick is split into a phase that only changes the npc itself and a phase that
+ * changes the rest of the game, so that a population of npcs can plan their ticks concurrently.
+ *
+ * <p>Ticking the npc ({@link Tickable#tick(EngineState, GameState)}) must be equivalent to
+ * planning then immediately applying. While planning, an npc may read any state that no other
+ * npc changes while planning, e.g. the world, the player and the position of npcs of other
+ * populations, but must only change its own state. Changes to anything else, such as stealing
+ * from the inventory or marking another entity for removal, are recorded while planning and made
+ * when applying.
+ *
+ * @see TwoPhaseTicker
+ */
+public interface TwoPhaseTickable extends Tickable {
+
+    /**
+     * Progress the state of this npc alone, recording any changes to be made to the rest of the
+     * game by {@link #apply(EngineState, GameState)}.
+     *
+     * @param state The state of the engine.
+     * @param game The state of the game, which must not be changed.
+     */
+    void plan(EngineState state, GameState game);
+
+    /**
+     * Make the changes to the rest of the game recorded by the last call to {@link
+     * #plan(EngineState, GameState)}.
+     *
+     * @param state The state of the engine.
+     * @param game The state of the game.
+     */
+    void apply(EngineState state, GameState game);
+}
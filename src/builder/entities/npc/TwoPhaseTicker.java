@@ -0,0 +1,117 @@
+package builder.entities.npc;
+
+import builder.GameState;
+
+import engine.EngineState;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plans the ticks of a population of {@link TwoPhaseTickable} npcs in parallel on a fork-join
+ * pool.
+ *
+ * <p>A population is only worth splitting across threads once it is large, so populations
+ * smaller than the ticker's threshold should be ticked serially instead (see {@link
+ * #isParallel(int)}). The threshold defaults to the value of the {@value #PROPERTY} system
+ * property, or {@value #DEFAULT_THRESHOLD} if it is not set.
+ *
+ * <p>Since planning only changes each npc itself, the result of planning does not depend on how
+ * the population is split between threads. Applying the plans in order on one thread then gives
+ * exactly the same results as ticking every npc serially.
+ */
+public class TwoPhaseTicker {
+
+    /** The system property setting the default threshold. */
+    public static final String PROPERTY = "javabean.parallelThreshold";
+
+    /** The smallest population planned in parallel unless the property is set. */
+    public static final int DEFAULT_THRESHOLD = 256;
+
+    /** The number of npcs planned by each task once the population has been split. */
+    private static final int BATCH_SIZE = 64;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Construct a ticker running on the common fork-join pool with the default threshold.
+     */
+    public TwoPhaseTicker() {
+        this(ForkJoinPool.commonPool(), Integer.getInteger(PROPERTY, DEFAULT_THRESHOLD));
+    }
+
+    /**
+     * Construct a ticker running on the given pool, planning populations of at least the given
+     * size in parallel.
+     *
+     * @param pool The pool to plan on.
+     * @param threshold The smallest population to plan in parallel.
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    public TwoPhaseTicker(ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Whether a population of the given size should be planned in parallel.
+     *
+     * @param population The number of npcs to tick.
+     * @return true if the population is at least the threshold and the pool has more than one
+     *     thread.
+     */
+    public boolean isParallel(int population) {
+        return population >= threshold && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Plan every {@link TwoPhaseTickable} in the given list in parallel, waiting for all of them
+     * to finish. Other npcs are skipped.
+     *
+     * @param npcs The npcs to plan, which must not be changed until planning finishes.
+     * @param state The state of the engine.
+     * @param game The state of the game.
+     */
+    public void plan(List<? extends Npc> npcs, EngineState state, GameState game) {
+        pool.invoke(new PlanTask(npcs, 0, npcs.size(), state, game));
+    }
+
+    /** Plans a range of a population, splitting it in half until it is a single batch. */
+    @SuppressWarnings("serial") // only ever run by the pool, never serialized
+    private static class PlanTask extends RecursiveAction {
+        private final List<? extends Npc> npcs;
+        private final int from;
+        private final int to;
+        private final EngineState state;
+        private final GameState game;
+
+        private PlanTask(List<? extends Npc> npcs, int from, int to, EngineState state,
+                GameState game) {
+            this.npcs = npcs;
+            this.from = from;
+            this.to = to;
+            this.state = state;
+            this.game = game;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    if (npcs.get(i) instanceof TwoPhaseTickable npc) {
+                        npc.plan(state, game);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PlanTask(npcs, from, middle, state, game),
+                    new PlanTask(npcs, middle, to, state, game));
+        }
+    }
+}
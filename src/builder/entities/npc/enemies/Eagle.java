@@ -2,31 +2,40 @@ package builder.entities.npc.enemies;
 
 import builder.GameState;
 import builder.entities.npc.Expirable;
+import builder.entities.npc.Recyclable;
+import builder.entities.npc.Steering;
+import builder.entities.npc.TwoPhaseTickable;
+import builder.timing.TrackedFixedTimer;
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Facing;
+import builder.ui.SpriteTable;
 
 import engine.EngineState;
-import engine.art.sprites.SpriteGroup;
 import engine.game.HasPosition;
 import engine.timing.FixedTimer;
 
 /**
  * Represents an eagle enemy that steals food from the player.
  */
-public class Eagle extends Enemy implements Expirable {
+public class Eagle extends Enemy implements Expirable, Recyclable, TwoPhaseTickable {
 
-    private static final SpriteGroup ART = SpriteGallery.eagle;
+    private static final SpriteTable<Facing> ART = SpriteGallery.eagleTable;
     private static final int DEFAULT_LIFESPAN = 999999;
     private static final int INITIAL_SPEED = 2;
     private static final int ESCAPE_SPEED = 4;
     private static final int FOOD_STOLEN = 3;
 
-    private FixedTimer lifespan = new FixedTimer(DEFAULT_LIFESPAN);
-    private final HasPosition trackedTarget;
+    private FixedTimer lifespan = new TrackedFixedTimer(DEFAULT_LIFESPAN);
+    private HasPosition trackedTarget;
     private boolean attacking = true;
-    private final int spawnX;
-    private final int spawnY;
+    private int spawnX;
+    private int spawnY;
     private int food = 0;
     private boolean escapedWithFood = false;
+    /** Whether food was stolen while planning, taken from the inventory when applying. */
+    private boolean stoleFood = false;
+    /** Food recovered while planning, returned to the inventory when applying. */
+    private int recoveredFood = 0;
 
     /**
      * Constructs a new Eagle at the specified position targeting the given player.
@@ -41,7 +50,24 @@ public class Eagle extends Enemy implements Expirable {
         this.spawnY = y;
         this.trackedTarget = trackedTarget;
         this.setSpeed(INITIAL_SPEED);
-        this.setSprite(ART.getSprite("default"));
+        this.setSprite(ART.get(Facing.DEFAULT));
+        updateDirectionToTarget();
+    }
+
+    @Override
+    public void respawn(int x, int y, HasPosition trackedTarget) {
+        respawnAt(x, y);
+        this.spawnX = x;
+        this.spawnY = y;
+        this.trackedTarget = trackedTarget;
+        this.attacking = true;
+        this.food = 0;
+        this.escapedWithFood = false;
+        this.stoleFood = false;
+        this.recoveredFood = 0;
+        this.lifespan = TrackedFixedTimer.restart(lifespan, DEFAULT_LIFESPAN);
+        this.setSpeed(INITIAL_SPEED);
+        this.setSprite(ART.get(Facing.DEFAULT));
         updateDirectionToTarget();
     }
 
@@ -57,6 +83,16 @@ public class Eagle extends Enemy implements Expirable {
 
     @Override
     public void tick(EngineState engine, GameState game) {
+        plan(engine, game);
+        apply(engine, game);
+    }
+
+    /**
+     * Age, steal, steer and move the eagle. Food stolen or recovered is only taken from or
+     * returned to the inventory when applying.
+     */
+    @Override
+    public void plan(EngineState engine, GameState game) {
         super.tick(engine);
 
         tickLifespan();
@@ -64,7 +100,20 @@ public class Eagle extends Enemy implements Expirable {
         handleSpawnReturn(engine);
         move();
         updateDirectionAndSprite();
-        recoverFoodIfKilled(game);
+        recoverFoodIfKilled();
+    }
+
+    /** Take any food stolen from, then return any food recovered to, the inventory. */
+    @Override
+    public void apply(EngineState engine, GameState game) {
+        if (stoleFood) {
+            game.getInventory().addFood(-FOOD_STOLEN);
+            stoleFood = false;
+        }
+        if (recoveredFood > 0) {
+            game.getInventory().addFood(recoveredFood);
+            recoveredFood = 0;
+        }
     }
 
     private void tickLifespan() {
@@ -85,12 +134,12 @@ public class Eagle extends Enemy implements Expirable {
         ) < engine.getDimensions().tileSize();
 
         if (reachedPlayer && food == 0) {
-            stealFood(game);
+            stealFood();
         }
     }
 
-    private void stealFood(GameState game) {
-        game.getInventory().addFood(-FOOD_STOLEN);
+    private void stealFood() {
+        this.stoleFood = true;
         this.food = FOOD_STOLEN;
         this.attacking = false;
         this.setSpeed(ESCAPE_SPEED);
@@ -129,30 +178,91 @@ public class Eagle extends Enemy implements Expirable {
     }
 
     private void setDirectionTo(int targetX, int targetY) {
-        double deltaX = targetX - getX();
-        double deltaY = targetY - getY();
-        setDirection((int) Math.toDegrees(Math.atan2(deltaY, deltaX)));
+        setDirection(Steering.directionTo(targetX - getX(), targetY - getY()));
     }
 
     private void updateSpriteBasedOnTarget() {
         if (trackedTarget.getY() > getY()) {
-            setSprite(ART.getSprite("down"));
+            setSprite(ART.get(Facing.DOWN));
         } else {
-            setSprite(ART.getSprite("up"));
+            setSprite(ART.get(Facing.UP));
         }
     }
 
     private void updateSpriteBasedOnSpawn() {
         if (spawnY < getY()) {
-            setSprite(ART.getSprite("up"));
+            setSprite(ART.get(Facing.UP));
         } else {
-            setSprite(ART.getSprite("down"));
+            setSprite(ART.get(Facing.DOWN));
         }
     }
 
-    private void recoverFoodIfKilled(GameState game) {
+    private void recoverFoodIfKilled() {
         if (isMarkedForRemoval() && food > 0 && !escapedWithFood) {
-            game.getInventory().addFood(food);
+            recoveredFood = food;
         }
     }
+
+    /**
+     * Returns the x-axis (horizontal) coordinate this eagle spawned at.
+     *
+     * @return The spawn x coordinate in pixels.
+     */
+    public int getSpawnX() {
+        return spawnX;
+    }
+
+    /**
+     * Returns the y-axis (vertical) coordinate this eagle spawned at.
+     *
+     * @return The spawn y coordinate in pixels.
+     */
+    public int getSpawnY() {
+        return spawnY;
+    }
+
+    /**
+     * Returns the position this eagle is heading towards.
+     *
+     * @return The tracked target, or null if the eagle has no target.
+     */
+    public HasPosition getTrackedTarget() {
+        return trackedTarget;
+    }
+
+    /**
+     * Whether this eagle is currently in attacking mode.
+     *
+     * @return true if the eagle is attacking.
+     */
+    public boolean isAttacking() {
+        return attacking;
+    }
+
+    /**
+     * Sets the attacking state of this eagle.
+     *
+     * @param attacking The new attacking state.
+     */
+    public void setAttacking(boolean attacking) {
+        this.attacking = attacking;
+    }
+
+    /**
+     * Returns the amount of food this eagle has stolen.
+     *
+     * @return The food carried by the eagle.
+     */
+    public int getFood() {
+        return food;
+    }
+
+    /**
+     * Sets the amount of food this eagle has stolen.
+     *
+     * @param food The food carried by the eagle.
+     */
+    public void setFood(int food) {
+        this.food = food;
+    }
 }
\ No newline at end of file
@@ -9,6 +9,22 @@ import engine.EngineState;
  * Represents a hostile enemy NPC in the game.
  */
 public class Enemy extends Npc {
+
+    /** The spatial hash containing this enemy, notified whenever this enemy moves. */
+    EnemyGrid grid;
+
+    /** The number of times this enemy is listed among the enemies {@link #grid} contains. */
+    int gridCount;
+
+    /** The place of this enemy among the enemies {@link #grid} contains, in the order listed. */
+    long gridOrder;
+
+    /** The bucket of {@link #grid} containing this enemy. */
+    int gridCell;
+
+    /** Whether this enemy has left its bucket while the grid was deferring moves. */
+    boolean gridMoved;
+
     /**
      * Constructs a new Enemy at the specified position.
      *
@@ -19,6 +35,22 @@ public class Enemy extends Npc {
         super(x, y);
     }
 
+    @Override
+    public void setX(int x) {
+        super.setX(x);
+        if (grid != null) {
+            grid.moved(this);
+        }
+    }
+
+    @Override
+    public void setY(int y) {
+        super.setY(y);
+        if (grid != null) {
+            grid.moved(this);
+        }
+    }
+
     @Override
     public void tick(EngineState state, GameState game) {
         super.tick(state, game);
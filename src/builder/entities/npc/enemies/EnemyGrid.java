@@ -0,0 +1,322 @@
+package builder.entities.npc.enemies;
+
+import engine.renderer.Dimensions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A spatial hash of enemies bucketed by the tile grid.
+ *
+ * <p>Each enemy in the grid is stored in the bucket of the tile it currently occupies. Enemies
+ * report their own movement (see {@link Enemy#setX(int)} and {@link Enemy#setY(int)}) so buckets
+ * are updated incrementally as they move. Enemies are likewise added and removed one at a time
+ * (see {@link #insert(Enemy)} and {@link #remove(Enemy)}), so the grid only has to be rebuilt
+ * after changes it was not told about. Enemies outside the window are kept in an overflow bucket
+ * which is always searched.
+ *
+ * <p>While enemies plan their ticks concurrently the grid can defer moving enemies between buckets
+ * (see {@link #deferMoves()}), then move them in order once planning has finished, leaving the
+ * buckets exactly as if the enemies had moved one after another.
+ *
+ * <p>The grid also remembers the order enemies were listed in, so that a query can find the enemy
+ * listed first, as a search of the list from its start would.
+ *
+ * <p>Radius queries only visit the buckets overlapping the square bounding the search circle.
+ * Distances follow {@link builder.entities.npc.Npc#distanceFrom(int, int)}, that is, an enemy is
+ * within a radius if its distance from the position is strictly less than the radius.
+ */
+class EnemyGrid {
+
+    private static final int OVERFLOW = -1;
+
+    private final int cellSize;
+    private final int windowSize;
+    private final int columns;
+    private final List<List<Enemy>> cells;
+    private final List<Enemy> overflow = new ArrayList<>();
+    private long nextOrder = 0;
+    private boolean deferring = false;
+
+    /**
+     * Construct a new empty grid bucketed by the tiles of the given dimensions.
+     *
+     * @param dimensions The dimensions of the game.
+     */
+    EnemyGrid(Dimensions dimensions) {
+        this.cellSize = Math.max(1, dimensions.tileSize());
+        this.windowSize = dimensions.windowSize();
+        this.columns = windowSize / cellSize;
+        // buckets are only created once an enemy enters their tile
+        this.cells = new ArrayList<>(Collections.nCopies(columns * columns, null));
+    }
+
+    /**
+     * Replace the contents of the grid with the given enemies.
+     *
+     * @param enemies Every enemy that should be contained in the grid.
+     */
+    void rebuild(List<Enemy> enemies) {
+        release(overflow);
+        for (List<Enemy> cell : cells) {
+            if (cell != null) {
+                release(cell);
+            }
+        }
+        nextOrder = 0;
+        for (Enemy enemy : enemies) {
+            insert(enemy);
+        }
+    }
+
+    /** Empty the bucket, no longer notified of the movement of the enemies it contained. */
+    private void release(List<Enemy> bucket) {
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i).grid == this) {
+                bucket.get(i).grid = null;
+            }
+        }
+        bucket.clear();
+    }
+
+    /**
+     * Add the enemy to the bucket matching its current position, listed after every enemy already
+     * in the grid. An enemy already in the grid stays in its bucket and keeps its place in the
+     * list, counted as added once more.
+     *
+     * @param enemy The enemy added to the end of the list of enemies the grid contains.
+     */
+    void insert(Enemy enemy) {
+        insert(enemy, nextOrder++);
+    }
+
+    /**
+     * Add the enemy to the bucket matching its current position, listed in the given place.
+     *
+     * @param enemy The enemy added to the list of enemies the grid contains.
+     * @param order The place of the enemy in the list, relative to the other enemies.
+     */
+    void insert(Enemy enemy, long order) {
+        if (enemy.grid == this) {
+            enemy.gridCount++;
+            return;
+        }
+        enemy.grid = this;
+        enemy.gridCount = 1;
+        enemy.gridOrder = order;
+        enemy.gridCell = cellOf(enemy.getX(), enemy.getY());
+        enemy.gridMoved = false;
+        bucket(enemy.gridCell).add(enemy);
+    }
+
+    /**
+     * Remove the enemy from its bucket, once it has been removed as many times as it was added.
+     *
+     * @param enemy The enemy removed from the list of enemies the grid contains.
+     */
+    void remove(Enemy enemy) {
+        if (enemy.grid != this || --enemy.gridCount > 0) {
+            return;
+        }
+        bucket(enemy.gridCell).remove(enemy);
+        enemy.grid = null;
+    }
+
+    /**
+     * Move the given enemy to the bucket matching its current position.
+     *
+     * @param enemy An enemy in this grid whose position has changed.
+     */
+    void moved(Enemy enemy) {
+        int cell = cellOf(enemy.getX(), enemy.getY());
+        if (deferring) {
+            // only the enemy itself is changed, so enemies may move concurrently
+            if (cell != enemy.gridCell) {
+                enemy.gridMoved = true;
+            }
+            return;
+        }
+        if (cell != enemy.gridCell) {
+            bucket(enemy.gridCell).remove(enemy);
+            enemy.gridCell = cell;
+            bucket(cell).add(enemy);
+        }
+    }
+
+    /**
+     * Stop moving enemies between buckets as they move, until {@link #resumeMoves(List)} is
+     * called. The grid must not be queried in the meantime.
+     */
+    void deferMoves() {
+        deferring = true;
+    }
+
+    /**
+     * Move every enemy which left its bucket since {@link #deferMoves()} was called to the bucket
+     * matching its current position, in the order given.
+     *
+     * <p>An enemy moving between buckets is added to the end of its new bucket, so enemies are
+     * moved in the order they moved in. An enemy that returned to its original bucket is still
+     * moved to the end of it, as it would have been had it not been deferred.
+     *
+     * @param enemies The enemies that may have moved, in the order they moved.
+     */
+    void resumeMoves(List<Enemy> enemies) {
+        deferring = false;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy.grid != this || !enemy.gridMoved) {
+                continue;
+            }
+            enemy.gridMoved = false;
+            bucket(enemy.gridCell).remove(enemy);
+            enemy.gridCell = cellOf(enemy.getX(), enemy.getY());
+            bucket(enemy.gridCell).add(enemy);
+        }
+    }
+
+    /**
+     * Find the enemy closest to the given position within the radius.
+     *
+     * <p>Where multiple enemies are equally close, the enemy found first is returned.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param radius The search radius in pixels.
+     * @return The closest enemy within the radius, or null if there are none.
+     */
+    Enemy nearestWithin(int x, int y, int radius) {
+        Enemy closest = null;
+        long closestDistance = (long) radius * radius;
+        int minCol = clamp(Math.floorDiv(x - radius, cellSize));
+        int maxCol = clamp(Math.floorDiv(x + radius, cellSize));
+        int minRow = clamp(Math.floorDiv(y - radius, cellSize));
+        int maxRow = clamp(Math.floorDiv(y + radius, cellSize));
+        for (int row = minRow; row <= maxRow && columns > 0; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                List<Enemy> cell = cells.get(row * columns + col);
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    Enemy enemy = cell.get(i);
+                    long distance = distanceSquared(enemy, x, y);
+                    if (distance < closestDistance) {
+                        closestDistance = distance;
+                        closest = enemy;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < overflow.size(); i++) {
+            Enemy enemy = overflow.get(i);
+            long distance = distanceSquared(enemy, x, y);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = enemy;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Find the enemy listed first among the enemies within the radius of the given position.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param radius The search radius in pixels.
+     * @return The first listed enemy within the radius, or null if there are none.
+     */
+    Enemy firstWithin(int x, int y, int radius) {
+        Enemy first = null;
+        long limit = (long) radius * radius;
+        int minCol = clamp(Math.floorDiv(x - radius, cellSize));
+        int maxCol = clamp(Math.floorDiv(x + radius, cellSize));
+        int minRow = clamp(Math.floorDiv(y - radius, cellSize));
+        int maxRow = clamp(Math.floorDiv(y + radius, cellSize));
+        for (int row = minRow; row <= maxRow && columns > 0; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                List<Enemy> cell = cells.get(row * columns + col);
+                if (cell != null) {
+                    first = firstWithin(cell, x, y, limit, first);
+                }
+            }
+        }
+        return firstWithin(overflow, x, y, limit, first);
+    }
+
+    private static Enemy firstWithin(List<Enemy> bucket, int x, int y, long limit, Enemy first) {
+        for (int i = 0; i < bucket.size(); i++) {
+            Enemy enemy = bucket.get(i);
+            if ((first == null || enemy.gridOrder < first.gridOrder)
+                    && distanceSquared(enemy, x, y) < limit) {
+                first = enemy;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Add every enemy within the radius of the given position to the result.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param radius The search radius in pixels.
+     * @param result The list to add enemies within the radius to.
+     */
+    void collectWithin(int x, int y, int radius, List<Enemy> result) {
+        long limit = (long) radius * radius;
+        int minCol = clamp(Math.floorDiv(x - radius, cellSize));
+        int maxCol = clamp(Math.floorDiv(x + radius, cellSize));
+        int minRow = clamp(Math.floorDiv(y - radius, cellSize));
+        int maxRow = clamp(Math.floorDiv(y + radius, cellSize));
+        for (int row = minRow; row <= maxRow && columns > 0; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                List<Enemy> cell = cells.get(row * columns + col);
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    if (distanceSquared(cell.get(i), x, y) < limit) {
+                        result.add(cell.get(i));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < overflow.size(); i++) {
+            if (distanceSquared(overflow.get(i), x, y) < limit) {
+                result.add(overflow.get(i));
+            }
+        }
+    }
+
+    private List<Enemy> bucket(int cell) {
+        if (cell == OVERFLOW) {
+            return overflow;
+        }
+        List<Enemy> bucket = cells.get(cell);
+        if (bucket == null) {
+            bucket = new ArrayList<>(2);
+            cells.set(cell, bucket);
+        }
+        return bucket;
+    }
+
+    private int cellOf(int x, int y) {
+        if (x < 0 || y < 0 || x >= columns * cellSize || y >= columns * cellSize) {
+            return OVERFLOW;
+        }
+        return (y / cellSize) * columns + (x / cellSize);
+    }
+
+    private int clamp(int index) {
+        return Math.max(0, Math.min(columns - 1, index));
+    }
+
+    private static long distanceSquared(Enemy enemy, int x, int y) {
+        long deltaX = enemy.getX() - x;
+        long deltaY = enemy.getY() - y;
+        return deltaX * deltaX + deltaY * deltaY;
+    }
+}
@@ -3,8 +3,14 @@ package builder.entities.npc.enemies;
 import builder.GameState;
 import builder.Tickable;
 import builder.entities.Interactable;
+import builder.entities.npc.NpcPool;
+import builder.entities.npc.TwoPhaseTickable;
+import builder.entities.npc.TwoPhaseTicker;
 import builder.entities.npc.spawners.Spawner;
+import builder.metrics.TickProfiler;
 import builder.player.Player;
+import builder.timing.TimingWheel;
+import builder.timing.TrackedRepeatingTimer;
 import builder.ui.RenderableGroup;
 
 import engine.EngineState;
@@ -21,16 +27,39 @@ import java.util.List;
 public class EnemyManager implements Tickable, Interactable, RenderableGroup {
 
     private final ArrayList<Spawner> spawners = new ArrayList<>();
-    private final ArrayList<Enemy> birds = new ArrayList<>();
+
+    /** The wheel the spawners' timers are scheduled on, or null if spawners tick their timers. */
+    private TimingWheel timers;
+
+    /** The number of spawners, from the start of the list, scheduled on {@link #timers}. */
+    private int scheduledSpawners = 0;
+
+    /** The scheduled spawners that must still be ticked every tick, in the order scheduled. */
+    private final List<Spawner> tickedSpawners = new ArrayList<>();
+
+    /** The spawners whose timers finish this tick and only spawn then, in the order scheduled. */
+    private final List<Spawner> dueSpawners = new ArrayList<>();
+    private final EnemyGrid grid;
+    private final BirdList birds;
     private int spawnX;
     private int spawnY;
+    private TickProfiler profiler = new TickProfiler(false);
+    private TickProfiler.Group enemyTimings = profiler.group("enemy");
+    private TickProfiler.Group spawnerTimings = profiler.group("spawner");
+    private TwoPhaseTicker ticker = new TwoPhaseTicker();
+    private final NpcPool<Pigeon> pigeons = new NpcPool<>(Pigeon.class, Pigeon::new);
+    private final NpcPool<Magpie> magpies = new NpcPool<>(Magpie.class, Magpie::new);
+    private final NpcPool<Eagle> eagles = new NpcPool<>(Eagle.class, Eagle::new);
 
     /**
      * Constructs a new EnemyManager.
      *
-     * @param dimensions The game dimensions.
+     * @param dimensions The game dimensions, used to size the spatial hash of enemies.
      */
-    public EnemyManager(Dimensions dimensions) {}
+    public EnemyManager(Dimensions dimensions) {
+        this.grid = new EnemyGrid(dimensions);
+        this.birds = new BirdList(grid);
+    }
 
     /**
      * Gets the list of all spawners.
@@ -41,6 +70,27 @@ public class EnemyManager implements Tickable, Interactable, RenderableGroup {
         return spawners;
     }
 
+    /**
+     * Set the profiler that timings of each enemy and spawner tick are recorded to, grouped by
+     * type under {@code enemy/} and {@code spawner/}.
+     *
+     * @param profiler The profiler to record to.
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+        this.enemyTimings = profiler.group("enemy");
+        this.spawnerTimings = profiler.group("spawner");
+    }
+
+    /**
+     * Set the ticker used to plan the ticks of large flocks of birds in parallel.
+     *
+     * @param ticker The ticker to use from the next tick onwards.
+     */
+    public void setTicker(TwoPhaseTicker ticker) {
+        this.ticker = ticker;
+    }
+
     /**
      * Gets the list of all bird enemies.
      *
@@ -87,12 +137,45 @@ public class EnemyManager implements Tickable, Interactable, RenderableGroup {
     }
 
     /**
-     * Removes all enemies that are marked for removal.
+     * Gets the pool pigeons are spawned from.
+     *
+     * @return The pool of pigeons.
+     */
+    public NpcPool<Pigeon> getPigeonPool() {
+        return pigeons;
+    }
+
+    /**
+     * Gets the pool magpies are spawned from.
+     *
+     * @return The pool of magpies.
+     */
+    public NpcPool<Magpie> getMagpiePool() {
+        return magpies;
+    }
+
+    /**
+     * Gets the pool eagles are spawned from.
+     *
+     * @return The pool of eagles.
+     */
+    public NpcPool<Eagle> getEaglePool() {
+        return eagles;
+    }
+
+    /**
+     * Removes all enemies that are marked for removal, releasing them to their pools to be
+     * spawned again.
      */
     public void cleanup() {
         for (int i = this.birds.size() - 1; i >= 0; i -= 1) {
-            if (this.birds.get(i).isMarkedForRemoval()) {
+            Enemy bird = this.birds.get(i);
+            if (bird.isMarkedForRemoval()) {
                 this.birds.remove(i);
+                // a bird listed twice is only accepted by its pool once
+                if (!pigeons.release(bird) && !magpies.release(bird)) {
+                    eagles.release(bird);
+                }
             }
         }
     }
@@ -107,47 +190,67 @@ public class EnemyManager implements Tickable, Interactable, RenderableGroup {
     }
 
     /**
-     * Creates and adds a magpie to the enemy list.
+     * Spawns a magpie from the pool and adds it to the enemy list.
      *
      * @param player The player to target.
-     * @return The created magpie.
+     * @return The spawned magpie.
      */
     public Magpie mkM(Player player) {
-        final Magpie magpie = new Magpie(this.spawnX, this.spawnY, player);
+        final Magpie magpie = magpies.obtain(this.spawnX, this.spawnY, player);
         this.birds.add(magpie);
         return magpie;
     }
 
     /**
-     * Creates and adds a pigeon to the enemy list.
+     * Spawns a pigeon from the pool and adds it to the enemy list.
      *
      * @param hasPosition The target position.
-     * @return The created pigeon.
+     * @return The spawned pigeon.
      */
     public Pigeon mkP(HasPosition hasPosition) {
-        final Pigeon pigeon = new Pigeon(this.spawnX, this.spawnY, hasPosition);
+        final Pigeon pigeon = pigeons.obtain(this.spawnX, this.spawnY, hasPosition);
         this.birds.add(pigeon);
         return pigeon;
     }
 
     /**
-     * Creates an eagle targeting the player.
+     * Spawns an eagle from the pool targeting the player.
      *
      * @param player The player to target.
-     * @return The created eagle.
+     * @return The spawned eagle.
      */
     public Eagle mkE(Player player) {
-        final Eagle eagle = new Eagle(this.spawnX, this.spawnY, player);
+        final Eagle eagle = eagles.obtain(this.spawnX, this.spawnY, player);
         return eagle;
     }
 
+    /**
+     * Tick every spawner, then every bird.
+     *
+     * <p>If the game has a timing wheel (see {@link GameState#getTimers()}), each spawner's timer
+     * is scheduled on it once the spawner has been ticked for the first time. From then on,
+     * spawners that only spawn when their timer finishes (see {@link Spawner#spawnsOnTimer()})
+     * are only ticked on the ticks their timer finishes.
+     *
+     * <p>If there are enough birds (see {@link TwoPhaseTicker#isParallel(int)}), the birds plan
+     * their ticks in parallel (see {@link TwoPhaseTickable}) and then apply them one after another
+     * in order, which gives the same result as ticking them in order. The time spent planning is
+     * recorded under {@code enemy/plan}, and only the time spent applying is recorded by type.
+     *
+     * @param state The state of the engine.
+     * @param game The state of the game.
+     */
     @Override
     public void tick(EngineState state, GameState game) {
         this.cleanup();
-        for (Spawner spawner : this.spawners) {
-            spawner.tick(state, game);
+        tickSpawners(state, game);
+        if (ticker.isParallel(birds.size())) {
+            tickInParallel(state, game);
+            return;
         }
-        for (Enemy bird : birds) {
+        for (int i = 0; i < birds.size(); i++) {
+            Enemy bird = birds.get(i);
+            long start = profiler.start();
             if (bird instanceof Magpie temp) {
                 temp.tick(state, game);
             }
@@ -157,6 +260,87 @@ public class EnemyManager implements Tickable, Interactable, RenderableGroup {
             if (bird instanceof Pigeon temp) {
                 temp.tick(state, game);
             }
+            enemyTimings.stop(bird.getClass(), start);
+        }
+    }
+
+    private void tickSpawners(EngineState state, GameState game) {
+        if (game.getTimers() != timers) {
+            unscheduleSpawners();
+            timers = game.getTimers();
+        }
+        if (timers == null) {
+            for (int i = 0; i < this.spawners.size(); i++) {
+                tickSpawner(this.spawners.get(i), state, game);
+            }
+            return;
+        }
+        for (int i = 0; i < tickedSpawners.size(); i++) {
+            tickSpawner(tickedSpawners.get(i), state, game);
+        }
+        // filled as the wheel advanced, in the order the spawners were scheduled
+        for (int i = 0; i < dueSpawners.size(); i++) {
+            tickSpawner(dueSpawners.get(i), state, game);
+        }
+        dueSpawners.clear();
+        while (scheduledSpawners < this.spawners.size()) {
+            Spawner spawner = this.spawners.get(scheduledSpawners++);
+            tickSpawner(spawner, state, game);
+            scheduleSpawner(spawner);
+        }
+    }
+
+    private void tickSpawner(Spawner spawner, EngineState state, GameState game) {
+        long start = profiler.start();
+        spawner.tick(state, game);
+        spawnerTimings.stop(spawner.getClass(), start);
+    }
+
+    /** Schedule the spawner's timer on the wheel, if it can be, so it need not tick it. */
+    private void scheduleSpawner(Spawner spawner) {
+        if (spawner.getTimer() instanceof TrackedRepeatingTimer timer) {
+            if (spawner.spawnsOnTimer()) {
+                timer.schedule(timers, () -> dueSpawners.add(spawner));
+                if (timer.isScheduled()) {
+                    return;
+                }
+            } else {
+                timer.schedule(timers, null);
+            }
+        }
+        tickedSpawners.add(spawner);
+    }
+
+    /** Have every scheduled spawner tick its own timer again. */
+    private void unscheduleSpawners() {
+        for (int i = 0; i < scheduledSpawners; i++) {
+            if (this.spawners.get(i).getTimer() instanceof TrackedRepeatingTimer timer) {
+                timer.unschedule();
+            }
+        }
+        scheduledSpawners = 0;
+        tickedSpawners.clear();
+        dueSpawners.clear();
+    }
+
+    private void tickInParallel(EngineState state, GameState game) {
+        // pigeons look up the world's cabbages while planning, so the lookup must be built first
+        game.getWorld().prepareIndexes(state.getDimensions());
+        long start = profiler.start();
+        grid.deferMoves();
+        try {
+            ticker.plan(birds, state, game);
+        } finally {
+            grid.resumeMoves(birds);
+        }
+        profiler.stop("enemy/plan", start);
+        for (int i = 0; i < birds.size(); i++) {
+            Enemy bird = birds.get(i);
+            if (bird instanceof TwoPhaseTickable split) {
+                start = profiler.start();
+                split.apply(state, game);
+                enemyTimings.stop(bird.getClass(), start);
+            }
         }
     }
 
@@ -167,7 +351,8 @@ public class EnemyManager implements Tickable, Interactable, RenderableGroup {
      */
     public ArrayList<Magpie> getMagpies() {
         final ArrayList<Magpie> magpies = new ArrayList<Magpie>();
-        for (Enemy bird : birds) {
+        for (int i = 0; i < birds.size(); i++) {
+            Enemy bird = birds.get(i);
             if (bird instanceof Magpie temp) {
                 magpies.add(temp);
             }
@@ -184,6 +369,71 @@ public class EnemyManager implements Tickable, Interactable, RenderableGroup {
         return this.birds;
     }
 
+    /**
+     * Finds the enemy closest to the given position that is within the given radius.
+     *
+     * <p>An enemy is within the radius if its distance from the position (as measured by {@link
+     * builder.entities.npc.Npc#distanceFrom(int, int)}) is less than the radius.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param radius The search radius in pixels.
+     * @return The closest enemy within the radius, or null if there are none.
+     */
+    public Enemy nearestEnemyWithin(int x, int y, int radius) {
+        return syncedGrid().nearestWithin(x, y, radius);
+    }
+
+    /**
+     * Finds the enemy listed first in {@link #getBirds()} among those within the given radius of
+     * the given position, as a search of the birds in order would.
+     *
+     * <p>An enemy is within the radius if its distance from the position (as measured by {@link
+     * builder.entities.npc.Npc#distanceFrom(int, int)}) is less than the radius.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param radius The search radius in pixels.
+     * @return The first listed enemy within the radius, or null if there are none.
+     */
+    public Enemy firstEnemyWithin(int x, int y, int radius) {
+        return syncedGrid().firstWithin(x, y, radius);
+    }
+
+    /**
+     * Adds every enemy within the given radius of the given position to the result.
+     *
+     * <p>An enemy is within the radius if its distance from the position (as measured by {@link
+     * builder.entities.npc.Npc#distanceFrom(int, int)}) is less than the radius.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param radius The search radius in pixels.
+     * @param result The list to add enemies within the radius to.
+     */
+    public void enemiesWithin(int x, int y, int radius, List<Enemy> result) {
+        syncedGrid().collectWithin(x, y, radius, result);
+    }
+
+    /**
+     * Brings the spatial hash of enemies up to date with any change to the list of birds it was
+     * not kept up to date through, so that {@link #nearestEnemyWithin(int, int, int)} and {@link
+     * #enemiesWithin(int, int, int, List)} only read it, e.g. while npcs plan their ticks in
+     * parallel.
+     */
+    public void syncGrid() {
+        syncedGrid();
+    }
+
+    /**
+     * Returns the spatial hash of enemies. Birds appended, removed or replaced one at a time, and
+     * their movement, are tracked as they happen, the grid is only rebuilt after any other change
+     * to the list of birds (e.g. {@code addAll} or {@code removeIf}).
+     */
+    private EnemyGrid syncedGrid() {
+        return birds.syncedGrid();
+    }
+
     /**
      * Handles interaction logic for all enemies.
      *
@@ -201,4 +451,105 @@ public class EnemyManager implements Tickable, Interactable, RenderableGroup {
     public List<Renderable> render() {
         return new ArrayList<>(this.birds);
     }
+
+    @Override
+    public void renderInto(List<Renderable> renderables) {
+        for (int i = 0; i < this.birds.size(); i++) {
+            renderables.add(this.birds.get(i));
+        }
+    }
+
+    /**
+     * The list of birds, which adds, removes and replaces birds in the spatial hash as they are
+     * appended to, removed from and replaced in the list one at a time. Any other change to the
+     * list, or a change to a bird listed more than once, has the grid rebuilt when it is next
+     * used, so that the grid always knows the order the birds are listed in.
+     */
+    private static class BirdList extends ArrayList<Enemy> {
+        private static final long serialVersionUID = 1L;
+
+        /** Marks the grid as out of date after a change that is not a structural modification. */
+        private static final int STALE = -1;
+
+        private final transient EnemyGrid grid;
+
+        /** The modification count of the list when the grid was last up to date with it. */
+        private int synced;
+
+        private BirdList(EnemyGrid grid) {
+            this.grid = grid;
+        }
+
+        /** Returns the grid, first rebuilding it if the list changed without it. */
+        private EnemyGrid syncedGrid() {
+            if (synced != modCount) {
+                grid.rebuild(this);
+                synced = modCount;
+            }
+            return grid;
+        }
+
+        /** Whether the bird is listed once, so removing it leaves the order of the others. */
+        private boolean listedOnce(Enemy bird) {
+            return bird.grid != grid || bird.gridCount == 1;
+        }
+
+        @Override
+        public boolean add(Enemy bird) {
+            boolean tracked = synced == modCount;
+            super.add(bird);
+            if (tracked) {
+                grid.insert(bird);
+                synced = modCount;
+            }
+            return true;
+        }
+
+        @Override
+        public void add(int index, Enemy bird) {
+            boolean tracked = synced == modCount && index == size();
+            super.add(index, bird);
+            if (tracked) {
+                grid.insert(bird);
+                synced = modCount;
+            }
+        }
+
+        @Override
+        public Enemy set(int index, Enemy bird) {
+            Enemy replaced = super.set(index, bird);
+            if (replaced == bird) {
+                return replaced;
+            }
+            // replacing a bird is not a structural modification, so it must always be tracked
+            if (synced == modCount && listedOnce(replaced) && bird.grid != grid) {
+                grid.remove(replaced);
+                grid.insert(bird, replaced.gridOrder);
+            } else {
+                synced = STALE;
+            }
+            return replaced;
+        }
+
+        @Override
+        public Enemy remove(int index) {
+            boolean tracked = synced == modCount && listedOnce(get(index));
+            Enemy removed = super.remove(index);
+            if (tracked) {
+                grid.remove(removed);
+                synced = modCount;
+            }
+            return removed;
+        }
+
+        @Override
+        public boolean remove(Object bird) {
+            int index = indexOf(bird);
+            if (index < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+    }
 }
@@ -2,35 +2,40 @@ package builder.entities.npc.enemies;
 
 import builder.GameState;
 import builder.entities.npc.Expirable;
+import builder.entities.npc.Recyclable;
+import builder.entities.npc.Steering;
+import builder.entities.npc.TwoPhaseTickable;
 import builder.player.Player;
+import builder.timing.TrackedFixedTimer;
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Facing;
+import builder.ui.SpriteTable;
 
 import engine.EngineState;
-import engine.art.sprites.SpriteGroup;
 import engine.game.HasPosition;
 import engine.timing.FixedTimer;
 
 /**
  * Represents a magpie enemy that steals coins from the player.
  */
-public class Magpie extends Enemy implements Expirable {
+public class Magpie extends Enemy implements Expirable, Recyclable, TwoPhaseTickable {
 
-    private static final SpriteGroup ART = SpriteGallery.magpie;
+    private static final SpriteTable<Facing> ART = SpriteGallery.magpieTable;
     private static final int DEFAULT_LIFESPAN = 10000;
     private static final int DEFAULT_SPEED = 1;
     private static final int ESCAPE_SPEED = 2;
     private static final int COINS_STOLEN = 1;
 
-    private FixedTimer lifespan = new FixedTimer(DEFAULT_LIFESPAN);
-    private final HasPosition trackedTarget;
+    private FixedTimer lifespan = new TrackedFixedTimer(DEFAULT_LIFESPAN);
+    private HasPosition trackedTarget;
     /**
      * Indicates whether the magpie is currently in attacking mode.
      */
     private boolean attacking;
     private int coins = 0;
     private boolean escapedWithCoins = false;
-    private final int spawnX;
-    private final int spawnY;
+    private int spawnX;
+    private int spawnY;
 
     /**
      * Constructs a new Magpie at the specified position targeting the given player.
@@ -46,7 +51,22 @@ public class Magpie extends Enemy implements Expirable {
         this.trackedTarget = trackedTarget;
         this.attacking = true;
         this.setSpeed(DEFAULT_SPEED);
-        this.setSprite(ART.getSprite("down"));
+        this.setSprite(ART.get(Facing.DOWN));
+        updateDirectionToTarget();
+    }
+
+    @Override
+    public void respawn(int x, int y, HasPosition trackedTarget) {
+        respawnAt(x, y);
+        this.spawnX = x;
+        this.spawnY = y;
+        this.trackedTarget = trackedTarget;
+        this.attacking = true;
+        this.coins = 0;
+        this.escapedWithCoins = false;
+        this.lifespan = TrackedFixedTimer.restart(lifespan, DEFAULT_LIFESPAN);
+        this.setSpeed(DEFAULT_SPEED);
+        this.setSprite(ART.get(Facing.DOWN));
         updateDirectionToTarget();
     }
 
@@ -62,11 +82,26 @@ public class Magpie extends Enemy implements Expirable {
 
     @Override
     public void tick(EngineState engine, GameState game) {
+        plan(engine, game);
+        apply(engine, game);
+    }
+
+    /** Age, steer and move the magpie. */
+    @Override
+    public void plan(EngineState engine, GameState game) {
         super.tick(engine, game);
 
         tickLifespan();
         updateDirectionAndSprite();
         move();
+    }
+
+    /**
+     * Steal from the player or escape, which depends on the coins left by magpies applied
+     * earlier, and return coins if the magpie was killed.
+     */
+    @Override
+    public void apply(EngineState engine, GameState game) {
         handlePlayerInteraction(engine, game);
         handleSpawnReturn(engine);
         recoverCoinsIfKilled(game);
@@ -98,24 +133,22 @@ public class Magpie extends Enemy implements Expirable {
     }
 
     private void setDirectionTo(int targetX, int targetY) {
-        double deltaX = targetX - getX();
-        double deltaY = targetY - getY();
-        setDirection((int) Math.toDegrees(Math.atan2(deltaY, deltaX)));
+        setDirection(Steering.directionTo(targetX - getX(), targetY - getY()));
     }
 
     private void updateSpriteBasedOnTarget() {
         if (trackedTarget.getY() > getY()) {
-            setSprite(ART.getSprite("down"));
+            setSprite(ART.get(Facing.DOWN));
         } else {
-            setSprite(ART.getSprite("up"));
+            setSprite(ART.get(Facing.UP));
         }
     }
 
     private void updateSpriteBasedOnSpawn() {
         if (spawnY < getY()) {
-            setSprite(ART.getSprite("up"));
+            setSprite(ART.get(Facing.UP));
         } else {
-            setSprite(ART.getSprite("down"));
+            setSprite(ART.get(Facing.DOWN));
         }
     }
 
@@ -171,4 +204,58 @@ public class Magpie extends Enemy implements Expirable {
     public void setAttacking(boolean attacking) {
         this.attacking = attacking;
     }
+
+    /**
+     * Returns the x-axis (horizontal) coordinate this magpie spawned at.
+     *
+     * @return The spawn x coordinate in pixels.
+     */
+    public int getSpawnX() {
+        return spawnX;
+    }
+
+    /**
+     * Returns the y-axis (vertical) coordinate this magpie spawned at.
+     *
+     * @return The spawn y coordinate in pixels.
+     */
+    public int getSpawnY() {
+        return spawnY;
+    }
+
+    /**
+     * Returns the position this magpie is heading towards.
+     *
+     * @return The tracked target, or null if the magpie has no target.
+     */
+    public HasPosition getTrackedTarget() {
+        return trackedTarget;
+    }
+
+    /**
+     * Whether this magpie is currently in attacking mode.
+     *
+     * @return true if the magpie is attacking.
+     */
+    public boolean isAttacking() {
+        return attacking;
+    }
+
+    /**
+     * Returns the number of coins this magpie has stolen.
+     *
+     * @return The coins carried by the magpie.
+     */
+    public int getCoins() {
+        return coins;
+    }
+
+    /**
+     * Sets the number of coins this magpie has stolen.
+     *
+     * @param coins The coins carried by the magpie.
+     */
+    public void setCoins(int coins) {
+        this.coins = coins;
+    }
 }
\ No newline at end of file
@@ -2,35 +2,39 @@ package builder.entities.npc.enemies;
 
 import builder.GameState;
 import builder.entities.npc.Expirable;
+import builder.entities.npc.Recyclable;
+import builder.entities.npc.Steering;
+import builder.entities.npc.TwoPhaseTickable;
 import builder.entities.resources.Cabbage;
 import builder.entities.tiles.Tile;
+import builder.timing.TrackedFixedTimer;
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Facing;
+import builder.ui.SpriteTable;
 
 import engine.EngineState;
-import engine.art.sprites.SpriteGroup;
-import engine.game.Entity;
 import engine.game.HasPosition;
 import engine.timing.FixedTimer;
 
-import java.util.List;
-
 /**
  * Represents a pigeon enemy that steals cabbages from fields.
  */
-public class Pigeon extends Enemy implements Expirable {
+public class Pigeon extends Enemy implements Expirable, Recyclable, TwoPhaseTickable {
 
-    private static final SpriteGroup ART = SpriteGallery.pigeon;
+    private static final SpriteTable<Facing> ART = SpriteGallery.pigeonTable;
     private static final int DEFAULT_LIFESPAN = 3000;
     private static final int PIGEON_SPEED = 4;
 
-    private FixedTimer lifespan = new FixedTimer(DEFAULT_LIFESPAN);
+    private FixedTimer lifespan = new TrackedFixedTimer(DEFAULT_LIFESPAN);
     private HasPosition trackedTarget;
     /**
      * Indicates whether the pigeon is currently in attacking mode.
      */
     private boolean attacking = true;
-    private final int spawnX;
-    private final int spawnY;
+    private int spawnX;
+    private int spawnY;
+    /** The cabbage stolen while planning, removed when applying. */
+    private Cabbage stolen;
 
     /**
      * Constructs a new Pigeon at the specified position.
@@ -43,7 +47,7 @@ public class Pigeon extends Enemy implements Expirable {
         this.spawnX = x;
         this.spawnY = y;
         this.setSpeed(PIGEON_SPEED);
-        this.setSprite(ART.getSprite("down"));
+        this.setSprite(ART.get(Facing.DOWN));
     }
 
     /**
@@ -62,12 +66,25 @@ public class Pigeon extends Enemy implements Expirable {
         initializeDirectionAndSprite();
     }
 
+    @Override
+    public void respawn(int x, int y, HasPosition trackedTarget) {
+        respawnAt(x, y);
+        this.spawnX = x;
+        this.spawnY = y;
+        this.trackedTarget = trackedTarget;
+        this.attacking = true;
+        this.stolen = null;
+        this.lifespan = TrackedFixedTimer.restart(lifespan, DEFAULT_LIFESPAN);
+        this.setSpeed(PIGEON_SPEED);
+        initializeDirectionAndSprite();
+    }
+
     private void initializeDirectionAndSprite() {
         if (trackedTarget != null) {
             updateDirectionToTarget();
             updateSpriteBasedOnTarget();
         } else {
-            setSprite(ART.getSprite("down"));
+            setSprite(ART.get(Facing.DOWN));
         }
     }
 
@@ -83,6 +100,16 @@ public class Pigeon extends Enemy implements Expirable {
 
     @Override
     public void tick(EngineState engine, GameState game) {
+        plan(engine, game);
+        apply(engine, game);
+    }
+
+    /**
+     * Retarget, steer and move the pigeon. A cabbage reached is stolen, but only removed from
+     * its tile when applying.
+     */
+    @Override
+    public void plan(EngineState engine, GameState game) {
         super.tick(engine, game);
 
         retargetClosestCabbage(game, engine);
@@ -91,40 +118,28 @@ public class Pigeon extends Enemy implements Expirable {
         tickLifespan();
     }
 
+    /** Remove any cabbage stolen while planning. */
+    @Override
+    public void apply(EngineState engine, GameState game) {
+        if (stolen != null) {
+            stolen.markForRemoval();
+            stolen = null;
+        }
+    }
+
     private void retargetClosestCabbage(GameState game, EngineState engine) {
-        List<Tile> cabbageTiles = findCabbageTiles(game);
+        Tile closestCabbage = game.getWorld()
+                .closestCabbageTile(getX(), getY(), engine.getDimensions());
 
-        if (cabbageTiles.isEmpty()) {
+        if (closestCabbage == null) {
             attacking = false;
             return;
         }
 
-        Tile closestCabbage = findClosestTile(cabbageTiles);
         trackedTarget = closestCabbage;
         attemptCabbageSteal(closestCabbage, engine);
     }
 
-    private List<Tile> findCabbageTiles(GameState game) {
-        return game.getWorld().tileSelector(tile ->
-                tile.getStackedEntities().stream()
-                        .anyMatch(entity -> entity instanceof Cabbage)
-        );
-    }
-
-    private Tile findClosestTile(List<Tile> tiles) {
-        Tile closest = tiles.get(0);
-        int minDistance = distanceFrom(closest);
-
-        for (Tile tile : tiles) {
-            int distance = distanceFrom(tile);
-            if (distance < minDistance) {
-                minDistance = distance;
-                closest = tile;
-            }
-        }
-        return closest;
-    }
-
     private void attemptCabbageSteal(Tile cabbageTile, EngineState engine) {
         if (!attacking || trackedTarget == null) {
             return;
@@ -139,12 +154,10 @@ public class Pigeon extends Enemy implements Expirable {
     }
 
     private void stealCabbageFrom(Tile tile) {
-        for (Entity entity : tile.getStackedEntities()) {
-            if (entity instanceof Cabbage cabbage) {
-                cabbage.markForRemoval();
-                attacking = false;
-                break;
-            }
+        Cabbage cabbage = tile.getStacked(Cabbage.class);
+        if (cabbage != null) {
+            stolen = cabbage;
+            attacking = false;
         }
     }
 
@@ -191,9 +204,7 @@ public class Pigeon extends Enemy implements Expirable {
     }
 
     private void setDirectionTo(int targetX, int targetY) {
-        double deltaX = targetX - getX();
-        double deltaY = targetY - getY();
-        setDirection((int) Math.toDegrees(Math.atan2(deltaY, deltaX)));
+        setDirection(Steering.directionTo(targetX - getX(), targetY - getY()));
     }
 
     private void updateSpriteBasedOnTarget() {
@@ -206,9 +217,9 @@ public class Pigeon extends Enemy implements Expirable {
 
     private void updateSpriteBasedOnY(int targetY) {
         if (targetY > getY()) {
-            setSprite(ART.getSprite("down"));
+            setSprite(ART.get(Facing.DOWN));
         } else {
-            setSprite(ART.getSprite("up"));
+            setSprite(ART.get(Facing.UP));
         }
     }
 
@@ -227,4 +238,40 @@ public class Pigeon extends Enemy implements Expirable {
     public void setAttacking(boolean attacking) {
         this.attacking = attacking;
     }
+
+    /**
+     * Returns the x-axis (horizontal) coordinate this pigeon spawned at.
+     *
+     * @return The spawn x coordinate in pixels.
+     */
+    public int getSpawnX() {
+        return spawnX;
+    }
+
+    /**
+     * Returns the y-axis (vertical) coordinate this pigeon spawned at.
+     *
+     * @return The spawn y coordinate in pixels.
+     */
+    public int getSpawnY() {
+        return spawnY;
+    }
+
+    /**
+     * Returns the position this pigeon is heading towards.
+     *
+     * @return The tracked target, or null if the pigeon has no target.
+     */
+    public HasPosition getTrackedTarget() {
+        return trackedTarget;
+    }
+
+    /**
+     * Whether this pigeon is currently in attacking mode.
+     *
+     * @return true if the pigeon is attacking.
+     */
+    public boolean isAttacking() {
+        return attacking;
+    }
 }
\ No newline at end of file
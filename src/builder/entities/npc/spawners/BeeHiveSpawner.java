@@ -2,9 +2,9 @@ package builder.entities.npc.spawners;
 
 import builder.GameState;
 import builder.entities.npc.BeeHive;
+import builder.timing.TrackedRepeatingTimer;
 
 import engine.EngineState;
-import engine.timing.RepeatingTimer;
 import engine.timing.TickTimer;
 
 /**
@@ -15,7 +15,7 @@ public class BeeHiveSpawner implements Spawner {
     /**
      * Timer for spawning cooldown.
      */
-    private RepeatingTimer timer;
+    private TrackedRepeatingTimer timer;
     private int xc = 0;
     private int yc = 0;
 
@@ -29,7 +29,7 @@ public class BeeHiveSpawner implements Spawner {
     public BeeHiveSpawner(int x, int y, int duration) {
         this.xc = x;
         this.yc = y;
-        this.timer = new RepeatingTimer(300);
+        this.timer = new TrackedRepeatingTimer(300);
     }
 
     @Override
@@ -39,7 +39,9 @@ public class BeeHiveSpawner implements Spawner {
 
     @Override
     public void tick(EngineState state, GameState game) {
-        timer.tick();
+        if (!timer.isScheduled()) {
+            timer.tick();
+        }
         final boolean canAfford = game.getInventory().getFood() >= 3
                 && game.getInventory().getCoins() >= 3;
 
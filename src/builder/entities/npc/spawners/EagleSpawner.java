@@ -1,9 +1,9 @@
 package builder.entities.npc.spawners;
 
 import builder.GameState;
+import builder.timing.TrackedRepeatingTimer;
 
 import engine.EngineState;
-import engine.timing.RepeatingTimer;
 import engine.timing.TickTimer;
 
 /**
@@ -15,7 +15,7 @@ public class EagleSpawner implements Spawner {
 
     private int xc;
     private int yc;
-    private final TickTimer timer;
+    private final TrackedRepeatingTimer timer;
 
     /**
      * Constructs a new EagleSpawner with default spawn interval.
@@ -37,7 +37,7 @@ public class EagleSpawner implements Spawner {
     public EagleSpawner(int x, int y, int duration) {
         this.xc = x;
         this.yc = y;
-        this.timer = new RepeatingTimer(duration);
+        this.timer = new TrackedRepeatingTimer(duration);
     }
 
     @Override
@@ -45,9 +45,16 @@ public class EagleSpawner implements Spawner {
         return timer;
     }
 
+    @Override
+    public boolean spawnsOnTimer() {
+        return true;
+    }
+
     @Override
     public void tick(EngineState state, GameState game) {
-        timer.tick();
+        if (!timer.isScheduled()) {
+            timer.tick();
+        }
 
         if (timer.isFinished()) {
             spawnEagle(game);
@@ -2,9 +2,9 @@ package builder.entities.npc.spawners;
 
 import builder.GameState;
 import builder.entities.npc.Scarecrow;
+import builder.timing.TrackedRepeatingTimer;
 
 import engine.EngineState;
-import engine.timing.RepeatingTimer;
 import engine.timing.TickTimer;
 
 /**
@@ -14,7 +14,7 @@ public class ScarecrowSpawner implements Spawner {
 
     private int xc = 0;
     private int yc = 0;
-    private RepeatingTimer timer = new RepeatingTimer(300);
+    private TrackedRepeatingTimer timer = new TrackedRepeatingTimer(300);
 
     /**
      * Constructs a new ScarecrowSpawner.
@@ -34,7 +34,9 @@ public class ScarecrowSpawner implements Spawner {
 
     @Override
     public void tick(EngineState state, GameState game) {
-        this.timer.tick();
+        if (!this.timer.isScheduled()) {
+            this.timer.tick();
+        }
         // look at use code to spawn
         if (game.getInventory().getCoins() >= 2 && state.getKeys().isDown('c')) {
             game.getInventory().addCoins(-2);
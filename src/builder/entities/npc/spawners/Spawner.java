@@ -20,6 +20,18 @@ public interface Spawner extends HasPosition, Tickable {
      */
     TickTimer getTimer();
 
+    /**
+     * Whether the spawner does nothing on the ticks its timer does not finish, so that once its
+     * timer is scheduled on the game's wheel (see {@link
+     * builder.timing.TrackedRepeatingTimer#schedule}) it need only be ticked when the timer
+     * finishes.
+     *
+     * @return true if the spawner only acts when its timer finishes.
+     */
+    default boolean spawnsOnTimer() {
+        return false;
+    }
+
     @Override
     public void tick(EngineState state, GameState game);
 
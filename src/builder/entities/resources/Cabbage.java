@@ -1,14 +1,16 @@
 package builder.entities.resources;
 
 import builder.GameState;
+import builder.entities.Dormant;
 import builder.entities.Interactable;
+import builder.timing.TimingWheel;
+import builder.timing.TrackedRepeatingTimer;
 import builder.ui.SpriteGallery;
 
 import engine.EngineState;
 import engine.art.sprites.SpriteGroup;
 import engine.game.Entity;
 import engine.timing.RepeatingTimer;
-import engine.timing.TickTimer;
 import engine.timing.TimerDuration;
 
 /**
@@ -18,12 +20,15 @@ import engine.timing.TimerDuration;
  *
  * @stage3
  */
-public class Cabbage extends Entity implements Interactable {
+public class Cabbage extends Entity implements Interactable, Dormant {
 
-    private final TickTimer timer = new RepeatingTimer(TimerDuration.SHORT);
+    private final TrackedRepeatingTimer timer = new TrackedRepeatingTimer(TimerDuration.SHORT);
     private static final SpriteGroup art = SpriteGallery.cabbage;
     private int growthState = 0;
 
+    /** Called once the sleeping cabbage next grows, or null if the cabbage is awake. */
+    private Runnable onWake;
+
     /** The cost of planting a cabbage, 2 coins. */
     public static final int COST = 2;
 
@@ -55,7 +60,9 @@ public class Cabbage extends Entity implements Interactable {
      */
     @Override
     public void tick(EngineState state) {
-        this.timer.tick();
+        if (!this.timer.isScheduled()) {
+            this.timer.tick();
+        }
         if (this.timer.isFinished()) {
             if (this.growthState < 4) {
                 this.growthState++;
@@ -64,6 +71,50 @@ public class Cabbage extends Entity implements Interactable {
         }
     }
 
+    /**
+     * Put the cabbage to sleep until its growth timer next finishes, scheduling the timer on the
+     * given wheel (see {@link TrackedRepeatingTimer#schedule}). A cabbage marked for removal
+     * does not sleep.
+     *
+     * @param timers The wheel to schedule the growth timer on.
+     * @param onWake Called each time the growth timer finishes, and once if the cabbage is marked
+     *     for removal while asleep.
+     * @return true if the cabbage is asleep.
+     */
+    @Override
+    public boolean sleep(TimingWheel timers, Runnable onWake) {
+        if (this.isMarkedForRemoval()) {
+            return false;
+        }
+        this.timer.schedule(timers, onWake);
+        if (!this.timer.isScheduled()) {
+            return false;
+        }
+        this.onWake = onWake;
+        return true;
+    }
+
+    /** Wake the cabbage, leaving its growth timer to be ticked by the cabbage again. */
+    @Override
+    public void wake() {
+        this.timer.unschedule();
+        this.onWake = null;
+    }
+
+    /**
+     * Mark the cabbage for removal, waking it first if it is asleep so that its tile is ticked
+     * and removes it.
+     */
+    @Override
+    public void markForRemoval() {
+        super.markForRemoval();
+        Runnable woken = this.onWake;
+        this.wake();
+        if (woken != null) {
+            woken.run();
+        }
+    }
+
     /** Updates the displayed art of this entity based on the given progress value. */
     private void updateArt() {
         this.setSprite(
@@ -96,4 +147,32 @@ public class Cabbage extends Entity implements Interactable {
             this.markForRemoval();
         }
     }
+
+    /**
+     * Returns how far this cabbage has grown, from 0 when planted to 4 once collectable.
+     *
+     * @return The growth state of the cabbage.
+     */
+    public int getGrowthState() {
+        return growthState;
+    }
+
+    /**
+     * Sets how far this cabbage has grown and updates its art to match.
+     *
+     * @param growthState The growth state of the cabbage, from 0 to 4.
+     */
+    public void setGrowthState(int growthState) {
+        this.growthState = growthState;
+        this.updateArt();
+    }
+
+    /**
+     * Returns the timer counting down to the next growth state.
+     *
+     * @return The growth timer of the cabbage.
+     */
+    public TrackedRepeatingTimer getGrowthTimer() {
+        return timer;
+    }
 }
@@ -5,9 +5,10 @@ import builder.entities.Usable;
 import builder.inventory.items.Jackhammer;
 import builder.player.Player;
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Wear;
+import builder.ui.SpriteTable;
 
 import engine.EngineState;
-import engine.art.sprites.SpriteGroup;
 import engine.game.Entity;
 import engine.timing.RepeatingTimer;
 import engine.timing.TickTimer;
@@ -21,7 +22,7 @@ import engine.timing.TickTimer;
  */
 public class Ore extends Entity implements Usable {
 
-    private static final SpriteGroup art = SpriteGallery.rock;
+    private static final SpriteTable<Wear> art = SpriteGallery.rockTable;
     private static final int COIN_VALUE = 10;
     private int coins = COIN_VALUE;
 
@@ -40,7 +41,7 @@ public class Ore extends Entity implements Usable {
      */
     public Ore(int x, int y) {
         super(x, y);
-        this.setSprite(art.getSprite("default"));
+        this.setSprite(art.get(Wear.DEFAULT));
     }
 
     /**
@@ -57,11 +58,11 @@ public class Ore extends Entity implements Usable {
         timer.tick();
         double remainingRatio = (double) coins / COIN_VALUE;
         if (remainingRatio > 0.9) {
-            this.setSprite(art.getSprite("default"));
+            this.setSprite(art.get(Wear.DEFAULT));
         } else if (remainingRatio > 0.1) {
-            this.setSprite(art.getSprite("damaged"));
+            this.setSprite(art.get(Wear.DAMAGED));
         } else {
-            this.setSprite(art.getSprite("depleted"));
+            this.setSprite(art.get(Wear.DEPLETED));
         }
     }
 
@@ -92,4 +93,22 @@ public class Ore extends Entity implements Usable {
             }
         }
     }
+
+    /**
+     * Returns the number of coins left to mine from this ore.
+     *
+     * @return The remaining coins.
+     */
+    public int getCoins() {
+        return coins;
+    }
+
+    /**
+     * Sets the number of coins left to mine from this ore.
+     *
+     * @param coins The remaining coins.
+     */
+    public void setCoins(int coins) {
+        this.coins = coins;
+    }
 }
@@ -11,6 +11,7 @@ import builder.ui.SpriteGallery;
 
 import engine.EngineState;
 import engine.art.sprites.SpriteGroup;
+import engine.game.Entity;
 
 /**
  * A dirt tile may be used for farming. A dirt tile has two states: tilled and untilled. The tile
@@ -88,12 +89,12 @@ public class Dirt extends Tile {
             this.till();
         }
         if (inventory.getHolding() instanceof Bucket
-                && this.getStackedEntities().isEmpty()
+                && !this.hasStacked(Entity.class)
                 && this.isTilled()) {
             this.plant(inventory);
         }
         if (inventory.getHolding() instanceof Pole
-                && this.getStackedEntities().isEmpty()
+                && !this.hasStacked(Entity.class)
                 && this.isTilled()
                 && inventory.getCoins() >= Scarecrow.COIN_COST) {
             inventory.addCoins(-Scarecrow.COIN_COST);
@@ -7,6 +7,7 @@ import builder.inventory.items.Hoe;
 import builder.ui.SpriteGallery;
 
 import engine.EngineState;
+import engine.game.Entity;
 
 /**
  * A grass tile is a basic tile. A grass tile can be walked through. A grass tile is rendered as
@@ -46,14 +47,14 @@ public class Grass extends Tile {
         }
         // confirm they are holding the hoe, and there is nothing already on this grass!
         if (game.getInventory().getHolding() instanceof Hoe
-                && this.getStackedEntities().isEmpty()) {
+                && !this.hasStacked(Entity.class)) {
             this.markForRemoval();
             Tile dirt = TileFactory.fromSymbol(this.getX(), this.getY(), 'd');
             game.getWorld().place(dirt);
         }
 
         if (game.getInventory().getHolding() instanceof HiveHammer
-                && this.getStackedEntities().isEmpty()
+                && !this.hasStacked(Entity.class)
                 && game.getInventory().getCoins() >= BeeHive.COIN_COST
                 && game.getInventory().getFood() >= BeeHive.FOOD_COST) {
             game.getInventory().addCoins(-BeeHive.COIN_COST);
@@ -1,8 +1,10 @@
 package builder.entities.tiles;
 
 import builder.GameState;
+import builder.entities.Dormant;
 import builder.entities.Interactable;
 import builder.entities.Usable;
+import builder.timing.TimingWheel;
 import builder.ui.RenderableGroup;
 
 import engine.EngineState;
@@ -33,10 +35,14 @@ import java.util.List;
  * @stage2
  */
 public abstract class Tile extends Entity
-        implements Interactable, Usable, RenderableGroup, HasTick {
+        implements Interactable, Usable, RenderableGroup, HasTick, Dormant {
 
     private SpriteGroup art;
     private final List<Entity> stackedEntities = new ArrayList<>();
+    private TileListener listener;
+
+    /** The identifier of this tile, built once as every rendered frame reads it. */
+    private String id;
 
     /**
      * Constructs an instance of {@link Tile}.
@@ -54,6 +60,16 @@ public abstract class Tile extends Entity
         setArt(art);
     }
 
+    /**
+     * Set the listener to notify when entities are stacked on or removed from this tile, or the
+     * tile itself changes, replacing any existing listener.
+     *
+     * @param listener The listener to notify, or null to stop notifying.
+     */
+    public void setListener(TileListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Set the sprite group for this tile and updates the current sprite (see {@link
      * #updateSprite(String)}) to the 'default' sprite of the given group.
@@ -64,6 +80,28 @@ public abstract class Tile extends Entity
     public void setArt(SpriteGroup art) {
         this.art = art;
         updateSprite("default");
+        if (this.listener != null) {
+            this.listener.changed(this);
+        }
+    }
+
+    @Override
+    public String getID() {
+        if (id == null) {
+            id = super.getID();
+        }
+        return id;
+    }
+
+    /**
+     * Mark this tile for removal from the world, notifying the listener of the change.
+     */
+    @Override
+    public void markForRemoval() {
+        super.markForRemoval();
+        if (this.listener != null) {
+            this.listener.changed(this);
+        }
     }
 
     /**
@@ -94,16 +132,84 @@ public abstract class Tile extends Entity
     @Override
     public void tick(EngineState engine) {
         this.cleanup();
-        for (Entity stackedEntity : this.stackedEntities) {
+        for (int i = 0; i < this.stackedEntities.size(); i++) {
+            Entity stackedEntity = this.stackedEntities.get(i);
             stackedEntity.tick(engine);
         }
     }
 
+    /**
+     * Whether this tile has tick behaviour of its own, beyond ticking its stacked entities.
+     *
+     * <p>A tile type that overrides {@link #tick(EngineState)} must also override this method to
+     * return true, otherwise the world may skip ticking it while nothing is stacked on it.
+     *
+     * @return true if {@link #tick(EngineState)} does more than tick the stacked entities.
+     */
+    protected boolean hasOwnTick() {
+        return false;
+    }
+
+    /**
+     * Whether calling {@link #tick(EngineState)} on this tile can currently have any effect.
+     *
+     * <p>Ticking a tile with no stacked entities does nothing, unless the tile has tick behaviour
+     * of its own (see {@link #hasOwnTick()}), so the world may skip ticking such tiles.
+     *
+     * @return true if this tile has stacked entities or has its own tick behaviour.
+     */
+    public boolean needsTick() {
+        return !this.stackedEntities.isEmpty() || hasOwnTick();
+    }
+
+    /**
+     * Put the tile to sleep until one of its stacked entities needs ticking (see {@link Dormant}).
+     *
+     * <p>A tile can only sleep if it has no tick behaviour of its own, it is not marked for
+     * removal and every stacked entity is dormant and falls asleep. Each stacked entity calls the
+     * given runnable once it needs to be ticked again.
+     *
+     * @param timers The wheel to schedule on.
+     * @param onWake Called once the tile needs to be ticked again.
+     * @return true if the tile is asleep, false if it must still be ticked every tick.
+     */
+    @Override
+    public boolean sleep(TimingWheel timers, Runnable onWake) {
+        if (hasOwnTick() || isMarkedForRemoval()) {
+            return false;
+        }
+        for (int i = 0; i < this.stackedEntities.size(); i++) {
+            if (!(this.stackedEntities.get(i) instanceof Dormant)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < this.stackedEntities.size(); i++) {
+            if (!((Dormant) this.stackedEntities.get(i)).sleep(timers, onWake)) {
+                wake();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Wake every stacked entity, so that each is ticked by this tile every tick again. */
+    @Override
+    public void wake() {
+        for (int i = 0; i < this.stackedEntities.size(); i++) {
+            if (this.stackedEntities.get(i) instanceof Dormant dormant) {
+                dormant.wake();
+            }
+        }
+    }
+
     /** Removes any stacked entities that are marked for removal. */
     private void cleanup() {
         for (int i = this.stackedEntities.size() - 1; i >= 0; i -= 1) {
             if (this.stackedEntities.get(i).isMarkedForRemoval()) {
-                this.stackedEntities.remove(i);
+                Entity removed = this.stackedEntities.remove(i);
+                if (this.listener != null) {
+                    this.listener.unstacked(this, removed);
+                }
             }
         }
     }
@@ -120,6 +226,40 @@ public abstract class Tile extends Entity
         return new ArrayList<>(this.stackedEntities);
     }
 
+    /**
+     * Whether any entity of the given type is stacked upon this tile.
+     *
+     * @param type The type of entity to search for, e.g. {@link
+     *     builder.entities.resources.Cabbage}.
+     * @return true if an instance of the type is contained within getStackedEntities().
+     */
+    public boolean hasStacked(Class<? extends Entity> type) {
+        for (Entity stackedEntity : this.stackedEntities) {
+            if (type.isInstance(stackedEntity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first entity of the given type stacked upon this tile, without copying the
+     * stacked entities as {@link #getStackedEntities()} does.
+     *
+     * @param type The type of entity to search for, e.g. {@link
+     *     builder.entities.resources.Cabbage}.
+     * @param <T> The type of entity to search for.
+     * @return The first instance of the type in getStackedEntities(), or null if there is none.
+     */
+    public <T extends Entity> T getStacked(Class<T> type) {
+        for (Entity stackedEntity : this.stackedEntities) {
+            if (type.isInstance(stackedEntity)) {
+                return type.cast(stackedEntity);
+            }
+        }
+        return null;
+    }
+
     /**
      * Place the given tile on top of this tile.
      *
@@ -128,6 +268,9 @@ public abstract class Tile extends Entity
      */
     public void placeOn(Entity tile) {
         this.stackedEntities.add(tile);
+        if (this.listener != null) {
+            this.listener.stacked(this, tile);
+        }
     }
 
     /**
@@ -144,7 +287,8 @@ public abstract class Tile extends Entity
      */
     @Override
     public void interact(EngineState state, GameState game) {
-        for (Entity stackedEntity : this.stackedEntities) {
+        for (int i = 0; i < this.stackedEntities.size(); i++) {
+            Entity stackedEntity = this.stackedEntities.get(i);
             if (stackedEntity instanceof Interactable interactable) {
                 interactable.interact(state, game);
             }
@@ -163,7 +307,8 @@ public abstract class Tile extends Entity
      */
     @Override
     public void use(EngineState state, GameState game) {
-        for (Entity stackedEntity : this.stackedEntities) {
+        for (int i = 0; i < this.stackedEntities.size(); i++) {
+            Entity stackedEntity = this.stackedEntities.get(i);
             if (stackedEntity instanceof Usable usable) {
                 usable.use(state, game);
             }
@@ -189,8 +334,16 @@ public abstract class Tile extends Entity
      */
     @Override
     public List<Renderable> render() {
-        List<Renderable> result = new ArrayList<>(List.of(this));
-        result.addAll(getStackedEntities());
+        List<Renderable> result = new ArrayList<>(1 + this.stackedEntities.size());
+        renderInto(result);
         return result;
     }
+
+    @Override
+    public void renderInto(List<Renderable> renderables) {
+        renderables.add(this);
+        for (int i = 0; i < this.stackedEntities.size(); i++) {
+            renderables.add(this.stackedEntities.get(i));
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package builder.entities.tiles;
+
+import engine.game.Entity;
+
+/**
+ * Receives notifications about changes to the entities stacked on a {@link Tile}.
+ *
+ * <p>A tile has at most one listener, set via {@link Tile#setListener(TileListener)}. The world
+ * listens to each tile placed within it so that it can keep any indexes of its tiles up to date.
+ */
+public interface TileListener {
+
+    /**
+     * Called after an entity has been stacked on a tile via {@link Tile#placeOn(Entity)}.
+     *
+     * @param tile The tile the entity was stacked on.
+     * @param entity The newly stacked entity.
+     */
+    void stacked(Tile tile, Entity entity);
+
+    /**
+     * Called after a stacked entity marked for removal has been removed from a tile.
+     *
+     * @param tile The tile the entity was removed from.
+     * @param entity The removed entity.
+     */
+    void unstacked(Tile tile, Entity entity);
+
+    /**
+     * Called after the tile itself has changed, i.e. its art was replaced via {@link
+     * Tile#setArt(engine.art.sprites.SpriteGroup)} (e.g. dirt being tilled) or it was marked for
+     * removal.
+     *
+     * @param tile The tile that changed.
+     */
+    default void changed(Tile tile) {}
+}
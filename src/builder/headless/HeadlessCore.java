@@ -0,0 +1,142 @@
+package builder.headless;
+
+import engine.core.Core;
+import engine.core.Debug;
+import engine.renderer.Renderable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A core without a display, used to run the game headlessly.
+ *
+ * <p>Mouse and keyboard input is whatever was last set on the core, typically by an {@link
+ * InputScript} between ticks. Drawn frames are discarded, only the number of frames and the size of
+ * the last frame are kept.
+ */
+public class HeadlessCore extends Core {
+
+    private int mouseX = 0;
+    private int mouseY = 0;
+    private boolean leftPressed = false;
+    private boolean rightPressed = false;
+    private boolean middlePressed = false;
+    private final List<Character> down = new ArrayList<>();
+
+    private long framesDrawn = 0;
+    private int lastFrameSize = 0;
+
+    /** Construct a new headless core with no input held. */
+    public HeadlessCore() {
+        super(new Debug(false));
+    }
+
+    @Override
+    public void draw(List<Renderable> renderables) {
+        framesDrawn++;
+        lastFrameSize = renderables.size();
+    }
+
+    /**
+     * Returns the number of frames drawn to this core.
+     *
+     * @return The number of frames drawn.
+     */
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * Returns the number of renderables in the most recently drawn frame.
+     *
+     * @return The size of the last frame, or 0 if no frame has been drawn.
+     */
+    public int getLastFrameSize() {
+        return lastFrameSize;
+    }
+
+    /**
+     * Move the mouse to the given position.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     */
+    public void moveMouse(int x, int y) {
+        this.mouseX = x;
+        this.mouseY = y;
+    }
+
+    /**
+     * Set which mouse buttons are held down.
+     *
+     * @param left Whether the left mouse button is held.
+     * @param right Whether the right mouse button is held.
+     * @param middle Whether the middle mouse button is held.
+     */
+    public void setButtons(boolean left, boolean right, boolean middle) {
+        this.leftPressed = left;
+        this.rightPressed = right;
+        this.middlePressed = middle;
+    }
+
+    /**
+     * Hold down the given key until it is released.
+     *
+     * @param key The key to hold down.
+     */
+    public void press(char key) {
+        if (!down.contains(key)) {
+            down.add(key);
+        }
+    }
+
+    /**
+     * Release the given key if it is held down.
+     *
+     * @param key The key to release.
+     */
+    public void release(char key) {
+        down.remove(Character.valueOf(key));
+    }
+
+    /** Release every held key and mouse button. */
+    public void releaseAll() {
+        down.clear();
+        setButtons(false, false, false);
+    }
+
+    @Override
+    public int getMouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public int getMouseY() {
+        return mouseY;
+    }
+
+    @Override
+    public boolean isLeftPressed() {
+        return leftPressed;
+    }
+
+    @Override
+    public boolean isRightPressed() {
+        return rightPressed;
+    }
+
+    @Override
+    public boolean isMiddlePressed() {
+        return middlePressed;
+    }
+
+    @Override
+    public List<Character> getDown() {
+        return List.copyOf(down);
+    }
+
+    @Override
+    public boolean isDown(char character) {
+        return down.contains(character);
+    }
+}
@@ -0,0 +1,163 @@
+package builder.headless;
+
+import builder.JavaBeanFarm;
+import builder.world.WorldLoadException;
+
+import engine.Engine;
+import engine.game.Game;
+import engine.renderer.Dimensions;
+import engine.renderer.TileGrid;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a game with fixed-step ticks and no display.
+ *
+ * <p>The runner can either step a number of ticks as fast as possible (see {@link #step(int)}),
+ * or pace ticks in real-time (see {@link #runRealTime(int, long)}), parking the thread between
+ * ticks rather than busy-waiting. Before each tick the runner's {@link InputScript} is applied to
+ * the {@link HeadlessCore} the game reads its input from.
+ */
+public class HeadlessRunner {
+
+    /** The tick period of the engine's own game loop. */
+    public static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(15);
+
+    /**
+     * The number of tick periods a real-time run may fall behind before it stops trying to catch
+     * up, so a single slow tick does not cause a burst of ticks afterwards.
+     */
+    private static final int MAX_TICKS_BEHIND = 5;
+
+    private static final int SIZE = 800;
+    private static final int TILES_PER_ROW = 25;
+
+    private final HeadlessCore core;
+    private final Engine engine;
+    private InputScript script = InputScript.NONE;
+
+    /**
+     * Construct a new runner for the given game.
+     *
+     * @param game The game to run.
+     * @param dimensions The dimensions of the game.
+     */
+    public HeadlessRunner(Game game, Dimensions dimensions) {
+        this.core = new HeadlessCore();
+        this.engine = new Engine(game, dimensions, core);
+    }
+
+    /**
+     * Set the script applied before each tick.
+     *
+     * @param script The input script to use from the next tick onwards.
+     */
+    public void setScript(InputScript script) {
+        this.script = script == null ? InputScript.NONE : script;
+    }
+
+    /**
+     * Returns the core the game reads input from and draws to.
+     *
+     * @return The runner's core.
+     */
+    public HeadlessCore getCore() {
+        return core;
+    }
+
+    /**
+     * Returns the number of ticks run so far.
+     *
+     * @return The current tick of the engine.
+     */
+    public int currentTick() {
+        return engine.state().currentTick();
+    }
+
+    /**
+     * Run the given number of ticks as fast as possible.
+     *
+     * @param ticks The number of ticks to run.
+     * @return A report of the run.
+     */
+    public RunReport step(int ticks) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            tickOnce();
+        }
+        return new RunReport(ticks, System.nanoTime() - start);
+    }
+
+    /**
+     * Run the given number of ticks, one every tick period.
+     *
+     * <p>The thread is parked until each tick is due. If ticks take longer than the period, the run
+     * catches up by ticking without waiting, unless it has fallen more than a few periods behind,
+     * in which case the missed time is dropped.
+     *
+     * @param ticks The number of ticks to run.
+     * @param tickNanos The period between ticks in nanoseconds.
+     * @return A report of the run.
+     * @throws IllegalArgumentException If the tick period is not positive.
+     */
+    public RunReport runRealTime(int ticks, long tickNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick period must be positive: " + tickNanos);
+        }
+        long start = System.nanoTime();
+        long deadline = start;
+        for (int i = 0; i < ticks; i++) {
+            long now = System.nanoTime();
+            while (now < deadline) {
+                LockSupport.parkNanos(deadline - now);
+                now = System.nanoTime();
+            }
+            if (now - deadline > MAX_TICKS_BEHIND * tickNanos) {
+                deadline = now;
+            }
+            tickOnce();
+            deadline += tickNanos;
+        }
+        return new RunReport(ticks, System.nanoTime() - start);
+    }
+
+    private void tickOnce() {
+        script.apply(currentTick(), core);
+        engine.tick();
+    }
+
+    /**
+     * Run a map headlessly and print the achieved tick rate.
+     *
+     * <p>Usage: {@code HeadlessRunner <map> <details> <ticks> [realtime]}
+     *
+     * @param args Command line arguments, the map file, details file, number of ticks, and
+     *     optionally "realtime" to pace ticks at the engine's tick rate.
+     * @throws IOException If the map or details file cannot be read.
+     * @throws WorldLoadException If the map or details file is invalid.
+     */
+    public static void main(String[] args) throws IOException, WorldLoadException {
+        if (args.length < 3) {
+            System.err.println("Usage: HeadlessRunner <map> <details> <ticks> [realtime]");
+            System.exit(1);
+        }
+        Dimensions dimensions = new TileGrid(TILES_PER_ROW, SIZE);
+        JavaBeanFarm game;
+        try (FileReader map = new FileReader(args[0]);
+                FileReader details = new FileReader(args[1])) {
+            game = new JavaBeanFarm(dimensions, map, details);
+        }
+        HeadlessRunner runner = new HeadlessRunner(game, dimensions);
+        int ticks = Integer.parseInt(args[2]);
+        boolean realTime = args.length > 3 && args[3].equals("realtime");
+        RunReport report =
+                realTime ? runner.runRealTime(ticks, DEFAULT_TICK_NANOS) : runner.step(ticks);
+        System.out.println(report);
+        if (game.getProfiler().isEnabled()) {
+            System.out.print(game.getProfiler().report());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package builder.headless;
+
+import builder.JavaBeanFarm;
+
+import engine.EngineState;
+import engine.game.Game;
+import engine.input.KeyState;
+import engine.input.MouseState;
+import engine.renderer.Renderable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the input a game receives each tick, so the session can be replayed exactly by an
+ * {@link InputReplayer}.
+ *
+ * <p>The recorder wraps a game and is run by an engine in place of it, e.g. {@code new Engine(new
+ * InputRecorder(game, channel), dimensions)}. Every tick the keys held, the mouse position and
+ * buttons and the tick number are captured from the engine state before the game is ticked.
+ *
+ * <p>Ticking and closing are synchronized, so a recorder may be closed from another thread such
+ * as a shutdown hook while the engine is running.
+ *
+ * <p>A recording starts with a save of the game (see {@link JavaBeanFarm#save}), so a recording
+ * may start at any point in a session. Input is only written for ticks on which it differs from
+ * the previous tick, as it is held for long stretches, so recordings stay small. A recording is
+ * laid out as:
+ *
+ * <ol>
+ *   <li>{@link #MAGIC}, the format {@link #VERSION}, then the length of the save and the save;
+ *   <li>for each tick with new input: the tick, the mouse x and y, the held buttons as bits
+ *       (left, right then middle), the number of keys held and each key held;
+ *   <li>{@link #END} in place of a tick, then the number of ticks recorded.
+ * </ol>
+ */
+public class InputRecorder implements Game, Closeable {
+
+    /** The first four bytes of every recording, "JBRC". */
+    static final int MAGIC = 0x4A425243;
+
+    /** The version of the format written, bumped whenever the layout changes. */
+    static final int VERSION = 1;
+
+    /** Written in place of a tick once the recording has ended. */
+    static final int END = -1;
+
+    /** The mouse button bits, in the order the buttons are written. */
+    static final int LEFT = 1;
+    static final int RIGHT = 2;
+    static final int MIDDLE = 4;
+
+    private final Game game;
+    private final DataOutputStream out;
+
+    private int ticks = 0;
+    private int mouseX;
+    private int mouseY;
+    private int buttons;
+    private final List<Character> keys = new ArrayList<>();
+    private boolean closed = false;
+
+    /**
+     * Construct a recorder of the input received by the given game from now on, first writing a
+     * save of the game to the given channel.
+     *
+     * @param game The game to record the input of.
+     * @param channel The channel to write the recording to, which is closed by {@link #close()}.
+     * @throws IOException If the channel cannot be written to.
+     */
+    public InputRecorder(JavaBeanFarm game, WritableByteChannel channel) throws IOException {
+        this.game = game;
+        this.out =
+                new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        game.save(Channels.newChannel(saved));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(saved.size());
+        saved.writeTo(out);
+    }
+
+    /**
+     * Returns the number of ticks recorded so far.
+     *
+     * @return The number of ticks recorded.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Record the input of the engine state, then tick the recorded game.
+     *
+     * @param state The state of the engine.
+     * @throws IllegalStateException If the recorder has been closed.
+     * @throws UncheckedIOException If the recording cannot be written to.
+     */
+    @Override
+    public synchronized void tick(EngineState state) {
+        if (closed) {
+            throw new IllegalStateException("Recorder has been closed");
+        }
+        try {
+            record(state);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ticks++;
+        game.tick(state);
+    }
+
+    @Override
+    public List<Renderable> render() {
+        return game.render();
+    }
+
+    /**
+     * End the recording, writing the number of ticks recorded, and close the channel. Closing an
+     * already closed recorder has no effect.
+     *
+     * @throws IOException If the recording cannot be written to.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        out.writeInt(END);
+        out.writeInt(ticks);
+        out.close();
+    }
+
+    private void record(EngineState state) throws IOException {
+        MouseState mouse = state.getMouse();
+        KeyState keyState = state.getKeys();
+        int pressed = (mouse.isLeftPressed() ? LEFT : 0)
+                | (mouse.isRightPressed() ? RIGHT : 0)
+                | (mouse.isMiddlePressed() ? MIDDLE : 0);
+        List<Character> down = keyState.getDown();
+        if (ticks > 0
+                && mouse.getMouseX() == mouseX
+                && mouse.getMouseY() == mouseY
+                && pressed == buttons
+                && down.equals(keys)) {
+            return;
+        }
+        mouseX = mouse.getMouseX();
+        mouseY = mouse.getMouseY();
+        buttons = pressed;
+        keys.clear();
+        keys.addAll(down);
+
+        out.writeInt(state.currentTick());
+        out.writeShort(mouseX);
+        out.writeShort(mouseY);
+        out.writeByte(buttons);
+        out.writeByte(keys.size());
+        for (char key : keys) {
+            out.writeChar(key);
+        }
+    }
+}
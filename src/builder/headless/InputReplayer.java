@@ -0,0 +1,270 @@
+package builder.headless;
+
+import builder.JavaBeanFarm;
+
+import engine.EngineState;
+import engine.input.KeyState;
+import engine.input.MouseState;
+import engine.renderer.Dimensions;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a session recorded by an {@link InputRecorder}, ticking the game as fast as possible.
+ *
+ * <p>The game is loaded from the save at the start of the recording, then ticked with exactly the
+ * input and tick numbers the recorded game received, and rendered after each tick as the engine
+ * would. Replaying a recording therefore always leaves the game in the state the recorded game
+ * was in when the recording ended, which makes recordings suitable for profiling a session
+ * offline.
+ *
+ * <p>The whole recording is read up front so that replaying does no I/O.
+ */
+public class InputReplayer {
+
+    private final JavaBeanFarm game;
+    private final ReplayState state;
+    private final List<Frame> frames;
+    private final int ticks;
+    private int played = 0;
+    private int next = 0;
+
+    /** The input received on a tick, held until the next frame. */
+    private static class Frame {
+        private final int tick;
+        private final int mouseX;
+        private final int mouseY;
+        private final int buttons;
+        private final List<Character> keys;
+
+        private Frame(int tick, int mouseX, int mouseY, int buttons, List<Character> keys) {
+            this.tick = tick;
+            this.mouseX = mouseX;
+            this.mouseY = mouseY;
+            this.buttons = buttons;
+            this.keys = keys;
+        }
+    }
+
+    /** The engine state the game is ticked with, reporting the input of the current frame. */
+    private static class ReplayState implements EngineState, MouseState, KeyState {
+        private final Dimensions dimensions;
+        private Frame frame;
+        private int tick;
+
+        private ReplayState(Dimensions dimensions) {
+            this.dimensions = dimensions;
+        }
+
+        @Override
+        public Dimensions getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public MouseState getMouse() {
+            return this;
+        }
+
+        @Override
+        public KeyState getKeys() {
+            return this;
+        }
+
+        @Override
+        public int currentTick() {
+            return tick;
+        }
+
+        @Override
+        public int getMouseX() {
+            return frame.mouseX;
+        }
+
+        @Override
+        public int getMouseY() {
+            return frame.mouseY;
+        }
+
+        @Override
+        public boolean isLeftPressed() {
+            return (frame.buttons & InputRecorder.LEFT) != 0;
+        }
+
+        @Override
+        public boolean isRightPressed() {
+            return (frame.buttons & InputRecorder.RIGHT) != 0;
+        }
+
+        @Override
+        public boolean isMiddlePressed() {
+            return (frame.buttons & InputRecorder.MIDDLE) != 0;
+        }
+
+        @Override
+        public List<Character> getDown() {
+            return frame.keys;
+        }
+
+        @Override
+        public boolean isDown(char character) {
+            return frame.keys.contains(character);
+        }
+    }
+
+    private InputReplayer(JavaBeanFarm game, List<Frame> frames, int ticks) {
+        this.game = game;
+        this.state = new ReplayState(game.getDimensions());
+        this.frames = frames;
+        this.ticks = ticks;
+    }
+
+    /**
+     * Read a recording written by an {@link InputRecorder} from the given channel. The channel is
+     * not closed.
+     *
+     * @param channel The channel to read the recording from.
+     * @return A replayer of the recording, ready to replay from its first tick.
+     * @throws IOException If the channel cannot be read, or does not contain a complete recording
+     *     of a supported version.
+     */
+    public static InputReplayer read(ReadableByteChannel channel) throws IOException {
+        DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        try {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IOException("Input is not a recording");
+            }
+            int version = in.readUnsignedShort();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException("Unsupported recording version " + version);
+            }
+            int length = in.readInt();
+            if (length < 0) {
+                throw new IOException("Invalid recording save length " + length);
+            }
+            byte[] saved = in.readNBytes(length);
+            if (saved.length != length) {
+                throw new EOFException("Recording ended unexpectedly");
+            }
+            JavaBeanFarm game =
+                    JavaBeanFarm.load(Channels.newChannel(new ByteArrayInputStream(saved)));
+
+            List<Frame> frames = new ArrayList<>();
+            int tick = in.readInt();
+            while (tick != InputRecorder.END) {
+                if (!frames.isEmpty() && tick <= frames.get(frames.size() - 1).tick) {
+                    throw new IOException("Recording ticks out of order at tick " + tick);
+                }
+                int mouseX = in.readShort();
+                int mouseY = in.readShort();
+                int buttons = in.readUnsignedByte();
+                List<Character> keys = new ArrayList<>();
+                for (int i = in.readUnsignedByte(); i > 0; i--) {
+                    keys.add(in.readChar());
+                }
+                frames.add(new Frame(tick, mouseX, mouseY, buttons, List.copyOf(keys)));
+                tick = in.readInt();
+            }
+            int ticks = in.readInt();
+            if (ticks < 0 || (ticks > 0 && frames.isEmpty())
+                    || (!frames.isEmpty() && frames.get(frames.size() - 1).tick
+                            >= frames.get(0).tick + ticks)) {
+                throw new IOException("Recording of " + ticks + " ticks does not match its input");
+            }
+            return new InputReplayer(game, frames, ticks);
+        } catch (EOFException e) {
+            throw new EOFException("Recording ended unexpectedly");
+        }
+    }
+
+    /**
+     * Returns the game being replayed.
+     *
+     * @return The game, in the state as of the last tick replayed.
+     */
+    public JavaBeanFarm getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the number of ticks in the recording.
+     *
+     * @return The number of ticks recorded.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the number of ticks replayed so far.
+     *
+     * @return The number of ticks replayed.
+     */
+    public int getPlayed() {
+        return played;
+    }
+
+    /**
+     * Replay every remaining tick of the recording as fast as possible.
+     *
+     * @return A report of the replay.
+     */
+    public RunReport replay() {
+        return replay(ticks - played);
+    }
+
+    /**
+     * Replay up to the given number of ticks of the recording as fast as possible.
+     *
+     * @param count The maximum number of ticks to replay.
+     * @return A report of the replay, including the number of ticks actually replayed.
+     */
+    public RunReport replay(int count) {
+        int end = Math.min(ticks, played + Math.max(0, count));
+        int start = played;
+        long startNanos = System.nanoTime();
+        for (; played < end; played++) {
+            int tick = frames.get(0).tick + played;
+            while (next < frames.size() && frames.get(next).tick <= tick) {
+                state.frame = frames.get(next++);
+            }
+            state.tick = tick;
+            game.tick(state);
+            game.render();
+        }
+        return new RunReport(end - start, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Replay a recording as fast as possible and print the achieved tick rate.
+     *
+     * <p>Usage: {@code InputReplayer <recording>}
+     *
+     * @param args Command line arguments, the recording file.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: InputReplayer <recording>");
+            System.exit(1);
+        }
+        InputReplayer replayer;
+        try (FileInputStream file = new FileInputStream(args[0])) {
+            replayer = read(file.getChannel());
+        }
+        System.out.println(replayer.replay());
+        if (replayer.getGame().getProfiler().isEnabled()) {
+            System.out.print(replayer.getGame().getProfiler().report());
+        }
+    }
+}
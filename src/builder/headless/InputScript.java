@@ -0,0 +1,22 @@
+package builder.headless;
+
+/**
+ * Scripted input for a {@link HeadlessRunner}.
+ *
+ * <p>The script is applied before every tick, and may change the input held by the core for that
+ * tick. Input persists between ticks until the script changes it.
+ */
+@FunctionalInterface
+public interface InputScript {
+
+    /** A script that never changes the input. */
+    InputScript NONE = (tick, input) -> {};
+
+    /**
+     * Update the input to use for the given tick.
+     *
+     * @param tick The tick about to be run, starting from 0.
+     * @param input The core whose input the game will read during the tick.
+     */
+    void apply(int tick, HeadlessCore input);
+}
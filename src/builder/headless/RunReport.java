@@ -0,0 +1,56 @@
+package builder.headless;
+
+/** The result of running a number of ticks with a {@link HeadlessRunner}. */
+public class RunReport {
+
+    private final int ticks;
+    private final long elapsedNanos;
+
+    /**
+     * Construct a new report of a run.
+     *
+     * @param ticks The number of ticks run.
+     * @param elapsedNanos The wall-clock time taken by the run in nanoseconds.
+     */
+    public RunReport(int ticks, long elapsedNanos) {
+        this.ticks = ticks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of ticks run.
+     *
+     * @return The number of ticks run.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the wall-clock time taken by the run.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the achieved rate of the run.
+     *
+     * @return The number of ticks run per second of elapsed time, or 0 if no time elapsed.
+     */
+    public double getTicksPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return ticks * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d ticks in %.1f ms (%.1f ticks/s)",
+                ticks, elapsedNanos / 1_000_000.0, getTicksPerSecond());
+    }
+}
@@ -1,6 +1,8 @@
 package builder.inventory.items;
 
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Tool;
+import builder.ui.SpriteTable;
 
 import engine.art.sprites.Sprite;
 import engine.art.sprites.SpriteGroup;
@@ -17,7 +19,7 @@ import java.util.Optional;
  * @provided
  */
 public class Bucket implements Item {
-    private static final SpriteGroup toolArt = SpriteGallery.tools;
+    private static final SpriteTable<Tool> toolArt = SpriteGallery.toolsTable;
     private static final SpriteGroup art = SpriteGallery.chickenFarmer;
     private final Animation water =
             new Animation(
@@ -29,7 +31,7 @@ public class Bucket implements Item {
 
     @Override
     public Sprite inventorySprite() {
-        return toolArt.getSprite("bucket");
+        return toolArt.get(Tool.BUCKET);
     }
 
     @Override
@@ -1,9 +1,10 @@
 package builder.inventory.items;
 
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Tool;
+import builder.ui.SpriteTable;
 
 import engine.art.sprites.Sprite;
-import engine.art.sprites.SpriteGroup;
 import engine.timing.Animation;
 
 import java.util.Optional;
@@ -11,11 +12,11 @@ import java.util.Optional;
 /** An inventory item used to make a bee hive. */
 public class HiveHammer implements Item {
 
-    private static final SpriteGroup toolArt = SpriteGallery.tools;
+    private static final SpriteTable<Tool> toolArt = SpriteGallery.toolsTable;
 
     @Override
     public Sprite inventorySprite() {
-        return toolArt.getSprite("hivehammer");
+        return toolArt.get(Tool.HIVE_HAMMER);
     }
 
     @Override
@@ -1,9 +1,10 @@
 package builder.inventory.items;
 
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Tool;
+import builder.ui.SpriteTable;
 
 import engine.art.sprites.Sprite;
-import engine.art.sprites.SpriteGroup;
 import engine.timing.Animation;
 
 import java.util.Optional;
@@ -16,14 +17,14 @@ import java.util.Optional;
  * @provided
  */
 public class Hoe implements Item {
-    private static final SpriteGroup toolArt = SpriteGallery.tools;
+    private static final SpriteTable<Tool> toolArt = SpriteGallery.toolsTable;
 
     /** Construct a new hoe instance. */
     public Hoe() {}
 
     @Override
     public Sprite inventorySprite() {
-        return toolArt.getSprite("hoe");
+        return toolArt.get(Tool.HOE);
     }
 
     @Override
@@ -1,20 +1,21 @@
 package builder.inventory.items;
 
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Tool;
+import builder.ui.SpriteTable;
 
 import engine.art.sprites.Sprite;
-import engine.art.sprites.SpriteGroup;
 import engine.timing.Animation;
 
 import java.util.Optional;
 
 /** An inventory item used to plant a scarecrow. */
 public class Pole implements Item {
-    private static final SpriteGroup toolArt = SpriteGallery.tools;
+    private static final SpriteTable<Tool> toolArt = SpriteGallery.toolsTable;
 
     @Override
     public Sprite inventorySprite() {
-        return toolArt.getSprite("pole");
+        return toolArt.get(Tool.POLE);
     }
 
     @Override
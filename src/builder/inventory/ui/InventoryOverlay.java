@@ -66,11 +66,22 @@ public class InventoryOverlay implements Overlay {
         return renderables;
     }
 
+    @Override
+    public void renderInto(List<Renderable> renderables) {
+        for (InventorySquare square : inventorySquares) {
+            renderables.add(square);
+        }
+        for (InventorySlot slot : inventorySlots) {
+            renderables.add(slot);
+        }
+    }
+
     @Override
     public void tick(EngineState state, GameState game) {
         Inventory inventory = game.getInventory();
         for (int i = 1; i <= slots; i++) {
-            char character = (i + "").charAt(0); // invariant slots <= 9 ensures sane behaviour
+            // invariant slots <= 9 ensures sane behaviour
+            char character = Character.forDigit(i, 10);
             if (state.getKeys().isDown(character)) {
                 inventory.setActiveSlot(i - 1); // offset slot index by -1
             }
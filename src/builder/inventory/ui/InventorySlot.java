@@ -2,9 +2,10 @@ package builder.inventory.ui;
 
 import builder.inventory.items.Item;
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Slot;
+import builder.ui.SpriteTable;
 
 import engine.art.sprites.Sprite;
-import engine.art.sprites.SpriteGroup;
 import engine.ui.FixedDisplay;
 
 /**
@@ -14,7 +15,7 @@ import engine.ui.FixedDisplay;
  * @provided
  */
 public class InventorySlot extends FixedDisplay {
-    private static final SpriteGroup inventoryArt = SpriteGallery.inventory;
+    private static final SpriteTable<Slot> inventoryArt = SpriteGallery.inventoryTable;
     private Item item = null;
 
     /**
@@ -43,7 +44,7 @@ public class InventorySlot extends FixedDisplay {
     @Override
     public Sprite getSprite() {
         if (item == null) {
-            return inventoryArt.getSprite("empty");
+            return inventoryArt.get(Slot.EMPTY);
         }
         return item.inventorySprite();
     }
@@ -1,9 +1,10 @@
 package builder.inventory.ui;
 
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Slot;
+import builder.ui.SpriteTable;
 
 import engine.art.sprites.Sprite;
-import engine.art.sprites.SpriteGroup;
 import engine.ui.FixedDisplay;
 
 /**
@@ -14,7 +15,7 @@ import engine.ui.FixedDisplay;
  * @provided
  */
 public class InventorySquare extends FixedDisplay {
-    private static final SpriteGroup inventoryArt = SpriteGallery.inventory;
+    private static final SpriteTable<Slot> inventoryArt = SpriteGallery.inventoryTable;
     private boolean isActive = false;
 
     /**
@@ -39,8 +40,8 @@ public class InventorySquare extends FixedDisplay {
     @Override
     public Sprite getSprite() {
         if (isActive) {
-            return inventoryArt.getSprite("activeborder");
+            return inventoryArt.get(Slot.ACTIVE_BORDER);
         }
-        return inventoryArt.getSprite("border");
+        return inventoryArt.get(Slot.BORDER);
     }
 }
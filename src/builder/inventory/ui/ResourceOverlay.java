@@ -28,6 +28,14 @@ public class ResourceOverlay implements Overlay {
     private static final int HORIZONTAL_INSET = 40;
     private static final int VERTICAL_INSET = 40;
 
+    /** The amounts displayed, so the displays are only rebuilt when an amount changes. */
+    private int displayedFood = Integer.MIN_VALUE;
+    private int displayedCoins = Integer.MIN_VALUE;
+
+    /** The renderables of both displays, rebuilt whenever a display is updated. */
+    private final List<Renderable> renderables = new ArrayList<>();
+    private boolean updated = true;
+
     /**
      * Construct a new resource overlay for the given dimensions.
      *
@@ -43,11 +51,24 @@ public class ResourceOverlay implements Overlay {
 
     /**
      * Progress the resource overlay by updating the food and coin counts displayed by the overlay.
+     *
+     * <p>Updating a display creates a new entity for each of its letters, so a display is only
+     * updated when its amount has changed.
      */
     @Override
     public void tick(EngineState state, GameState game) {
-        this.foodDisplay.update(game.getInventory().getFood() + "");
-        this.coinDisplay.update(game.getInventory().getCoins() + "");
+        int food = game.getInventory().getFood();
+        if (food != displayedFood) {
+            this.foodDisplay.update(food + "");
+            displayedFood = food;
+            updated = true;
+        }
+        int coins = game.getInventory().getCoins();
+        if (coins != displayedCoins) {
+            this.coinDisplay.update(coins + "");
+            displayedCoins = coins;
+            updated = true;
+        }
     }
 
     /**
@@ -58,8 +79,20 @@ public class ResourceOverlay implements Overlay {
     @Override
     public List<Renderable> render() {
         List<Renderable> result = new ArrayList<Renderable>();
-        result.addAll(this.foodDisplay.render());
-        result.addAll(this.coinDisplay.render());
+        renderInto(result);
         return result;
     }
+
+    @Override
+    public void renderInto(List<Renderable> renderables) {
+        if (updated) {
+            this.renderables.clear();
+            this.renderables.addAll(this.foodDisplay.render());
+            this.renderables.addAll(this.coinDisplay.render());
+            updated = false;
+        }
+        for (int i = 0; i < this.renderables.size(); i++) {
+            renderables.add(this.renderables.get(i));
+        }
+    }
 }
@@ -0,0 +1,141 @@
+package builder.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A rolling histogram of durations, keeping the most recent samples in a fixed size window.
+ *
+ * <p>Recording a sample is a constant time operation that does not allocate. Percentiles are
+ * calculated over the samples in the window when queried, while the count and total cover every
+ * sample recorded since the histogram was created or last reset.
+ */
+public class TickHistogram {
+
+    /** The number of samples kept by default, about 15 seconds of ticks. */
+    public static final int DEFAULT_WINDOW = 1024;
+
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+    private long count = 0;
+    private long totalNanos = 0;
+
+    /** Construct a new empty histogram with the default window size. */
+    public TickHistogram() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Construct a new empty histogram keeping the given number of recent samples.
+     *
+     * @param window The number of recent samples to calculate percentiles over.
+     * @throws IllegalArgumentException If the window is not positive.
+     */
+    public TickHistogram(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.samples = new long[window];
+    }
+
+    /**
+     * Record a single duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+        count++;
+        totalNanos += nanos;
+    }
+
+    /**
+     * Returns the number of samples recorded.
+     *
+     * @return The number of samples recorded since creation or the last reset.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of every sample recorded.
+     *
+     * @return The total duration in nanoseconds since creation or the last reset.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the number of samples currently in the window.
+     *
+     * @return The number of recent samples percentiles are calculated over.
+     */
+    public int getWindowSize() {
+        return size;
+    }
+
+    /**
+     * Returns the given percentile of the samples in the window, using the nearest-rank method.
+     *
+     * @param percentile The percentile, between 0 and 100 inclusive.
+     * @return The percentile in nanoseconds, or 0 if the window is empty.
+     * @throws IllegalArgumentException If the percentile is outside of 0 to 100.
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        }
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the median of the samples in the window.
+     *
+     * @return The 50th percentile in nanoseconds.
+     */
+    public long getP50() {
+        return percentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile of the samples in the window.
+     *
+     * @return The 99th percentile in nanoseconds.
+     */
+    public long getP99() {
+        return percentile(99);
+    }
+
+    /**
+     * Returns the largest sample in the window.
+     *
+     * @return The maximum in nanoseconds, or 0 if the window is empty.
+     */
+    public long getMax() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /** Remove every sample. */
+    public void reset() {
+        next = 0;
+        size = 0;
+        count = 0;
+        totalNanos = 0;
+    }
+}
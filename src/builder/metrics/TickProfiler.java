@@ -0,0 +1,200 @@
+package builder.metrics;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records how long each part of a game tick takes, as named {@link TickHistogram}s.
+ *
+ * <p>Timings are taken by calling {@link #start()} before the timed work and {@link #stop(String,
+ * long)} after it. While the profiler is disabled neither reads the clock nor records anything, so
+ * instrumented code costs a branch per timing. Profiling is disabled by default, unless the {@value
+ * #PROPERTY} system property is set to {@code true}.
+ *
+ * <p>Timings of individual entities are grouped by type via {@link #group(String)}, for example
+ * {@code enemy/Pigeon} and {@code enemy/Magpie}.
+ */
+public class TickProfiler {
+
+    /** The system property which enables profiling when set to {@code true}. */
+    public static final String PROPERTY = "javabean.profile";
+
+    private boolean enabled;
+    private final Map<String, TickHistogram> histograms = new LinkedHashMap<>();
+    private final Map<String, Group> groups = new HashMap<>();
+
+    /**
+     * A set of histograms of the same kind of work, one per type of object doing the work.
+     */
+    public class Group {
+        private final String prefix;
+        private final Map<Class<?>, TickHistogram> byType = new HashMap<>();
+
+        private Group(String prefix) {
+            this.prefix = prefix;
+        }
+
+        /**
+         * Returns the histogram of the given type, named the group prefix then the type's simple
+         * name.
+         *
+         * @param type The type of object the timings are for.
+         * @return The histogram of the type, created if it doesn't exist.
+         */
+        public TickHistogram of(Class<?> type) {
+            TickHistogram histogram = byType.get(type);
+            if (histogram == null) {
+                histogram = histogram(prefix + "/" + type.getSimpleName());
+                byType.put(type, histogram);
+            }
+            return histogram;
+        }
+
+        /**
+         * Record the time since the given start time against the given type, if enabled.
+         *
+         * @param type The type of object the work was done by.
+         * @param start The value returned by {@link TickProfiler#start()} before the work.
+         */
+        public void stop(Class<?> type, long start) {
+            if (enabled) {
+                of(type).record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Construct a new profiler, enabled if the {@value #PROPERTY} system property is {@code true}.
+     */
+    public TickProfiler() {
+        this(Boolean.getBoolean(PROPERTY));
+    }
+
+    /**
+     * Construct a new profiler.
+     *
+     * @param enabled Whether timings are recorded.
+     */
+    public TickProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether timings are being recorded.
+     *
+     * @return true if the profiler is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start or stop recording timings. Previously recorded timings are kept.
+     *
+     * @param enabled Whether to record timings.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the start time of some work to be timed.
+     *
+     * @return The current time in nanoseconds, or 0 if the profiler is disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the time since the given start time in the named histogram, if enabled.
+     *
+     * @param name The name of the timed work.
+     * @param start The value returned by {@link #start()} before the work.
+     */
+    public void stop(String name, long start) {
+        if (enabled) {
+            histogram(name).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the histogram with the given name.
+     *
+     * @param name The name of the histogram.
+     * @return The histogram, created if it doesn't exist.
+     */
+    public TickHistogram histogram(String name) {
+        TickHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new TickHistogram();
+            histograms.put(name, histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the group of histograms with the given name prefix.
+     *
+     * @param prefix The prefix of the group's histogram names, e.g. {@code enemy}.
+     * @return The group, created if it doesn't exist.
+     */
+    public Group group(String prefix) {
+        Group group = groups.get(prefix);
+        if (group == null) {
+            group = new Group(prefix);
+            groups.put(prefix, group);
+        }
+        return group;
+    }
+
+    /**
+     * Returns every histogram by name, in the order they were first recorded to.
+     *
+     * @return An unmodifiable view of the histograms.
+     */
+    public Map<String, TickHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /** Remove every sample from every histogram. */
+    public void reset() {
+        for (TickHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns a table of the count, p50, p99 and max of every histogram, in microseconds.
+     *
+     * @return The formatted report.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-24s %10s %10s %10s %10s%n",
+                "timing", "count", "p50 us", "p99 us", "max us"));
+        for (Map.Entry<String, TickHistogram> entry : histograms.entrySet()) {
+            TickHistogram histogram = entry.getValue();
+            report.append(String.format(Locale.ROOT, "%-24s %10d %10.1f %10.1f %10.1f%n",
+                    entry.getKey(),
+                    histogram.getCount(),
+                    histogram.getP50() / 1000.0,
+                    histogram.getP99() / 1000.0,
+                    histogram.getMax() / 1000.0));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Print the report (see {@link #report()}) to the given stream when the program exits.
+     *
+     * @param out The stream to print the report to.
+     */
+    public void dumpOnShutdown(PrintStream out) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> out.print(report())));
+    }
+}
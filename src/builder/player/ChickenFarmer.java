@@ -2,6 +2,8 @@ package builder.player;
 
 import builder.inventory.items.Item;
 import builder.ui.SpriteGallery;
+import builder.ui.SpriteGallery.Facing;
+import builder.ui.SpriteTable;
 
 import engine.EngineState;
 import engine.art.sprites.Sprite;
@@ -34,6 +36,7 @@ public class ChickenFarmer extends Entity implements Player {
     private static final int DAMAGE = 2;
 
     private static final SpriteGroup art = SpriteGallery.chickenFarmer;
+    private static final SpriteTable<Facing> facing = SpriteGallery.chickenFarmerTable;
     private Animation useAnimation = null;
     private final Animation walkLeft =
             new Animation(
@@ -101,11 +104,11 @@ public class ChickenFarmer extends Entity implements Player {
         switch (direction) {
             case NORTH -> {
                 setY(getY() - amount);
-                this.setSprite(art.getSprite("up"));
+                this.setSprite(facing.get(Facing.UP));
             }
             case SOUTH -> {
                 setY(getY() + amount);
-                this.setSprite(art.getSprite("down"));
+                this.setSprite(facing.get(Facing.DOWN));
             }
             case EAST -> {
                 setX(getX() + amount);
@@ -116,7 +119,7 @@ public class ChickenFarmer extends Entity implements Player {
                 this.setSprite(this.walkLeft);
             }
             default -> {
-                this.setSprite(art.getSprite("down"));
+                this.setSprite(facing.get(Facing.DOWN));
             }
         }
     }
@@ -128,7 +131,7 @@ public class ChickenFarmer extends Entity implements Player {
      */
     @Override
     public void tick(EngineState state) {
-        this.setSprite(art.getSprite("down"));
+        this.setSprite(facing.get(Facing.DOWN));
 
         // progress animations forward
         this.walkLeft.tick(state);
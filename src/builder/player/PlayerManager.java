@@ -100,24 +100,26 @@ public class PlayerManager implements Tickable, RenderableGroup {
             direction = Direction.EAST;
         }
         if (direction != null) {
-            tryMove(direction, world, state.getDimensions());
+            tryMove(direction, game, state.getDimensions());
         }
 
-        List<Tile> underPlayer =
-                world.tilesAtPosition(player.getX(), player.getY(), state.getDimensions());
+        List<Tile> underPlayer = game.getScratch().list();
+        world.tilesAtPosition(player.getX(), player.getY(), state.getDimensions(), underPlayer);
         interact(state, game, underPlayer);
         if (state.getMouse().isLeftPressed()) {
             use(state, game, underPlayer);
         }
     }
 
-    private void tryMove(Direction direction, World world, Dimensions dimensions) {
+    private void tryMove(Direction direction, GameState game, Dimensions dimensions) {
         Position nextPosition = new Position(player.getX(), player.getY()).shift(direction, 1);
 
-        List<Tile> underPlayer =
-                world.tilesAtPosition(nextPosition.getX(), nextPosition.getY(), dimensions);
+        List<Tile> underPlayer = game.getScratch().list();
+        game.getWorld()
+                .tilesAtPosition(nextPosition.getX(), nextPosition.getY(), dimensions, underPlayer);
         boolean blocked = false;
-        for (Tile tile : underPlayer) {
+        for (int i = 0; i < underPlayer.size(); i++) {
+            Tile tile = underPlayer.get(i);
             if (!tile.canWalkThrough()) {
                 blocked = true;
             }
@@ -128,7 +130,8 @@ public class PlayerManager implements Tickable, RenderableGroup {
     }
 
     private void interact(EngineState state, GameState game, List<Tile> underPlayer) {
-        for (Tile tile : underPlayer) {
+        for (int i = 0; i < underPlayer.size(); i++) {
+            Tile tile = underPlayer.get(i);
             tile.interact(state, game);
         }
     }
@@ -136,7 +139,8 @@ public class PlayerManager implements Tickable, RenderableGroup {
     private void use(EngineState state, GameState game, List<Tile> underPlayer) {
         this.player.use(game.getInventory().getHolding());
 
-        for (Tile tile : underPlayer) {
+        for (int i = 0; i < underPlayer.size(); i++) {
+            Tile tile = underPlayer.get(i);
             if (tile instanceof Usable usable) {
                 usable.use(state, game);
             }
@@ -152,4 +156,9 @@ public class PlayerManager implements Tickable, RenderableGroup {
     public List<Renderable> render() {
         return List.of(player);
     }
+
+    @Override
+    public void renderInto(List<Renderable> renderables) {
+        renderables.add(player);
+    }
 }
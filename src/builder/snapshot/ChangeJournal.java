@@ -0,0 +1,360 @@
+package builder.snapshot;
+
+import builder.entities.npc.NpcManager;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.tiles.Tile;
+import builder.inventory.Inventory;
+import builder.world.BeanWorld;
+import builder.world.WorldListener;
+
+import engine.renderer.Dimensions;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static builder.snapshot.SnapshotFormat.*;
+
+/**
+ * Records the changes made to a world since it was snapshotted, so that the state of a farm can
+ * be checkpointed by writing only what has changed since the previous checkpoint.
+ *
+ * <p>A journal listens to its world (see {@link BeanWorld#setListener(WorldListener)}) and gives
+ * every tile a persistent id, starting with the tiles in the world when the journal is created in
+ * placement order. Between checkpoints it records which tiles were placed, created from terrain,
+ * removed or changed, e.g. tilled or had a cabbage planted on them. Terrain is never created by
+ * the journal, so a tile created from terrain is written as just its position, and only once it
+ * has been created by the farm. A checkpoint then writes those tiles along with
+ * every active tile (see {@link BeanWorld#getActiveTiles()}), since ticking changes cabbage
+ * growth, ore and hives without notifying anyone. The player, inventory, npcs and birds change
+ * almost every tick and are small, so they are written in full every checkpoint.
+ *
+ * <p>The cost of a checkpoint therefore depends on how much of the world is active or has been
+ * changed rather than on the size of the world. A snapshot followed by its checkpoints can be
+ * compacted by applying the checkpoints (see {@link #apply}) and writing a new snapshot.
+ */
+public final class ChangeJournal implements WorldListener {
+
+    private final BeanWorld world;
+    private final Map<Tile, Integer> ids = new IdentityHashMap<>();
+    private final Map<Integer, Tile> tiles = new HashMap<>();
+    private int nextId = 0;
+    /** The number of tiles given ids as of the previous checkpoint. */
+    private int checkpointId;
+
+    /** The tiles placed and created since the previous checkpoint, in the order they were. */
+    private final List<Tile> added = new ArrayList<>();
+    private final Set<Tile> placed = new LinkedHashSet<>();
+    private final Set<Tile> created = new LinkedHashSet<>();
+    private final Set<Tile> changed = new LinkedHashSet<>();
+    private final List<Integer> removed = new ArrayList<>();
+
+    /**
+     * Construct a new journal of the changes made to the given world from now on, replacing any
+     * existing listener of the world.
+     *
+     * <p>The world should be in the state it was in when it was last snapshotted.
+     *
+     * @param world The world to record the changes of.
+     */
+    public ChangeJournal(BeanWorld world) {
+        this.world = world;
+        for (Tile tile : world.createdTiles()) {
+            assign(tile);
+        }
+        checkpointId = nextId;
+        // last, so the world is only handed a fully constructed journal
+        world.setListener(this);
+    }
+
+    @Override
+    public void placed(Tile tile) {
+        if (placed.add(tile)) {
+            added.add(tile);
+        }
+    }
+
+    @Override
+    public void materialised(Tile tile) {
+        // given an id at once, so it can be written as changed or removed like any other tile
+        assign(tile);
+        created.add(tile);
+        added.add(tile);
+    }
+
+    @Override
+    public void changed(Tile tile) {
+        if (!placed.contains(tile)) {
+            changed.add(tile);
+        }
+    }
+
+    @Override
+    public void removed(Tile tile) {
+        if (placed.remove(tile)) {
+            // never written, so there is nothing to remove
+            added.remove(tile);
+            return;
+        }
+        changed.remove(tile);
+        Integer id = ids.remove(tile);
+        if (id != null) {
+            tiles.remove(id);
+            removed.add(id);
+        }
+    }
+
+    /**
+     * Returns the number of tiles placed, created from terrain, changed or removed since the
+     * previous checkpoint.
+     *
+     * @return The number of recorded changes.
+     */
+    public int getPendingChanges() {
+        return placed.size() + created.size() + changed.size() + removed.size();
+    }
+
+    /**
+     * Write the changes made since the previous checkpoint (or since the journal was created) to
+     * the given channel, then start recording afresh. The channel is not closed.
+     *
+     * @param snapshot The current state of the farm, whose world must be this journal's world.
+     * @param channel The channel to write the checkpoint to.
+     * @throws IOException If the channel cannot be written to.
+     * @throws IllegalArgumentException If the snapshot is of another world, or the farm contains
+     *     anything the snapshot format cannot represent.
+     */
+    public void checkpoint(Snapshot snapshot, WritableByteChannel channel) throws IOException {
+        if (snapshot.getWorld() != world) {
+            throw new IllegalArgumentException("Snapshot is not of the journal's world");
+        }
+        List<Tile> dirty = new ArrayList<>();
+        Set<Tile> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Tile tile : world.getActiveTiles()) {
+            if (ids.containsKey(tile) && seen.add(tile)) {
+                dirty.add(tile);
+            }
+        }
+        for (Tile tile : changed) {
+            if (seen.add(tile)) {
+                dirty.add(tile);
+            }
+        }
+
+        ChannelOutput out = new ChannelOutput(channel, BUFFER_SIZE);
+        SnapshotEncoder encoder = new SnapshotEncoder(out, snapshot.getPlayerManager().getPlayer());
+        encoder.setTileIds(ids);
+        out.putInt(DELTA_MAGIC);
+        out.putShort(VERSION);
+        out.putInt(checkpointId);
+        encoder.writePlayer(snapshot.getInventory());
+        out.putInt(added.size());
+        for (Tile tile : added) {
+            if (created.contains(tile)) {
+                out.putByte(CREATED_TILE);
+                out.putInt(tile.getX());
+                out.putInt(tile.getY());
+            } else {
+                out.putByte(PLACED_TILE);
+                encoder.writeTile(tile);
+            }
+        }
+        out.putInt(dirty.size());
+        for (Tile tile : dirty) {
+            out.putInt(ids.get(tile));
+            encoder.writeTile(tile);
+        }
+        out.putInt(removed.size());
+        for (int id : removed) {
+            out.putInt(id);
+        }
+        encoder.writeEnemies(snapshot.getEnemies());
+        encoder.writeEntities(snapshot.getNpcs().getNpcs());
+        out.putInt(END);
+        out.flush();
+
+        for (Tile tile : placed) {
+            assign(tile);
+        }
+        checkpointId = nextId;
+        clear();
+    }
+
+    /**
+     * Apply a checkpoint written by the journal of the world a snapshot was taken of to the
+     * snapshot's world, which must be this journal's world. Checkpoints must be applied in the
+     * order they were written, starting from the snapshot the writing journal was created at.
+     *
+     * <p>Terrain is created and tiles placed in the order the checkpoint's world did, changed
+     * tiles are replaced in the world by the tiles read, and the player is moved, but the
+     * inventory, npcs and enemies are read anew.
+     *
+     * @param snapshot The state of the farm as of the previous checkpoint.
+     * @param channel The channel to read the checkpoint from, which is not closed.
+     * @return The state of the farm as of the checkpoint.
+     * @throws IOException If the channel cannot be read, or does not contain a checkpoint that
+     *     follows on from the given snapshot.
+     * @throws IllegalArgumentException If the snapshot is of another world.
+     */
+    public Snapshot apply(Snapshot snapshot, ReadableByteChannel channel) throws IOException {
+        if (snapshot.getWorld() != world) {
+            throw new IllegalArgumentException("Snapshot is not of the journal's world");
+        }
+        ChannelInput in = new ChannelInput(channel, BUFFER_SIZE);
+        if (in.getInt() != DELTA_MAGIC) {
+            throw new IOException("Input is not a checkpoint");
+        }
+        int version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version);
+        }
+        if (in.getInt() != nextId) {
+            throw new IOException("Checkpoint does not follow on from the snapshot");
+        }
+        SnapshotDecoder decoder = new SnapshotDecoder(in);
+        decoder.setTileIds(tiles);
+        Inventory inventory = decoder.readPlayer(snapshot.getPlayerManager());
+        Dimensions dimensions = snapshot.getDimensions();
+        // the placed tiles in the order added, with null for each cell created, in order
+        List<Tile> additions = new ArrayList<>();
+        Set<Integer> cells = new LinkedHashSet<>();
+        for (int i = readCount(in); i > 0; i--) {
+            byte code = in.getByte();
+            if (code == PLACED_TILE) {
+                additions.add(decoder.readTile());
+            } else if (code == CREATED_TILE) {
+                additions.add(null);
+                cells.add(readCell(in, dimensions, cells));
+            } else {
+                throw new IOException("Unknown added tile code " + code);
+            }
+        }
+        int createdIds = nextId + cells.size();
+        Map<Integer, Tile> replacements = new LinkedHashMap<>();
+        for (int i = readCount(in); i > 0; i--) {
+            replacements.put(readId(in, createdIds), decoder.readTile());
+        }
+        List<Integer> removals = new ArrayList<>();
+        for (int i = readCount(in); i > 0; i--) {
+            removals.add(readId(in, createdIds));
+        }
+        EnemyManager enemies = decoder.readEnemies(dimensions);
+        NpcManager npcs = decoder.readNpcs();
+        if (in.getInt() != END) {
+            throw new IOException("Checkpoint is missing its end marker");
+        }
+
+        // while listening, so created tiles are given ids in the order the writer gave them
+        Iterator<Integer> cell = cells.iterator();
+        int columns = dimensions.windowSize() / dimensions.tileSize();
+        for (Tile tile : additions) {
+            if (tile == null) {
+                int next = cell.next();
+                world.tilesAtPosition(dimensions.tileToPixel(next % columns),
+                        dimensions.tileToPixel(next / columns), dimensions);
+            } else {
+                world.place(tile);
+            }
+        }
+        for (Tile tile : placed) {
+            assign(tile);
+        }
+
+        world.setListener(null);
+        Map<Tile, Tile> replaced = new IdentityHashMap<>();
+        for (Map.Entry<Integer, Tile> replacement : replacements.entrySet()) {
+            replaced.put(lookup(replacement.getKey()), replacement.getValue());
+        }
+        world.replaceTiles(replaced);
+        for (Map.Entry<Tile, Tile> replacement : replaced.entrySet()) {
+            int id = ids.remove(replacement.getKey());
+            ids.put(replacement.getValue(), id);
+            tiles.put(id, replacement.getValue());
+        }
+        Set<Tile> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int id : removals) {
+            removed.add(lookup(id));
+        }
+        world.removeTiles(removed);
+        for (Tile tile : removed) {
+            tiles.remove(ids.remove(tile));
+        }
+        // last, so the world is only handed a fully constructed journal
+        world.setListener(this);
+        checkpointId = nextId;
+        clear();
+        return new Snapshot(dimensions, snapshot.getPlayerManager(), inventory, world, npcs,
+                enemies);
+    }
+
+    /**
+     * Read the position of a tile created from terrain, which must be within a cell of the
+     * world's remaining terrain not already read.
+     *
+     * @return The cell of the position, row by row.
+     */
+    private int readCell(ChannelInput in, Dimensions dimensions, Set<Integer> read)
+            throws IOException {
+        int x = in.getInt();
+        int y = in.getInt();
+        int tileSize = dimensions.tileSize();
+        int cell = (y / tileSize) * (dimensions.windowSize() / tileSize) + x / tileSize;
+        if (world.getTerrainAt(x, y) == 0 || read.contains(cell)) {
+            throw new IOException("Checkpoint creates a tile without terrain at " + x + ", " + y);
+        }
+        return cell;
+    }
+
+    /**
+     * Read the id of a tile, which must be known or one of the tiles the checkpoint creates.
+     *
+     * @param createdIds The id after those of the tiles the checkpoint creates.
+     */
+    private int readId(ChannelInput in, int createdIds) throws IOException {
+        int id = in.getInt();
+        if (!tiles.containsKey(id) && (id < nextId || id >= createdIds)) {
+            throw new IOException("Checkpoint refers to unknown tile " + id);
+        }
+        return id;
+    }
+
+    private void assign(Tile tile) {
+        ids.put(tile, nextId);
+        tiles.put(nextId, tile);
+        nextId++;
+    }
+
+    private void clear() {
+        added.clear();
+        placed.clear();
+        created.clear();
+        changed.clear();
+        removed.clear();
+    }
+
+    private Tile lookup(int id) throws IOException {
+        Tile tile = tiles.get(id);
+        if (tile == null) {
+            throw new IOException("Checkpoint refers to unknown tile " + id);
+        }
+        return tile;
+    }
+
+    private static int readCount(ChannelInput in) throws IOException {
+        int count = in.getInt();
+        if (count < 0) {
+            throw new IOException("Invalid count " + count + " in checkpoint");
+        }
+        return count;
+    }
+}
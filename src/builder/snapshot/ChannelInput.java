@@ -0,0 +1,126 @@
+package builder.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered big-endian primitive input from a byte channel, the counterpart of {@link
+ * ChannelOutput}.
+ */
+final class ChannelInput {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Construct a new input reading from the given channel.
+     *
+     * @param channel The channel to read from.
+     * @param bufferSize The maximum number of bytes to read from the channel at a time.
+     */
+    ChannelInput(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    /**
+     * Read a single byte.
+     *
+     * @return The byte read.
+     * @throws IOException If the channel cannot be read or has ended.
+     */
+    byte getByte() throws IOException {
+        ensure(Byte.BYTES);
+        return buffer.get();
+    }
+
+    /**
+     * Read a boolean written as a single byte.
+     *
+     * @return The boolean read.
+     * @throws IOException If the channel cannot be read, has ended, or the byte is not a boolean.
+     */
+    boolean getBoolean() throws IOException {
+        byte value = getByte();
+        if (value != 0 && value != 1) {
+            throw new IOException("Malformed boolean in snapshot: " + value);
+        }
+        return value == 1;
+    }
+
+    /**
+     * Read an unsigned 16 bit value.
+     *
+     * @return The value read, between 0 and 65535.
+     * @throws IOException If the channel cannot be read or has ended.
+     */
+    int getShort() throws IOException {
+        ensure(Short.BYTES);
+        return Short.toUnsignedInt(buffer.getShort());
+    }
+
+    /**
+     * Read a 32 bit integer.
+     *
+     * @return The integer read.
+     * @throws IOException If the channel cannot be read or has ended.
+     */
+    int getInt() throws IOException {
+        ensure(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    /**
+     * Read a string written by {@link ChannelOutput#putString(String)}.
+     *
+     * @return The string read.
+     * @throws IOException If the channel cannot be read or has ended.
+     */
+    String getString() throws IOException {
+        int length = getShort();
+        if (length > buffer.capacity()) {
+            throw new IOException("Malformed string length in snapshot: " + length);
+        }
+        ensure(length);
+        String value = new String(buffer.array(), buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Whether the channel has ended with no bytes left to read.
+     *
+     * @return true if there is no more input.
+     * @throws IOException If the channel cannot be read.
+     */
+    boolean atEnd() throws IOException {
+        if (buffer.hasRemaining()) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read < 0;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Snapshot ended unexpectedly");
+            }
+        }
+        buffer.flip();
+    }
+}
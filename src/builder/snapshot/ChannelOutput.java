@@ -0,0 +1,108 @@
+package builder.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered big-endian primitive output to a byte channel.
+ *
+ * <p>Values are collected in a fixed size buffer which is written to the channel whenever it
+ * fills, so the whole snapshot never has to be held in memory at once.
+ */
+final class ChannelOutput {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Construct a new output writing to the given channel.
+     *
+     * @param channel The channel to write to.
+     * @param bufferSize The number of bytes to collect before writing to the channel.
+     */
+    ChannelOutput(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Write a single byte.
+     *
+     * @param value The byte to write.
+     * @throws IOException If the channel cannot be written to.
+     */
+    void putByte(int value) throws IOException {
+        ensure(Byte.BYTES);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Write a boolean as a single byte.
+     *
+     * @param value The boolean to write.
+     * @throws IOException If the channel cannot be written to.
+     */
+    void putBoolean(boolean value) throws IOException {
+        putByte(value ? 1 : 0);
+    }
+
+    /**
+     * Write an unsigned 16 bit value.
+     *
+     * @param value The value to write, between 0 and 65535.
+     * @throws IOException If the channel cannot be written to.
+     */
+    void putShort(int value) throws IOException {
+        ensure(Short.BYTES);
+        buffer.putShort((short) value);
+    }
+
+    /**
+     * Write a 32 bit integer.
+     *
+     * @param value The integer to write.
+     * @throws IOException If the channel cannot be written to.
+     */
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Write a string as its UTF-8 encoded length followed by the encoded bytes.
+     *
+     * @param value The string to write.
+     * @throws IOException If the channel cannot be written to.
+     * @throws IllegalArgumentException If the encoded string is too long to write.
+     */
+    void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF || bytes.length + Short.BYTES > buffer.capacity()) {
+            throw new IllegalArgumentException("String too long for snapshot: " + value);
+        }
+        putShort(bytes.length);
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Write any buffered bytes to the channel.
+     *
+     * @throws IOException If the channel cannot be written to.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package builder.snapshot;
+
+import builder.entities.npc.NpcManager;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.inventory.Inventory;
+import builder.player.PlayerManager;
+import builder.world.BeanWorld;
+
+import engine.renderer.Dimensions;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The complete state of a running farm, which can be written to and read from a byte channel in
+ * a compact versioned binary format (see {@link SnapshotFormat}).
+ *
+ * <p>A snapshot covers the world's tiles and their stacked entities (tilled dirt, cabbage growth,
+ * ore remaining, hives and scarecrows), every npc and bird with the target it is tracking, the
+ * enemy spawners and their timers, the player position and the inventory. Rendering state that
+ * is recomputed every tick, such as the player's walking animation, is not included.
+ *
+ * <p>Timers are only captured if they were created by the game, i.e. are a {@link
+ * builder.timing.TrackedFixedTimer} or {@link builder.timing.TrackedRepeatingTimer}.
+ */
+public class Snapshot {
+
+    private final Dimensions dimensions;
+    private final PlayerManager playerManager;
+    private final Inventory inventory;
+    private final BeanWorld world;
+    private final NpcManager npcs;
+    private final EnemyManager enemies;
+
+    /**
+     * Construct a snapshot of the given parts of a farm.
+     *
+     * <p>The parts are not copied, so the snapshot reflects their state when it is written.
+     *
+     * @param dimensions The dimensions of the game.
+     * @param playerManager The player manager controlling the chicken farmer.
+     * @param inventory The player's inventory.
+     * @param world The world containing every tile.
+     * @param npcs The manager of the farm's npcs.
+     * @param enemies The manager of the farm's spawners and birds.
+     */
+    public Snapshot(Dimensions dimensions, PlayerManager playerManager, Inventory inventory,
+            BeanWorld world, NpcManager npcs, EnemyManager enemies) {
+        this.dimensions = dimensions;
+        this.playerManager = playerManager;
+        this.inventory = inventory;
+        this.world = world;
+        this.npcs = npcs;
+        this.enemies = enemies;
+    }
+
+    /**
+     * Write this snapshot to the given channel. The channel is not closed.
+     *
+     * @param channel The channel to write to.
+     * @throws IOException If the channel cannot be written to.
+     * @throws IllegalArgumentException If the farm contains an entity, spawner, item or timer
+     *     that the snapshot format cannot represent.
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        ChannelOutput out = new ChannelOutput(channel, SnapshotFormat.BUFFER_SIZE);
+        new SnapshotEncoder(out, playerManager.getPlayer()).encode(this);
+    }
+
+    /**
+     * Read a snapshot previously written by {@link #write(WritableByteChannel)} from the given
+     * channel. The channel is not closed.
+     *
+     * @param channel The channel to read from.
+     * @return A snapshot of newly constructed parts matching the state that was written.
+     * @throws IOException If the channel cannot be read, or does not contain a valid snapshot of
+     *     a supported version.
+     */
+    public static Snapshot read(ReadableByteChannel channel) throws IOException {
+        ChannelInput in = new ChannelInput(channel, SnapshotFormat.BUFFER_SIZE);
+        return new SnapshotDecoder(in).decode();
+    }
+
+    /**
+     * Returns the dimensions of the game.
+     *
+     * @return The game dimensions.
+     */
+    public Dimensions getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the player manager controlling the chicken farmer.
+     *
+     * @return The player manager.
+     */
+    public PlayerManager getPlayerManager() {
+        return playerManager;
+    }
+
+    /**
+     * Returns the player's inventory.
+     *
+     * @return The inventory.
+     */
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Returns the world containing every tile.
+     *
+     * @return The world.
+     */
+    public BeanWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Returns the manager of the farm's npcs.
+     *
+     * @return The npc manager.
+     */
+    public NpcManager getNpcs() {
+        return npcs;
+    }
+
+    /**
+     * Returns the manager of the farm's spawners and birds.
+     *
+     * @return The enemy manager.
+     */
+    public EnemyManager getEnemies() {
+        return enemies;
+    }
+}
@@ -0,0 +1,493 @@
+package builder.snapshot;
+
+import builder.entities.npc.BeeHive;
+import builder.entities.npc.GuardBee;
+import builder.entities.npc.Npc;
+import builder.entities.npc.NpcManager;
+import builder.entities.npc.Scarecrow;
+import builder.entities.npc.enemies.Eagle;
+import builder.entities.npc.enemies.Enemy;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.npc.enemies.Magpie;
+import builder.entities.npc.enemies.Pigeon;
+import builder.entities.npc.spawners.BeeHiveSpawner;
+import builder.entities.npc.spawners.EagleSpawner;
+import builder.entities.npc.spawners.MagpieSpawner;
+import builder.entities.npc.spawners.PigeonSpawner;
+import builder.entities.npc.spawners.ScarecrowSpawner;
+import builder.entities.npc.spawners.Spawner;
+import builder.entities.resources.Cabbage;
+import builder.entities.resources.Ore;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.Water;
+import builder.inventory.Inventory;
+import builder.inventory.TinyInventory;
+import builder.inventory.items.Bucket;
+import builder.inventory.items.HiveHammer;
+import builder.inventory.items.Hoe;
+import builder.inventory.items.Item;
+import builder.inventory.items.Jackhammer;
+import builder.inventory.items.Pole;
+import builder.player.PlayerManager;
+import builder.timing.TrackedFixedTimer;
+import builder.timing.TrackedRepeatingTimer;
+import builder.ui.SpriteGallery;
+import builder.world.BeanWorld;
+import builder.world.WorldBuilder;
+
+import engine.art.ArtNotFoundException;
+import engine.art.sprites.Sprite;
+import engine.art.sprites.SpriteGroup;
+import engine.game.Entity;
+import engine.game.HasPosition;
+import engine.game.Position;
+import engine.renderer.Dimensions;
+import engine.renderer.TileGrid;
+import engine.timing.TickTimer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static builder.snapshot.SnapshotFormat.*;
+
+/**
+ * Reads a {@link Snapshot} in the layout described by {@link SnapshotFormat}.
+ *
+ * <p>Entities are rebuilt through their public constructors and then have their saved state
+ * applied, so they are indistinguishable from the entities they were written from. Any malformed
+ * or inconsistent input is reported as an {@link IOException}.
+ */
+final class SnapshotDecoder {
+
+    /** The largest inventory a {@link TinyInventory} may hold. */
+    private static final int MAX_INVENTORY = 10;
+
+    private final ChannelInput in;
+    private final List<Entity> entities = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private PlayerManager playerManager;
+    private Map<Integer, Tile> tiles = Map.of();
+
+    /**
+     * Construct a new decoder reading from the given input.
+     *
+     * @param in The input to read from.
+     */
+    SnapshotDecoder(ChannelInput in) {
+        this.in = in;
+    }
+
+    /**
+     * Set the tiles that targets may refer to by id without the tile having been read.
+     *
+     * @param tiles Tiles in the world keyed by their id.
+     */
+    void setTileIds(Map<Integer, Tile> tiles) {
+        this.tiles = tiles;
+    }
+
+    /**
+     * Read a whole snapshot up to and including its end marker.
+     *
+     * @return The snapshot read.
+     * @throws IOException If the input cannot be read or is not a valid snapshot.
+     */
+    Snapshot decode() throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Input is not a snapshot");
+        }
+        int version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        int tileSize = in.getInt();
+        int windowSize = in.getInt();
+        if (tileSize <= 0 || windowSize < tileSize) {
+            throw new IOException("Invalid snapshot dimensions " + tileSize + ", " + windowSize);
+        }
+        Dimensions dimensions = new TileGrid(windowSize / tileSize, windowSize);
+        if (dimensions.tileSize() != tileSize) {
+            throw new IOException("Invalid snapshot dimensions " + tileSize + ", " + windowSize);
+        }
+        int playerX = in.getInt();
+        int playerY = in.getInt();
+        playerManager = new PlayerManager(playerX, playerY);
+        Inventory inventory = readInventory();
+        BeanWorld world = readWorld(dimensions);
+        EnemyManager enemies = readEnemies(dimensions);
+        NpcManager npcs = readNpcs();
+        if (in.getInt() != END) {
+            throw new IOException("Snapshot is missing its end marker");
+        }
+        return new Snapshot(dimensions, playerManager, inventory, world, npcs, enemies);
+    }
+
+    /**
+     * Read the player position, moving the player of the given manager there, then the contents
+     * of the inventory.
+     *
+     * @param playerManager The manager of the player to move and to use as a target.
+     * @return A new inventory matching the one written.
+     * @throws IOException If the input cannot be read or is malformed.
+     */
+    Inventory readPlayer(PlayerManager playerManager) throws IOException {
+        this.playerManager = playerManager;
+        playerManager.getPlayer().setX(in.getInt());
+        playerManager.getPlayer().setY(in.getInt());
+        return readInventory();
+    }
+
+    private Inventory readInventory() throws IOException {
+        int capacity = in.getByte();
+        if (capacity < 1 || capacity > MAX_INVENTORY) {
+            throw new IOException("Invalid inventory capacity " + capacity);
+        }
+        int coins = in.getInt();
+        int food = in.getInt();
+        int active = in.getByte();
+        if (active < 0 || active >= capacity) {
+            throw new IOException("Invalid active inventory slot " + active);
+        }
+        TinyInventory inventory = new TinyInventory(capacity, coins, food);
+        inventory.setActiveSlot(active);
+        for (int slot = 0; slot < capacity; slot++) {
+            inventory.setItem(slot, readItem());
+        }
+        return inventory;
+    }
+
+    private Item readItem() throws IOException {
+        byte code = in.getByte();
+        return switch (code) {
+            case NO_ITEM -> null;
+            case BUCKET -> new Bucket();
+            case HOE -> new Hoe();
+            case JACKHAMMER -> new Jackhammer();
+            case HIVE_HAMMER -> new HiveHammer();
+            case POLE -> new Pole();
+            default -> throw new IOException("Unknown item code " + code);
+        };
+    }
+
+    private BeanWorld readWorld(Dimensions dimensions) throws IOException {
+        List<Tile> tiles = new ArrayList<>();
+        for (int i = readCount(); i > 0; i--) {
+            tiles.add(readTile());
+        }
+        BeanWorld world = readTerrain(dimensions);
+        for (Tile tile : tiles) {
+            world.place(tile);
+        }
+        return world;
+    }
+
+    private BeanWorld readTerrain(Dimensions dimensions) throws IOException {
+        int cells = readCount();
+        if (cells == 0) {
+            return WorldBuilder.empty();
+        }
+        int columns = dimensions.windowSize() / dimensions.tileSize();
+        if (cells != columns * columns) {
+            throw new IOException("Invalid terrain of " + cells + " cells in snapshot");
+        }
+        char[] symbols = new char[cells];
+        for (int cell = 0; cell < symbols.length; cell++) {
+            symbols[cell] = (char) (in.getByte() & 0xFF);
+        }
+        try {
+            return WorldBuilder.fromTerrain(dimensions, symbols);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid terrain in snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read a tile and the entities stacked on it.
+     *
+     * @return A new tile matching the one written.
+     * @throws IOException If the input cannot be read or is malformed.
+     */
+    Tile readTile() throws IOException {
+        Tile tile = readEntity(Tile.class, null);
+        // an ore vein creates its own ore, which is written as the first stacked entity
+        Entity preset = tile instanceof OreVein vein ? vein.getOre() : null;
+        for (int j = readCount(); j > 0; j--) {
+            Entity entity = readEntity(Entity.class, preset);
+            if (entity == preset) {
+                preset = null;
+            } else {
+                tile.placeOn(entity);
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Read the enemy spawn position, spawners and birds.
+     *
+     * @param dimensions The dimensions of the game.
+     * @return A new enemy manager matching the one written.
+     * @throws IOException If the input cannot be read or is malformed.
+     */
+    EnemyManager readEnemies(Dimensions dimensions) throws IOException {
+        EnemyManager enemies = new EnemyManager(dimensions);
+        enemies.setSpawnX(in.getInt());
+        enemies.setSpawnY(in.getInt());
+        for (int i = readCount(); i > 0; i--) {
+            enemies.add(readSpawner());
+        }
+        for (int i = readCount(); i > 0; i--) {
+            enemies.getBirds().add(readEntity(Enemy.class, null));
+        }
+        return enemies;
+    }
+
+    /**
+     * Read the npcs.
+     *
+     * @return A new npc manager managing npcs matching those written.
+     * @throws IOException If the input cannot be read or is malformed.
+     */
+    NpcManager readNpcs() throws IOException {
+        NpcManager npcs = new NpcManager();
+        for (int i = readCount(); i > 0; i--) {
+            npcs.addNpc(readEntity(Npc.class, null));
+        }
+        return npcs;
+    }
+
+    private Spawner readSpawner() throws IOException {
+        byte code = in.getByte();
+        int x = in.getInt();
+        int y = in.getInt();
+        int interval = in.getInt();
+        int current = in.getInt();
+        if (interval <= 0) {
+            throw new IOException("Invalid spawner interval " + interval);
+        }
+        Spawner spawner = switch (code) {
+            case MAGPIE_SPAWNER -> new MagpieSpawner(x, y, interval);
+            case EAGLE_SPAWNER -> new EagleSpawner(x, y, interval);
+            case PIGEON_SPAWNER -> new PigeonSpawner(x, y, interval);
+            case SCARECROW_SPAWNER -> new ScarecrowSpawner(x, y);
+            case BEE_HIVE_SPAWNER -> new BeeHiveSpawner(x, y, interval);
+            default -> throw new IOException("Unknown spawner code " + code);
+        };
+        restore(spawner.getTimer(), interval, current);
+        return spawner;
+    }
+
+    private <T> T readEntity(Class<T> type, Entity preset) throws IOException {
+        byte code = in.getByte();
+        Entity entity;
+        if (code == REF) {
+            entity = lookup(in.getInt());
+        } else {
+            entity = readNewEntity(code, preset);
+            entities.add(entity);
+        }
+        if (!type.isInstance(entity)) {
+            throw new IOException("Expected " + type.getSimpleName() + " in snapshot but found "
+                    + entity.getClass().getSimpleName());
+        }
+        return type.cast(entity);
+    }
+
+    private Entity readNewEntity(byte code, Entity preset) throws IOException {
+        final int x = in.getInt();
+        final int y = in.getInt();
+        final boolean removed = in.getBoolean();
+        final Sprite sprite = readSprite();
+        final boolean npc = code == BEE_HIVE || code == SCARECROW || code == GUARD_BEE
+                || code == PIGEON || code == MAGPIE || code == EAGLE;
+        final int direction = npc ? in.getInt() : 0;
+        final int speed = npc ? in.getInt() : 0;
+        Entity entity = switch (code) {
+            case GRASS -> new Grass(x, y);
+            case DIRT -> {
+                Dirt dirt = new Dirt(x, y);
+                if (in.getBoolean()) {
+                    dirt.till();
+                }
+                yield dirt;
+            }
+            case WATER -> new Water(x, y);
+            case ORE_VEIN -> new OreVein(x, y);
+            case CABBAGE -> {
+                Cabbage cabbage = new Cabbage(x, y);
+                cabbage.setGrowthState(in.getByte());
+                readTimer(cabbage.getGrowthTimer());
+                yield cabbage;
+            }
+            case ORE -> {
+                Ore ore = preset instanceof Ore existing ? existing : new Ore(x, y);
+                ore.setCoins(in.getInt());
+                yield ore;
+            }
+            case BEE_HIVE -> {
+                BeeHive hive = new BeeHive(x, y);
+                hive.setLoaded(in.getBoolean());
+                readTimer(hive.getReloadTimer());
+                yield hive;
+            }
+            case SCARECROW -> new Scarecrow(x, y);
+            case GUARD_BEE -> {
+                int spawnX = in.getInt();
+                int spawnY = in.getInt();
+                GuardBee bee = new GuardBee(spawnX, spawnY, readRequiredTarget());
+                bee.setLifespan(readLifespan());
+                yield bee;
+            }
+            case PIGEON -> {
+                int spawnX = in.getInt();
+                int spawnY = in.getInt();
+                Pigeon pigeon = new Pigeon(spawnX, spawnY, readTarget());
+                pigeon.setAttacking(in.getBoolean());
+                pigeon.setLifespan(readLifespan());
+                yield pigeon;
+            }
+            case MAGPIE -> {
+                int spawnX = in.getInt();
+                int spawnY = in.getInt();
+                Magpie magpie = new Magpie(spawnX, spawnY, readRequiredTarget());
+                magpie.setAttacking(in.getBoolean());
+                magpie.setCoins(in.getInt());
+                magpie.setLifespan(readLifespan());
+                yield magpie;
+            }
+            case EAGLE -> {
+                int spawnX = in.getInt();
+                int spawnY = in.getInt();
+                Eagle eagle = new Eagle(spawnX, spawnY, readRequiredTarget());
+                eagle.setAttacking(in.getBoolean());
+                eagle.setFood(in.getInt());
+                eagle.setLifespan(readLifespan());
+                yield eagle;
+            }
+            default -> throw new IOException("Unknown entity code " + code);
+        };
+        entity.setX(x);
+        entity.setY(y);
+        if (removed) {
+            entity.markForRemoval();
+        }
+        if (sprite != null) {
+            entity.setSprite(sprite);
+        }
+        if (entity instanceof Npc restored) {
+            restored.setDirection(direction);
+            restored.setSpeed(speed);
+        }
+        return entity;
+    }
+
+    private Entity lookup(int id) throws IOException {
+        if (id < 0 || id >= entities.size()) {
+            throw new IOException("Snapshot refers to unknown entity " + id);
+        }
+        return entities.get(id);
+    }
+
+    private Sprite readSprite() throws IOException {
+        String group = readString();
+        if (group.isEmpty()) {
+            return null;
+        }
+        String label = readString();
+        SpriteGroup sprites = SpriteGallery.group(group);
+        if (sprites == null) {
+            throw new IOException("Unknown sprite group " + group);
+        }
+        try {
+            return sprites.getSprite(label);
+        } catch (ArtNotFoundException e) {
+            throw new IOException("Unknown sprite " + group + "/" + label, e);
+        }
+    }
+
+    private String readString() throws IOException {
+        int index = in.getShort();
+        if (index < strings.size()) {
+            return strings.get(index);
+        }
+        if (index > strings.size()) {
+            throw new IOException("Snapshot refers to unknown string " + index);
+        }
+        String value = in.getString();
+        strings.add(value);
+        return value;
+    }
+
+    private HasPosition readTarget() throws IOException {
+        byte code = in.getByte();
+        return switch (code) {
+            case NO_TARGET -> null;
+            case PLAYER_TARGET -> playerManager.getPlayer();
+            case REF_TARGET -> lookup(in.getInt());
+            case TILE_TARGET -> {
+                int id = in.getInt();
+                Tile tile = tiles.get(id);
+                if (tile == null) {
+                    throw new IOException("Snapshot refers to unknown tile " + id);
+                }
+                yield tile;
+            }
+            case POSITION_TARGET -> {
+                int x = in.getInt();
+                int y = in.getInt();
+                yield new Position(x, y);
+            }
+            default -> throw new IOException("Unknown target code " + code);
+        };
+    }
+
+    private HasPosition readRequiredTarget() throws IOException {
+        HasPosition target = readTarget();
+        if (target == null) {
+            throw new IOException("Snapshot entity is missing its target");
+        }
+        return target;
+    }
+
+    private TrackedFixedTimer readLifespan() throws IOException {
+        int duration = in.getInt();
+        int current = in.getInt();
+        boolean expired = in.getBoolean();
+        if (duration <= 0 || current < 0 || current > duration) {
+            throw new IOException("Invalid lifespan " + current + "/" + duration);
+        }
+        TrackedFixedTimer lifespan = new TrackedFixedTimer(duration);
+        lifespan.restore(current, expired);
+        return lifespan;
+    }
+
+    private void readTimer(TickTimer timer) throws IOException {
+        int interval = in.getInt();
+        int current = in.getInt();
+        restore(timer, interval, current);
+    }
+
+    private static void restore(TickTimer timer, int interval, int current) throws IOException {
+        if (!(timer instanceof TrackedRepeatingTimer repeating)
+                || repeating.getInterval() != interval) {
+            throw new IOException("Snapshot timer interval " + interval + " does not match");
+        }
+        if (current < 0 || current > interval) {
+            throw new IOException("Invalid timer progress " + current + "/" + interval);
+        }
+        repeating.restore(current);
+    }
+
+    private int readCount() throws IOException {
+        int count = in.getInt();
+        if (count < 0) {
+            throw new IOException("Invalid count " + count + " in snapshot");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,361 @@
+package builder.snapshot;
+
+import builder.entities.npc.BeeHive;
+import builder.entities.npc.Expirable;
+import builder.entities.npc.GuardBee;
+import builder.entities.npc.Npc;
+import builder.entities.npc.Scarecrow;
+import builder.entities.npc.enemies.Eagle;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.npc.enemies.Magpie;
+import builder.entities.npc.enemies.Pigeon;
+import builder.entities.npc.spawners.BeeHiveSpawner;
+import builder.entities.npc.spawners.EagleSpawner;
+import builder.entities.npc.spawners.MagpieSpawner;
+import builder.entities.npc.spawners.PigeonSpawner;
+import builder.entities.npc.spawners.ScarecrowSpawner;
+import builder.entities.npc.spawners.Spawner;
+import builder.entities.resources.Cabbage;
+import builder.entities.resources.Ore;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.Water;
+import builder.inventory.Inventory;
+import builder.inventory.items.Bucket;
+import builder.inventory.items.HiveHammer;
+import builder.inventory.items.Hoe;
+import builder.inventory.items.Item;
+import builder.inventory.items.Jackhammer;
+import builder.inventory.items.Pole;
+import builder.player.Player;
+import builder.world.BeanWorld;
+import builder.timing.TrackedFixedTimer;
+import builder.timing.TrackedRepeatingTimer;
+
+import engine.art.sprites.Sprite;
+import engine.game.Entity;
+import engine.game.HasPosition;
+import engine.renderer.Dimensions;
+import engine.timing.TickTimer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static builder.snapshot.SnapshotFormat.*;
+
+/**
+ * Writes the parts of a {@link Snapshot} in the layout described by {@link SnapshotFormat}.
+ *
+ * <p>Only the exact classes the game constructs can be written; any other tile, entity, spawner,
+ * item or timer is rejected with an {@link IllegalArgumentException} rather than being silently
+ * written as a class it only extends.
+ */
+final class SnapshotEncoder {
+
+    private static final Map<Class<?>, Byte> ENTITY_CODES = Map.ofEntries(
+            Map.entry(Grass.class, GRASS),
+            Map.entry(Dirt.class, DIRT),
+            Map.entry(Water.class, WATER),
+            Map.entry(OreVein.class, ORE_VEIN),
+            Map.entry(Cabbage.class, CABBAGE),
+            Map.entry(Ore.class, ORE),
+            Map.entry(BeeHive.class, BEE_HIVE),
+            Map.entry(Scarecrow.class, SCARECROW),
+            Map.entry(GuardBee.class, GUARD_BEE),
+            Map.entry(Pigeon.class, PIGEON),
+            Map.entry(Magpie.class, MAGPIE),
+            Map.entry(Eagle.class, EAGLE));
+
+    private static final Map<Class<?>, Byte> SPAWNER_CODES = Map.of(
+            MagpieSpawner.class, MAGPIE_SPAWNER,
+            EagleSpawner.class, EAGLE_SPAWNER,
+            PigeonSpawner.class, PIGEON_SPAWNER,
+            ScarecrowSpawner.class, SCARECROW_SPAWNER,
+            BeeHiveSpawner.class, BEE_HIVE_SPAWNER);
+
+    private static final Map<Class<?>, Byte> ITEM_CODES = Map.of(
+            Bucket.class, BUCKET,
+            Hoe.class, HOE,
+            Jackhammer.class, JACKHAMMER,
+            HiveHammer.class, HIVE_HAMMER,
+            Pole.class, POLE);
+
+    private final ChannelOutput out;
+    private final Player player;
+    private final Map<Object, Integer> ids = new IdentityHashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private Map<Tile, Integer> tileIds = Map.of();
+
+    /**
+     * Construct a new encoder writing to the given output.
+     *
+     * @param out The output to write to.
+     * @param player The player, written as a target wherever an entity tracks it.
+     */
+    SnapshotEncoder(ChannelOutput out, Player player) {
+        this.out = out;
+        this.player = player;
+    }
+
+    /**
+     * Set the ids by which tiles that are not written may be referred to as a target.
+     *
+     * <p>Tiles that have been written are always referred to by the id they were written with.
+     *
+     * @param tileIds Ids of the tiles in the world, keyed by tile.
+     */
+    void setTileIds(Map<Tile, Integer> tileIds) {
+        this.tileIds = tileIds;
+    }
+
+    /**
+     * Write every part of the given snapshot followed by the end marker, then flush the output.
+     *
+     * @param snapshot The snapshot to write.
+     * @throws IOException If the output cannot be written to.
+     */
+    void encode(Snapshot snapshot) throws IOException {
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putInt(snapshot.getDimensions().tileSize());
+        out.putInt(snapshot.getDimensions().windowSize());
+        writePlayer(snapshot.getInventory());
+        writeWorld(snapshot.getWorld(), snapshot.getDimensions());
+        writeEnemies(snapshot.getEnemies());
+        writeEntities(snapshot.getNpcs().getNpcs());
+        out.putInt(END);
+        out.flush();
+    }
+
+    /**
+     * Write the player position and the contents of the inventory.
+     *
+     * @param inventory The player's inventory.
+     * @throws IOException If the output cannot be written to.
+     */
+    void writePlayer(Inventory inventory) throws IOException {
+        out.putInt(player.getX());
+        out.putInt(player.getY());
+        writeInventory(inventory);
+    }
+
+    private void writeInventory(Inventory inventory) throws IOException {
+        out.putByte(inventory.getCapacity());
+        out.putInt(inventory.getCoins());
+        out.putInt(inventory.getFood());
+        out.putByte(inventory.getActiveSlot());
+        for (int slot = 0; slot < inventory.getCapacity(); slot++) {
+            Item item = inventory.getItem(slot);
+            out.putByte(item == null ? NO_ITEM : codeOf(ITEM_CODES, item, "item"));
+        }
+    }
+
+    /**
+     * Write the tiles created in the world, then the terrain remaining in each cell, so that
+     * saving a world creates none of its terrain tiles.
+     */
+    private void writeWorld(BeanWorld world, Dimensions dimensions) throws IOException {
+        // before the tiles, as terrain of other dimensions is created in full
+        char[] terrain = world.getTerrain(dimensions);
+        writeTiles(world.createdTiles());
+        if (terrain == null) {
+            out.putInt(0);
+            return;
+        }
+        out.putInt(terrain.length);
+        for (char symbol : terrain) {
+            out.putByte(symbol);
+        }
+    }
+
+    private void writeTiles(List<Tile> tiles) throws IOException {
+        out.putInt(tiles.size());
+        for (Tile tile : tiles) {
+            writeTile(tile);
+        }
+    }
+
+    /**
+     * Write a tile followed by the entities stacked on it.
+     *
+     * @param tile The tile to write.
+     * @throws IOException If the output cannot be written to.
+     */
+    void writeTile(Tile tile) throws IOException {
+        writeEntity(tile);
+        List<Entity> stacked = tile.getStackedEntities();
+        out.putInt(stacked.size());
+        for (Entity entity : stacked) {
+            writeEntity(entity);
+        }
+    }
+
+    /**
+     * Write the enemy spawn position, every spawner with its timer, then every bird.
+     *
+     * @param enemies The manager of the spawners and birds.
+     * @throws IOException If the output cannot be written to.
+     */
+    void writeEnemies(EnemyManager enemies) throws IOException {
+        out.putInt(enemies.getSpawnX());
+        out.putInt(enemies.getSpawnY());
+        out.putInt(enemies.getSpawners().size());
+        for (Spawner spawner : enemies.getSpawners()) {
+            out.putByte(codeOf(SPAWNER_CODES, spawner, "spawner"));
+            out.putInt(spawner.getX());
+            out.putInt(spawner.getY());
+            writeTimer(spawner.getTimer());
+        }
+        writeEntities(enemies.getBirds());
+    }
+
+    /**
+     * Write a count followed by each of the given entities.
+     *
+     * @param entities The entities to write.
+     * @throws IOException If the output cannot be written to.
+     */
+    void writeEntities(List<? extends Entity> entities) throws IOException {
+        out.putInt(entities.size());
+        for (Entity entity : entities) {
+            writeEntity(entity);
+        }
+    }
+
+    private void writeEntity(Entity entity) throws IOException {
+        Integer id = ids.get(entity);
+        if (id != null) {
+            out.putByte(REF);
+            out.putInt(id);
+            return;
+        }
+        byte code = codeOf(ENTITY_CODES, entity, "entity");
+        ids.put(entity, ids.size());
+        out.putByte(code);
+        out.putInt(entity.getX());
+        out.putInt(entity.getY());
+        out.putBoolean(entity.isMarkedForRemoval());
+        writeSprite(entity.getSprite());
+        if (entity instanceof Npc npc) {
+            out.putInt(npc.getDirection());
+            out.putInt((int) npc.getSpeed());
+        }
+        switch (entity) {
+            case Dirt dirt -> out.putBoolean(dirt.isTilled());
+            case Cabbage cabbage -> {
+                out.putByte(cabbage.getGrowthState());
+                writeTimer(cabbage.getGrowthTimer());
+            }
+            case Ore ore -> out.putInt(ore.getCoins());
+            case BeeHive hive -> {
+                out.putBoolean(hive.isLoaded());
+                writeTimer(hive.getReloadTimer());
+            }
+            case GuardBee bee -> {
+                writeSpawn(bee.getSpawnX(), bee.getSpawnY(), bee.getTrackedTarget());
+                writeLifespan(bee);
+            }
+            case Pigeon pigeon -> {
+                writeSpawn(pigeon.getSpawnX(), pigeon.getSpawnY(), pigeon.getTrackedTarget());
+                out.putBoolean(pigeon.isAttacking());
+                writeLifespan(pigeon);
+            }
+            case Magpie magpie -> {
+                writeSpawn(magpie.getSpawnX(), magpie.getSpawnY(), magpie.getTrackedTarget());
+                out.putBoolean(magpie.isAttacking());
+                out.putInt(magpie.getCoins());
+                writeLifespan(magpie);
+            }
+            case Eagle eagle -> {
+                writeSpawn(eagle.getSpawnX(), eagle.getSpawnY(), eagle.getTrackedTarget());
+                out.putBoolean(eagle.isAttacking());
+                out.putInt(eagle.getFood());
+                writeLifespan(eagle);
+            }
+            default -> {
+                // grass, water, ore veins and scarecrows have no further state
+            }
+        }
+    }
+
+    private void writeSprite(Sprite sprite) throws IOException {
+        if (sprite == null) {
+            writeString("");
+            return;
+        }
+        // sprite labels are qualified by their group, e.g. "pigeon:down"
+        String group = sprite.getGroup();
+        String label = sprite.getLabel();
+        if (label.startsWith(group + ":")) {
+            label = label.substring(group.length() + 1);
+        }
+        writeString(group);
+        writeString(label);
+    }
+
+    /** Strings are written in full the first time, then as the index they were given. */
+    private void writeString(String value) throws IOException {
+        Integer index = strings.get(value);
+        if (index != null) {
+            out.putShort(index);
+            return;
+        }
+        index = strings.size();
+        strings.put(value, index);
+        out.putShort(index);
+        out.putString(value);
+    }
+
+    private void writeSpawn(int spawnX, int spawnY, HasPosition target) throws IOException {
+        out.putInt(spawnX);
+        out.putInt(spawnY);
+        if (target == null) {
+            out.putByte(NO_TARGET);
+        } else if (target == player) {
+            out.putByte(PLAYER_TARGET);
+        } else if (ids.containsKey(target)) {
+            out.putByte(REF_TARGET);
+            out.putInt(ids.get(target));
+        } else if (tileIds.containsKey(target)) {
+            out.putByte(TILE_TARGET);
+            out.putInt(tileIds.get(target));
+        } else {
+            // a target no longer in the game (e.g. an enemy already cleaned up) never moves again
+            out.putByte(POSITION_TARGET);
+            out.putInt(target.getX());
+            out.putInt(target.getY());
+        }
+    }
+
+    private void writeLifespan(Expirable expirable) throws IOException {
+        if (!(expirable.getLifespan() instanceof TrackedFixedTimer lifespan)) {
+            throw new IllegalArgumentException(
+                    "Cannot snapshot untracked lifespan of " + expirable.getClass().getName());
+        }
+        out.putInt(lifespan.getDuration());
+        out.putInt(lifespan.getCurrent());
+        out.putBoolean(lifespan.isExpired());
+    }
+
+    private void writeTimer(TickTimer timer) throws IOException {
+        if (!(timer instanceof TrackedRepeatingTimer repeating)) {
+            throw new IllegalArgumentException("Cannot snapshot untracked timer " + timer);
+        }
+        out.putInt(repeating.getInterval());
+        out.putInt(repeating.getCurrent());
+    }
+
+    private static byte codeOf(Map<Class<?>, Byte> codes, Object value, String kind) {
+        Byte code = codes.get(value.getClass());
+        if (code == null) {
+            throw new IllegalArgumentException(
+                    "Cannot snapshot " + kind + " of type " + value.getClass().getName());
+        }
+        return code;
+    }
+}
@@ -0,0 +1,105 @@
+package builder.snapshot;
+
+/**
+ * Constants of the binary snapshot format written by {@link Snapshot#write}.
+ *
+ * <p>All values are big-endian. A snapshot is laid out as:
+ *
+ * <ol>
+ *   <li>a header: {@link #MAGIC}, the format {@link #VERSION} and the tile and window size;
+ *   <li>the player position;
+ *   <li>the inventory: capacity, coins, food, active slot and an item code per slot;
+ *   <li>the world: every tile created so far in placement order, each followed by its stacked
+ *       entities, then the number of cells of the grid and, unless zero because no terrain
+ *       remains, the symbol of the terrain in each cell row by row, or zero for none;
+ *   <li>the enemies: the spawn position, every spawner with its timer, then every bird;
+ *   <li>the npcs;
+ *   <li>{@link #END}.
+ * </ol>
+ *
+ * <p>Every tile and entity is assigned an id in the order it is written. An entity appearing a
+ * second time (e.g. a hive both stacked on grass and managed as an npc) is written as {@link
+ * #REF} and its id, and targets tracked by birds and bees refer to tiles and enemies by id.
+ * Sprite group and label strings are written once and then referred to by their index.
+ *
+ * <p>A checkpoint written by a {@link ChangeJournal} starts with {@link #DELTA_MAGIC}, the
+ * version and the number of tiles the journal had assigned ids to as of the previous
+ * checkpoint, followed by:
+ *
+ * <ol>
+ *   <li>the player position and inventory, as in a snapshot;
+ *   <li>the tiles added to the world since the previous checkpoint, in the order they were
+ *       added, each either {@link #CREATED_TILE} and the position of a tile created from
+ *       terrain, or {@link #PLACED_TILE} and the whole tile placed;
+ *   <li>the tiles that may have changed, each as its id followed by the whole tile;
+ *   <li>the ids of the tiles removed since the previous checkpoint;
+ *   <li>the enemies and npcs, as in a snapshot;
+ *   <li>{@link #END}.
+ * </ol>
+ *
+ * <p>A tile created from terrain is given the next journal id as soon as it is created, while
+ * placed tiles are given the ids after those once the checkpoint is written.
+ *
+ * <p>Ids in a checkpoint are assigned afresh as in a snapshot, except that targets may also
+ * refer to a tile that was not written by its journal id, as {@link #TILE_TARGET}.
+ */
+final class SnapshotFormat {
+
+    /** The first four bytes of every snapshot, "JBSN". */
+    static final int MAGIC = 0x4A42534E;
+
+    /** The first four bytes of every checkpoint written by a {@link ChangeJournal}, "JBDL". */
+    static final int DELTA_MAGIC = 0x4A42444C;
+
+    /** The last four bytes of every snapshot and checkpoint, "JBND". */
+    static final int END = 0x4A424E44;
+
+    /** The version of the format written, bumped whenever the layout changes. */
+    static final int VERSION = 2;
+
+    /** The size of the buffer used when writing and reading channels. */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    // entity codes, 0 refers back to an entity already written
+    static final byte REF = 0;
+    static final byte GRASS = 1;
+    static final byte DIRT = 2;
+    static final byte WATER = 3;
+    static final byte ORE_VEIN = 4;
+    static final byte CABBAGE = 10;
+    static final byte ORE = 11;
+    static final byte BEE_HIVE = 20;
+    static final byte SCARECROW = 21;
+    static final byte GUARD_BEE = 22;
+    static final byte PIGEON = 30;
+    static final byte MAGPIE = 31;
+    static final byte EAGLE = 32;
+
+    // spawner codes
+    static final byte MAGPIE_SPAWNER = 1;
+    static final byte EAGLE_SPAWNER = 2;
+    static final byte PIGEON_SPAWNER = 3;
+    static final byte SCARECROW_SPAWNER = 4;
+    static final byte BEE_HIVE_SPAWNER = 5;
+
+    // item codes, 0 is an empty slot
+    static final byte NO_ITEM = 0;
+    static final byte BUCKET = 1;
+    static final byte HOE = 2;
+    static final byte JACKHAMMER = 3;
+    static final byte HIVE_HAMMER = 4;
+    static final byte POLE = 5;
+
+    // codes of the tiles added in a checkpoint
+    static final byte CREATED_TILE = 1;
+    static final byte PLACED_TILE = 2;
+
+    // target codes
+    static final byte NO_TARGET = 0;
+    static final byte PLAYER_TARGET = 1;
+    static final byte REF_TARGET = 2;
+    static final byte POSITION_TARGET = 3;
+    static final byte TILE_TARGET = 4;
+
+    private SnapshotFormat() {}
+}
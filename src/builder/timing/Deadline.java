@@ -0,0 +1,59 @@
+package builder.timing;
+
+/**
+ * Something to be done once a {@link TimingWheel} reaches a given tick.
+ *
+ * <p>A deadline is scheduled on at most one wheel at a time, and scheduling it again moves it to
+ * the new tick. Deadlines due on the same tick expire in the order they were first scheduled, so
+ * that rescheduling a deadline each time it expires keeps its place among the others.
+ */
+public abstract class Deadline {
+
+    /** The tick the deadline is due, while scheduled. */
+    long tick;
+
+    /** The position of the deadline among those due on the same tick, or -1 if never scheduled. */
+    long order = -1;
+
+    /** The level and slot of the wheel holding the deadline, level -1 for the overflow. */
+    int level;
+    int slot;
+
+    /** The neighbours of the deadline within its slot. */
+    Deadline previous;
+    Deadline next;
+
+    /** The wheel the deadline is scheduled on, or null if it is not scheduled. */
+    TimingWheel wheel;
+
+    /** Whether the deadline has been taken from its slot to expire on the current tick. */
+    boolean due;
+
+    /**
+     * Called by the wheel once the deadline's tick is reached. The deadline is no longer
+     * scheduled when this is called, so it may schedule itself again.
+     */
+    protected abstract void expire();
+
+    /**
+     * Whether the deadline is waiting to expire on a wheel.
+     *
+     * @return true if the deadline is scheduled.
+     */
+    public boolean isScheduled() {
+        return wheel != null;
+    }
+
+    /**
+     * Returns the tick the deadline is due on its wheel.
+     *
+     * @return The tick the deadline expires.
+     * @throws IllegalStateException If the deadline is not scheduled.
+     */
+    public long getTick() {
+        if (wheel == null) {
+            throw new IllegalStateException("Deadline is not scheduled");
+        }
+        return tick;
+    }
+}
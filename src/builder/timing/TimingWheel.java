@@ -0,0 +1,253 @@
+package builder.timing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel, holding {@link Deadline deadlines} by the tick they are due so that
+ * advancing the wheel a tick only touches the deadlines due on that tick.
+ *
+ * <p>The wheel has {@link #LEVELS} levels of {@link #SLOTS} slots each. A deadline due within the
+ * current run of {@code SLOTS} ticks is held in the first level's slot for its tick, one due
+ * within the current run of {@code SLOTS * SLOTS} ticks in the second level's slot for its tick
+ * divided by {@code SLOTS}, and so on, with deadlines too far ahead for the last level held in an
+ * overflow. Whenever the wheel enters a new run of a level, the deadlines in that run's slot are
+ * moved down to the levels below. Scheduling and cancelling therefore take constant time, and a
+ * deadline is moved at most once per level before it expires.
+ *
+ * <p>Wheels are not thread safe, so they must only be used by the thread ticking the game.
+ */
+public class TimingWheel {
+
+    /** The number of bits of a tick indexing the slots of a level. */
+    private static final int SLOT_BITS = 6;
+
+    /** The number of slots in each level. */
+    public static final int SLOTS = 1 << SLOT_BITS;
+
+    /** The number of levels, holding deadlines up to {@code SLOTS} to this power ticks ahead. */
+    public static final int LEVELS = 4;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private static final Comparator<Deadline> BY_ORDER =
+            Comparator.comparingLong(deadline -> deadline.order);
+
+    /** The first deadline of each slot of each level, linked through the deadlines. */
+    private final Deadline[][] slots = new Deadline[LEVELS][SLOTS];
+
+    /** The first deadline too far ahead for the last level. */
+    private Deadline overflow;
+
+    /** The deadlines expiring on the current tick, reused from tick to tick. */
+    private final List<Deadline> due = new ArrayList<>();
+
+    private long tick = 0;
+    private long orders = 0;
+    private int size = 0;
+    private long expired = 0;
+
+    /**
+     * Returns the current tick of the wheel, the number of times it has been advanced.
+     *
+     * @return The current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the number of deadlines scheduled on the wheel.
+     *
+     * @return The number of scheduled deadlines.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of deadlines that have expired so far.
+     *
+     * @return The number of expired deadlines.
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * Schedule the deadline to expire once the wheel is advanced to the given tick, moving it if
+     * it is already scheduled.
+     *
+     * @param deadline The deadline to schedule.
+     * @param tick The tick to expire on, after the current tick.
+     * @throws IllegalArgumentException If the tick is not after the current tick.
+     */
+    public void schedule(Deadline deadline, long tick) {
+        if (tick <= this.tick) {
+            throw new IllegalArgumentException(
+                    "Deadline at tick " + tick + " is not after tick " + this.tick);
+        }
+        cancel(deadline);
+        if (deadline.order < 0) {
+            deadline.order = orders++;
+        }
+        deadline.tick = tick;
+        deadline.wheel = this;
+        size++;
+        place(deadline);
+    }
+
+    /**
+     * Stop the deadline from expiring, if it is scheduled on any wheel.
+     *
+     * @param deadline The deadline to cancel.
+     * @return true if the deadline was scheduled.
+     */
+    public boolean cancel(Deadline deadline) {
+        TimingWheel wheel = deadline.wheel;
+        if (wheel == null) {
+            return false;
+        }
+        if (deadline.due) {
+            // left in the due list, which skips it
+            deadline.due = false;
+        } else {
+            wheel.unlink(deadline);
+        }
+        deadline.wheel = null;
+        wheel.size--;
+        return true;
+    }
+
+    /**
+     * Move the wheel on to the next tick, expiring every deadline due on it in the order they
+     * were first scheduled.
+     *
+     * <p>Deadlines may schedule or cancel deadlines as they expire. A deadline due on this tick
+     * that is cancelled or moved by another before its turn does not expire.
+     *
+     * @return The number of deadlines expired.
+     */
+    public int advance() {
+        tick++;
+        if ((tick & runMask(LEVELS)) == 0) {
+            Deadline moved = overflow;
+            overflow = null;
+            replace(moved);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((tick & runMask(level)) == 0) {
+                int slot = (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+                Deadline moved = slots[level][slot];
+                slots[level][slot] = null;
+                replace(moved);
+            }
+        }
+
+        int slot = (int) tick & SLOT_MASK;
+        Deadline deadline = slots[0][slot];
+        slots[0][slot] = null;
+        while (deadline != null) {
+            Deadline next = deadline.next;
+            deadline.previous = null;
+            deadline.next = null;
+            deadline.due = true;
+            due.add(deadline);
+            deadline = next;
+        }
+        if (!isOrdered()) {
+            due.sort(BY_ORDER);
+        }
+
+        int count = 0;
+        for (int i = 0; i < due.size(); i++) {
+            deadline = due.get(i);
+            if (!deadline.due) {
+                continue;
+            }
+            deadline.due = false;
+            deadline.wheel = null;
+            size--;
+            count++;
+            deadline.expire();
+        }
+        due.clear();
+        expired += count;
+        return count;
+    }
+
+    /** Returns the mask of the ticks within a run of the given level. */
+    private static long runMask(int level) {
+        return (1L << (SLOT_BITS * level)) - 1;
+    }
+
+    /** Whether the due deadlines are already in the order they were first scheduled. */
+    private boolean isOrdered() {
+        for (int i = 1; i < due.size(); i++) {
+            if (due.get(i - 1).order > due.get(i).order) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Place each of the linked deadlines again from the current tick. */
+    private void replace(Deadline deadline) {
+        while (deadline != null) {
+            Deadline next = deadline.next;
+            deadline.previous = null;
+            deadline.next = null;
+            place(deadline);
+            deadline = next;
+        }
+    }
+
+    /**
+     * Link the deadline into the lowest level whose current run includes its tick, which may be
+     * the current tick while deadlines are moved down.
+     */
+    private void place(Deadline deadline) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((deadline.tick >>> shift) == (tick >>> shift)) {
+                link(deadline, level, (int) (deadline.tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                return;
+            }
+        }
+        link(deadline, -1, 0);
+    }
+
+    private void link(Deadline deadline, int level, int slot) {
+        deadline.level = level;
+        deadline.slot = slot;
+        Deadline first = level < 0 ? overflow : slots[level][slot];
+        deadline.previous = null;
+        deadline.next = first;
+        if (first != null) {
+            first.previous = deadline;
+        }
+        setFirst(level, slot, deadline);
+    }
+
+    private void unlink(Deadline deadline) {
+        if (deadline.previous != null) {
+            deadline.previous.next = deadline.next;
+        } else {
+            setFirst(deadline.level, deadline.slot, deadline.next);
+        }
+        if (deadline.next != null) {
+            deadline.next.previous = deadline.previous;
+        }
+        deadline.previous = null;
+        deadline.next = null;
+    }
+
+    private void setFirst(int level, int slot, Deadline deadline) {
+        if (level < 0) {
+            overflow = deadline;
+        } else {
+            slots[level][slot] = deadline;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package builder.timing;
+
+import engine.timing.FixedTimer;
+
+/**
+ * A {@link FixedTimer} whose progress can be read and restored.
+ *
+ * <p>The engine's timers keep their progress private, so this timer keeps its own copy of the
+ * progress and follows the exact counting rules of {@link FixedTimer}: the timer reports finished
+ * on the tick its duration is reached, and every tick after that it stays expired without
+ * reporting finished again (unless its duration is a single tick).
+ */
+public class TrackedFixedTimer extends FixedTimer {
+
+    private final int duration;
+    private int current = 0;
+    private boolean expired = false;
+
+    /**
+     * Construct a new timer that finishes after the given number of ticks.
+     *
+     * @param duration The number of ticks until the timer finishes, must be positive.
+     */
+    public TrackedFixedTimer(int duration) {
+        super(duration);
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the number of ticks until the timer finishes.
+     *
+     * @return The duration of the timer in ticks.
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the progress of the timer towards its duration.
+     *
+     * @return The current tick count of the timer.
+     */
+    public int getCurrent() {
+        return current;
+    }
+
+    /**
+     * Whether the timer has passed its duration and will no longer count.
+     *
+     * @return true if the timer has expired.
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * Restore progress previously read via {@link #getCurrent()} and {@link #isExpired()}.
+     *
+     * @param current The tick count of the timer, between 0 and the duration.
+     * @param expired Whether the timer has expired.
+     * @throws IllegalArgumentException If current is outside the range of the timer.
+     */
+    public void restore(int current, boolean expired) {
+        if (current < 0 || current > duration) {
+            throw new IllegalArgumentException(
+                    "Timer progress " + current + " outside duration " + duration);
+        }
+        this.current = current;
+        this.expired = expired;
+    }
+
+    /**
+     * Returns a timer of the given duration that has not started counting, restarting the given
+     * timer if it is already such a timer rather than constructing a new one.
+     *
+     * @param timer The timer to restart if possible, may be null.
+     * @param duration The number of ticks until the timer finishes, must be positive.
+     * @return The given timer restarted, or a new timer.
+     */
+    public static FixedTimer restart(FixedTimer timer, int duration) {
+        if (timer instanceof TrackedFixedTimer tracked
+                && tracked.getClass() == TrackedFixedTimer.class && tracked.duration == duration) {
+            tracked.restore(0, false);
+            return tracked;
+        }
+        return new TrackedFixedTimer(duration);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return current == duration;
+    }
+
+    @Override
+    public void tick() {
+        if (expired) {
+            return;
+        }
+        if (current == duration) {
+            expired = true;
+            current = 0;
+        }
+        current++;
+    }
+}
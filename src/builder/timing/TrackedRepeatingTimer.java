@@ -0,0 +1,192 @@
+package builder.timing;
+
+import engine.timing.RepeatingTimer;
+import engine.timing.TimerDuration;
+
+/**
+ * A {@link RepeatingTimer} whose progress can be read and restored.
+ *
+ * <p>The engine's timers keep their progress private, so this timer keeps its own copy of the
+ * progress and follows the exact counting rules of {@link RepeatingTimer}: the timer reports
+ * finished every time its interval is reached, then starts counting again from one.
+ *
+ * <p>Rather than being ticked by its owner, the timer may be {@link #schedule scheduled} on a
+ * {@link TimingWheel}, after which its progress follows the wheel's ticks and the wheel notifies
+ * the owner each time the timer finishes. A scheduled timer reads, finishes, ticks and restores
+ * exactly as it would if its owner ticked it whenever the wheel is advanced, but nothing touches
+ * it between the ticks it finishes on.
+ */
+public class TrackedRepeatingTimer extends RepeatingTimer {
+
+    private final int interval;
+    private int current = 0;
+
+    /** The wheel the timer follows, or null while it is ticked by its owner. */
+    private TimingWheel timers;
+
+    /** The tick of {@link #timers} at which the timer's progress was zero. */
+    private long origin;
+
+    /** Notified each time the scheduled timer finishes, or null if nothing is notified. */
+    private Runnable onFinish;
+
+    private final Deadline finish = new Deadline() {
+        @Override
+        protected void expire() {
+            // rescheduled first, so that the owner may unschedule the timer when notified
+            timers.schedule(this, timers.getTick() + interval);
+            onFinish.run();
+        }
+    };
+
+    /**
+     * Construct a new timer that finishes once every given number of ticks.
+     *
+     * @param interval The number of ticks between each time the timer finishes, must be positive.
+     */
+    public TrackedRepeatingTimer(int interval) {
+        super(interval);
+        this.interval = interval;
+    }
+
+    /**
+     * Construct a new timer that finishes once every given duration.
+     *
+     * @param duration The duration between each time the timer finishes.
+     */
+    public TrackedRepeatingTimer(TimerDuration duration) {
+        this(duration.getDuration());
+    }
+
+    /**
+     * Returns the number of ticks between each time the timer finishes.
+     *
+     * @return The interval of the timer in ticks.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the progress of the timer through its current interval.
+     *
+     * @return The current tick count of the timer.
+     */
+    public int getCurrent() {
+        if (timers == null) {
+            return current;
+        }
+        long elapsed = timers.getTick() - origin;
+        return elapsed == 0 ? 0 : (int) ((elapsed - 1) % interval) + 1;
+    }
+
+    /**
+     * Restore progress previously read via {@link #getCurrent()}.
+     *
+     * @param current The tick count of the timer, between 0 and the interval.
+     * @throws IllegalArgumentException If current is outside the range of the timer.
+     */
+    public void restore(int current) {
+        if (current < 0 || current > interval) {
+            throw new IllegalArgumentException(
+                    "Timer progress " + current + " outside interval " + interval);
+        }
+        if (timers == null) {
+            this.current = current;
+        } else {
+            origin = timers.getTick() - current;
+            arm();
+        }
+    }
+
+    /**
+     * Stop ticking the timer by its owner and have its progress follow the ticks of the given
+     * wheel instead, from its progress at the wheel's current tick.
+     *
+     * <p>Each time the timer finishes the wheel notifies the given owner, which may reschedule
+     * or unschedule the timer when notified. Scheduling a timer that is already scheduled
+     * replaces its wheel and owner. Timers without a positive interval never finish, so they are
+     * left to be ticked by their owner.
+     *
+     * @param timers The wheel to follow.
+     * @param onFinish Notified each time the timer finishes, or null to notify nothing.
+     */
+    public void schedule(TimingWheel timers, Runnable onFinish) {
+        if (interval < 1) {
+            return;
+        }
+        int progress = getCurrent();
+        if (this.timers != null) {
+            this.timers.cancel(finish);
+        }
+        this.timers = timers;
+        this.onFinish = onFinish;
+        this.origin = timers.getTick() - progress;
+        arm();
+    }
+
+    /**
+     * Stop following a wheel, keeping the timer's progress at the wheel's current tick until its
+     * owner ticks it again.
+     */
+    public void unschedule() {
+        if (timers == null) {
+            return;
+        }
+        current = getCurrent();
+        timers.cancel(finish);
+        timers = null;
+        onFinish = null;
+    }
+
+    /**
+     * Whether the timer follows a wheel rather than being ticked by its owner.
+     *
+     * @return true if the timer is scheduled.
+     */
+    public boolean isScheduled() {
+        return timers != null;
+    }
+
+    /**
+     * Returns the wheel the timer follows.
+     *
+     * @return The wheel the timer is scheduled on, or null if it is ticked by its owner.
+     */
+    public TimingWheel getTimers() {
+        return timers;
+    }
+
+    /** Schedule the notification of the scheduled timer's next finish, if anything is notified. */
+    private void arm() {
+        if (onFinish == null) {
+            timers.cancel(finish);
+            return;
+        }
+        int progress = getCurrent();
+        timers.schedule(finish, timers.getTick() + interval
+                - (progress == interval ? 0 : progress));
+    }
+
+    @Override
+    public boolean isFinished() {
+        return getCurrent() == interval;
+    }
+
+    /**
+     * Progress the timer by one tick. A scheduled timer is moved a tick further through its
+     * interval than its wheel, without notifying its owner.
+     */
+    @Override
+    public void tick() {
+        if (timers != null) {
+            origin--;
+            arm();
+            return;
+        }
+        current++;
+        if (current > interval) {
+            current = 1;
+        }
+    }
+}
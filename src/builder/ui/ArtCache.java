@@ -0,0 +1,267 @@
+package builder.ui;
+
+import engine.art.ArtNotFoundException;
+import engine.art.loader.ArtLoader;
+import engine.art.loader.MalformedArtException;
+import engine.art.sprites.Sprite;
+import engine.art.sprites.SpriteGroup;
+import engine.art.sprites.SpriteGroupMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+/**
+ * Loads sprite groups from art files through a binary cache of their decoded pixels.
+ *
+ * <p>The group loaded from each art file is cached in [file].artc in the cache directory, along
+ * with the length and CRC-32C of the art file it was decoded from. While these match, the group
+ * is decoded from the cache instead of parsing the art file. Otherwise the art file is parsed as
+ * usual and the cache rewritten. A cache that cannot be written is not an error, the art file is
+ * simply parsed again next time.
+ *
+ * <p>Cache files are a few kilobytes, so they are read whole rather than memory mapped, and
+ * hashed with a checksum rather than a message digest: on a cold JVM, setting up either of the
+ * latter takes far longer than parsing the art.
+ *
+ * <p>All values are big-endian. A cache file is laid out as:
+ *
+ * <ol>
+ *   <li>{@link #MAGIC}, the format {@link #VERSION}, then the length and CRC-32C of the art
+ *       file;
+ *   <li>the label of the group and the number of sprites in it;
+ *   <li>every sprite in the order of the group: its name within the group, its label, width and
+ *       height, then the packed ARGB value of every pixel row by row;
+ *   <li>{@link #END}.
+ * </ol>
+ *
+ * <p>Strings are written as their UTF-8 encoded length followed by the encoded bytes.
+ */
+final class ArtCache {
+
+    /** The first four bytes of every cache file, "JBAC". */
+    static final int MAGIC = 0x4A424143;
+
+    /** The last four bytes of every cache file, "JBND". */
+    static final int END = 0x4A424E44;
+
+    /** The version of the format written, bumped whenever the layout changes. */
+    static final int VERSION = 1;
+
+    /** The cache of the art files under resources/art/, kept in resources/art/cache/. */
+    static final ArtCache RESOURCES =
+            new ArtCache(Path.of("resources", "art"), Path.of("resources", "art", "cache"));
+
+    private final Path artDirectory;
+    private final Path cacheDirectory;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Construct a cache of the art files in a directory.
+     *
+     * @param artDirectory The directory containing the art files.
+     * @param cacheDirectory The directory to keep cache files in, created when first written.
+     */
+    ArtCache(Path artDirectory, Path cacheDirectory) {
+        this.artDirectory = artDirectory;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Load a group of sprites from [file].art in the art directory, reading it from the cache if
+     * the cache is up to date with the art file.
+     *
+     * @param file The name of the art file, without extension.
+     * @param label The label of the group to load from the file.
+     * @return The loaded group.
+     * @throws IOException If the art file cannot be read.
+     * @throws MalformedArtException If the art file has to be parsed and is malformed.
+     * @throws ArtNotFoundException If the art file does not contain the group.
+     */
+    SpriteGroup load(String file, String label)
+            throws IOException, MalformedArtException, ArtNotFoundException {
+        byte[] art = Files.readAllBytes(getArtPath(file));
+        long hash = hash(art);
+        Path cached = getCachePath(file);
+        SpriteGroup group = read(cached, hash, label);
+        if (group != null) {
+            hits.incrementAndGet();
+            return group;
+        }
+        misses.incrementAndGet();
+        group = ArtLoader.load(new InputStreamReader(new ByteArrayInputStream(art),
+                Charset.defaultCharset())).lookup(label);
+        try {
+            write(cached, hash, group);
+        } catch (IOException e) {
+            // e.g. read only resources, the art is parsed again next time
+        }
+        return group;
+    }
+
+    /**
+     * Returns the path of an art file.
+     *
+     * @param file The name of the art file, without extension.
+     * @return The path of [file].art in the art directory.
+     */
+    Path getArtPath(String file) {
+        return artDirectory.resolve(file + ".art");
+    }
+
+    /**
+     * Returns the path of the cache file of an art file.
+     *
+     * @param file The name of the art file, without extension.
+     * @return The path of [file].artc in the cache directory.
+     */
+    Path getCachePath(String file) {
+        return cacheDirectory.resolve(file + ".artc");
+    }
+
+    /**
+     * Returns how many groups have been read from an up to date cache file.
+     *
+     * @return The number of cache hits.
+     */
+    int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns how many groups have been parsed from their art file, as their cache file was
+     * missing, out of date or unreadable.
+     *
+     * @return The number of cache misses.
+     */
+    int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Read a group from a cache file, if the file exists, is intact and holds the given group
+     * decoded from an art file with the given hash.
+     *
+     * @return The group, or null if it must be loaded from its art file.
+     */
+    private static SpriteGroup read(Path path, long hash, String label) {
+        try {
+            return decode(ByteBuffer.wrap(Files.readAllBytes(path)), hash, label);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            // an unreadable, truncated or otherwise damaged cache, rebuilt from the art file
+            return null;
+        }
+    }
+
+    private static SpriteGroup decode(ByteBuffer buffer, long hash, String label) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        if (buffer.getLong() != hash || !label.equals(getString(buffer))) {
+            return null;
+        }
+        SpriteGroupMap group = new SpriteGroupMap(label);
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            String name = getString(buffer);
+            String spriteLabel = getString(buffer);
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            if (width < 1 || height < 1
+                    || (long) width * height > buffer.remaining() / Integer.BYTES) {
+                return null;
+            }
+            int[] pixels = new int[width * height];
+            buffer.asIntBuffer().get(pixels);
+            buffer.position(buffer.position() + pixels.length * Integer.BYTES);
+            group.addSprite(name, new PackedSprite(label, spriteLabel, width, height, pixels));
+        }
+        if (buffer.getInt() != END) {
+            return null;
+        }
+        return group;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write a group to a cache file. The file is written alongside and then moved into place, so
+     * a concurrent reader sees either the old or the new cache.
+     */
+    private static void write(Path path, long hash, SpriteGroup group) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(hash);
+        putString(out, group.getLabel());
+        out.writeInt(group.getSprites().size());
+        for (Sprite sprite : group.getSprites()) {
+            // parsed sprites are labelled [group]:[name]
+            String spriteLabel = sprite.getLabel();
+            putString(out, spriteLabel.substring(spriteLabel.indexOf(':') + 1));
+            putString(out, spriteLabel);
+            out.writeInt(sprite.getWidth());
+            out.writeInt(sprite.getHeight());
+            for (int row = 0; row < sprite.getHeight(); row++) {
+                for (int column = 0; column < sprite.getWidth(); column++) {
+                    out.writeInt(PackedColour.pack(sprite.colourAt(row, column)));
+                }
+            }
+        }
+        out.writeInt(END);
+        out.flush();
+
+        Files.createDirectories(path.getParent());
+        Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(),
+                ".tmp");
+        try {
+            Files.write(temporary, bytes.toByteArray());
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void putString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long for art cache: " + value);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Returns the length of the art in the high 32 bits and its CRC-32C in the low 32 bits. */
+    private static long hash(byte[] art) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(art);
+        return (long) art.length << 32 | checksum.getValue();
+    }
+}
@@ -0,0 +1,22 @@
+package builder.ui;
+
+/**
+ * An art load exception occurs when an art file that exists cannot be turned into the group of
+ * sprites it should hold, i.e. it is malformed or does not contain the group.
+ *
+ * <p>Art is loaded once first needed, part way through a game, so this exception is unchecked.
+ */
+public class ArtLoadException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct a new art load exception with a message detailing the problem and its cause.
+     *
+     * @param message Explanation of the problem that occurred.
+     * @param cause The exception raised while loading the art.
+     */
+    public ArtLoadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,57 @@
+package builder.ui;
+
+import engine.EngineState;
+import engine.game.Game;
+import engine.renderer.Renderable;
+
+import java.util.List;
+
+/**
+ * Runs a game whose frames are published to a {@link RenderFrames}, rendering the latest frame
+ * published rather than the game's live entities.
+ *
+ * <p>The engine's core draws the list it is given on its own thread, after the engine has moved
+ * on to the next tick. Handing it an immutable frame means it never draws entities part way
+ * through a tick. The core may still be drawing the previous frame when the next one is
+ * rendered, so each frame is held until two later frames have been rendered.
+ */
+public class BufferedGame implements Game {
+
+    private final Game game;
+    private final RenderFrames frames;
+
+    private RenderFrame current;
+    private RenderFrame previous;
+
+    /**
+     * Construct a game rendering the frames the given game publishes.
+     *
+     * @param game The game to tick, which publishes a frame at the end of each tick.
+     * @param frames The frames the game publishes to.
+     */
+    public BufferedGame(Game game, RenderFrames frames) {
+        this.game = game;
+        this.frames = frames;
+    }
+
+    @Override
+    public void tick(EngineState state) {
+        game.tick(state);
+    }
+
+    /**
+     * Returns the latest frame published by the game.
+     *
+     * @return An immutable frame of the game as of its last tick.
+     */
+    @Override
+    public List<Renderable> render() {
+        RenderFrame frame = frames.acquire();
+        if (previous != null) {
+            previous.release();
+        }
+        previous = current;
+        current = frame;
+        return frame;
+    }
+}
@@ -0,0 +1,140 @@
+package builder.ui;
+
+import engine.art.ArtNotFoundException;
+import engine.art.loader.MalformedArtException;
+import engine.art.sprites.Sprite;
+import engine.art.sprites.SpriteGroup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A {@link SpriteGroup} whose art file is only loaded once one of its sprites is first needed.
+ *
+ * <p>The label of the group is known up front, so it can be indexed without loading. Loading is
+ * thread safe, and the group is loaded at most once however many threads need it. Groups are
+ * loaded through an {@link ArtCache}, so an art file is only parsed if it changed since last
+ * loaded. The art file must exist when the group is constructed, so that a missing file is
+ * found while the gallery is built rather than part way through a game.
+ */
+final class LazySpriteGroup implements SpriteGroup {
+
+    private final ArtCache cache;
+    private final String file;
+    private final String label;
+
+    /** The group loaded from the file, or null until it is first needed. */
+    private volatile SpriteGroup loaded;
+
+    /** How long loading the group took, in nanoseconds, or -1 if it has not been loaded. */
+    private volatile long loadNanos = -1;
+
+    /**
+     * Construct a group to be loaded from resources/art/[file].art when first needed.
+     *
+     * @param file The name of the file under resources/art/ to load.
+     * @param label The common prefix of sprites within the given file.
+     * @throws UncheckedIOException If the art file does not exist.
+     */
+    LazySpriteGroup(String file, String label) {
+        this(ArtCache.RESOURCES, file, label);
+    }
+
+    /**
+     * Construct a group to be loaded through the given cache when first needed.
+     *
+     * @param cache The cache to load the art file through.
+     * @param file The name of the art file to load, without extension.
+     * @param label The common prefix of sprites within the given file.
+     * @throws UncheckedIOException If the art file does not exist.
+     */
+    LazySpriteGroup(ArtCache cache, String file, String label) {
+        Path art = cache.getArtPath(file);
+        if (!Files.isRegularFile(art)) {
+            throw new UncheckedIOException("No art file for " + label,
+                    new NoSuchFileException(art.toString()));
+        }
+        this.cache = cache;
+        this.file = file;
+        this.label = label;
+    }
+
+    /**
+     * Returns the group loaded from the art file, loading it first if it has not been loaded.
+     *
+     * @return The loaded group.
+     * @throws UncheckedIOException If the art file cannot be read.
+     * @throws ArtLoadException If the art file is malformed or does not contain the group.
+     */
+    SpriteGroup load() {
+        SpriteGroup group = loaded;
+        if (group == null) {
+            synchronized (this) {
+                group = loaded;
+                if (group == null) {
+                    long start = System.nanoTime();
+                    group = read();
+                    loadNanos = System.nanoTime() - start;
+                    loaded = group;
+                }
+            }
+        }
+        return group;
+    }
+
+    private SpriteGroup read() {
+        try {
+            return cache.load(file, label);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read art " + file, e);
+        } catch (ArtNotFoundException | MalformedArtException e) {
+            throw new ArtLoadException("Unable to load " + label + " from art " + file, e);
+        }
+    }
+
+    /**
+     * Whether the group has been loaded from its art file.
+     *
+     * @return true if the group is loaded.
+     */
+    boolean isLoaded() {
+        return loaded != null;
+    }
+
+    /**
+     * Returns how long loading the group from its art file took.
+     *
+     * @return The load time in nanoseconds, or -1 if the group has not been loaded.
+     */
+    long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * Returns the name of the art file the group is loaded from.
+     *
+     * @return The file name under resources/art/, without extension.
+     */
+    String getFile() {
+        return file;
+    }
+
+    @Override
+    public Sprite getSprite(String name) throws ArtNotFoundException {
+        return load().getSprite(name);
+    }
+
+    @Override
+    public List<Sprite> getSprites() {
+        return load().getSprites();
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,72 @@
+package builder.ui;
+
+import engine.art.sprites.Colour;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A colour decoded from a packed 32 bit ARGB value, as stored by an {@link ArtCache}.
+ *
+ * <p>Colours are interned, so every pixel of the same colour across all cached sprites shares one
+ * instance. Like the colours of parsed art, a colour prints as "R[red]G[green]B[blue]".
+ */
+final class PackedColour implements Colour {
+
+    /** Every colour decoded so far, keyed by its packed value. */
+    private static final Map<Integer, PackedColour> interned = new ConcurrentHashMap<>();
+
+    private final int argb;
+
+    private PackedColour(int argb) {
+        this.argb = argb;
+    }
+
+    /**
+     * Returns the colour with the given packed value.
+     *
+     * @param argb The alpha, red, green and blue components packed from the high byte down.
+     * @return The colour, the same instance for every call with the same value.
+     */
+    static PackedColour of(int argb) {
+        return interned.computeIfAbsent(argb, PackedColour::new);
+    }
+
+    /**
+     * Returns the packed value of any colour.
+     *
+     * @param colour The colour to pack.
+     * @return The alpha, red, green and blue components packed from the high byte down.
+     */
+    static int pack(Colour colour) {
+        return (colour.getAlpha() & 0xFF) << 24
+                | (colour.getRed() & 0xFF) << 16
+                | (colour.getGreen() & 0xFF) << 8
+                | (colour.getBlue() & 0xFF);
+    }
+
+    @Override
+    public int getRed() {
+        return (argb >> 16) & 0xFF;
+    }
+
+    @Override
+    public int getGreen() {
+        return (argb >> 8) & 0xFF;
+    }
+
+    @Override
+    public int getBlue() {
+        return argb & 0xFF;
+    }
+
+    @Override
+    public int getAlpha() {
+        return argb >>> 24;
+    }
+
+    @Override
+    public String toString() {
+        return "R" + getRed() + "G" + getGreen() + "B" + getBlue();
+    }
+}
@@ -0,0 +1,110 @@
+package builder.ui;
+
+import engine.art.sprites.Colour;
+import engine.art.sprites.Sprite;
+
+/**
+ * A sprite decoded from the packed pixels stored by an {@link ArtCache}.
+ *
+ * <p>Behaves exactly as a sprite parsed from its art file: the first coordinate of {@link
+ * #colourAt(int, int)} selects the row and the second the column, and {@link #toString()} and
+ * {@link #toUtfBlockString()} print the same text.
+ */
+final class PackedSprite implements Sprite {
+
+    private static final char[] BLOCKS = {' ', '░', '▒', '▓', '█'};
+
+    private final String group;
+    private final String label;
+    private final int width;
+    private final int height;
+
+    /** The colour of every pixel, row by row. */
+    private final Colour[] colours;
+
+    private String toStringCache;
+
+    /**
+     * Construct a sprite from its packed pixels.
+     *
+     * @param group The label of the group the sprite belongs to.
+     * @param label The label of the sprite, e.g. "pigeon:down".
+     * @param width The number of pixels in each row.
+     * @param height The number of rows.
+     * @param pixels The packed ARGB value of every pixel, row by row (see {@link
+     *     PackedColour#pack(Colour)}).
+     * @throws IllegalArgumentException If the number of pixels does not match the size.
+     */
+    PackedSprite(String group, String label, int width, int height, int[] pixels) {
+        if (width < 1 || height < 1 || pixels.length != width * height) {
+            throw new IllegalArgumentException("Cannot make a " + width + "x" + height
+                    + " sprite from " + pixels.length + " pixels");
+        }
+        this.group = group;
+        this.label = label;
+        this.width = width;
+        this.height = height;
+        this.colours = new Colour[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            colours[i] = PackedColour.of(pixels[i]);
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Colour colourAt(int x, int y) {
+        if (x < 0 || x >= height || y < 0 || y >= width) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Pixel " + x + "," + y + " outside " + label);
+        }
+        return colours[x * width + y];
+    }
+
+    @Override
+    public String toString() {
+        if (toStringCache == null) {
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < width; i++) {
+                for (int j = 0; j < height; j++) {
+                    result.append("[").append(colourAt(i, j).toString()).append("] ");
+                }
+                result.append(",\n");
+            }
+            toStringCache = result.toString();
+        }
+        return toStringCache;
+    }
+
+    @Override
+    public String toUtfBlockString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                Colour colour = colourAt(i, j);
+                int brightness = (colour.getRed() + colour.getGreen() + colour.getBlue()) / 3;
+                result.append(BLOCKS[Math.min(brightness / 51, BLOCKS.length - 1)]);
+            }
+            result.append(",\n");
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String getGroup() {
+        return group;
+    }
+}
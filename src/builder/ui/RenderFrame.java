@@ -0,0 +1,141 @@
+package builder.ui;
+
+import engine.art.sprites.Sprite;
+import engine.renderer.Renderable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable copy of everything rendered at the end of a tick, in drawing order.
+ *
+ * <p>Each renderable in the frame reports the id, position and sprite its entity had when the
+ * frame was captured, so a frame can be drawn on one thread while the next tick changes the
+ * entities on another. Frames are pooled and refilled by {@link RenderFrames}, so a frame must
+ * only be used between {@link RenderFrames#acquire()} and {@link #release()}.
+ */
+public final class RenderFrame extends AbstractList<Renderable> implements RandomAccess {
+
+    /** The number of threads holding this frame, see {@link RenderFrames#acquire()}. */
+    final AtomicInteger readers = new AtomicInteger();
+
+    private int tick = -1;
+    private int size = 0;
+    private int[] xs = new int[0];
+    private int[] ys = new int[0];
+    private Sprite[] sprites = new Sprite[0];
+    private String[] ids = new String[0];
+    private Entry[] entries = new Entry[0];
+
+    /** A renderable of the frame, reading the captured state at its index. */
+    private final class Entry implements Renderable {
+        private final int index;
+
+        private Entry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int getX() {
+            return xs[index];
+        }
+
+        @Override
+        public int getY() {
+            return ys[index];
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return sprites[index];
+        }
+
+        @Override
+        public String getID() {
+            return ids[index];
+        }
+    }
+
+    /** Constructs an empty frame, before any tick. */
+    RenderFrame() {}
+
+    /**
+     * Copy the id, position and sprite of each of the given renderables into this frame,
+     * replacing its previous contents. The frame only grows, so refilling it does not allocate
+     * once it has held as many renderables.
+     *
+     * @param renderables The renderables to capture, in drawing order.
+     * @param tick The tick the renderables were captured at.
+     */
+    void fill(List<Renderable> renderables, int tick) {
+        int count = renderables.size();
+        if (count > entries.length) {
+            grow(count);
+        }
+        for (int i = 0; i < count; i++) {
+            Renderable renderable = renderables.get(i);
+            xs[i] = renderable.getX();
+            ys[i] = renderable.getY();
+            sprites[i] = renderable.getSprite();
+            // pooled npcs change id when reused, so the id is captured rather than the npc
+            ids[i] = renderable.getID();
+        }
+        for (int i = count; i < size; i++) {
+            sprites[i] = null;
+            ids[i] = null;
+        }
+        this.size = count;
+        this.tick = tick;
+    }
+
+    /** Grow the frame to hold at least the given number of renderables. */
+    private void grow(int count) {
+        int capacity = Math.max(count, entries.length + (entries.length >> 1));
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        sprites = Arrays.copyOf(sprites, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        int filled = entries.length;
+        entries = Arrays.copyOf(entries, capacity);
+        for (int i = filled; i < capacity; i++) {
+            entries[i] = new Entry(i);
+        }
+    }
+
+    /**
+     * Returns the tick this frame was captured at.
+     *
+     * @return The tick captured, or -1 if nothing has been captured yet.
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    @Override
+    public Renderable get(int index) {
+        Objects.checkIndex(index, size);
+        return entries[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Let this frame be refilled with a later tick once no other thread holds it. A frame must be
+     * released exactly once for each time it was acquired, and not used after.
+     *
+     * @throws IllegalStateException If the frame is not held.
+     */
+    public void release() {
+        if (readers.getAndDecrement() <= 0) {
+            readers.incrementAndGet();
+            throw new IllegalStateException("Frame released more times than it was acquired");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package builder.ui;
+
+import engine.renderer.Renderable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands frames captured by the simulation thread to any number of drawing threads without
+ * locking either.
+ *
+ * <p>The simulation thread {@link #publish publishes} a {@link RenderFrame} at the end of each
+ * tick. Drawing threads {@link #acquire() acquire} the latest frame, draw it while the next tick
+ * runs, then {@link RenderFrame#release() release} it. A frame is never refilled while it is
+ * held, so a drawing thread never sees a frame that is part way through being captured.
+ *
+ * <p>Frames are pooled. Publishing refills the first frame that is neither held nor the latest,
+ * and only allocates a new frame if every frame is in use, so once the pool has grown to the
+ * number of frames held at once (usually three) publishing does not allocate.
+ *
+ * <p>Only one thread may publish.
+ */
+public class RenderFrames {
+
+    /** Every frame in the pool, only used by the publishing thread. */
+    private final List<RenderFrame> pool = new ArrayList<>();
+
+    /** The most recently published frame. */
+    private final AtomicReference<RenderFrame> latest = new AtomicReference<>(new RenderFrame());
+
+    /** Construct a new buffer whose latest frame is empty until a frame is published. */
+    public RenderFrames() {
+        pool.add(latest.get());
+    }
+
+    /**
+     * Capture the given renderables as the latest frame. Must only be called by one thread.
+     *
+     * @param renderables The renderables to capture, in drawing order.
+     * @param tick The tick the renderables were rendered at.
+     */
+    public void publish(List<Renderable> renderables, int tick) {
+        RenderFrame frame = free();
+        frame.fill(renderables, tick);
+        // publishing the filled frame makes its contents visible to any thread acquiring it
+        latest.set(frame);
+    }
+
+    /**
+     * Returns the latest frame, held until it is {@link RenderFrame#release() released}.
+     *
+     * @return The frame most recently published.
+     */
+    public RenderFrame acquire() {
+        while (true) {
+            RenderFrame frame = latest.get();
+            frame.readers.incrementAndGet();
+            // if another frame was published meanwhile, this frame may already be being refilled
+            if (latest.get() == frame) {
+                return frame;
+            }
+            frame.readers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of frames in the pool.
+     *
+     * @return The number of frames allocated so far.
+     */
+    public int getPoolSize() {
+        return pool.size();
+    }
+
+    /** Find a frame that no thread holds and that is not the latest, growing the pool if none. */
+    private RenderFrame free() {
+        RenderFrame current = latest.get();
+        for (RenderFrame frame : pool) {
+            if (frame != current && frame.readers.get() == 0) {
+                return frame;
+            }
+        }
+        RenderFrame frame = new RenderFrame();
+        pool.add(frame);
+        return frame;
+    }
+}
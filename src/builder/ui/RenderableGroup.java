@@ -17,4 +17,17 @@ public interface RenderableGroup {
      * @return A collection of renderables to display.
      */
     List<Renderable> render();
+
+    /**
+     * Add each renderable that should be displayed to the given list, in the same order as {@link
+     * #render()}.
+     *
+     * <p>Groups rendered every frame should override this method to add their renderables directly
+     * rather than building a new list, so that a caller can reuse a single list between frames.
+     *
+     * @param renderables The list to add renderables to.
+     */
+    default void renderInto(List<Renderable> renderables) {
+        renderables.addAll(render());
+    }
 }
@@ -1,94 +1,337 @@
 package builder.ui;
 
-import engine.art.ArtNotFoundException;
-import engine.art.loader.ArtLoader;
-import engine.art.loader.MalformedArtException;
 import engine.art.sprites.SpriteGroup;
 
-import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * A repository of sprites to use throughout the game
  *
+ * <p>Each group is loaded from its art file when one of its sprites is first needed, so only the
+ * groups a game uses are ever loaded. {@link #warmUp()} loads every group up front, in parallel.
+ * Decoded groups are cached in resources/art/cache/, so art files are only parsed when changed.
+ *
  * @provided
  */
 public class SpriteGallery {
+    /** Every group below, in the order declared, added as each is created by lazy. */
+    private static final List<LazySpriteGroup> all = new ArrayList<>();
+
+    /** How long the last {@link #warmUp(int)} took in nanoseconds, or -1 if never warmed up. */
+    private static volatile long warmUpNanos = -1;
+
     // UI
     /** UI icons used in overlays. */
-    public static final SpriteGroup icons = load("Icons", "icons");
+    public static final SpriteGroup icons = lazy("Icons", "icons");
 
     /** Inventory UI icons used for the inventory bar. */
-    public static final SpriteGroup inventory = load("Inventory", "inventory");
+    public static final SpriteGroup inventory = lazy("Inventory", "inventory");
 
     /** Sprites for items rendered in the inventory. */
-    public static final SpriteGroup tools = load("Tools", "tools");
+    public static final SpriteGroup tools = lazy("Tools", "tools");
 
     // Tiles
     /** Tilled dirt field. */
-    public static final SpriteGroup tilled = load("Tilled", "tilled");
+    public static final SpriteGroup tilled = lazy("Tilled", "tilled");
 
     /** Grass tiles. */
-    public static final SpriteGroup grass = load("Grass", "grass");
+    public static final SpriteGroup grass = lazy("Grass", "grass");
 
     /** Dirt field tile. */
-    public static final SpriteGroup field = load("Field", "field");
+    public static final SpriteGroup field = lazy("Field", "field");
 
     /** Water tiles. */
-    public static final SpriteGroup water = load("Water", "water");
+    public static final SpriteGroup water = lazy("Water", "water");
 
     // Entities
     /** Brutus character sprites. */
-    public static final SpriteGroup brutus = load("Brutus", "brutus");
+    public static final SpriteGroup brutus = lazy("Brutus", "brutus");
 
     /** Chicken farmer character sprites. */
-    public static final SpriteGroup chickenFarmer = load("ChickenFarmer", "chickenFarmer");
+    public static final SpriteGroup chickenFarmer = lazy("ChickenFarmer", "chickenFarmer");
 
     /** Rock/mine/ore resource sprites. */
-    public static final SpriteGroup rock = load("Rock", "rock");
+    public static final SpriteGroup rock = lazy("Rock", "rock");
 
     /** Cabbage resource sprites. */
-    public static final SpriteGroup cabbage = load("Cabbage", "cabbage");
+    public static final SpriteGroup cabbage = lazy("Cabbage", "cabbage");
 
     // Npcs
     /** Eagle sprites. */
-    public static final SpriteGroup eagle = load("Eagle", "eagle");
+    public static final SpriteGroup eagle = lazy("Eagle", "eagle");
 
     /** Pigeon sprites. */
-    public static final SpriteGroup pigeon = load("Pigeon", "pigeon");
+    public static final SpriteGroup pigeon = lazy("Pigeon", "pigeon");
 
     /** Magpie sprites. */
-    public static final SpriteGroup magpie = load("Magpie", "magpie");
+    public static final SpriteGroup magpie = lazy("Magpie", "magpie");
 
     /** Hive sprites. */
-    public static final SpriteGroup hive = load("Hive", "hive");
+    public static final SpriteGroup hive = lazy("Hive", "hive");
 
     /** Bee sprites. */
-    public static final SpriteGroup bee = load("Bee", "bee");
+    public static final SpriteGroup bee = lazy("Bee", "bee");
 
     /** Scarecrow sprites. */
-    public static final SpriteGroup scarecrow = load("Scarecrow", "scarecrow");
+    public static final SpriteGroup scarecrow = lazy("Scarecrow", "scarecrow");
+
+    public static final SpriteGroup letters = lazy("Letters", "letter");
+
+    /** Every group above keyed by its label, see {@link #group(String)}. */
+    private static final Map<String, SpriteGroup> groups = index();
+
+    // Tables of sprites chosen every tick, see SpriteTable
+
+    /** The sprites of an npc or the player facing in each direction. */
+    public enum Facing implements SpriteTable.Key {
+        DEFAULT("default"),
+        UP("up"),
+        DOWN("down"),
+        LEFT("left"),
+        RIGHT("right");
+
+        private final String label;
+
+        Facing(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** The sprites of ore as it is mined. */
+    public enum Wear implements SpriteTable.Key {
+        DEFAULT("default"),
+        DAMAGED("damaged"),
+        DEPLETED("depleted");
+
+        private final String label;
+
+        Wear(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** The sprites of the inventory bar. */
+    public enum Slot implements SpriteTable.Key {
+        EMPTY("empty"),
+        BORDER("border"),
+        ACTIVE_BORDER("activeborder");
+
+        private final String label;
+
+        Slot(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** The sprites of items rendered in the inventory. */
+    public enum Tool implements SpriteTable.Key {
+        BUCKET("bucket"),
+        HIVE_HAMMER("hivehammer"),
+        HOE("hoe"),
+        JACKHAMMER("jackhammer"),
+        POLE("pole");
+
+        private final String label;
+
+        Tool(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** {@link #inventory} by slot. */
+    public static final SpriteTable<Slot> inventoryTable =
+            new SpriteTable<>(inventory, Slot.class);
+
+    /** {@link #tools} by tool. */
+    public static final SpriteTable<Tool> toolsTable = new SpriteTable<>(tools, Tool.class);
+
+    /** {@link #chickenFarmer} by facing. */
+    public static final SpriteTable<Facing> chickenFarmerTable =
+            new SpriteTable<>(chickenFarmer, Facing.class);
+
+    /** {@link #rock} by wear. */
+    public static final SpriteTable<Wear> rockTable = new SpriteTable<>(rock, Wear.class);
+
+    /** {@link #eagle} by facing. */
+    public static final SpriteTable<Facing> eagleTable = new SpriteTable<>(eagle, Facing.class);
+
+    /** {@link #pigeon} by facing. */
+    public static final SpriteTable<Facing> pigeonTable =
+            new SpriteTable<>(pigeon, Facing.class);
 
-    public static final SpriteGroup letters = load("Letters", "letter");
+    /** {@link #magpie} by facing. */
+    public static final SpriteTable<Facing> magpieTable =
+            new SpriteTable<>(magpie, Facing.class);
 
-    // Enemies
+    /** {@link #bee} by facing. */
+    public static final SpriteTable<Facing> beeTable = new SpriteTable<>(bee, Facing.class);
 
     private SpriteGallery() {}
 
     /**
-     * Load a sprite image from an art file at resources/art/[spriteFilename].art. The group of
-     * assets under groupName are returned.
+     * Returns the sprite group with the given label, i.e. the group name of any sprite within it
+     * (see {@link engine.art.sprites.Sprite#getGroup()}).
      *
-     * @param spriteFilename The name of the file under resources/art/ to load.
-     * @param groupName The common prefix of sprites within the given file.
+     * @param label The label of the group, e.g. "pigeon".
+     * @return The group with the given label, or null if the gallery has no such group.
+     */
+    public static SpriteGroup group(String label) {
+        return groups.get(label);
+    }
+
+    /**
+     * Load every group not yet loaded from its art file, parsing the files in parallel on a
+     * thread pool sized to the number of available processors. Returns once every group is
+     * loaded.
+     *
+     * @throws UncheckedIOException If an art file cannot be read.
+     * @throws ArtLoadException If an art file is malformed or does not contain its group.
+     */
+    public static void warmUp() {
+        warmUp(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Load every group not yet loaded from its art file, parsing the files in parallel on a
+     * thread pool of the given size. Returns once every group is loaded.
+     *
+     * @param threads The number of threads to parse art files on, at least one.
+     * @throws IllegalArgumentException If threads is less than one.
+     * @throws UncheckedIOException If an art file cannot be read.
+     * @throws ArtLoadException If an art file is malformed or does not contain its group.
      */
-    private static SpriteGroup load(String spriteFilename, String groupName) {
+    public static void warmUp(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Cannot warm up art on " + threads + " threads");
+        }
+        List<LazySpriteGroup> unloaded = new ArrayList<>();
+        for (LazySpriteGroup group : all) {
+            if (!group.isLoaded()) {
+                unloaded.add(group);
+            }
+        }
+        if (unloaded.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, unloaded.size()));
         try {
-            return ArtLoader.load("resources/art/" + spriteFilename + ".art").lookup(groupName);
-        } catch (IOException | ArtNotFoundException | MalformedArtException e) {
-            // Cannot throw a checked exception when instantiating a static field.
-            // Wrap up any thrown exception as RuntimeException
-            // This should crash the JVM when starting up the game
-            throw new RuntimeException(e);
+            List<Future<SpriteGroup>> loads = new ArrayList<>();
+            for (LazySpriteGroup group : unloaded) {
+                loads.add(pool.submit(group::load));
+            }
+            for (Future<SpriteGroup> load : loads) {
+                load.get();
+            }
+            warmUpNanos = System.nanoTime() - start;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading art", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
         }
     }
+
+    /**
+     * Returns how long loading each group loaded so far took, keyed by the group's art file in
+     * the order the groups are declared. Groups not yet loaded are left out.
+     *
+     * @return The load time of each loaded group in nanoseconds.
+     */
+    public static Map<String, Long> getLoadTimes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (LazySpriteGroup group : all) {
+            long nanos = group.getLoadNanos();
+            if (nanos >= 0) {
+                result.put(group.getFile(), nanos);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a human readable report of how long loading each group took, how many groups
+     * have not been loaded, how many were read from the art cache and, if the gallery has been
+     * warmed up, how long warming up took.
+     *
+     * @return The load time report, one line per loaded group followed by the summary.
+     */
+    public static String loadReport() {
+        StringBuilder result = new StringBuilder();
+        long total = 0;
+        Map<String, Long> times = getLoadTimes();
+        for (Map.Entry<String, Long> time : times.entrySet()) {
+            result.append(String.format(Locale.ROOT, "art/%-16s %8.2f ms%n",
+                    time.getKey(), time.getValue() / 1e6));
+            total += time.getValue();
+        }
+        result.append(String.format(Locale.ROOT, "art loaded %d of %d groups in %.2f ms%n",
+                times.size(), all.size(), total / 1e6));
+        ArtCache cache = ArtCache.RESOURCES;
+        if (cache.getHits() + cache.getMisses() > 0) {
+            result.append(String.format(Locale.ROOT, "art cache %d hits, %d misses%n",
+                    cache.getHits(), cache.getMisses()));
+        }
+        long warmUp = warmUpNanos;
+        if (warmUp >= 0) {
+            result.append(String.format(Locale.ROOT, "art warmed up in %.2f ms%n", warmUp / 1e6));
+        }
+        return result.toString();
+    }
+
+    private static Map<String, SpriteGroup> index() {
+        Map<String, SpriteGroup> result = new HashMap<>();
+        for (SpriteGroup group : all) {
+            result.put(group.getLabel(), group);
+        }
+        return result;
+    }
+
+    /**
+     * Create a group of sprites loaded from an art file at resources/art/[spriteFilename].art
+     * once first needed. The group of assets under groupName is loaded.
+     *
+     * @param spriteFilename The name of the file under resources/art/ to load.
+     * @param groupName The common prefix of sprites within the given file.
+     */
+    private static SpriteGroup lazy(String spriteFilename, String groupName) {
+        LazySpriteGroup group = new LazySpriteGroup(spriteFilename, groupName);
+        all.add(group);
+        return group;
+    }
 }
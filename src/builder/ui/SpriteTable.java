@@ -0,0 +1,105 @@
+package builder.ui;
+
+import engine.art.ArtNotFoundException;
+import engine.art.sprites.Sprite;
+import engine.art.sprites.SpriteGroup;
+
+/**
+ * The sprites of a {@link SpriteGroup} looked up once, indexed by the constants of an enum.
+ *
+ * <p>Looking up a sprite in a group by its label hashes the label every time. Entities choosing
+ * their sprite every tick instead get it from a table by key, which only indexes an array.
+ *
+ * @param <K> The enum of keys, each naming a sprite of the group by its label.
+ */
+public final class SpriteTable<K extends Enum<K> & SpriteTable.Key> {
+
+    /**
+     * A key of a {@link SpriteTable}, naming a sprite within its group.
+     */
+    public interface Key {
+        /**
+         * Returns the label of the sprite within its group, as given to {@link
+         * SpriteGroup#getSprite(String)}.
+         *
+         * @return The label of the sprite, e.g. "down".
+         */
+        String getLabel();
+    }
+
+    private final SpriteGroup group;
+    private final Class<K> keys;
+
+    /** The sprites by key ordinal, or null until the table is first used. */
+    private volatile Sprite[] sprites;
+
+    /**
+     * Construct a table of the sprites of the given group for every key of the given enum. The
+     * keys are looked up when the table is first used, so that the group is not loaded (see
+     * {@link SpriteGallery}) until then. Keys the group has no sprite for are left out of the
+     * table.
+     *
+     * @param group The group to look sprites up in.
+     * @param keys The enum of keys to look up.
+     */
+    public SpriteTable(SpriteGroup group, Class<K> keys) {
+        this.group = group;
+        this.keys = keys;
+    }
+
+    /**
+     * Returns the sprites of the table, looking them up on first use. Threads racing to look up
+     * the sprites find the same sprites, so whichever is kept does not matter.
+     */
+    private Sprite[] sprites() {
+        Sprite[] result = sprites;
+        if (result == null) {
+            K[] all = keys.getEnumConstants();
+            result = new Sprite[all.length];
+            for (K key : all) {
+                try {
+                    result[key.ordinal()] = group.getSprite(key.getLabel());
+                } catch (ArtNotFoundException e) {
+                    // left out, so getting it fails as looking it up would have
+                }
+            }
+            sprites = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sprite of the group with the key's label.
+     *
+     * @param key The key of the sprite.
+     * @return The sprite for the key.
+     * @throws ArtNotFoundException If the group has no sprite with the key's label.
+     */
+    public Sprite get(K key) {
+        Sprite sprite = sprites()[key.ordinal()];
+        if (sprite == null) {
+            throw new ArtNotFoundException(
+                    "No sprite " + key.getLabel() + " in group " + group.getLabel());
+        }
+        return sprite;
+    }
+
+    /**
+     * Whether the group has a sprite with the key's label.
+     *
+     * @param key The key of the sprite.
+     * @return true if {@link #get(Enum)} returns a sprite for the key.
+     */
+    public boolean has(K key) {
+        return sprites()[key.ordinal()] != null;
+    }
+
+    /**
+     * Returns the group the sprites were looked up in.
+     *
+     * @return The group of the table.
+     */
+    public SpriteGroup getGroup() {
+        return group;
+    }
+}
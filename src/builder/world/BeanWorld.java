@@ -2,15 +2,25 @@ package builder.world;
 
 import builder.GameState;
 import builder.Tickable;
+import builder.entities.resources.Cabbage;
 import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+import builder.entities.tiles.TileListener;
+import builder.timing.TimingWheel;
 import builder.ui.RenderableGroup;
 
 import engine.EngineState;
+import engine.game.Entity;
 import engine.renderer.Dimensions;
 import engine.renderer.Renderable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 /**
@@ -19,13 +29,68 @@ import java.util.function.Predicate;
  * <p>A world consists of a grid of tiles. The tiles must be updated by the world each tick and
  * appropriately rendered via the render method.
  *
+ * <p>A world loaded from a map (see {@link WorldBuilder#fromFile(Dimensions, String)}) holds the
+ * plain grass, water and dirt of the map as {@link Terrain}, one byte per cell, and only creates
+ * the tile of a cell once it is looked up by position. Terrain is rendered as if it were tiles,
+ * and every remaining terrain tile is created whenever all tiles are needed, e.g. by {@link
+ * #allTiles()}. Saving and journalling a world read the remaining terrain through {@link
+ * #createdTiles()} and {@link #getTerrainAt(int, int)} instead, so they create no tiles.
+ *
  * @test
  * @stage2
  */
 public class BeanWorld implements RenderableGroup, Tickable, World {
 
+    /** The most edits kept for {@link #replayLayer}, beyond which the layer is copied afresh. */
+    private static final int MAX_LAYER_EDITS = 64;
+
     private final List<Tile> tiles = new ArrayList<>();
 
+    /** The cells whose tiles have not yet been created, or null if every tile has been. */
+    private Terrain terrain;
+
+    /** Grid index of the tiles, built for the dimensions of the most recent position lookup. */
+    private TileIndex index;
+
+    /** Grid index of the tiles carrying a cabbage, built alongside {@link #index}. */
+    private TileIndex cabbageIndex;
+
+    /** Keeps the indexes up to date as entities are stacked on or removed from tiles. */
+    private final TileListener tileListener = new IndexingListener();
+
+    /** The tiles that need ticking (see {@link Tile#needsTick()}), in the order they became so. */
+    private final List<Tile> activeTiles = new ArrayList<>();
+
+    /** The members of {@link #activeTiles}. */
+    private final Set<Tile> activeMembers = new HashSet<>();
+
+    /** The tiles asleep on {@link #timers} (see {@link Tile#sleep}), in the order they slept. */
+    private final Set<Tile> sleepingTiles = new LinkedHashSet<>();
+
+    /** The wheel of the game last ticking the world, or null if it had none. */
+    private TimingWheel timers;
+
+    /**
+     * The renderables of the terrain followed by every tile and its stacked entities, in the
+     * order of {@link #render()}. Once collected, it is edited a tile at a time as tiles change.
+     */
+    private final List<Renderable> layer = new ArrayList<>();
+
+    /** Whether {@link #layer} must be collected afresh from every tile before it is next used. */
+    private boolean layerDirty = true;
+
+    /** Incremented each time the renderables of the world change. */
+    private int layerVersion = 0;
+
+    /** The latest edits made to {@link #layer}, oldest first, each adding one to the version. */
+    private final ArrayDeque<LayerEdit> layerEdits = new ArrayDeque<>();
+
+    /** The number of tiles marked for removal that have been dropped from the world. */
+    private long reclaimedTiles = 0;
+
+    /** Notified as tiles are placed, changed and removed, or null if there is no listener. */
+    private WorldListener listener;
+
     /**
      * Construct a new empty world with no tiles.
      *
@@ -35,9 +100,24 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
      */
     BeanWorld() {}
 
+    /**
+     * Construct a new world with no tiles other than those of the given terrain, which are
+     * created as they are needed.
+     *
+     * @param terrain The terrain of the world.
+     */
+    BeanWorld(Terrain terrain) {
+        this.terrain = terrain;
+    }
+
     /**
      * Finds all tiles that contain the given pixel coordinates.
      *
+     * <p>Tiles are looked up through a grid index built on the first call (or whenever the given
+     * dimensions change) and kept up to date by {@link #place(Tile)}, so a lookup does not depend
+     * on the number of tiles in the world. The tile of any terrain at the position is created
+     * first.
+     *
      * @param x The x-axis (horizontal) coordinate in pixels.
      * @param y The y-axis (vertical) coordinate in pixels.
      * @param dimensions The dimensions of the world.
@@ -46,26 +126,240 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
     @Override
     public List<Tile> tilesAtPosition(int x, int y, Dimensions dimensions) {
         List<Tile> result = new ArrayList<>();
-        int gridX = dimensions.pixelToTile(x);
-        int gridY = dimensions.pixelToTile(y);
-        for (Tile tile : tiles) {
-            int tileX = dimensions.pixelToTile(tile.getX());
-            int tileY = dimensions.pixelToTile(tile.getY());
-            if (gridX == tileX && gridY == tileY) {
-                result.add(tile);
+        tilesAtPosition(x, y, dimensions, result);
+        return result;
+    }
+
+    @Override
+    public void tilesAtPosition(int x, int y, Dimensions dimensions, List<Tile> result) {
+        materialise(x, y, dimensions);
+        indexFor(dimensions).collect(x, y, result);
+    }
+
+    /**
+     * Returns the grid index for the given dimensions, rebuilding it from every tile in the world
+     * if no index exists yet or the existing index was built for different dimensions.
+     */
+    private TileIndex indexFor(Dimensions dimensions) {
+        if (index == null || !index.matches(dimensions)) {
+            index = new TileIndex(dimensions);
+            cabbageIndex = new TileIndex(dimensions);
+            for (Tile tile : tiles) {
+                index.add(tile);
+                if (tile.hasStacked(Cabbage.class)) {
+                    cabbageIndex.add(tile);
+                }
             }
         }
-        return result;
+        return index;
+    }
+
+    /**
+     * Finds the closest tile carrying a cabbage using an index of cabbage tiles, which is updated
+     * as cabbages are planted and removed rather than searching every tile in the world.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param dimensions The dimensions of the world.
+     * @return The closest tile carrying a cabbage, or null if no tile carries a cabbage.
+     */
+    @Override
+    public Tile closestCabbageTile(int x, int y, Dimensions dimensions) {
+        indexFor(dimensions);
+        return cabbageIndex.nearest(x, y);
+    }
+
+    /**
+     * Builds the grid index of the tiles and of the tiles carrying a cabbage for the given
+     * dimensions, if they are not built for them already.
+     *
+     * @param dimensions The dimensions of the world.
+     */
+    @Override
+    public void prepareIndexes(Dimensions dimensions) {
+        indexFor(dimensions);
     }
 
     @Override
     public List<Tile> allTiles() {
+        materialiseAll();
         return new ArrayList<>(tiles);
     }
 
+    /**
+     * Returns every tile of the world that has been created, in placement order, without creating
+     * the tiles of any remaining terrain (see {@link #getTerrainAt(int, int)}).
+     *
+     * @return The tiles created so far.
+     */
+    public List<Tile> createdTiles() {
+        return new ArrayList<>(tiles);
+    }
+
+    /**
+     * Returns the symbol of the terrain remaining in the cell containing the given position, whose
+     * tile has not yet been created (see {@link TileFactory#fromSymbol(int, int, char)}).
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @return The symbol of the terrain at the position, or zero if there is none.
+     */
+    public char getTerrainAt(int x, int y) {
+        int cell = terrain == null ? -1 : terrain.cellAt(x, y);
+        return cell < 0 ? 0 : terrain.symbolAt(cell);
+    }
+
+    /**
+     * Returns the symbol of the terrain remaining in every cell of the given grid, without creating
+     * any tiles. Terrain of other dimensions is created in full, as its tiles may be at any
+     * position of the given grid.
+     *
+     * @param dimensions The dimensions of the grid.
+     * @return The symbol of the terrain in each cell of the grid, row by row, or zero for a cell
+     *     with no terrain, or null if no terrain remains.
+     */
+    public char[] getTerrain(Dimensions dimensions) {
+        if (terrain != null && !terrain.matches(dimensions)) {
+            materialiseAll();
+        }
+        if (getTerrainCellCount() == 0) {
+            return null;
+        }
+        int cells = dimensions.windowSize() / dimensions.tileSize();
+        char[] symbols = new char[cells * cells];
+        for (int cell = 0; cell < symbols.length; cell++) {
+            symbols[cell] = terrain.symbolAt(cell);
+        }
+        return symbols;
+    }
+
     @Override
     public void place(Tile tile) {
         this.tiles.add(tile);
+        tile.setListener(tileListener);
+        appendToLayer(tile);
+        if (tile.needsTick()) {
+            activate(tile);
+        }
+        if (index != null) {
+            index.add(tile);
+            if (tile.hasStacked(Cabbage.class)) {
+                cabbageIndex.add(tile);
+            }
+        }
+        if (listener != null) {
+            listener.placed(tile);
+        }
+    }
+
+    /**
+     * Set the listener to notify when tiles are placed in, changed within, created from terrain in
+     * or removed from this world, replacing any existing listener.
+     *
+     * <p>No terrain is created, so the listener knows the tiles of the world through {@link
+     * #createdTiles()} and {@link #getTerrainAt(int, int)}, and is told of each terrain tile as
+     * it is created.
+     *
+     * @param listener The listener to notify, or null to stop notifying.
+     */
+    public void setListener(WorldListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the number of cells whose tile has not yet been created (see {@link Terrain}).
+     *
+     * @return The number of cells of terrain.
+     */
+    public int getTerrainCellCount() {
+        return terrain == null ? 0 : terrain.size();
+    }
+
+    /**
+     * Create the tile of the terrain at the given position, if any. Terrain of other dimensions
+     * is created in full, as its tiles may be at any position of the given grid.
+     */
+    private void materialise(int x, int y, Dimensions dimensions) {
+        if (terrain == null) {
+            return;
+        }
+        if (!terrain.matches(dimensions)) {
+            materialiseAll();
+            return;
+        }
+        int cell = terrain.cellAt(x, y);
+        if (cell < 0) {
+            return;
+        }
+        if (!layerDirty) {
+            editLayer(terrain.renderedIndexOf(layer, cell), 1, List.of());
+        }
+        adopt(terrain.materialise(cell));
+    }
+
+    /** Create the tile of every remaining cell of terrain. */
+    private void materialiseAll() {
+        if (terrain == null) {
+            return;
+        }
+        List<Tile> created = new ArrayList<>(terrain.size());
+        terrain.materialiseAll(created);
+        terrain = null;
+        invalidateLayer();
+        for (Tile tile : created) {
+            adopt(tile);
+        }
+    }
+
+    /**
+     * Add a tile created from terrain to the world. Unlike {@link #place(Tile)} the listener is
+     * not told the tile was placed, as the tile was already part of the world.
+     */
+    private void adopt(Tile tile) {
+        tiles.add(tile);
+        tile.setListener(tileListener);
+        appendToLayer(tile);
+        if (index != null) {
+            index.add(tile);
+        }
+        if (listener != null) {
+            listener.materialised(tile);
+        }
+    }
+
+    /**
+     * Replace tiles in the world, each taking the place of the tile it replaces in the order
+     * tiles were placed (unlike {@link #place(Tile)}, which places a tile after every other).
+     *
+     * <p>The listener is not notified of replacements.
+     *
+     * @param replacements Replacement tiles keyed by the tile in the world they replace.
+     */
+    public void replaceTiles(Map<Tile, Tile> replacements) {
+        if (replacements.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile replacement = replacements.get(tiles.get(i));
+            if (replacement == null) {
+                continue;
+            }
+            Tile replaced = tiles.set(i, replacement);
+            replaced.setListener(null);
+            replacement.setListener(tileListener);
+            if (activeMembers.remove(replaced)) {
+                activeTiles.remove(replaced);
+            }
+            sleepingTiles.remove(replaced);
+            replaced.wake();
+            if (replacement.needsTick()) {
+                activate(replacement);
+            }
+        }
+        // rebuilt from the tiles in order on the next lookup
+        index = null;
+        cabbageIndex = null;
+        invalidateLayer();
     }
 
     /**
@@ -74,6 +368,7 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
      * @param filter predicate used to filter through the tiles to find those relevant.
      */
     public List<Tile> tileSelector(Predicate<Tile> filter) {
+        materialiseAll();
         List<Tile> result = new ArrayList<>();
         for (Tile tile : tiles) {
             if (filter.test(tile)) {
@@ -84,8 +379,80 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
     }
 
     /**
-     * Progress the state of the world. The world is progressed by calling the {@link
-     * Tile#tick(EngineState)} method on every world tile.
+     * Removes any tiles that are marked for removal (according to {@link
+     * Tile#isMarkedForRemoval()}) from the world, e.g. grass that has been replaced by dirt.
+     *
+     * <p>Removed tiles are no longer ticked, rendered or returned by {@link #tilesAtPosition} and
+     * {@link #tileSelector}.
+     */
+    public void cleanup() {
+        drop(Tile::isMarkedForRemoval);
+    }
+
+    /**
+     * Removes the given tiles from the world immediately, whether or not they are marked for
+     * removal, exactly as {@link #cleanup()} removes marked tiles.
+     *
+     * @param removed The tiles to remove, any not in the world are ignored.
+     */
+    public void removeTiles(Set<Tile> removed) {
+        if (!removed.isEmpty()) {
+            drop(removed::contains);
+        }
+    }
+
+    private void drop(Predicate<Tile> removal) {
+        int kept = 0;
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            if (removal.test(tile)) {
+                tile.setListener(null);
+                if (index != null) {
+                    index.remove(tile);
+                    cabbageIndex.remove(tile);
+                }
+                if (activeMembers.remove(tile)) {
+                    activeTiles.remove(tile);
+                }
+                // stop anything stacked on the tile waiting on the wheel
+                sleepingTiles.remove(tile);
+                tile.wake();
+                reclaimedTiles++;
+                removeFromLayer(tile);
+                if (listener != null) {
+                    listener.removed(tile);
+                }
+            } else {
+                tiles.set(kept++, tile);
+            }
+        }
+        if (kept < tiles.size()) {
+            tiles.subList(kept, tiles.size()).clear();
+        }
+    }
+
+    /**
+     * Returns the number of tiles removed from the world by {@link #cleanup()} so far.
+     *
+     * @return The number of reclaimed tiles.
+     */
+    public long getReclaimedTiles() {
+        return reclaimedTiles;
+    }
+
+    /**
+     * Progress the state of the world. The world is progressed by first removing any tiles marked
+     * for removal (see {@link #cleanup()}) then calling the {@link Tile#tick(EngineState)} method
+     * on every remaining world tile that needs ticking (see {@link Tile#needsTick()}).
+     *
+     * <p>Tiles become active when they are placed with, or later have, stacked entities, and
+     * become inactive again once ticking has removed all of their stacked entities. Ticking the
+     * remaining, inert tiles would have no effect so they are skipped.
+     *
+     * <p>If the game has a timing wheel (see {@link GameState#getTimers()}), active tiles are also
+     * put to sleep after each tick where possible (see {@link Tile#sleep}), e.g. dirt carrying a
+     * growing cabbage. A sleeping tile is skipped until the wheel wakes it, typically once every
+     * growth interval, and is then ticked from that tick on until it sleeps again.
      *
      * @param state The state of the engine, including the mouse, keyboard information and
      *     dimension. Useful for processing keyboard presses or mouse movement.
@@ -94,9 +461,85 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
      */
     @Override
     public void tick(EngineState state, GameState game) {
-        for (Tile tile : this.tiles) {
-            tile.tick(state);
+        if (game.getTimers() != timers) {
+            wakeAll();
+            timers = game.getTimers();
+        }
+        this.cleanup();
+        for (int i = 0; i < activeTiles.size(); i++) {
+            activeTiles.get(i).tick(state);
+        }
+        int kept = 0;
+        for (int i = 0; i < activeTiles.size(); i++) {
+            Tile tile = activeTiles.get(i);
+            if (!tile.needsTick()) {
+                activeMembers.remove(tile);
+            } else if (timers != null && tile.sleep(timers, () -> wake(tile))) {
+                activeMembers.remove(tile);
+                sleepingTiles.add(tile);
+            } else {
+                activeTiles.set(kept++, tile);
+            }
         }
+        activeTiles.subList(kept, activeTiles.size()).clear();
+    }
+
+    /**
+     * Returns the number of tiles that will be ticked by the next call to {@link #tick}.
+     *
+     * @return The number of active tiles.
+     */
+    public int getActiveTileCount() {
+        return activeTiles.size();
+    }
+
+    /**
+     * Returns the tiles that will be ticked by the next call to {@link #tick}, followed by the
+     * tiles asleep until the game's timing wheel wakes them. These are the only tiles whose state
+     * may change by ticking.
+     *
+     * @return A new list of the active and sleeping tiles.
+     */
+    public List<Tile> getActiveTiles() {
+        List<Tile> result = new ArrayList<>(activeTiles.size() + sleepingTiles.size());
+        result.addAll(activeTiles);
+        result.addAll(sleepingTiles);
+        return result;
+    }
+
+    /**
+     * Returns the number of tiles asleep until the game's timing wheel wakes them, which are not
+     * ticked by {@link #tick} until then.
+     *
+     * @return The number of sleeping tiles.
+     */
+    public int getSleepingTileCount() {
+        return sleepingTiles.size();
+    }
+
+    private void activate(Tile tile) {
+        sleepingTiles.remove(tile);
+        if (activeMembers.add(tile)) {
+            activeTiles.add(tile);
+        }
+    }
+
+    /** Tick the tile again if it is asleep, called by the tile once it needs ticking. */
+    private void wake(Tile tile) {
+        if (sleepingTiles.contains(tile)) {
+            activate(tile);
+        }
+    }
+
+    /** Wake every sleeping tile, so that it no longer waits on the wheel and is ticked again. */
+    private void wakeAll() {
+        for (Tile tile : sleepingTiles) {
+            tile.wake();
+            if (activeMembers.add(tile)) {
+                activeTiles.add(tile);
+            }
+        }
+        sleepingTiles.clear();
     }
 
     /**
@@ -113,9 +556,197 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
     @Override
     public List<Renderable> render() {
         List<Renderable> result = new ArrayList<>();
-        for (Tile tile : tiles) {
-            result.addAll(tile.render());
-        }
+        renderInto(result);
         return result;
     }
+
+    /**
+     * Add the renderables of every tile and stacked entity to the given list, in the same order as
+     * {@link #render()}.
+     *
+     * <p>The renderables are collected from the tiles once, then kept up to date a tile at a time
+     * as tiles are placed or removed, or entities are stacked on or removed from a tile. Sprite
+     * changes do not change the renderables as each renderable's sprite is read when it is drawn.
+     *
+     * @param renderables The list to add renderables to.
+     */
+    @Override
+    public void renderInto(List<Renderable> renderables) {
+        collectLayer();
+        for (int i = 0; i < layer.size(); i++) {
+            renderables.add(layer.get(i));
+        }
+    }
+
+    /**
+     * Bring a list holding the renderables of the world as they were at an earlier version (see
+     * {@link #getLayerVersion()}) up to date, by making only the edits made to the world's
+     * renderables since.
+     *
+     * <p>Only the latest edits are kept, so a list further behind must be refilled with {@link
+     * #renderInto(List)} instead.
+     *
+     * @param version The version of the renderables held by the list.
+     * @param renderables A list holding exactly the renderables of the world at that version.
+     * @return true if the list was brought up to date, false if it was left unchanged as the
+     *     edits since the version are no longer known.
+     */
+    public boolean replayLayer(int version, List<Renderable> renderables) {
+        collectLayer();
+        int behind = layerVersion - version;
+        if (behind < 0 || behind > layerEdits.size()) {
+            return false;
+        }
+        int skipped = layerEdits.size() - behind;
+        for (LayerEdit edit : layerEdits) {
+            if (skipped-- <= 0) {
+                edit.apply(renderables);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a number that changes whenever the renderables of the world change, i.e. whenever
+     * {@link #renderInto(List)} would add different renderables to the list than it did before.
+     *
+     * @return The current version of the world's renderables.
+     */
+    public int getLayerVersion() {
+        return layerVersion;
+    }
+
+    /** Collect the renderables of every tile afresh, if they have not been kept up to date. */
+    private void collectLayer() {
+        if (layerDirty) {
+            layer.clear();
+            if (terrain != null) {
+                terrain.renderInto(layer);
+            }
+            for (int i = 0; i < tiles.size(); i++) {
+                tiles.get(i).renderInto(layer);
+            }
+            layerDirty = false;
+        }
+    }
+
+    /** Collect the renderables afresh when next needed, forgetting the edits made so far. */
+    private void invalidateLayer() {
+        layerEdits.clear();
+        if (!layerDirty) {
+            layerDirty = true;
+            layerVersion++;
+        }
+    }
+
+    /** Add a tile placed after every other, and its stacked entities, to the layer. */
+    private void appendToLayer(Tile tile) {
+        if (layerDirty) {
+            return;
+        }
+        List<Renderable> span = new ArrayList<>(1);
+        tile.renderInto(span);
+        editLayer(layer.size(), 0, span);
+    }
+
+    /** Remove a tile and its stacked entities from the layer. */
+    private void removeFromLayer(Tile tile) {
+        if (layerDirty) {
+            return;
+        }
+        int start = layer.indexOf(tile);
+        editLayer(start, spanLength(start), List.of());
+    }
+
+    /** Replace the stacked entities of a tile in the layer with those it now carries. */
+    private void restackInLayer(Tile tile) {
+        if (layerDirty) {
+            return;
+        }
+        int start = layer.indexOf(tile);
+        List<Renderable> span = new ArrayList<>(tile.getStackedEntities().size() + 1);
+        tile.renderInto(span);
+        editLayer(start, spanLength(start), span);
+    }
+
+    /**
+     * Returns the number of renderables of the tile rendered at the given index, that is, the tile
+     * and the stacked entities following it up to the next tile.
+     */
+    private int spanLength(int start) {
+        int end = start + 1;
+        while (end < layer.size() && !(layer.get(end) instanceof Tile)) {
+            end++;
+        }
+        return end - start;
+    }
+
+    /** Make an edit to the layer, remembering it for {@link #replayLayer}. */
+    private void editLayer(int offset, int removed, List<Renderable> inserted) {
+        LayerEdit edit = new LayerEdit(offset, removed, inserted);
+        edit.apply(layer);
+        if (layerEdits.size() == MAX_LAYER_EDITS) {
+            layerEdits.removeFirst();
+        }
+        layerEdits.addLast(edit);
+        layerVersion++;
+    }
+
+    /** An edit replacing a run of the world's renderables with others. */
+    private static final class LayerEdit {
+        private final int offset;
+        private final int removed;
+        private final List<Renderable> inserted;
+
+        private LayerEdit(int offset, int removed, List<Renderable> inserted) {
+            this.offset = offset;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+
+        private void apply(List<Renderable> renderables) {
+            if (removed > 0) {
+                renderables.subList(offset, offset + removed).clear();
+            }
+            if (!inserted.isEmpty()) {
+                renderables.addAll(offset, inserted);
+            }
+        }
+    }
+
+    /**
+     * Updates the cabbage index and the cached renderables as entities are stacked on and removed
+     * from world tiles.
+     */
+    private class IndexingListener implements TileListener {
+        @Override
+        public void stacked(Tile tile, Entity entity) {
+            restackInLayer(tile);
+            activate(tile);
+            if (cabbageIndex != null
+                    && entity instanceof Cabbage
+                    && !cabbageIndex.contains(tile)) {
+                cabbageIndex.add(tile);
+            }
+            changed(tile);
+        }
+
+        @Override
+        public void unstacked(Tile tile, Entity entity) {
+            restackInLayer(tile);
+            if (cabbageIndex != null
+                    && entity instanceof Cabbage
+                    && !tile.hasStacked(Cabbage.class)) {
+                cabbageIndex.remove(tile);
+            }
+            changed(tile);
+        }
+
+        @Override
+        public void changed(Tile tile) {
+            if (listener != null) {
+                listener.changed(tile);
+            }
+        }
+    }
 }
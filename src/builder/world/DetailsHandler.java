@@ -0,0 +1,46 @@
+package builder.world;
+
+/**
+ * Receives the entries of a .details file as they are read by {@link
+ * OverlayBuilder#parse(java.io.Reader, DetailsHandler)}.
+ *
+ * <p>Each method is called once per entry, in the order the entries appear in the file. Every
+ * method does nothing by default so a handler only needs to override the sections it uses.
+ */
+public interface DetailsHandler {
+
+    /**
+     * Called for each entry of the {@code chickenFarmer} section.
+     *
+     * @param details The player details of the entry.
+     */
+    default void player(PlayerDetails details) {}
+
+    /**
+     * Called for each entry of the {@code cabbages} section.
+     *
+     * @param details The cabbage details of the entry.
+     */
+    default void cabbage(CabbageDetails details) {}
+
+    /**
+     * Called for each entry of the {@code magpiespawner} section.
+     *
+     * @param details The spawner details of the entry.
+     */
+    default void magpieSpawner(SpawnerDetails details) {}
+
+    /**
+     * Called for each entry of the {@code eaglespawner} section.
+     *
+     * @param details The spawner details of the entry.
+     */
+    default void eagleSpawner(SpawnerDetails details) {}
+
+    /**
+     * Called for each entry of the {@code pigeonspawner} section.
+     *
+     * @param details The spawner details of the entry.
+     */
+    default void pigeonSpawner(SpawnerDetails details) {}
+}
@@ -0,0 +1,212 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+
+import engine.renderer.Dimensions;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the tile encoding of a world incrementally, as chunks of characters arrive.
+ *
+ * <p>Tiles are created directly from each character, so the encoding never needs to be held in
+ * memory as a whole or split into lines. The encoding is as described by {@link
+ * WorldBuilder#fromString(Dimensions, String)}. Trailing empty lines are ignored. A wrong number of
+ * lines is reported before any problem within a line, and within a line a wrong length is reported
+ * before an unknown symbol, each with the row and column of the problem.
+ *
+ * <p>Lines are separated by new line characters. A decoder may also accept carriage returns, or a
+ * carriage return followed by a new line, as line separators like {@link
+ * java.io.BufferedReader#readLine()} does.
+ *
+ * <p>A decoder building a world (see {@link #finishWorld()}) keeps plain grass, water and dirt as
+ * {@link Terrain} rather than creating their tiles.
+ */
+class MapDecoder {
+
+    private final Dimensions dimensions;
+    private final int numberOfTiles;
+    private final List<Tile> tiles = new ArrayList<>();
+    private final boolean acceptCarriageReturns;
+
+    /** The terrain decoded so far, or null if every symbol is decoded to a tile. */
+    private final Terrain terrain;
+
+    /** Whether the last character decoded was a carriage return ending a line. */
+    private boolean afterCarriageReturn = false;
+
+    /** The index of the line currently being decoded. */
+    private int row = 0;
+
+    /** The number of characters of the current line decoded so far. */
+    private int col = 0;
+
+    /** Empty lines which only count as rows if a non-empty line follows them. */
+    private int pendingEmptyLines = 0;
+
+    /** Whether any characters have been decoded. */
+    private boolean started = false;
+
+    /** The first problem found in a complete line. */
+    private WorldLoadException error;
+
+    /** The first unknown symbol found in the current line. */
+    private WorldLoadException symbolError;
+
+    /**
+     * Construct a new decoder for a world of the given dimensions, separating lines by new line
+     * characters only.
+     *
+     * @param dimensions The dimensions of the world. The tile encoding must correspond to these
+     *     dimensions.
+     */
+    MapDecoder(Dimensions dimensions) {
+        this(dimensions, false);
+    }
+
+    /**
+     * Construct a new decoder for a world of the given dimensions.
+     *
+     * @param dimensions The dimensions of the world. The tile encoding must correspond to these
+     *     dimensions.
+     * @param acceptCarriageReturns Whether carriage returns also separate lines.
+     */
+    MapDecoder(Dimensions dimensions, boolean acceptCarriageReturns) {
+        this(dimensions, acceptCarriageReturns, false);
+    }
+
+    /**
+     * Construct a new decoder for a world of the given dimensions.
+     *
+     * @param dimensions The dimensions of the world. The tile encoding must correspond to these
+     *     dimensions.
+     * @param acceptCarriageReturns Whether carriage returns also separate lines.
+     * @param keepTerrain Whether plain terrain is kept as a {@link Terrain} grid for {@link
+     *     #finishWorld()} instead of being decoded to tiles.
+     */
+    MapDecoder(Dimensions dimensions, boolean acceptCarriageReturns, boolean keepTerrain) {
+        this.dimensions = dimensions;
+        this.acceptCarriageReturns = acceptCarriageReturns;
+        this.numberOfTiles = dimensions.windowSize() / dimensions.tileSize();
+        this.terrain = keepTerrain ? new Terrain(dimensions) : null;
+    }
+
+    /**
+     * Decode every remaining character in the buffer.
+     *
+     * @param chars The next characters of the tile encoding.
+     */
+    void accept(CharBuffer chars) {
+        while (chars.hasRemaining()) {
+            final char symbol = chars.get();
+            started = true;
+            if (symbol == '\n' && afterCarriageReturn) {
+                afterCarriageReturn = false;
+            } else if (symbol == '\n') {
+                endLine();
+            } else if (symbol == '\r' && acceptCarriageReturns) {
+                endLine();
+                afterCarriageReturn = true;
+            } else {
+                afterCarriageReturn = false;
+                symbol(symbol);
+            }
+        }
+    }
+
+    /**
+     * Finish decoding, returning the tiles of the encoding.
+     *
+     * @return The tiles decoded from the encoding, row by row.
+     * @throws WorldLoadException If the encoding is invalid according to {@link
+     *     WorldBuilder#fromString(Dimensions, String)}.
+     */
+    List<Tile> finish() throws WorldLoadException {
+        if (!started) {
+            // an empty encoding is a single empty line
+            endRow();
+        } else if (col > 0) {
+            endRow();
+        }
+        if (row != numberOfTiles) {
+            throw new WorldLoadException(
+                    "Expected "
+                            + numberOfTiles
+                            + " lines to match the given dimensions but got "
+                            + row);
+        }
+        if (error != null) {
+            throw error;
+        }
+        return tiles;
+    }
+
+    /**
+     * Finish decoding, returning a world of the encoding's terrain and tiles.
+     *
+     * @return A new world of the terrain and tiles decoded from the encoding.
+     * @throws WorldLoadException If the encoding is invalid according to {@link
+     *     WorldBuilder#fromString(Dimensions, String)}.
+     */
+    BeanWorld finishWorld() throws WorldLoadException {
+        List<Tile> decoded = finish();
+        BeanWorld world = terrain == null ? new BeanWorld() : new BeanWorld(terrain);
+        for (Tile tile : decoded.reversed()) { // as for WorldBuilder.fromTiles
+            world.place(tile);
+        }
+        return world;
+    }
+
+    private void symbol(char symbol) {
+        while (pendingEmptyLines > 0) {
+            endRow();
+            pendingEmptyLines--;
+        }
+        if (error == null && symbolError == null && row < numberOfTiles && col < numberOfTiles) {
+            try {
+                if (terrain != null && Terrain.isTerrain(symbol)) {
+                    terrain.set(col, row, symbol);
+                } else {
+                    tiles.add(
+                            TileFactory.fromSymbol(
+                                    dimensions.tileToPixel(col),
+                                    dimensions.tileToPixel(row),
+                                    symbol));
+                }
+            } catch (IllegalArgumentException e) {
+                symbolError = new WorldLoadException("Unknown symbol: '" + symbol + "'", row, col);
+            }
+        }
+        col++;
+    }
+
+    private void endLine() {
+        if (col == 0) {
+            pendingEmptyLines++;
+        } else {
+            endRow();
+        }
+    }
+
+    private void endRow() {
+        if (error == null && row < numberOfTiles) {
+            if (col != numberOfTiles) {
+                error =
+                        new WorldLoadException(
+                                "Expected "
+                                        + numberOfTiles
+                                        + " characters to match the given dimensions but got "
+                                        + col,
+                                row);
+            } else if (symbolError != null) {
+                error = symbolError;
+            }
+        }
+        symbolError = null;
+        row++;
+        col = 0;
+    }
+}
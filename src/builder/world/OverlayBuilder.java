@@ -1,9 +1,12 @@
 package builder.world;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 /**
@@ -12,6 +15,42 @@ import java.util.List;
  */
 public class OverlayBuilder {
 
+    /** The sections of a .details file, by label. */
+    private enum Section {
+        PLAYER("chickenfarmer", 4),
+        CABBAGES("cabbages", 2),
+        MAGPIE_SPAWNERS("magpiespawner", 3),
+        EAGLE_SPAWNERS("eaglespawner", 3),
+        PIGEON_SPAWNERS("pigeonspawner", 3);
+
+        private final String label;
+        private final int values;
+
+        Section(String label, int values) {
+            this.label = label;
+            this.values = values;
+        }
+
+        /**
+         * Returns the section labelled by the given trimmed line, or null if the line is not a
+         * section label.
+         */
+        private static Section fromLabel(String line) {
+            if (line.length() < 2
+                    || line.charAt(0) != ':'
+                    || line.charAt(line.length() - 1) != ':') {
+                return null;
+            }
+            for (Section section : values()) {
+                if (line.length() == section.label.length() + 2
+                        && line.regionMatches(true, 1, section.label, 0, section.label.length())) {
+                    return section;
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * Loads the contents of a file as a string.
      *
@@ -40,7 +79,7 @@ public class OverlayBuilder {
         final String[] lines = contents.split("\n");
         boolean collectingLines = false;
         final List<String> section = new ArrayList<>();
-        for (int i = 0; i < contents.length(); i++) {
+        for (int i = 0; i < lines.length; i++) {
             if (collectingLines && lines[i].toLowerCase().trim().equals("end;")) {
                 return section;
             }
@@ -54,6 +93,102 @@ public class OverlayBuilder {
         throw new IOException("Section not Found!");
     }
 
+    /**
+     * Read every section of a .details file in a single pass, passing each entry to the handler
+     * as it is read.
+     *
+     * <p>Section labels and the {@code end;} marker are matched ignoring case and surrounding
+     * whitespace, as in {@link #getSection(String, String)}. Blank lines and lines outside of a
+     * section are ignored, and only the first section with each label is read. Only the current
+     * line is held in memory, so large files are read in linear time.
+     *
+     * @param reader The contents of the .details file.
+     * @param handler The handler to pass each entry to.
+     * @throws IOException If the reader fails, a section is missing or not terminated by {@code
+     *     end;}, or an entry is malformed.
+     */
+    public static void parse(Reader reader, DetailsHandler handler) throws IOException {
+        final BufferedReader lines =
+                reader instanceof BufferedReader
+                        ? (BufferedReader) reader
+                        : new BufferedReader(reader);
+        final EnumSet<Section> found = EnumSet.noneOf(Section.class);
+        final int[] values = new int[4];
+        Section current = null;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (current == null) {
+                final Section section = Section.fromLabel(line);
+                if (section != null && found.add(section)) {
+                    current = section;
+                }
+            } else if (line.equalsIgnoreCase("end;")) {
+                current = null;
+            } else if (!line.isEmpty()) {
+                if (parseValues(line, values) < current.values) {
+                    throw new IOException("Malformed " + current.label + " entry: " + line);
+                }
+                dispatch(current, values, handler);
+            }
+        }
+        if (current != null) {
+            throw new IOException("Section not terminated: " + current.label);
+        }
+        for (Section section : Section.values()) {
+            if (!found.contains(section)) {
+                throw new IOException("Section not Found: " + section.label);
+            }
+        }
+    }
+
+    private static void dispatch(Section section, int[] values, DetailsHandler handler) {
+        switch (section) {
+            case PLAYER ->
+                    handler.player(playerDetails(values[0], values[1], values[2], values[3]));
+            case CABBAGES -> handler.cabbage(cabbageDetails(values[0], values[1]));
+            case MAGPIE_SPAWNERS ->
+                    handler.magpieSpawner(spawnerDetails(values[0], values[1], values[2]));
+            case EAGLE_SPAWNERS ->
+                    handler.eagleSpawner(spawnerDetails(values[0], values[1], values[2]));
+            case PIGEON_SPAWNERS ->
+                    handler.pigeonSpawner(spawnerDetails(values[0], values[1], values[2]));
+        }
+    }
+
+    /**
+     * Parse the integer following each colon of an entry, e.g. the 3 values of {@code |x:1 y:2
+     * duration:3}, into the given array, without splitting the line.
+     *
+     * @return The number of values parsed, stopping at the first colon not followed by a number.
+     */
+    private static int parseValues(String line, int[] values) {
+        int count = 0;
+        int colon = line.indexOf(':');
+        while (colon >= 0 && count < values.length) {
+            int i = colon + 1;
+            final boolean negative = i < line.length() && line.charAt(i) == '-';
+            if (negative) {
+                i++;
+            }
+            final int digits = i;
+            long value = 0;
+            while (i < line.length() && line.charAt(i) >= '0' && line.charAt(i) <= '9') {
+                value = value * 10 + (line.charAt(i) - '0');
+                if (value > Integer.MAX_VALUE) {
+                    return count;
+                }
+                i++;
+            }
+            if (i == digits) {
+                return count;
+            }
+            values[count++] = (int) (negative ? -value : value);
+            colon = line.indexOf(':', i);
+        }
+        return count;
+    }
+
     /**
      * Extracts spawner details from a line of text.
      *
@@ -69,6 +204,10 @@ public class OverlayBuilder {
         final int xValue = Integer.parseInt(xc[1]);
         final int yValue = Integer.parseInt(yc[1]);
         final int duration = Integer.parseInt(durationChunk[1]);
+        return spawnerDetails(xValue, yValue, duration);
+    }
+
+    private static SpawnerDetails spawnerDetails(int xValue, int yValue, int duration) {
         return new SpawnerDetails() {
             @Override
             public int getX() {
@@ -174,6 +313,10 @@ public class OverlayBuilder {
         final int yValue = Integer.parseInt(yc[1]);
         final int coins = Integer.parseInt(coinChunk[1]);
         final int food = Integer.parseInt(foodChunk[1]);
+        return playerDetails(xValue, yValue, coins, food);
+    }
+
+    private static PlayerDetails playerDetails(int xValue, int yValue, int coins, int food) {
         return new PlayerDetails() {
             @Override
             public int getStartingFood() {
@@ -250,6 +393,10 @@ public class OverlayBuilder {
         String[] yc = chunks[1].split(":");
         final int xValue = Integer.parseInt(xc[1]);
         final int yValue = Integer.parseInt(yc[1]);
+        return cabbageDetails(xValue, yValue);
+    }
+
+    private static CabbageDetails cabbageDetails(int xValue, int yValue) {
         return new CabbageDetails() {
             @Override
             public int getX() {
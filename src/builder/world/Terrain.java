@@ -0,0 +1,238 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+import builder.ui.SpriteGallery;
+
+import engine.art.sprites.Sprite;
+import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
+
+import java.util.List;
+
+/**
+ * The plain terrain of a world, i.e. grass, water and untilled dirt that nothing has happened to
+ * yet, held as one byte per grid cell instead of a {@link Tile} per cell.
+ *
+ * <p>Each cell holds the {@link TileFactory#fromSymbol(int, int, char)} symbol of its tile, or
+ * zero once the cell has no terrain. A terrain tile has no state of its own until something is
+ * stacked on it or it is used, so it is only created once it is needed (see {@link
+ * #materialise(int)}), after which the world holds the tile like any other and the cell is
+ * cleared. Until then the cell is rendered with the default sprite of its tile, shared by every
+ * cell of the same symbol.
+ */
+class Terrain {
+
+    private final Dimensions dimensions;
+    private final int tileSize;
+    private final int windowSize;
+    private final int columns;
+    private final byte[] symbols;
+
+    /** The number of cells that still hold terrain. */
+    private int size = 0;
+
+    /**
+     * Construct a new grid with no terrain, sized to the grid described by the given dimensions.
+     *
+     * @param dimensions The dimensions of the world.
+     */
+    Terrain(Dimensions dimensions) {
+        this.dimensions = dimensions;
+        this.tileSize = dimensions.tileSize();
+        this.windowSize = dimensions.windowSize();
+        this.columns = windowSize / tileSize;
+        this.symbols = new byte[columns * columns];
+    }
+
+    /**
+     * Whether tiles of the given symbol are plain terrain that can be held by a grid.
+     *
+     * @param symbol A tile symbol, see {@link TileFactory#fromSymbol(int, int, char)}.
+     * @return true for grass, water and untilled dirt.
+     */
+    static boolean isTerrain(char symbol) {
+        return symbol == 'g' || symbol == 'w' || symbol == 'd';
+    }
+
+    /**
+     * Whether this grid was built for a grid matching the given dimensions.
+     *
+     * @param dimensions The dimensions to compare against.
+     * @return true if the given dimensions describe the same grid as this terrain.
+     */
+    boolean matches(Dimensions dimensions) {
+        return dimensions.tileSize() == tileSize && dimensions.windowSize() == windowSize;
+    }
+
+    /**
+     * Set the terrain of the cell at the given column and row.
+     *
+     * @requires isTerrain(symbol), 0 &lt;= column, row &lt; the number of tiles per row
+     * @param column The column of the cell.
+     * @param row The row of the cell.
+     * @param symbol The symbol of the terrain tile in the cell.
+     */
+    void set(int column, int row, char symbol) {
+        int cell = row * columns + column;
+        if (symbols[cell] == 0) {
+            size++;
+        }
+        symbols[cell] = (byte) symbol;
+    }
+
+    /**
+     * Returns the number of cells that still hold terrain, i.e. have not been materialised.
+     *
+     * @return The number of terrain cells.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the cell at the given pixel position, if it still holds terrain.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @return The cell holding terrain at the position, or -1 if the position holds no terrain.
+     */
+    int cellAt(int x, int y) {
+        if (size == 0 || x < 0 || y < 0 || x >= windowSize || y >= windowSize) {
+            return -1;
+        }
+        int column = x / tileSize;
+        int row = y / tileSize;
+        if (column >= columns || row >= columns) {
+            return -1;
+        }
+        int cell = row * columns + column;
+        return symbols[cell] == 0 ? -1 : cell;
+    }
+
+    /**
+     * Returns the symbol of the terrain in the given cell.
+     *
+     * @param cell The cell, see {@link #cellAt(int, int)}.
+     * @return The symbol of the cell's tile, or zero if the cell holds no terrain.
+     */
+    char symbolAt(int cell) {
+        return (char) symbols[cell];
+    }
+
+    /**
+     * Returns where the renderable of a cell is within renderables starting with those added by
+     * {@link #renderInto(List)}, given that no cell has been created since.
+     *
+     * @requires cellAt(x, y) == cell for a position within the cell
+     * @param renderables The renderables, starting with the terrain.
+     * @param cell The cell to find.
+     * @return The index of the renderable of the cell.
+     */
+    int renderedIndexOf(List<Renderable> renderables, int cell) {
+        // terrain renders row by row, so its cells are in order
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (((Cell) renderables.get(middle)).cell < cell) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Create the tile of every cell that still holds terrain, row by row, and clear the grid.
+     *
+     * @param result The list to add the created tiles to.
+     */
+    void materialiseAll(List<Tile> result) {
+        for (int cell = 0; size > 0 && cell < symbols.length; cell++) {
+            Tile tile = materialise(cell);
+            if (tile != null) {
+                result.add(tile);
+            }
+        }
+    }
+
+    /**
+     * Create the tile of the terrain in the given cell and clear the cell, so that the tile is
+     * only ever created once.
+     *
+     * @param cell The cell, see {@link #cellAt(int, int)}.
+     * @return The tile of the terrain in the cell, or null if the cell holds no terrain.
+     */
+    Tile materialise(int cell) {
+        byte symbol = symbols[cell];
+        if (symbol == 0) {
+            return null;
+        }
+        symbols[cell] = 0;
+        size--;
+        return TileFactory.fromSymbol(dimensions.tileToPixel(cell % columns),
+                dimensions.tileToPixel(cell / columns), (char) symbol);
+    }
+
+    /**
+     * Add a renderable for every cell that still holds terrain to the given list, row by row.
+     *
+     * @param renderables The list to add renderables to.
+     */
+    void renderInto(List<Renderable> renderables) {
+        if (size == 0) {
+            return;
+        }
+        Sprite grass = SpriteGallery.grass.getSprite("default");
+        Sprite water = SpriteGallery.water.getSprite("default");
+        Sprite field = SpriteGallery.field.getSprite("default");
+        for (int cell = 0; cell < symbols.length; cell++) {
+            switch (symbols[cell]) {
+                case 0 -> {
+                    // no terrain, the cell's tiles are rendered by the world
+                }
+                case 'g' -> renderables.add(new Cell(cell, grass));
+                case 'w' -> renderables.add(new Cell(cell, water));
+                default -> renderables.add(new Cell(cell, field));
+            }
+        }
+    }
+
+    /** A cell of terrain, drawn with the default sprite of its tile shared by every such cell. */
+    private final class Cell implements Renderable {
+        private final int cell;
+        private final Sprite sprite;
+        private String id;
+
+        private Cell(int cell, Sprite sprite) {
+            this.cell = cell;
+            this.sprite = sprite;
+        }
+
+        @Override
+        public int getX() {
+            return dimensions.tileToPixel(cell % columns);
+        }
+
+        @Override
+        public int getY() {
+            return dimensions.tileToPixel(cell / columns);
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return sprite;
+        }
+
+        @Override
+        public String getID() {
+            // built once, as every rendered frame reads it
+            if (id == null) {
+                id = "terrain:" + cell;
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+
+import engine.renderer.Dimensions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A dense grid index of the tiles within a world, keyed by tile column and row.
+ *
+ * <p>Each cell of the grid holds every tile occupying that grid position in the order they were
+ * placed, so a tile and any replacement tiles placed over it (e.g. dirt replacing grass) share a
+ * cell. Looking up the tiles at a position is a constant time operation regardless of the size of
+ * the world.
+ *
+ * <p>Tiles positioned outside the grid described by the dimensions are kept in an overflow list
+ * and are searched linearly.
+ *
+ * <p>The index can also answer nearest tile queries by searching rings of cells outward from the
+ * query position, so only cells near the closest tile are visited.
+ */
+class TileIndex {
+
+    private final int tileSize;
+    private final int windowSize;
+    private final int columns;
+    private final List<List<Tile>> cells;
+    private final List<Tile> overflow = new ArrayList<>();
+
+    /**
+     * Construct a new empty index sized to the grid described by the given dimensions.
+     *
+     * @param dimensions The dimensions of the world being indexed.
+     */
+    TileIndex(Dimensions dimensions) {
+        this.tileSize = dimensions.tileSize();
+        this.windowSize = dimensions.windowSize();
+        this.columns = windowSize / tileSize;
+        // cells are only created once a tile is placed in them
+        this.cells = new ArrayList<>(Collections.nCopies(columns * columns, null));
+    }
+
+    /**
+     * Whether this index was built for a grid matching the given dimensions.
+     *
+     * @param dimensions The dimensions to compare against.
+     * @return true if the given dimensions describe the same grid as this index.
+     */
+    boolean matches(Dimensions dimensions) {
+        return dimensions.tileSize() == tileSize && dimensions.windowSize() == windowSize;
+    }
+
+    /**
+     * Add a tile to the cell at its position.
+     *
+     * @param tile The tile to index.
+     */
+    void add(Tile tile) {
+        int cell = cellOf(tile.getX(), tile.getY());
+        if (cell < 0) {
+            overflow.add(tile);
+            return;
+        }
+        List<Tile> bucket = cells.get(cell);
+        if (bucket == null) {
+            bucket = new ArrayList<>(1);
+            cells.set(cell, bucket);
+        }
+        bucket.add(tile);
+    }
+
+    /**
+     * Remove a tile from the cell at its position.
+     *
+     * @param tile The tile to remove from the index.
+     */
+    void remove(Tile tile) {
+        int cell = cellOf(tile.getX(), tile.getY());
+        if (cell < 0) {
+            overflow.remove(tile);
+        } else if (cells.get(cell) != null) {
+            cells.get(cell).remove(tile);
+        }
+    }
+
+    /**
+     * Whether the given tile is contained within the index.
+     *
+     * @param tile The tile to search for.
+     * @return true if the tile has been added and not since removed.
+     */
+    boolean contains(Tile tile) {
+        int cell = cellOf(tile.getX(), tile.getY());
+        if (cell < 0) {
+            return overflow.contains(tile);
+        }
+        return cells.get(cell) != null && cells.get(cell).contains(tile);
+    }
+
+    /**
+     * Add every tile occupying the grid position of the given pixel coordinates to the result.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param result The list to add any tiles at the position to.
+     */
+    void collect(int x, int y, List<Tile> result) {
+        int cell = cellOf(x, y);
+        if (cell >= 0 && cells.get(cell) != null) {
+            List<Tile> bucket = cells.get(cell);
+            for (int i = 0; i < bucket.size(); i++) {
+                result.add(bucket.get(i));
+            }
+        }
+        if (overflow.isEmpty()) {
+            return;
+        }
+        int gridX = Math.floorDiv(x, tileSize);
+        int gridY = Math.floorDiv(y, tileSize);
+        for (Tile tile : overflow) {
+            if (Math.floorDiv(tile.getX(), tileSize) == gridX
+                    && Math.floorDiv(tile.getY(), tileSize) == gridY) {
+                result.add(tile);
+            }
+        }
+    }
+
+    /**
+     * Find the tile in the index closest to the given pixel coordinates.
+     *
+     * <p>Where multiple tiles are equally close, the tile found first is returned. Cells are
+     * searched in rings of increasing distance from the cell containing the position, each ring
+     * row by row, then any tiles outside the grid are checked.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @return The closest tile, or null if the index is empty.
+     */
+    Tile nearest(int x, int y) {
+        Tile closest = null;
+        long closestDistance = Long.MAX_VALUE;
+        int centreCol = clamp(Math.floorDiv(x, tileSize));
+        int centreRow = clamp(Math.floorDiv(y, tileSize));
+        int maxRing = Math.max(
+                Math.max(centreCol, columns - 1 - centreCol),
+                Math.max(centreRow, columns - 1 - centreRow));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            long bound = ringLowerBound(x, y, centreCol, centreRow, ring);
+            if (closest != null && bound * bound >= closestDistance) {
+                break;
+            }
+            for (int row = centreRow - ring; row <= centreRow + ring; row++) {
+                if (row < 0 || row >= columns) {
+                    continue;
+                }
+                boolean edgeRow = row == centreRow - ring || row == centreRow + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int col = centreCol - ring; col <= centreCol + ring; col += step) {
+                    if (col < 0 || col >= columns) {
+                        continue;
+                    }
+                    List<Tile> cell = cells.get(row * columns + col);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size(); i++) {
+                        Tile tile = cell.get(i);
+                        long distance = distanceSquared(tile, x, y);
+                        if (distance < closestDistance) {
+                            closestDistance = distance;
+                            closest = tile;
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < overflow.size(); i++) {
+            Tile tile = overflow.get(i);
+            long distance = distanceSquared(tile, x, y);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = tile;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Returns a lower bound on the distance from the given position to any tile in the given ring
+     * of cells around the centre cell. Every tile in the ring lies outside the square of cells
+     * enclosed by the ring, so the bound is the distance to the nearest edge of that square.
+     */
+    private long ringLowerBound(int x, int y, int centreCol, int centreRow, int ring) {
+        if (ring == 0) {
+            return 0;
+        }
+        long minX = (long) (centreCol - ring + 1) * tileSize;
+        long maxX = (long) (centreCol + ring) * tileSize;
+        long minY = (long) (centreRow - ring + 1) * tileSize;
+        long maxY = (long) (centreRow + ring) * tileSize;
+        if (x < minX || x >= maxX || y < minY || y >= maxY) {
+            return 0;
+        }
+        return Math.min(Math.min(x - minX + 1, maxX - x), Math.min(y - minY + 1, maxY - y));
+    }
+
+    private static long distanceSquared(Tile tile, int x, int y) {
+        long deltaX = tile.getX() - x;
+        long deltaY = tile.getY() - y;
+        return deltaX * deltaX + deltaY * deltaY;
+    }
+
+    private int clamp(int index) {
+        return Math.max(0, Math.min(columns - 1, index));
+    }
+
+    /**
+     * Returns the cell index of the given pixel coordinates, or -1 if they lie outside the grid.
+     */
+    private int cellOf(int x, int y) {
+        if (x < 0 || y < 0 || x >= windowSize || y >= windowSize) {
+            return -1;
+        }
+        int col = x / tileSize;
+        int row = y / tileSize;
+        if (col >= columns || row >= columns) {
+            return -1;
+        }
+        return row * columns + col;
+    }
+}
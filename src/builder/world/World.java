@@ -33,6 +33,20 @@ public interface World {
      */
     List<Tile> tilesAtPosition(int x, int y, Dimensions dimensions);
 
+    /**
+     * Adds all tiles that contain the given pixel coordinates to the given list, as {@link
+     * #tilesAtPosition(int, int, Dimensions)} would return them, e.g. into a list from the tick's
+     * {@link builder.TickScratch}.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param dimensions The dimensions of the world.
+     * @param result The list to add the tiles occupying the given x, y position to.
+     */
+    default void tilesAtPosition(int x, int y, Dimensions dimensions, List<Tile> result) {
+        result.addAll(tilesAtPosition(x, y, dimensions));
+    }
+
     /**
      * A flexible selector method to allow accessing tiles that meet specific conditions.
      *
@@ -52,6 +66,27 @@ public interface World {
      */
     List<Tile> allTiles();
 
+    /**
+     * Return the tile with a {@link builder.entities.resources.Cabbage} stacked upon it that is
+     * closest to the given pixel position.
+     *
+     * <p>Where multiple such tiles are equally close, any one of them may be returned.
+     *
+     * @param x The x-axis (horizontal) coordinate in pixels.
+     * @param y The y-axis (vertical) coordinate in pixels.
+     * @param dimensions The dimensions of the world.
+     * @return The closest tile carrying a cabbage, or null if no tile carries a cabbage.
+     */
+    Tile closestCabbageTile(int x, int y, Dimensions dimensions);
+
+    /**
+     * Build any indexes the world looks tiles up through for the given dimensions, so that later
+     * lookups only read them, e.g. before they are made from several threads at once.
+     *
+     * @param dimensions The dimensions of the world.
+     */
+    default void prepareIndexes(Dimensions dimensions) {}
+
     /**
      * Place a new tile into the world.
      *
@@ -6,9 +6,17 @@ import builder.entities.tiles.TileFactory;
 import engine.renderer.Dimensions;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 /**
@@ -22,6 +30,9 @@ import java.util.List;
  */
 public class WorldBuilder {
 
+    /** The size of the buffers used to read an encoding that isn't already in memory. */
+    private static final int BUFFER_SIZE = 8192;
+
     /**
      * Construct a new world builder.
      *
@@ -57,44 +68,161 @@ public class WorldBuilder {
      */
     public static List<Tile> fromString(Dimensions dimensions, String text)
             throws WorldLoadException {
-        int numberOfTiles = dimensions.windowSize() / dimensions.tileSize();
-        String[] lines = text.split("\n");
-        final boolean lineDesync = lines.length != numberOfTiles;
-        if (lineDesync) {
-            throw new WorldLoadException(
-                    "Expected "
-                            + numberOfTiles
-                            + " lines to match the given dimensions but got "
-                            + lines.length);
+        final MapDecoder decoder = new MapDecoder(dimensions);
+        decoder.accept(CharBuffer.wrap(text));
+        return decoder.finish();
+    }
+
+    /**
+     * Read the encoded world from the reader and construct the corresponding list of tiles.
+     *
+     * <p>The reader is consumed through a fixed size buffer, so the encoding is never held in
+     * memory as a whole. See {@link #fromString(Dimensions, String)} for a description of how the
+     * tile encoding is read. Unlike that method, lines may also be separated by carriage returns
+     * or carriage return and new line pairs, as for {@link java.io.BufferedReader#readLine()}.
+     *
+     * @param dimensions The dimensions of the world. The tile encoding must correspond to these
+     *     dimensions.
+     * @param reader A reader of the text encoding of a world.
+     * @return A list of tiles loaded from the reader.
+     * @throws IOException If the reader cannot be read from.
+     * @throws WorldLoadException If the tile encoding is invalid (according to {@link
+     *     #fromString(Dimensions, String)}).
+     */
+    public static List<Tile> fromReader(Dimensions dimensions, Reader reader)
+            throws IOException, WorldLoadException {
+        return read(new MapDecoder(dimensions, true), reader).finish();
+    }
+
+    /**
+     * Read the encoded world from the reader and construct a world of it, as {@link
+     * #fromTiles(List)} would from {@link #fromReader(Dimensions, Reader)}, except that plain
+     * grass, water and dirt are kept as terrain (see {@link BeanWorld}) and their tiles only
+     * created once needed.
+     *
+     * @param dimensions The dimensions of the world. The tile encoding must correspond to these
+     *     dimensions.
+     * @param reader A reader of the text encoding of a world.
+     * @return A new world of the tiles encoded by the reader.
+     * @throws IOException If the reader cannot be read from.
+     * @throws WorldLoadException If the tile encoding is invalid (according to {@link
+     *     #fromString(Dimensions, String)}).
+     */
+    public static BeanWorld worldFromReader(Dimensions dimensions, Reader reader)
+            throws IOException, WorldLoadException {
+        return read(new MapDecoder(dimensions, true, true), reader).finishWorld();
+    }
+
+    private static MapDecoder read(MapDecoder decoder, Reader reader) throws IOException {
+        final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        while (reader.read(chars) != -1) {
+            chars.flip();
+            decoder.accept(chars);
+            chars.clear();
         }
+        return decoder;
+    }
 
-        final List<Tile> tiles = new ArrayList<>();
-        for (int row = 0; row < numberOfTiles; row++) {
-            char[] currentRow = lines[row].toCharArray();
-
-            if (currentRow.length != numberOfTiles) {
-                throw new WorldLoadException(
-                        "Expected "
-                                + numberOfTiles
-                                + " characters to match the given dimensions but got "
-                                + currentRow.length,
-                        row);
+    /**
+     * Read the UTF-8 encoded world from the channel and construct the corresponding list of tiles.
+     *
+     * <p>The channel is read through a fixed size buffer and tile symbols are decoded from that
+     * buffer, so the encoding is never held in memory as a whole. See {@link
+     * #fromString(Dimensions, String)} for a description of how the tile encoding is read.
+     *
+     * @param dimensions The dimensions of the world. The tile encoding must correspond to these
+     *     dimensions.
+     * @param channel A channel of the UTF-8 text encoding of a world.
+     * @return A list of tiles loaded from the channel.
+     * @throws IOException If the channel cannot be read from or is not valid UTF-8.
+     * @throws WorldLoadException If the tile encoding is invalid (according to {@link
+     *     #fromString(Dimensions, String)}).
+     */
+    public static List<Tile> fromChannel(Dimensions dimensions, ReadableByteChannel channel)
+            throws IOException, WorldLoadException {
+        return read(new MapDecoder(dimensions), channel).finish();
+    }
+
+    private static MapDecoder read(MapDecoder decoder, ReadableByteChannel channel)
+            throws IOException {
+        final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder();
+        final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        while (channel.read(bytes) != -1) {
+            bytes.flip();
+            decode(utf8, bytes, chars, decoder, false);
+            bytes.compact();
+        }
+        bytes.flip();
+        decode(utf8, bytes, chars, decoder, true);
+        return decoder;
+    }
+
+    /**
+     * Read the UTF-8 encoded world file and construct the corresponding list of tiles.
+     *
+     * <p>The file is memory-mapped and tile symbols are decoded directly from the mapping through
+     * a fixed size buffer, so the file is never copied into memory as a whole. Files too large to
+     * map in one piece are read as a channel instead (see {@link #fromChannel(Dimensions,
+     * ReadableByteChannel)}). See {@link #fromString(Dimensions, String)} for a description of
+     * how the tile encoding is read.
+     *
+     * @param dimensions The dimensions of the world. The tile encoding must correspond to these
+     *     dimensions.
+     * @param path The path of a file containing a tile encoding.
+     * @return A list of tiles loaded from the file.
+     * @throws IOException If the file doesn't exist, can't be read, or is not valid UTF-8.
+     * @throws WorldLoadException If the tile encoding is invalid (according to {@link
+     *     #fromString(Dimensions, String)}).
+     */
+    public static List<Tile> fromPath(Dimensions dimensions, Path path)
+            throws IOException, WorldLoadException {
+        return read(new MapDecoder(dimensions), path).finish();
+    }
+
+    private static MapDecoder read(MapDecoder decoder, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return read(decoder, channel);
             }
+            final ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+            decode(StandardCharsets.UTF_8.newDecoder(), bytes, chars, decoder, true);
+            return decoder;
+        }
+    }
 
-            for (int col = 0; col < numberOfTiles; col++) {
-                int tileX = dimensions.tileToPixel(col);
-                int tileY = dimensions.tileToPixel(row);
-                char symbol = currentRow[col];
-                Tile tile;
-                try {
-                    tile = TileFactory.fromSymbol(tileX, tileY, symbol);
-                } catch (IllegalArgumentException e) {
-                    throw new WorldLoadException("Unknown symbol: '" + symbol + "'", row, col);
-                }
-                tiles.add(tile);
+    /**
+     * Decode the bytes into the character buffer, passing each full buffer of characters to the
+     * map decoder. When there is no more input, any buffered state of the charset decoder is
+     * flushed.
+     */
+    private static void decode(
+            CharsetDecoder charset,
+            ByteBuffer bytes,
+            CharBuffer chars,
+            MapDecoder decoder,
+            boolean endOfInput)
+            throws CharacterCodingException {
+        CoderResult result;
+        do {
+            result = charset.decode(bytes, chars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
             }
+            chars.flip();
+            decoder.accept(chars);
+            chars.clear();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            do {
+                result = charset.flush(chars);
+                chars.flip();
+                decoder.accept(chars);
+                chars.clear();
+            } while (result.isOverflow());
         }
-        return tiles;
     }
 
     /**
@@ -102,7 +230,8 @@ public class WorldBuilder {
      * file.
      *
      * <p>See {@link #fromString(Dimensions, String)} for a description of how the tile encoding is
-     * read.
+     * read. As for {@link #worldFromReader(Dimensions, Reader)}, plain grass, water and dirt are
+     * kept as terrain until their tiles are needed.
      *
      * @param dimensions The dimensions of the world. The tile encoding must correspond to these
      *     dimensions.
@@ -114,8 +243,7 @@ public class WorldBuilder {
      */
     public static BeanWorld fromFile(Dimensions dimensions, String filepath)
             throws IOException, WorldLoadException {
-        String text = Files.readString(Path.of(filepath));
-        return fromTiles(fromString(dimensions, text));
+        return read(new MapDecoder(dimensions, false, true), Path.of(filepath)).finishWorld();
     }
 
     /**
@@ -127,6 +255,37 @@ public class WorldBuilder {
         return new BeanWorld();
     }
 
+    /**
+     * Construct a new world of the given terrain and no tiles, e.g. to restore the terrain of a
+     * saved world before placing its tiles.
+     *
+     * @param dimensions The dimensions of the world.
+     * @param symbols The symbol of the terrain in each cell, row by row, or zero for a cell with
+     *     no terrain. Only grass, water and dirt are terrain.
+     * @return A new world of the given terrain.
+     * @throws IllegalArgumentException If there is not a symbol for every cell, or a symbol is
+     *     not terrain.
+     */
+    public static BeanWorld fromTerrain(Dimensions dimensions, char[] symbols) {
+        int columns = dimensions.windowSize() / dimensions.tileSize();
+        if (symbols.length != columns * columns) {
+            throw new IllegalArgumentException("Expected terrain for " + columns * columns
+                    + " cells but got " + symbols.length);
+        }
+        Terrain terrain = new Terrain(dimensions);
+        for (int cell = 0; cell < symbols.length; cell++) {
+            char symbol = symbols[cell];
+            if (symbol == 0) {
+                continue;
+            }
+            if (!Terrain.isTerrain(symbol)) {
+                throw new IllegalArgumentException("Unknown terrain symbol: '" + symbol + "'");
+            }
+            terrain.set(cell % columns, cell / columns, symbol);
+        }
+        return new BeanWorld(terrain);
+    }
+
     /**
      * Construct a new world containing all the tiles in the parameter.
      *
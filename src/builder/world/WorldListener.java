@@ -0,0 +1,45 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+
+/**
+ * Receives notifications about changes to the tiles of a {@link BeanWorld}.
+ *
+ * <p>A world has at most one listener, set via {@link BeanWorld#setListener(WorldListener)}.
+ * Together the notifications identify every tile whose state may differ from when it was last
+ * observed, except for tiles that change by ticking (see {@link BeanWorld#getActiveTiles()}).
+ */
+public interface WorldListener {
+
+    /**
+     * Called after a tile has been placed in the world via {@link BeanWorld#place(Tile)}.
+     *
+     * @param tile The newly placed tile.
+     */
+    void placed(Tile tile);
+
+    /**
+     * Called after the tile of a cell of terrain has been created, which makes it a tile of the
+     * world like any other (see {@link BeanWorld}). The tile was already part of the world, so it
+     * has not been placed.
+     *
+     * @param tile The tile created from terrain.
+     */
+    default void materialised(Tile tile) {}
+
+    /**
+     * Called after an entity has been stacked on or removed from a tile in the world, or the tile
+     * itself has changed (see {@link builder.entities.tiles.TileListener#changed(Tile)}).
+     *
+     * @param tile The tile that changed.
+     */
+    void changed(Tile tile);
+
+    /**
+     * Called after a tile has been dropped from the world, see {@link BeanWorld#cleanup()} and
+     * {@link BeanWorld#removeTiles(java.util.Set)}.
+     *
+     * @param tile The removed tile.
+     */
+    void removed(Tile tile);
+}
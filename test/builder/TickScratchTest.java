@@ -0,0 +1,103 @@
+package builder;
+
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.headless.HeadlessRunner;
+import builder.world.WorldLoadException;
+
+import engine.renderer.Dimensions;
+import engine.renderer.TileGrid;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TickScratch class.
+ * Tests that scratch lists are reused between ticks, and that a farm ticking steadily uses them
+ * rather than allocating.
+ */
+public class TickScratchTest {
+
+    private static final Dimensions DIMENSIONS = new TileGrid(25, 800);
+
+    /**
+     * Tests that lists handed out in one tick are distinct and empty.
+     */
+    @Test
+    public void testListsDistinctWithinTick() {
+        TickScratch scratch = new TickScratch();
+        List<String> first = scratch.list();
+        first.add("first");
+        List<String> second = scratch.list();
+        assertNotSame(first, second);
+        assertTrue(second.isEmpty());
+        assertEquals(2, scratch.getAllocated());
+    }
+
+    /**
+     * Tests that lists are emptied and handed out again once the scratch is reset.
+     */
+    @Test
+    public void testListsReusedAfterReset() {
+        TickScratch scratch = new TickScratch();
+        List<String> first = scratch.list();
+        first.add("first");
+        List<String> second = scratch.list();
+        second.add("second");
+        scratch.reset();
+
+        assertTrue("Lists should be emptied on reset", first.isEmpty() && second.isEmpty());
+        assertSame(first, scratch.list());
+        assertSame(second, scratch.list());
+        scratch.list();
+        assertEquals(3, scratch.getAllocated());
+    }
+
+    /**
+     * Tests that looking up a stacked entity by type finds it without copying the stack.
+     */
+    @Test
+    public void testGetStacked() {
+        Dirt dirt = new Dirt(0, 0);
+        assertNull(dirt.getStacked(Cabbage.class));
+        Cabbage cabbage = new Cabbage(0, 0);
+        dirt.placeOn(cabbage);
+        assertSame(cabbage, dirt.getStacked(Cabbage.class));
+    }
+
+    /**
+     * Tests that a farm left ticking with the player walking about allocates very little per tick,
+     * the little there is being birds spawned.
+     */
+    @Test
+    public void testSteadyTickBarelyAllocates() throws IOException, WorldLoadException {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean()
+                instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled());
+
+        JavaBeanFarm farm = new JavaBeanFarm(DIMENSIONS,
+                new FileReader("resources/testmaps/bigTest.map"),
+                new FileReader("resources/testmaps/bigTest.details"));
+        HeadlessRunner runner = new HeadlessRunner(farm, DIMENSIONS);
+        runner.setScript((tick, input) -> {
+            input.releaseAll();
+            input.press(tick % 200 < 100 ? 'd' : 'a');
+        });
+        runner.step(3000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        runner.step(2000);
+        long perTick = (threads.getCurrentThreadAllocatedBytes() - before) / 2000;
+        assertTrue(perTick + " bytes allocated per tick", perTick < 2048);
+    }
+}
@@ -0,0 +1,149 @@
+package builder.headless;
+
+import builder.JavaBeanFarm;
+import builder.world.WorldLoadException;
+
+import engine.EngineState;
+import engine.game.Game;
+import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
+import engine.renderer.TileGrid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the HeadlessRunner class.
+ * Tests stepping, scripted input, real-time pacing and running a full game.
+ */
+public class HeadlessRunnerTest {
+
+    private static final Dimensions DIMENSIONS = new TileGrid(25, 800);
+
+    private RecordingGame game;
+    private HeadlessRunner runner;
+
+    /** A game recording the tick and keys held each time it is ticked. */
+    private static class RecordingGame implements Game {
+        private final List<Integer> ticks = new ArrayList<>();
+        private final List<List<Character>> keys = new ArrayList<>();
+
+        @Override
+        public void tick(EngineState state) {
+            ticks.add(state.currentTick());
+            keys.add(state.getKeys().getDown());
+        }
+
+        @Override
+        public List<Renderable> render() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Sets up test fixtures before each test.
+     */
+    @Before
+    public void setUp() {
+        game = new RecordingGame();
+        runner = new HeadlessRunner(game, DIMENSIONS);
+    }
+
+    /**
+     * Tests that stepping runs and draws the requested number of ticks.
+     */
+    @Test
+    public void testStep() {
+        RunReport report = runner.step(10);
+
+        assertEquals(10, report.getTicks());
+        assertEquals(10, runner.currentTick());
+        assertEquals(10, runner.getCore().getFramesDrawn());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), game.ticks);
+
+        runner.step(2);
+        assertEquals(List.of(10, 11), game.ticks.subList(10, 12));
+    }
+
+    /**
+     * Tests that the script is applied before each tick and input persists between ticks.
+     */
+    @Test
+    public void testScriptedInput() {
+        runner.setScript((tick, input) -> {
+            if (tick == 1) {
+                input.press('d');
+            } else if (tick == 3) {
+                input.release('d');
+            }
+        });
+        runner.step(4);
+
+        assertEquals(List.of(), game.keys.get(0));
+        assertEquals(List.of('d'), game.keys.get(1));
+        assertEquals(List.of('d'), game.keys.get(2));
+        assertEquals(List.of(), game.keys.get(3));
+    }
+
+    /**
+     * Tests that a real-time run is paced by the tick period.
+     */
+    @Test
+    public void testRunRealTime() {
+        long period = TimeUnit.MILLISECONDS.toNanos(5);
+        RunReport report = runner.runRealTime(5, period);
+
+        assertEquals(5, game.ticks.size());
+        assertTrue("Run should take at least 4 tick periods",
+                   report.getElapsedNanos() >= 4 * period);
+        assertTrue(report.getTicksPerSecond() <= 1_000_000_000.0 / period * 5 / 4);
+    }
+
+    /**
+     * Tests that a real-time run rejects a non-positive tick period.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRunRealTimeInvalidPeriod() {
+        runner.runRealTime(1, 0);
+    }
+
+    /**
+     * Tests the achieved tick rate reported by a run.
+     */
+    @Test
+    public void testReportTicksPerSecond() {
+        assertEquals(200.0, new RunReport(100, 500_000_000L).getTicksPerSecond(), 0.0001);
+        assertEquals(0.0, new RunReport(0, 0).getTicksPerSecond(), 0.0001);
+    }
+
+    /**
+     * Tests running the full game headlessly with the player walking.
+     */
+    @Test
+    public void testRunsJavaBeanFarm() throws IOException, WorldLoadException {
+        Game farm = new JavaBeanFarm(
+                DIMENSIONS,
+                new FileReader("resources/testmaps/base.map"),
+                new FileReader("resources/testmaps/base.details"));
+        HeadlessRunner farmRunner = new HeadlessRunner(farm, DIMENSIONS);
+        farmRunner.setScript((tick, input) -> {
+            if (tick == 3) {
+                input.press('d');
+            }
+        });
+        RunReport report = farmRunner.step(200);
+
+        assertEquals(200, report.getTicks());
+        assertTrue(report.getTicksPerSecond() > 0);
+        assertTrue("Frames should contain the world",
+                   farmRunner.getCore().getLastFrameSize() > 0);
+    }
+}
@@ -0,0 +1,169 @@
+package builder.headless;
+
+import builder.JavaBeanFarm;
+import builder.snapshot.SavedFarms;
+import builder.world.WorldLoadException;
+
+import engine.EngineState;
+import engine.game.Game;
+import engine.renderer.Renderable;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+
+import static builder.snapshot.SavedFarms.DIMENSIONS;
+import static builder.snapshot.SavedFarms.WANDER;
+import static builder.snapshot.SavedFarms.save;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the InputRecorder and InputReplayer classes.
+ * Tests that replaying a recording reproduces the recorded session exactly, that held input is
+ * recorded compactly, and that malformed recordings are rejected.
+ */
+public class InputRecorderTest {
+
+    private static JavaBeanFarm farm() throws IOException, WorldLoadException {
+        return SavedFarms.farm("bigTest", DIMENSIONS);
+    }
+
+    /** A game run by an engine which forwards to whichever game is current. */
+    private static class SwitchingGame implements Game {
+        private Game current;
+
+        @Override
+        public void tick(EngineState state) {
+            current.tick(state);
+        }
+
+        @Override
+        public List<Renderable> render() {
+            return current.render();
+        }
+    }
+
+    private static byte[] record(JavaBeanFarm game, InputScript script, int ticks)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        InputRecorder recorder = new InputRecorder(game, Channels.newChannel(bytes));
+        HeadlessRunner runner = new HeadlessRunner(recorder, DIMENSIONS);
+        runner.setScript(script);
+        runner.step(ticks);
+        recorder.close();
+        return bytes.toByteArray();
+    }
+
+    private static InputReplayer replayer(byte[] recording) throws IOException {
+        return InputReplayer.read(Channels.newChannel(new ByteArrayInputStream(recording)));
+    }
+
+    /**
+     * Tests that replaying a recording leaves the game in exactly the state the recorded game was
+     * in when the recording ended.
+     */
+    @Test
+    public void testReplayMatchesRecordedSession() throws IOException, WorldLoadException {
+        JavaBeanFarm game = farm();
+        byte[] recording = record(game, WANDER, 900);
+
+        InputReplayer replayer = replayer(recording);
+        assertEquals(900, replayer.getTicks());
+        RunReport report = replayer.replay();
+        assertEquals(900, report.getTicks());
+        assertEquals(900, replayer.getPlayed());
+        assertArrayEquals(save(game), save(replayer.getGame()));
+    }
+
+    /**
+     * Tests that a recording replayed in parts matches the recording replayed in one go.
+     */
+    @Test
+    public void testReplayInParts() throws IOException, WorldLoadException {
+        JavaBeanFarm game = farm();
+        byte[] recording = record(game, WANDER, 400);
+
+        InputReplayer replayer = replayer(recording);
+        assertEquals(150, replayer.replay(150).getTicks());
+        assertEquals(250, replayer.replay(1000).getTicks());
+        assertEquals(0, replayer.replay().getTicks());
+        assertArrayEquals(save(game), save(replayer.getGame()));
+    }
+
+    /**
+     * Tests that a recording started part way through a session replays with the tick numbers
+     * the game received.
+     */
+    @Test
+    public void testRecordingStartedMidSession() throws IOException, WorldLoadException {
+        JavaBeanFarm game = farm();
+        SwitchingGame session = new SwitchingGame();
+        session.current = game;
+        HeadlessRunner runner = new HeadlessRunner(session, DIMENSIONS);
+        runner.setScript(WANDER);
+        runner.step(333);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        InputRecorder recorder = new InputRecorder(game, Channels.newChannel(bytes));
+        session.current = recorder;
+        runner.step(300);
+        recorder.close();
+
+        InputReplayer replayer = replayer(bytes.toByteArray());
+        replayer.replay();
+        assertArrayEquals(save(game), save(replayer.getGame()));
+    }
+
+    /**
+     * Tests that input held for many ticks is only recorded once.
+     */
+    @Test
+    public void testHeldInputRecordedOnce() throws IOException, WorldLoadException {
+        byte[] idle = record(farm(), InputScript.NONE, 10);
+        JavaBeanFarm game = farm();
+        byte[] held = record(game, (tick, input) -> input.press('d'), 2000);
+
+        // both record a single frame, the held key adding two bytes
+        assertEquals(idle.length + 2, held.length);
+        InputReplayer replayer = replayer(held);
+        replayer.replay();
+        assertArrayEquals(save(game), save(replayer.getGame()));
+    }
+
+    /**
+     * Tests that input that is not a recording is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testRejectsBadMagic() throws IOException, WorldLoadException {
+        byte[] recording = record(farm(), WANDER, 10);
+        recording[0] = 0;
+        replayer(recording);
+    }
+
+    /**
+     * Tests that a recording that was never closed is rejected.
+     */
+    @Test(expected = EOFException.class)
+    public void testRejectsTruncatedRecording() throws IOException, WorldLoadException {
+        byte[] recording = record(farm(), WANDER, 100);
+        replayer(Arrays.copyOf(recording, recording.length - 8));
+    }
+
+    /**
+     * Tests that a closed recorder can no longer be ticked, and can be closed again.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testTickAfterClose() throws IOException, WorldLoadException {
+        InputRecorder recorder =
+                new InputRecorder(farm(), Channels.newChannel(new ByteArrayOutputStream()));
+        recorder.close();
+        recorder.close();
+        new HeadlessRunner(recorder, DIMENSIONS).step(1);
+    }
+}
@@ -0,0 +1,86 @@
+package builder.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TickHistogram class.
+ * Tests recording, percentiles over the rolling window and resetting.
+ */
+public class TickHistogramTest {
+
+    private TickHistogram histogram;
+
+    /**
+     * Sets up test fixtures before each test.
+     */
+    @Before
+    public void setUp() {
+        histogram = new TickHistogram(100);
+    }
+
+    /**
+     * Tests an empty histogram reports zeros.
+     */
+    @Test
+    public void testEmpty() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getP50());
+        assertEquals(0, histogram.getP99());
+        assertEquals(0, histogram.getMax());
+    }
+
+    /**
+     * Tests percentiles use the nearest-rank method over the recorded samples.
+     */
+    @Test
+    public void testPercentiles() {
+        for (int i = 100; i >= 1; i--) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getTotalNanos());
+        assertEquals(50, histogram.getP50());
+        assertEquals(99, histogram.getP99());
+        assertEquals(100, histogram.getMax());
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(100, histogram.percentile(100));
+    }
+
+    /**
+     * Tests percentiles only cover the most recent samples while counts cover every sample.
+     */
+    @Test
+    public void testRollingWindow() {
+        histogram.record(1_000_000);
+        for (int i = 0; i < 100; i++) {
+            histogram.record(10);
+        }
+        assertEquals(101, histogram.getCount());
+        assertEquals(100, histogram.getWindowSize());
+        assertEquals("Oldest sample should have left the window", 10, histogram.getMax());
+        assertEquals(10, histogram.getP99());
+    }
+
+    /**
+     * Tests reset removes every sample.
+     */
+    @Test
+    public void testReset() {
+        histogram.record(5);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotalNanos());
+        assertEquals(0, histogram.getMax());
+    }
+
+    /**
+     * Tests percentiles outside of 0 to 100 are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        histogram.percentile(101);
+    }
+}
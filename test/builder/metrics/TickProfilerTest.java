@@ -0,0 +1,114 @@
+package builder.metrics;
+
+import builder.JavaBeanFarm;
+import builder.headless.HeadlessRunner;
+import builder.world.WorldLoadException;
+
+import engine.renderer.Dimensions;
+import engine.renderer.TileGrid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TickProfiler class.
+ * Tests enabling, grouping timings by type and profiling a running game.
+ */
+public class TickProfilerTest {
+
+    private TickProfiler profiler;
+
+    /**
+     * Sets up test fixtures before each test.
+     */
+    @Before
+    public void setUp() {
+        profiler = new TickProfiler(true);
+    }
+
+    /**
+     * Tests a disabled profiler records nothing.
+     */
+    @Test
+    public void testDisabledRecordsNothing() {
+        TickProfiler disabled = new TickProfiler(false);
+        long start = disabled.start();
+        disabled.stop("phase", start);
+        disabled.group("enemy").stop(String.class, start);
+
+        assertEquals(0, start);
+        assertTrue(disabled.getHistograms().isEmpty());
+    }
+
+    /**
+     * Tests timings are recorded under their name in first recorded order.
+     */
+    @Test
+    public void testStopRecords() {
+        profiler.stop("b", profiler.start());
+        profiler.stop("a", profiler.start());
+        profiler.stop("b", profiler.start());
+
+        assertEquals(2, profiler.histogram("b").getCount());
+        assertEquals(1, profiler.histogram("a").getCount());
+        assertEquals(List.of("b", "a"),
+                     List.copyOf(profiler.getHistograms().keySet()));
+    }
+
+    /**
+     * Tests group timings are named by the prefix and type.
+     */
+    @Test
+    public void testGroupByType() {
+        TickProfiler.Group group = profiler.group("enemy");
+        group.stop(String.class, profiler.start());
+        group.stop(Integer.class, profiler.start());
+        group.stop(String.class, profiler.start());
+
+        assertSame(group, profiler.group("enemy"));
+        assertEquals(2, profiler.histogram("enemy/String").getCount());
+        assertEquals(1, profiler.histogram("enemy/Integer").getCount());
+    }
+
+    /**
+     * Tests the report contains a row per timing.
+     */
+    @Test
+    public void testReport() {
+        profiler.stop("phase/world", profiler.start());
+        String report = profiler.report();
+
+        assertTrue(report.contains("p99"));
+        assertTrue(report.contains("phase/world"));
+    }
+
+    /**
+     * Tests profiling a game records every phase and enemy types.
+     */
+    @Test
+    public void testProfilesGame() throws IOException, WorldLoadException {
+        Dimensions dimensions = new TileGrid(25, 800);
+        JavaBeanFarm farm = new JavaBeanFarm(
+                dimensions,
+                new FileReader("resources/testmaps/bigTest.map"),
+                new FileReader("resources/testmaps/bigTest.details"));
+        farm.getProfiler().setEnabled(true);
+        new HeadlessRunner(farm, dimensions).step(400);
+
+        TickProfiler farmProfiler = farm.getProfiler();
+        assertEquals(400, farmProfiler.histogram("tick").getCount());
+        assertEquals(400, farmProfiler.histogram("render").getCount());
+        for (String phase : new String[] {"player", "npcs", "enemies", "world", "overlays",
+                                          "interact", "cleanup"}) {
+            assertEquals(phase, 400, farmProfiler.histogram("phase/" + phase).getCount());
+        }
+        assertTrue(farmProfiler.histogram("spawner/MagpieSpawner").getCount() > 0);
+        assertTrue(farmProfiler.histogram("enemy/Magpie").getCount() > 0);
+    }
+}
@@ -0,0 +1,105 @@
+package builder.npc;
+
+import builder.GameState;
+import builder.JavaBeanGameState;
+import builder.entities.npc.Npc;
+import builder.entities.npc.NpcManager;
+import builder.entities.npc.enemies.Enemy;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.inventory.TinyInventory;
+import builder.player.ChickenFarmer;
+import builder.world.BeanWorld;
+import builder.world.WorldBuilder;
+
+import engine.EngineState;
+import engine.renderer.Dimensions;
+import engine.renderer.TileGrid;
+
+import scenarios.mocks.MockEngineState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * A window of grass and cabbages, with a player, npcs and enemies, ticked as the farm ticks them.
+ * Built the same way every time from the same random numbers, so that two fields ticked
+ * differently can be compared tick by tick.
+ */
+class CabbageField {
+
+    static final Dimensions DIMENSIONS = new TileGrid(25, 800);
+
+    final BeanWorld world = WorldBuilder.empty();
+    final ChickenFarmer player = new ChickenFarmer(400, 400);
+    final TinyInventory inventory = new TinyInventory(5, 40, 40);
+    final NpcManager npcs = new NpcManager();
+    final EnemyManager enemies = new EnemyManager(DIMENSIONS);
+    final GameState game = new JavaBeanGameState(world, player, inventory, npcs, enemies);
+
+    /**
+     * Construct a field with a tile every 32 pixels, each a tilled dirt tile carrying a cabbage
+     * with a chance of one in the given number, and otherwise grass.
+     *
+     * @param random The random numbers to plant cabbages by.
+     * @param cabbageOneIn One in how many tiles carry a cabbage.
+     */
+    CabbageField(Random random, int cabbageOneIn) {
+        for (int x = 0; x < 800; x += 32) {
+            for (int y = 0; y < 800; y += 32) {
+                if (random.nextInt(cabbageOneIn) == 0) {
+                    Dirt dirt = new Dirt(x, y);
+                    dirt.till();
+                    dirt.placeOn(new Cabbage(x, y));
+                    world.place(dirt);
+                } else {
+                    world.place(new Grass(x, y));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tick as the farm does: npcs, then enemies, then the world, then (if interacting) npcs and
+     * enemies interact, then clean up.
+     *
+     * @param tick The tick number.
+     * @param interact Whether npcs and enemies interact after ticking.
+     */
+    void tick(int tick, boolean interact) {
+        EngineState state = new MockEngineState(DIMENSIONS, tick);
+        npcs.tick(state, game);
+        enemies.tick(state, game);
+        world.tick(state, game);
+        if (interact) {
+            npcs.interact(state, game);
+            enemies.interact(state, game);
+        }
+        npcs.cleanup();
+        enemies.cleanup();
+    }
+
+    /**
+     * Describe the inventory, every npc and bird, and the number of cabbages left.
+     *
+     * @param describer Describes an npc or bird.
+     * @return A line describing each.
+     */
+    List<String> describe(Function<Npc, String> describer) {
+        List<String> result = new ArrayList<>();
+        result.add("coins " + inventory.getCoins() + " food " + inventory.getFood());
+        for (Npc npc : npcs.getNpcs()) {
+            result.add(describer.apply(npc));
+        }
+        for (Enemy bird : enemies.getBirds()) {
+            result.add(describer.apply(bird));
+        }
+        result.add("cabbages " + world.tileSelector(tile -> tile.hasStacked(Cabbage.class))
+                .size());
+        return result;
+    }
+}
@@ -0,0 +1,300 @@
+package builder.npc;
+
+import builder.entities.npc.BeeHive;
+import builder.entities.npc.Expirable;
+import builder.entities.npc.GuardBee;
+import builder.entities.npc.Npc;
+import builder.entities.npc.NpcPool;
+import builder.entities.npc.enemies.Eagle;
+import builder.entities.npc.enemies.Enemy;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.npc.enemies.Magpie;
+import builder.entities.npc.enemies.Pigeon;
+import builder.entities.npc.spawners.EagleSpawner;
+import builder.entities.npc.spawners.MagpieSpawner;
+import builder.entities.npc.spawners.PigeonSpawner;
+import builder.player.ChickenFarmer;
+import builder.timing.TrackedFixedTimer;
+
+import engine.game.HasPosition;
+import engine.game.Position;
+import engine.timing.FixedTimer;
+
+import org.junit.Test;
+import scenarios.mocks.MockEngineState;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the NpcPool class and the npcs it recycles.
+ * Tests that a recycled npc is indistinguishable from a newly constructed one, and that pooling
+ * birds and bees does not change how a game plays out.
+ */
+public class NpcPoolTest {
+
+    /** A field of cabbages with hives defending it from spawned birds. */
+    private static class Aviary extends CabbageField {
+
+        private Aviary(int capacity) {
+            this(capacity, new Random(19));
+        }
+
+        private Aviary(int capacity, Random random) {
+            super(random, 3);
+            npcs.getGuardBeePool().setCapacity(capacity);
+            enemies.getPigeonPool().setCapacity(capacity);
+            enemies.getMagpiePool().setCapacity(capacity);
+            enemies.getEaglePool().setCapacity(capacity);
+            enemies.add(new PigeonSpawner(0, 0, 7));
+            enemies.add(new PigeonSpawner(780, 780, 11));
+            enemies.add(new MagpieSpawner(780, 0, 13));
+            enemies.add(new EagleSpawner(0, 780, 17));
+            for (int i = 0; i < 8; i++) {
+                npcs.addNpc(new BeeHive(random.nextInt(800), random.nextInt(800)));
+            }
+        }
+
+        /** Tick as the farm does, topping up coins and food every 50 ticks. */
+        private void tick(int tick) {
+            tick(tick, true);
+            if (tick % 50 == 0) {
+                inventory.addCoins(5);
+                inventory.addFood(5);
+            }
+        }
+
+        private List<String> describe() {
+            return describe(NpcPoolTest::describe);
+        }
+    }
+
+    /** Describe everything about an npc a newly constructed npc should agree on. */
+    private static String describe(Npc npc) {
+        String result = npc.getClass().getSimpleName() + "@" + npc.getX() + "," + npc.getY()
+                + " " + npc.getDirection() + " " + npc.getSpeed() + " "
+                + npc.getSprite().getLabel() + " " + npc.isMarkedForRemoval();
+        if (npc instanceof Expirable expirable) {
+            FixedTimer lifespan = expirable.getLifespan();
+            result += " life " + ((TrackedFixedTimer) lifespan).getDuration()
+                    + "/" + ((TrackedFixedTimer) lifespan).getCurrent();
+        }
+        if (npc instanceof GuardBee bee) {
+            result += " from " + bee.getSpawnX() + "," + bee.getSpawnY()
+                    + " to " + describe(bee.getTrackedTarget());
+        } else if (npc instanceof Pigeon pigeon) {
+            result += " from " + pigeon.getSpawnX() + "," + pigeon.getSpawnY()
+                    + " to " + describe(pigeon.getTrackedTarget()) + " " + pigeon.isAttacking();
+        } else if (npc instanceof Magpie magpie) {
+            result += " from " + magpie.getSpawnX() + "," + magpie.getSpawnY()
+                    + " to " + describe(magpie.getTrackedTarget()) + " " + magpie.isAttacking()
+                    + " coins " + magpie.getCoins();
+        } else if (npc instanceof Eagle eagle) {
+            result += " from " + eagle.getSpawnX() + "," + eagle.getSpawnY()
+                    + " to " + describe(eagle.getTrackedTarget()) + " " + eagle.isAttacking()
+                    + " food " + eagle.getFood();
+        }
+        return result;
+    }
+
+    private static String describe(HasPosition target) {
+        return target == null ? "nothing" : target.getX() + "," + target.getY();
+    }
+
+    /**
+     * Tests that obtaining an npc reuses a released npc if there is one, counting hits and misses.
+     */
+    @Test
+    public void testObtainReusesReleased() {
+        ChickenFarmer player = new ChickenFarmer(400, 400);
+        NpcPool<Magpie> pool = new NpcPool<>(Magpie.class, Magpie::new);
+        Magpie first = pool.obtain(0, 0, player);
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, first.getGeneration());
+        String id = first.getID();
+
+        first.markForRemoval();
+        assertTrue(pool.release(first));
+        assertEquals(1, pool.size());
+        Magpie second = pool.obtain(100, 200, player);
+        assertSame(first, second);
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.size());
+        assertEquals(1, second.getGeneration());
+        assertFalse(second.isMarkedForRemoval());
+        assertNotEquals("A reused npc should be identified as a new npc", id, second.getID());
+
+        pool.obtain(0, 0, player);
+        assertEquals(2, pool.getMisses());
+    }
+
+    /**
+     * Tests that an npc released twice is only accepted by the pool once.
+     */
+    @Test
+    public void testReleaseTwiceIgnored() {
+        NpcPool<Pigeon> pool = new NpcPool<>(Pigeon.class, Pigeon::new);
+        Pigeon pigeon = new Pigeon(0, 0, null);
+        assertTrue(pool.release(pigeon));
+        assertFalse(pool.release(pigeon));
+        assertEquals(1, pool.size());
+        assertSame(pigeon, pool.obtain(0, 0, null));
+        assertNotSame(pigeon, pool.obtain(0, 0, null));
+    }
+
+    /**
+     * Tests that only npcs of exactly the pooled type are accepted, up to the capacity.
+     */
+    @Test
+    public void testReleaseRejected() {
+        NpcPool<Pigeon> pool = new NpcPool<>(Pigeon.class, Pigeon::new, 1);
+        assertFalse(pool.release(new Pigeon(0, 0, null) {}));
+        assertFalse(pool.release(new Eagle(0, 0, new Position(0, 0))));
+        assertTrue(pool.release(new Pigeon(0, 0, null)));
+        assertFalse("A full pool should reject npcs", pool.release(new Pigeon(0, 0, null)));
+
+        pool.setCapacity(0);
+        assertEquals(0, pool.size());
+        assertFalse(pool.release(new Pigeon(0, 0, null)));
+    }
+
+    /**
+     * Tests that a pool cannot have a negative capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNegativeCapacity() {
+        new NpcPool<>(Pigeon.class, Pigeon::new, -1);
+    }
+
+    /**
+     * Tests that a respawned pigeon is in the same state as a newly constructed pigeon.
+     */
+    @Test
+    public void testPigeonRespawn() {
+        Position target = new Position(300, 40);
+        Pigeon used = new Pigeon(700, 700, new Position(0, 0));
+        used.setAttacking(false);
+        used.setSpeed(9);
+        used.setDirection(123);
+        used.getLifespan().tick();
+        used.respawn(20, 500, target);
+        assertEquals(describe(new Pigeon(20, 500, target)), describe(used));
+
+        used.setLifespan(new FixedTimer(5));
+        used.respawn(20, 500, null);
+        assertEquals(describe(new Pigeon(20, 500, null)), describe(used));
+    }
+
+    /**
+     * Tests that a respawned magpie is in the same state as a newly constructed magpie.
+     */
+    @Test
+    public void testMagpieRespawn() {
+        ChickenFarmer player = new ChickenFarmer(400, 400);
+        Magpie used = new Magpie(700, 700, new Position(0, 0));
+        used.setAttacking(false);
+        used.setCoins(3);
+        used.setDirection(17);
+        used.getLifespan().tick();
+        used.respawn(20, 500, player);
+        assertEquals(describe(new Magpie(20, 500, player)), describe(used));
+    }
+
+    /**
+     * Tests that a respawned eagle is in the same state as a newly constructed eagle.
+     */
+    @Test
+    public void testEagleRespawn() {
+        ChickenFarmer player = new ChickenFarmer(400, 400);
+        Eagle used = new Eagle(700, 700, new Position(0, 0));
+        used.setAttacking(false);
+        used.setFood(3);
+        used.setSpeed(4);
+        used.getLifespan().tick();
+        used.respawn(20, 500, player);
+        assertEquals(describe(new Eagle(20, 500, player)), describe(used));
+    }
+
+    /**
+     * Tests that a respawned guard bee is in the same state as a newly constructed guard bee.
+     */
+    @Test
+    public void testGuardBeeRespawn() {
+        Pigeon target = new Pigeon(100, 100, null);
+        GuardBee used = new GuardBee(700, 700, new Position(0, 0));
+        used.setDirection(250);
+        used.getLifespan().tick();
+        used.respawn(20, 500, target);
+        assertEquals(describe(new GuardBee(20, 500, target)), describe(used));
+    }
+
+    /**
+     * Tests that a bee whose enemy is removed and then reused keeps heading to where the enemy
+     * was when the bee last ticked, rather than following the reused enemy.
+     */
+    @Test
+    public void testGuardBeeIgnoresReusedTarget() {
+        CabbageField field = new CabbageField(new Random(19), 3);
+        NpcPool<Pigeon> pool = new NpcPool<>(Pigeon.class, Pigeon::new);
+        Pigeon pigeon = pool.obtain(100, 100, null);
+        pigeon.setX(150);
+        GuardBee bee = new GuardBee(0, 0, pigeon);
+        assertSame(pigeon, bee.getTrackedTarget());
+
+        pigeon.setY(120);
+        pigeon.markForRemoval();
+        bee.tick(new MockEngineState(CabbageField.DIMENSIONS), field.game);
+        assertSame("A removed enemy is still tracked", pigeon, bee.getTrackedTarget());
+        pigeon.setY(140);
+        pool.release(pigeon);
+        assertSame(pigeon, pool.obtain(600, 700, null));
+        HasPosition target = bee.getTrackedTarget();
+        assertNotSame(pigeon, target);
+        assertEquals(150, target.getX());
+        assertEquals(120, target.getY());
+        assertEquals("Reading the target does not change it",
+                     120, bee.getTrackedTarget().getY());
+    }
+
+    /**
+     * Tests that the managers spawn birds and bees from their pools, and release them once
+     * removed.
+     */
+    @Test
+    public void testManagersUsePools() {
+        Aviary aviary = new Aviary(NpcPool.DEFAULT_CAPACITY);
+        for (int tick = 0; tick < 1500; tick++) {
+            aviary.tick(tick);
+        }
+        EnemyManager enemies = aviary.enemies;
+        assertTrue("Pigeons should be reused", enemies.getPigeonPool().getHits() > 0);
+        assertTrue("Magpies should be reused", enemies.getMagpiePool().getHits() > 0);
+        assertTrue("Eagles should be reused", enemies.getEaglePool().getHits() > 0);
+        assertTrue("Bees should be reused", aviary.npcs.getGuardBeePool().getHits() > 0);
+        for (Enemy bird : enemies.getBirds()) {
+            assertFalse(bird.isMarkedForRemoval());
+        }
+    }
+
+    /**
+     * Tests that a game with pooled birds and bees plays out exactly like one without.
+     */
+    @Test
+    public void testPooledMatchesUnpooled() {
+        Aviary unpooled = new Aviary(0);
+        Aviary pooled = new Aviary(NpcPool.DEFAULT_CAPACITY);
+        for (int tick = 0; tick < 2000; tick++) {
+            unpooled.tick(tick);
+            pooled.tick(tick);
+            assertEquals("At tick " + tick, unpooled.describe(), pooled.describe());
+        }
+        assertEquals(0, unpooled.enemies.getPigeonPool().getHits());
+        assertEquals(0, unpooled.npcs.getGuardBeePool().getHits());
+        assertTrue(pooled.enemies.getPigeonPool().getHits() > 0);
+        assertTrue(pooled.npcs.getGuardBeePool().getHits() > 0);
+    }
+}
@@ -0,0 +1,111 @@
+package builder.npc;
+
+import builder.entities.npc.Npc;
+import builder.entities.npc.Steering;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Steering class.
+ * Tests that steering without trigonometry gives exactly the directions and steps the
+ * trigonometry it replaces gives, so npcs follow the same pixel paths.
+ */
+public class SteeringTest {
+
+    private static int trigDirection(int deltaX, int deltaY) {
+        return (int) Math.toDegrees(Math.atan2(deltaY, deltaX));
+    }
+
+    private static int trigStepX(int direction, double speed) {
+        return (int) Math.round(Math.cos(Math.toRadians(direction)) * speed);
+    }
+
+    private static int trigStepY(int direction, double speed) {
+        return (int) Math.round(Math.sin(Math.toRadians(direction)) * speed);
+    }
+
+    /**
+     * Tests the directions along the axes and diagonals.
+     */
+    @Test
+    public void testAxesAndDiagonals() {
+        assertEquals(0, Steering.directionTo(0, 0));
+        assertEquals(0, Steering.directionTo(7, 0));
+        assertEquals(180, Steering.directionTo(-7, 0));
+        assertEquals(90, Steering.directionTo(0, 7));
+        assertEquals(-90, Steering.directionTo(0, -7));
+        assertEquals(trigDirection(7, 7), Steering.directionTo(7, 7));
+        assertEquals(trigDirection(-7, 7), Steering.directionTo(-7, 7));
+        assertEquals(trigDirection(-7, -7), Steering.directionTo(-7, -7));
+        assertEquals(trigDirection(7, -7), Steering.directionTo(7, -7));
+    }
+
+    /**
+     * Tests that every direction to a position on or near the screen matches the trigonometry.
+     */
+    @Test
+    public void testDirectionMatchesTrigonometry() {
+        for (int deltaX = -400; deltaX <= 400; deltaX++) {
+            for (int deltaY = -400; deltaY <= 400; deltaY++) {
+                assertEquals(deltaX + "," + deltaY, trigDirection(deltaX, deltaY),
+                        Steering.directionTo(deltaX, deltaY));
+            }
+        }
+    }
+
+    /**
+     * Tests that directions to far away positions, beyond the tables, match the trigonometry.
+     */
+    @Test
+    public void testFarDirectionMatchesTrigonometry() {
+        Random random = new Random(20);
+        for (int i = 0; i < 100000; i++) {
+            int deltaX = random.nextInt(10000) - 5000;
+            int deltaY = random.nextInt(10000) - 5000;
+            assertEquals(deltaX + "," + deltaY, trigDirection(deltaX, deltaY),
+                    Steering.directionTo(deltaX, deltaY));
+        }
+        assertEquals(trigDirection(Integer.MAX_VALUE, 1),
+                Steering.directionTo(Integer.MAX_VALUE, 1));
+        assertEquals(trigDirection(-1, Integer.MIN_VALUE),
+                Steering.directionTo(-1, Integer.MIN_VALUE));
+    }
+
+    /**
+     * Tests that steps in every direction at whole and fractional speeds match the trigonometry.
+     */
+    @Test
+    public void testStepMatchesTrigonometry() {
+        double[] speeds = {0, 1, 2, 3, 4, 8, 9, 12, 1.5, -2};
+        for (double speed : speeds) {
+            for (int direction = -1000; direction <= 1000; direction++) {
+                String message = direction + " at " + speed;
+                assertEquals(message, trigStepX(direction, speed),
+                        Steering.stepX(direction, speed));
+                assertEquals(message, trigStepY(direction, speed),
+                        Steering.stepY(direction, speed));
+            }
+            assertEquals(trigStepX(Integer.MIN_VALUE, speed),
+                    Steering.stepX(Integer.MIN_VALUE, speed));
+            assertEquals(trigStepY(Integer.MAX_VALUE, speed),
+                    Steering.stepY(Integer.MAX_VALUE, speed));
+        }
+    }
+
+    /**
+     * Tests that an npc moves by the looked up steps.
+     */
+    @Test
+    public void testNpcMovesBySteps() {
+        Npc npc = new Npc(100, 100);
+        npc.setSpeed(4);
+        npc.setDirection(Steering.directionTo(-30, 11));
+        npc.move();
+        assertEquals(100 + trigStepX(npc.getDirection(), 4), npc.getX());
+        assertEquals(100 + trigStepY(npc.getDirection(), 4), npc.getY());
+    }
+}
@@ -0,0 +1,177 @@
+package builder.npc;
+
+import builder.GameState;
+import builder.entities.npc.BeeHive;
+import builder.entities.npc.GuardBee;
+import builder.entities.npc.Npc;
+import builder.entities.npc.TwoPhaseTickable;
+import builder.entities.npc.TwoPhaseTicker;
+import builder.entities.npc.enemies.Eagle;
+import builder.entities.npc.enemies.Enemy;
+import builder.entities.npc.enemies.Magpie;
+import builder.entities.npc.enemies.Pigeon;
+
+import engine.EngineState;
+
+import org.junit.Test;
+import scenarios.mocks.MockEngineState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TwoPhaseTicker class.
+ * Tests that large swarms ticked in parallel end up exactly as if they were ticked serially.
+ */
+public class TwoPhaseTickerTest {
+
+    /** A swarm of birds and bees over a field of cabbages, built the same way every time. */
+    private static class Swarm extends CabbageField {
+
+        private Swarm(TwoPhaseTicker ticker) {
+            this(ticker, new Random(16));
+        }
+
+        private Swarm(TwoPhaseTicker ticker, Random random) {
+            super(random, 4);
+            npcs.setTicker(ticker);
+            enemies.setTicker(ticker);
+            List<Enemy> birds = enemies.getBirds();
+            for (int i = 0; i < 600; i++) {
+                int x = random.nextInt(800);
+                int y = random.nextInt(800);
+                switch (random.nextInt(3)) {
+                    case 0 -> birds.add(new Pigeon(x, y, null));
+                    case 1 -> birds.add(new Magpie(x, y, player));
+                    default -> birds.add(new Eagle(x, y, player));
+                }
+            }
+            for (int i = 0; i < 300; i++) {
+                Enemy target = birds.get(random.nextInt(birds.size()));
+                npcs.addNpc(new GuardBee(random.nextInt(800), random.nextInt(800), target));
+            }
+            npcs.addNpc(new BeeHive(64, 64));
+        }
+
+        /** Tick as the farm does, without npcs and enemies interacting. */
+        private void tick(int tick) {
+            tick(tick, false);
+        }
+
+        private List<String> describe() {
+            List<String> result = describe(Swarm::describe);
+            List<Enemy> near = new ArrayList<>();
+            enemies.enemiesWithin(400, 400, 200, near);
+            for (Enemy bird : near) {
+                result.add("near " + describe(bird));
+            }
+            return result;
+        }
+
+        private static String describe(Npc npc) {
+            return npc.getClass().getSimpleName() + "@" + npc.getX() + "," + npc.getY() + " "
+                    + npc.getDirection() + " " + npc.getSprite().getLabel() + " "
+                    + npc.isMarkedForRemoval();
+        }
+    }
+
+    /**
+     * Tests that a swarm planned in parallel ends up exactly like a swarm ticked serially.
+     */
+    @Test
+    public void testParallelMatchesSerial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Swarm serial = new Swarm(new TwoPhaseTicker(pool, Integer.MAX_VALUE));
+            Swarm parallel = new Swarm(new TwoPhaseTicker(pool, 1));
+            assertEquals(serial.describe(), parallel.describe());
+            for (int tick = 0; tick < 150; tick++) {
+                serial.tick(tick);
+                parallel.tick(tick);
+                assertEquals("At tick " + tick, serial.describe(), parallel.describe());
+            }
+            assertTrue("Bees should have hit birds",
+                    serial.enemies.getBirds().size() < 600);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that only populations of at least the threshold are planned in parallel, and never on
+     * a single thread.
+     */
+    @Test
+    public void testIsParallel() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            TwoPhaseTicker ticker = new TwoPhaseTicker(pool, 100);
+            assertFalse(ticker.isParallel(99));
+            assertTrue(ticker.isParallel(100));
+            assertFalse(new TwoPhaseTicker(single, 100).isParallel(1000));
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+    }
+
+    /**
+     * Tests that every two phase npc is planned exactly once and other npcs are skipped.
+     */
+    @Test
+    public void testPlansEachNpcOnce() {
+        List<CountingNpc> counted = new ArrayList<>();
+        List<Npc> npcs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            CountingNpc npc = new CountingNpc();
+            counted.add(npc);
+            npcs.add(npc);
+            npcs.add(new Npc(0, 0) {
+                @Override
+                public void tick(EngineState state, GameState game) {
+                    fail("Npcs that are not two phase should not be planned");
+                }
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new TwoPhaseTicker(pool, 1).plan(
+                    npcs, new MockEngineState(CabbageField.DIMENSIONS), null);
+        } finally {
+            pool.shutdown();
+        }
+        for (CountingNpc npc : counted) {
+            assertEquals(1, npc.plans);
+        }
+    }
+
+    /**
+     * Tests that the threshold must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveThreshold() {
+        new TwoPhaseTicker(ForkJoinPool.commonPool(), 0);
+    }
+
+    /** An npc counting the number of times it is planned. */
+    private static class CountingNpc extends Npc implements TwoPhaseTickable {
+        private int plans = 0;
+
+        CountingNpc() {
+            super(0, 0);
+        }
+
+        @Override
+        public void plan(EngineState state, GameState game) {
+            plans++;
+        }
+
+        @Override
+        public void apply(EngineState state, GameState game) {}
+    }
+}
@@ -3,16 +3,27 @@ package builder.npc.enemies;
 import builder.JavaBeanGameState;
 import builder.entities.npc.NpcManager;
 import builder.entities.npc.enemies.Eagle;
+import builder.entities.npc.enemies.Enemy;
 import builder.entities.npc.enemies.EnemyManager;
 import builder.entities.npc.enemies.Magpie;
 import builder.entities.npc.enemies.Pigeon;
+import builder.entities.npc.spawners.EagleSpawner;
+import builder.entities.npc.spawners.MagpieSpawner;
+import builder.entities.npc.spawners.PigeonSpawner;
+import builder.entities.npc.spawners.Spawner;
 import builder.inventory.TinyInventory;
 import builder.player.ChickenFarmer;
+import builder.timing.TimingWheel;
+import builder.timing.TrackedRepeatingTimer;
 import builder.world.BeanWorld;
 import org.junit.Before;
 import org.junit.Test;
 import scenarios.mocks.MockEngineState;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /**
@@ -471,4 +482,189 @@ public class EnemyManagerTest {
         assertTrue("Pigeon.tick must be invoked to expire lifespan",
                    pigeon.isMarkedForRemoval());
     }
+
+    /**
+     * Tests nearestEnemyWithin finds the closest enemy inside the radius only.
+     */
+    @Test
+    public void testNearestEnemyWithin() {
+        Pigeon near = new Pigeon(120, 100);
+        Magpie far = new Magpie(160, 100, player);
+        enemyManager.getBirds().add(far);
+        enemyManager.getBirds().add(near);
+
+        assertSame(near, enemyManager.nearestEnemyWithin(100, 100, 100));
+        assertNull("Distance equal to radius is not within",
+                   enemyManager.nearestEnemyWithin(100, 100, 20));
+        assertNull(enemyManager.nearestEnemyWithin(1000, 1000, 100));
+    }
+
+    /**
+     * Tests queries follow enemies as they move and as the bird list changes.
+     */
+    @Test
+    public void testQueriesTrackMovementAndMembership() {
+        Pigeon pigeon = new Pigeon(100, 100);
+        enemyManager.getBirds().add(pigeon);
+        assertSame(pigeon, enemyManager.nearestEnemyWithin(100, 100, 10));
+
+        pigeon.setX(900);
+        pigeon.setY(900);
+        assertNull(enemyManager.nearestEnemyWithin(100, 100, 10));
+        assertSame(pigeon, enemyManager.nearestEnemyWithin(905, 905, 10));
+
+        enemyManager.getBirds().remove(pigeon);
+        assertNull(enemyManager.nearestEnemyWithin(905, 905, 10));
+
+        pigeon.setX(100);
+        assertNull("Removed enemies are no longer tracked",
+                   enemyManager.nearestEnemyWithin(100, 900, 10));
+    }
+
+    /**
+     * Tests queries follow birds replaced in the list, birds listed twice, and bulk changes to the
+     * list.
+     */
+    @Test
+    public void testQueriesTrackReplacedAndBulkChanges() {
+        Pigeon pigeon = new Pigeon(100, 100);
+        Pigeon replacement = new Pigeon(300, 300);
+        List<Enemy> birds = enemyManager.getBirds();
+        birds.add(pigeon);
+        assertSame(pigeon, enemyManager.nearestEnemyWithin(100, 100, 10));
+
+        birds.set(0, replacement);
+        assertNull(enemyManager.nearestEnemyWithin(100, 100, 10));
+        assertSame(replacement, enemyManager.nearestEnemyWithin(300, 300, 10));
+
+        birds.add(replacement);
+        birds.remove(replacement);
+        assertSame("A bird listed twice is kept until removed twice",
+                   replacement, enemyManager.nearestEnemyWithin(300, 300, 10));
+
+        birds.addAll(List.of(pigeon, pigeon));
+        birds.removeIf(bird -> bird == replacement);
+        assertNull(enemyManager.nearestEnemyWithin(300, 300, 10));
+        assertSame(pigeon, enemyManager.nearestEnemyWithin(100, 100, 10));
+
+        birds.remove(pigeon);
+        birds.set(0, replacement);
+        assertSame(replacement, enemyManager.nearestEnemyWithin(300, 300, 10));
+        assertNull(enemyManager.nearestEnemyWithin(100, 100, 10));
+    }
+
+    /**
+     * Tests firstEnemyWithin finds the first listed enemy inside the radius, not the nearest.
+     */
+    @Test
+    public void testFirstEnemyWithin() {
+        Pigeon far = new Pigeon(160, 100);
+        Pigeon near = new Pigeon(120, 100);
+        enemyManager.getBirds().add(far);
+        enemyManager.getBirds().add(near);
+
+        assertSame(far, enemyManager.firstEnemyWithin(100, 100, 100));
+        assertSame(near, enemyManager.firstEnemyWithin(100, 100, 50));
+        assertNull(enemyManager.firstEnemyWithin(1000, 1000, 100));
+    }
+
+    /**
+     * Tests firstEnemyWithin agrees with a search of the birds in order as birds are added,
+     * inserted, replaced, removed and moved.
+     */
+    @Test
+    public void testFirstEnemyWithinMatchesListOrder() {
+        Random random = new Random(4);
+        List<Enemy> birds = enemyManager.getBirds();
+        for (int step = 0; step < 3000; step++) {
+            Pigeon pigeon = new Pigeon(random.nextInt(900) - 50, random.nextInt(900) - 50);
+            int action = birds.isEmpty() ? 0 : random.nextInt(6);
+            switch (action) {
+                case 0 -> birds.add(pigeon);
+                case 1 -> birds.add(random.nextInt(birds.size() + 1), pigeon);
+                case 2 -> birds.set(random.nextInt(birds.size()), pigeon);
+                case 3 -> birds.add(birds.get(random.nextInt(birds.size())));
+                case 4 -> birds.remove(random.nextInt(birds.size()));
+                default -> birds.get(random.nextInt(birds.size())).setX(random.nextInt(800));
+            }
+            int x = random.nextInt(800);
+            int y = random.nextInt(800);
+            int radius = random.nextInt(200);
+            Enemy expected = null;
+            for (Enemy bird : birds) {
+                if (bird.distanceFrom(x, y) < radius) {
+                    expected = bird;
+                    break;
+                }
+            }
+            assertSame("At step " + step, expected, enemyManager.firstEnemyWithin(x, y, radius));
+        }
+    }
+
+    /**
+     * Tests enemiesWithin collects every enemy inside the radius.
+     */
+    @Test
+    public void testEnemiesWithin() {
+        Pigeon inside = new Pigeon(100, 140);
+        Magpie alsoInside = new Magpie(60, 100, player);
+        Pigeon outside = new Pigeon(300, 300);
+        enemyManager.getBirds().add(inside);
+        enemyManager.getBirds().add(alsoInside);
+        enemyManager.getBirds().add(outside);
+
+        List<Enemy> result = new ArrayList<>();
+        enemyManager.enemiesWithin(100, 100, 50, result);
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(inside));
+        assertTrue(result.contains(alsoInside));
+    }
+
+    private static void addSpawners(EnemyManager enemies) {
+        enemies.add(new MagpieSpawner(10, 10, 7));
+        enemies.add(new PigeonSpawner(20, 20, 5));
+        enemies.add(new EagleSpawner(30, 30, 7));
+        enemies.add(new PigeonSpawner(40, 40, 1));
+    }
+
+    /**
+     * Tests that spawners scheduled on a timing wheel spawn the same birds on the same ticks, in
+     * the same order, as spawners ticking their own timers.
+     */
+    @Test
+    public void testSpawnersOnTimingWheelSpawnAsTicked() {
+        addSpawners(enemyManager);
+        EnemyManager timed = new EnemyManager(mockEngine.getDimensions());
+        addSpawners(timed);
+        TimingWheel timers = new TimingWheel();
+        JavaBeanGameState timedState = new JavaBeanGameState(builder.world.WorldBuilder.empty(),
+                new ChickenFarmer(200, 200), new TinyInventory(5, 10, 10), new NpcManager(),
+                timed, timers);
+
+        for (int tick = 0; tick < 60; tick++) {
+            timers.advance();
+            enemyManager.tick(mockEngine, gameState);
+            timed.tick(mockEngine, timedState);
+
+            assertEquals("Birds at tick " + tick,
+                    birdTypes(enemyManager.getBirds()), birdTypes(timed.getBirds()));
+            for (int i = 0; i < timed.getSpawners().size(); i++) {
+                Spawner spawner = timed.getSpawners().get(i);
+                assertEquals(
+                        ((TrackedRepeatingTimer) enemyManager.getSpawners().get(i).getTimer())
+                                .getCurrent(),
+                        ((TrackedRepeatingTimer) spawner.getTimer()).getCurrent());
+                assertTrue(((TrackedRepeatingTimer) spawner.getTimer()).isScheduled());
+            }
+        }
+    }
+
+    private static List<String> birdTypes(List<Enemy> birds) {
+        List<String> types = new ArrayList<>();
+        for (Enemy bird : birds) {
+            types.add(bird.getClass().getSimpleName() + "@" + bird.getX() + "," + bird.getY());
+        }
+        return types;
+    }
 }
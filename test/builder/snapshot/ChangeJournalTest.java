@@ -0,0 +1,196 @@
+package builder.snapshot;
+
+import builder.JavaBeanFarm;
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.headless.HeadlessRunner;
+import builder.world.BeanWorld;
+import builder.world.WorldBuilder;
+import builder.world.WorldLoadException;
+
+import engine.renderer.Dimensions;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static builder.snapshot.SavedFarms.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ChangeJournal class.
+ * Tests that a save followed by checkpoints restores a farm exactly, that checkpoints only grow
+ * with the changes made, and that checkpoints of another farm are rejected.
+ */
+public class ChangeJournalTest {
+
+    private static byte[] checkpoint(JavaBeanFarm game) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.checkpoint(Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static JavaBeanFarm load(byte[] saved, List<byte[]> checkpoints) throws IOException {
+        ReadableByteChannel[] channels = new ReadableByteChannel[checkpoints.size()];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = Channels.newChannel(new ByteArrayInputStream(checkpoints.get(i)));
+        }
+        return JavaBeanFarm.load(Channels.newChannel(new ByteArrayInputStream(saved)), channels);
+    }
+
+    /**
+     * Tests that a farm loaded from a save and its checkpoints matches and plays out exactly like
+     * the farm they were written from.
+     */
+    @Test
+    public void testCheckpointsContinueIdentically() throws IOException, WorldLoadException {
+        for (String map : List.of("bigTest", "beeTest", "magpieTest")) {
+            Dimensions dimensions = map.equals("bigTest") ? DIMENSIONS : SMALL_DIMENSIONS;
+            JavaBeanFarm original = farm(map, dimensions);
+            HeadlessRunner originalRunner = new HeadlessRunner(original, dimensions);
+            originalRunner.setScript(WANDER);
+            originalRunner.step(200);
+            byte[] saved = save(original);
+            List<byte[]> checkpoints = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                originalRunner.step(150);
+                checkpoints.add(checkpoint(original));
+            }
+
+            JavaBeanFarm loaded = load(saved, checkpoints);
+            HeadlessRunner loadedRunner = new HeadlessRunner(loaded, dimensions);
+            loadedRunner.setScript((tick, input) -> WANDER.apply(tick + 800, input));
+            for (int tick = 0; tick < 300; tick++) {
+                originalRunner.step(1);
+                loadedRunner.step(1);
+                assertEquals(map + " at tick " + tick, frame(original), frame(loaded));
+            }
+            assertArrayEquals(map, save(original), save(loaded));
+        }
+    }
+
+    /**
+     * Tests that a loaded farm continues the chain of checkpoints it was loaded from.
+     */
+    @Test
+    public void testLoadedFarmContinuesCheckpoints() throws IOException, WorldLoadException {
+        JavaBeanFarm original = farm("bigTest", DIMENSIONS);
+        HeadlessRunner originalRunner = new HeadlessRunner(original, DIMENSIONS);
+        originalRunner.setScript(WANDER);
+        originalRunner.step(100);
+        byte[] saved = save(original);
+        originalRunner.step(200);
+        List<byte[]> checkpoints = new ArrayList<>();
+        checkpoints.add(checkpoint(original));
+
+        JavaBeanFarm loaded = load(saved, checkpoints);
+        HeadlessRunner loadedRunner = new HeadlessRunner(loaded, DIMENSIONS);
+        loadedRunner.setScript((tick, input) -> WANDER.apply(tick + 300, input));
+        loadedRunner.step(250);
+        checkpoints.add(checkpoint(loaded));
+
+        originalRunner.step(250);
+        assertArrayEquals(save(original), save(load(saved, checkpoints)));
+    }
+
+    /**
+     * Tests that a checkpoint of a farm with little activity is smaller than a save, even though
+     * a save holds the farm's terrain in a byte a cell.
+     */
+    @Test
+    public void testCheckpointSmallerThanSave() throws IOException, WorldLoadException {
+        JavaBeanFarm game = farm("bigTest", DIMENSIONS);
+        HeadlessRunner runner = new HeadlessRunner(game, DIMENSIONS);
+        runner.step(50);
+        byte[] saved = save(game);
+        runner.step(50);
+        byte[] checkpoint = checkpoint(game);
+
+        assertTrue(checkpoint.length + " byte checkpoint of a " + saved.length + " byte save",
+                checkpoint.length < saved.length);
+    }
+
+    /**
+     * Tests that the journal records each tile placed, changed or removed once, and forgets tiles
+     * placed and removed between checkpoints.
+     */
+    @Test
+    public void testRecordsChanges() throws IOException {
+        Dirt dirt = new Dirt(0, 0);
+        Grass grass = new Grass(32, 0);
+        BeanWorld world = WorldBuilder.empty();
+        world.place(dirt);
+        world.place(grass);
+        ChangeJournal journal = new ChangeJournal(world);
+        assertEquals(0, journal.getPendingChanges());
+
+        dirt.till();
+        dirt.placeOn(new Cabbage(0, 0));
+        assertEquals(1, journal.getPendingChanges());
+
+        Grass placed = new Grass(64, 0);
+        world.place(placed);
+        placed.markForRemoval();
+        grass.markForRemoval();
+        assertEquals(3, journal.getPendingChanges());
+
+        world.cleanup();
+        assertEquals("Tiles placed and removed should be forgotten",
+                2, journal.getPendingChanges());
+    }
+
+    /**
+     * Tests that the journal creates none of its world's terrain, and records each terrain tile
+     * created by the world once.
+     */
+    @Test
+    public void testRecordsCreatedTerrain() throws IOException, WorldLoadException {
+        BeanWorld world = WorldBuilder.fromFile(DIMENSIONS, "resources/testmaps/bigTest.map");
+        int terrain = world.getTerrainCellCount();
+        ChangeJournal journal = new ChangeJournal(world);
+        assertEquals(terrain, world.getTerrainCellCount());
+
+        world.tilesAtPosition(16, 16, DIMENSIONS);
+        world.tilesAtPosition(16, 16, DIMENSIONS);
+        assertEquals(terrain - 1, world.getTerrainCellCount());
+        assertEquals(1, journal.getPendingChanges());
+    }
+
+    /**
+     * Tests that checkpointing a farm before it has been saved fails.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testCheckpointBeforeSave() throws IOException, WorldLoadException {
+        checkpoint(farm("bigTest", DIMENSIONS));
+    }
+
+    /**
+     * Tests that a checkpoint of a different farm is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testRejectsCheckpointOfAnotherFarm() throws IOException, WorldLoadException {
+        JavaBeanFarm big = farm("bigTest", DIMENSIONS);
+        save(big);
+        byte[] checkpoint = checkpoint(big);
+
+        load(save(farm("beeTest", SMALL_DIMENSIONS)), List.of(checkpoint));
+    }
+
+    /**
+     * Tests that a save is rejected in place of a checkpoint.
+     */
+    @Test(expected = IOException.class)
+    public void testRejectsSaveAsCheckpoint() throws IOException, WorldLoadException {
+        JavaBeanFarm game = farm("beeTest", SMALL_DIMENSIONS);
+        byte[] saved = save(game);
+
+        load(saved, List.of(saved));
+    }
+}
@@ -0,0 +1,84 @@
+package builder.snapshot;
+
+import builder.JavaBeanFarm;
+import builder.headless.InputScript;
+import builder.world.WorldLoadException;
+
+import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
+import engine.renderer.TileGrid;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Farms loaded from the test maps, played by a script and saved, for tests which compare a farm
+ * with the farm it was saved from or the farm a recording replays.
+ */
+public final class SavedFarms {
+
+    /** The dimensions of the larger test maps. */
+    public static final Dimensions DIMENSIONS = new TileGrid(25, 800);
+    /** The dimensions of the smaller test maps. */
+    public static final Dimensions SMALL_DIMENSIONS = new TileGrid(10, 800);
+
+    /** Holds a pseudo-random key for a while, moving the mouse and clicking every few ticks. */
+    public static final InputScript WANDER = (tick, input) -> {
+        input.releaseAll();
+        String keys = "wasd12345hcwasd";
+        long phase = (tick / 25) * 2654435761L;
+        input.press(keys.charAt((int) ((phase >>> 8) % keys.length())));
+        input.moveMouse((int) (phase % 800), (int) ((phase >>> 4) % 800));
+        input.setButtons(tick % 3 == 0, false, false);
+    };
+
+    private SavedFarms() {}
+
+    /**
+     * Load the test map and details of the given name.
+     *
+     * @param name The name of the test map.
+     * @param dimensions The dimensions of the test map.
+     * @return A new farm of the test map.
+     * @throws IOException If the test map could not be read.
+     * @throws WorldLoadException If the test map is malformed.
+     */
+    public static JavaBeanFarm farm(String name, Dimensions dimensions)
+            throws IOException, WorldLoadException {
+        return new JavaBeanFarm(dimensions,
+                new FileReader("resources/testmaps/" + name + ".map"),
+                new FileReader("resources/testmaps/" + name + ".details"));
+    }
+
+    /**
+     * Save the farm.
+     *
+     * @param game The farm to save.
+     * @return The saved farm.
+     * @throws IOException If the farm could not be saved.
+     */
+    public static byte[] save(JavaBeanFarm game) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.save(Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Describe every sprite the farm renders, and where, in the order they are rendered.
+     *
+     * @param game The farm to render.
+     * @return A line for each sprite rendered.
+     */
+    public static List<String> frame(JavaBeanFarm game) {
+        List<String> result = new ArrayList<>();
+        for (Renderable renderable : game.render()) {
+            result.add(renderable.getSprite().getGroup() + "/" + renderable.getSprite().getLabel()
+                    + "@" + renderable.getX() + "," + renderable.getY());
+        }
+        return result;
+    }
+}
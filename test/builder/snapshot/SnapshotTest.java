@@ -0,0 +1,282 @@
+package builder.snapshot;
+
+import builder.JavaBeanFarm;
+import builder.entities.npc.BeeHive;
+import builder.entities.npc.GuardBee;
+import builder.entities.npc.NpcManager;
+import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.npc.enemies.Magpie;
+import builder.entities.npc.enemies.Pigeon;
+import builder.entities.npc.spawners.PigeonSpawner;
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.headless.HeadlessRunner;
+import builder.inventory.TinyInventory;
+import builder.inventory.items.Hoe;
+import builder.inventory.items.Pole;
+import builder.player.PlayerManager;
+import builder.timing.TrackedFixedTimer;
+import builder.timing.TrackedRepeatingTimer;
+import builder.world.BeanWorld;
+import builder.world.WorldBuilder;
+import builder.world.WorldLoadException;
+
+import engine.game.Entity;
+import engine.renderer.Dimensions;
+import engine.timing.FixedTimer;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+
+import static builder.snapshot.SavedFarms.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Snapshot class.
+ * Tests that saved farms restore every part of their state, continue identically to the farm
+ * they were saved from, and that malformed snapshots are rejected.
+ */
+public class SnapshotTest {
+
+    private static JavaBeanFarm load(byte[] bytes) throws IOException {
+        return JavaBeanFarm.load(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    private static byte[] write(Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static Snapshot read(byte[] bytes) throws IOException {
+        return Snapshot.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Tests that a loaded farm renders and plays out exactly like the farm it was saved from.
+     */
+    @Test
+    public void testLoadedFarmContinuesIdentically() throws IOException, WorldLoadException {
+        for (String map : List.of("bigTest", "beeTest", "magpieTest", "eagleTest")) {
+            Dimensions dimensions = map.equals("bigTest") ? DIMENSIONS : SMALL_DIMENSIONS;
+            JavaBeanFarm original = farm(map, dimensions);
+            HeadlessRunner originalRunner = new HeadlessRunner(original, dimensions);
+            originalRunner.setScript(WANDER);
+            originalRunner.step(600);
+
+            JavaBeanFarm loaded = load(save(original));
+            HeadlessRunner loadedRunner = new HeadlessRunner(loaded, dimensions);
+            loadedRunner.setScript((tick, input) -> WANDER.apply(tick + 600, input));
+
+            // overlays and the player's sprite are refreshed on the first tick after loading
+            for (int tick = 0; tick < 600; tick++) {
+                originalRunner.step(1);
+                loadedRunner.step(1);
+                assertEquals(map + " at tick " + tick, frame(original), frame(loaded));
+            }
+        }
+    }
+
+    /**
+     * Tests that saving a loaded farm writes exactly the bytes it was loaded from.
+     */
+    @Test
+    public void testResaveIsIdentical() throws IOException, WorldLoadException {
+        JavaBeanFarm original = farm("bigTest", DIMENSIONS);
+        HeadlessRunner runner = new HeadlessRunner(original, DIMENSIONS);
+        runner.setScript(WANDER);
+        runner.step(400);
+
+        byte[] saved = save(original);
+        assertArrayEquals(saved, save(load(saved)));
+    }
+
+    /**
+     * Tests that the state of each part of a farm is restored.
+     */
+    @Test
+    public void testRestoresState() throws IOException {
+        PlayerManager playerManager = new PlayerManager(96, 128);
+
+        Dirt dirt = new Dirt(0, 0);
+        dirt.till();
+        Cabbage cabbage = new Cabbage(0, 0);
+        dirt.placeOn(cabbage);
+        cabbage.setGrowthState(3);
+        for (int i = 0; i < 7; i++) {
+            cabbage.getGrowthTimer().tick();
+        }
+        OreVein vein = new OreVein(32, 0);
+        vein.getOre().setCoins(4);
+        Grass grass = new Grass(64, 0);
+        BeeHive hive = new BeeHive(64, 0);
+        grass.placeOn(hive);
+        hive.setLoaded(false);
+        hive.getReloadTimer().tick();
+        BeanWorld world = WorldBuilder.empty();
+        world.place(dirt);
+        world.place(vein);
+        world.place(grass);
+
+        EnemyManager enemies = new EnemyManager(DIMENSIONS);
+        enemies.setSpawnX(200);
+        enemies.setSpawnY(300);
+        PigeonSpawner spawner = new PigeonSpawner(5, 6, 40);
+        spawner.getTimer().tick();
+        spawner.getTimer().tick();
+        enemies.add(spawner);
+        Pigeon pigeon = new Pigeon(400, 400, dirt);
+        pigeon.setX(300);
+        pigeon.setAttacking(false);
+        pigeon.getLifespan().tick();
+        Magpie magpie = new Magpie(500, 500, playerManager.getPlayer());
+        magpie.setCoins(2);
+        enemies.getBirds().add(pigeon);
+        enemies.getBirds().add(magpie);
+
+        NpcManager npcs = new NpcManager();
+        npcs.addNpc(hive);
+        npcs.addNpc(new GuardBee(64, 0, magpie));
+
+        TinyInventory inventory = new TinyInventory(3, 11, 7);
+        inventory.setItem(0, new Hoe());
+        inventory.setItem(2, new Pole());
+        inventory.setActiveSlot(2);
+
+        Snapshot snapshot = read(write(
+                new Snapshot(DIMENSIONS, playerManager, inventory, world, npcs, enemies)));
+
+        assertEquals(32, snapshot.getDimensions().tileSize());
+        assertEquals(800, snapshot.getDimensions().windowSize());
+        assertEquals(96, snapshot.getPlayerManager().getPlayer().getX());
+        assertEquals(128, snapshot.getPlayerManager().getPlayer().getY());
+
+        assertEquals(3, snapshot.getInventory().getCapacity());
+        assertEquals(11, snapshot.getInventory().getCoins());
+        assertEquals(7, snapshot.getInventory().getFood());
+        assertEquals(2, snapshot.getInventory().getActiveSlot());
+        assertTrue(snapshot.getInventory().getItem(0) instanceof Hoe);
+        assertNull(snapshot.getInventory().getItem(1));
+        assertTrue(snapshot.getInventory().getHolding() instanceof Pole);
+
+        List<Tile> tiles = snapshot.getWorld().allTiles();
+        assertEquals(3, tiles.size());
+        Dirt restoredDirt = (Dirt) tiles.get(0);
+        assertTrue(restoredDirt.isTilled());
+        Cabbage restoredCabbage = (Cabbage) restoredDirt.getStackedEntities().get(0);
+        assertEquals(3, restoredCabbage.getGrowthState());
+        assertEquals(7, restoredCabbage.getGrowthTimer().getCurrent());
+        assertEquals("cabbage:grown", restoredCabbage.getSprite().getLabel());
+        OreVein restoredVein = (OreVein) tiles.get(1);
+        assertEquals(List.of(restoredVein.getOre()), restoredVein.getStackedEntities());
+        assertEquals(4, restoredVein.getOre().getCoins());
+        List<Entity> onGrass = tiles.get(2).getStackedEntities();
+        BeeHive restoredHive = (BeeHive) onGrass.get(0);
+        assertFalse(restoredHive.isLoaded());
+        assertEquals(1, restoredHive.getReloadTimer().getCurrent());
+
+        EnemyManager restoredEnemies = snapshot.getEnemies();
+        assertEquals(200, restoredEnemies.getSpawnX());
+        assertEquals(300, restoredEnemies.getSpawnY());
+        PigeonSpawner restoredSpawner = (PigeonSpawner) restoredEnemies.getSpawners().get(0);
+        assertEquals(5, restoredSpawner.getX());
+        assertEquals(6, restoredSpawner.getY());
+        TrackedRepeatingTimer spawnerTimer = (TrackedRepeatingTimer) restoredSpawner.getTimer();
+        assertEquals(40, spawnerTimer.getInterval());
+        assertEquals(2, spawnerTimer.getCurrent());
+
+        Pigeon restoredPigeon = (Pigeon) restoredEnemies.getBirds().get(0);
+        assertEquals(300, restoredPigeon.getX());
+        assertEquals(400, restoredPigeon.getY());
+        assertEquals(400, restoredPigeon.getSpawnX());
+        assertEquals(pigeon.getDirection(), restoredPigeon.getDirection());
+        assertFalse(restoredPigeon.isAttacking());
+        assertSame(restoredDirt, restoredPigeon.getTrackedTarget());
+        assertEquals(1, ((TrackedFixedTimer) restoredPigeon.getLifespan()).getCurrent());
+        Magpie restoredMagpie = (Magpie) restoredEnemies.getBirds().get(1);
+        assertEquals(2, restoredMagpie.getCoins());
+        assertSame(snapshot.getPlayerManager().getPlayer(), restoredMagpie.getTrackedTarget());
+
+        List<?> restoredNpcs = snapshot.getNpcs().getNpcs();
+        assertSame("Hive should be shared by its tile and the npcs", restoredHive,
+                restoredNpcs.get(0));
+        assertSame(restoredMagpie, ((GuardBee) restoredNpcs.get(1)).getTrackedTarget());
+    }
+
+    /**
+     * Tests that writing a world creates none of its terrain, and that the terrain and tiles
+     * created so far are restored as they were.
+     */
+    @Test
+    public void testRestoresTerrain() throws IOException, WorldLoadException {
+        BeanWorld world = WorldBuilder.fromFile(DIMENSIONS, "resources/testmaps/bigTest.map");
+        world.tilesAtPosition(16, 16, DIMENSIONS);
+        int terrain = world.getTerrainCellCount();
+
+        Snapshot snapshot = read(write(new Snapshot(DIMENSIONS, new PlayerManager(0, 0),
+                new TinyInventory(3, 0, 0), world, new NpcManager(),
+                new EnemyManager(DIMENSIONS))));
+
+        assertEquals(terrain, world.getTerrainCellCount());
+        BeanWorld restored = snapshot.getWorld();
+        assertEquals(terrain, restored.getTerrainCellCount());
+        assertEquals(world.createdTiles().size(), restored.createdTiles().size());
+        assertEquals(world.getTerrainAt(16, 48), restored.getTerrainAt(16, 48));
+        assertEquals(0, restored.getTerrainAt(16, 16));
+    }
+
+    /**
+     * Tests that a farm containing a timer not created by the game cannot be written.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUntrackedTimer() throws IOException {
+        EnemyManager enemies = new EnemyManager(DIMENSIONS);
+        Pigeon pigeon = new Pigeon(0, 0);
+        pigeon.setLifespan(new FixedTimer(10));
+        enemies.getBirds().add(pigeon);
+        write(new Snapshot(DIMENSIONS, new PlayerManager(0, 0), new TinyInventory(1),
+                WorldBuilder.empty(), new NpcManager(), enemies));
+    }
+
+    /**
+     * Tests that input which is not a snapshot is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testRejectsBadMagic() throws IOException {
+        read("not a snapshot at all".getBytes());
+    }
+
+    /**
+     * Tests that a snapshot of an unsupported version is rejected.
+     */
+    @Test
+    public void testRejectsUnsupportedVersion() throws IOException, WorldLoadException {
+        byte[] bytes = save(farm("base", DIMENSIONS));
+        bytes[5] = (byte) (SnapshotFormat.VERSION + 1);
+        try {
+            load(bytes);
+            fail("Expected unsupported version to be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("version"));
+        }
+    }
+
+    /**
+     * Tests that a truncated snapshot is rejected.
+     */
+    @Test(expected = EOFException.class)
+    public void testRejectsTruncated() throws IOException, WorldLoadException {
+        byte[] bytes = save(farm("base", DIMENSIONS));
+        load(Arrays.copyOf(bytes, bytes.length - 3));
+    }
+}
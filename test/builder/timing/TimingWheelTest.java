@@ -0,0 +1,151 @@
+package builder.timing;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TimingWheel class.
+ * Tests that deadlines expire on the tick they are due, in the order they were scheduled, across
+ * every level of the wheel.
+ */
+public class TimingWheelTest {
+
+    private TimingWheel timers;
+    private List<String> expired;
+
+    /** A deadline recording its name and the tick it expired on. */
+    private class Named extends Deadline {
+        private final String name;
+
+        Named(String name) {
+            this.name = name;
+        }
+
+        @Override
+        protected void expire() {
+            expired.add(name + "@" + timers.getTick());
+        }
+    }
+
+    /**
+     * Sets up a new timers before each test.
+     */
+    @Before
+    public void setUp() {
+        timers = new TimingWheel();
+        expired = new ArrayList<>();
+    }
+
+    private void advance(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            timers.advance();
+        }
+    }
+
+    /**
+     * Tests that deadlines within and beyond every level expire exactly on their tick.
+     */
+    @Test
+    public void testDeadlinesExpireOnTheirTick() {
+        long[] ticks = {1, 2, 63, 64, 65, 100, 4095, 4096, 4097, 300000,
+            (long) Math.pow(TimingWheel.SLOTS, TimingWheel.LEVELS) + 5};
+        for (long tick : ticks) {
+            timers.schedule(new Named("d" + tick), tick);
+        }
+        assertEquals(ticks.length, timers.size());
+
+        long last = ticks[ticks.length - 1];
+        List<String> expected = new ArrayList<>();
+        for (long tick = 1; tick <= last; tick++) {
+            int count = timers.advance();
+            for (long due : ticks) {
+                if (due == tick) {
+                    expected.add("d" + due + "@" + due);
+                    assertEquals("Expired at tick " + tick, 1, count);
+                }
+            }
+        }
+        assertEquals(expected, expired);
+        assertEquals(0, timers.size());
+        assertEquals(ticks.length, timers.getExpired());
+    }
+
+    /**
+     * Tests that deadlines due on the same tick expire in the order they were first scheduled,
+     * even when one is moved.
+     */
+    @Test
+    public void testSameTickExpiresInScheduleOrder() {
+        Named first = new Named("first");
+        Named second = new Named("second");
+        Named third = new Named("third");
+        timers.schedule(first, 70);
+        timers.schedule(second, 10);
+        timers.schedule(third, 10);
+        timers.schedule(first, 10);
+
+        advance(10);
+        assertEquals(List.of("first@10", "second@10", "third@10"), expired);
+    }
+
+    /**
+     * Tests that cancelled deadlines do not expire, including one cancelled by another deadline
+     * due on the same tick.
+     */
+    @Test
+    public void testCancel() {
+        Named cancelled = new Named("cancelled");
+        Named later = new Named("later");
+        Deadline canceller = new Deadline() {
+            @Override
+            protected void expire() {
+                timers.cancel(later);
+            }
+        };
+        timers.schedule(cancelled, 5);
+        timers.schedule(canceller, 8);
+        timers.schedule(later, 8);
+
+        assertTrue(timers.cancel(cancelled));
+        assertFalse(timers.cancel(cancelled));
+        assertFalse(cancelled.isScheduled());
+
+        advance(10);
+        assertTrue(expired.isEmpty());
+        assertEquals(0, timers.size());
+    }
+
+    /**
+     * Tests that a deadline can schedule itself again as it expires.
+     */
+    @Test
+    public void testRescheduleWhileExpiring() {
+        Deadline repeating = new Deadline() {
+            @Override
+            protected void expire() {
+                expired.add("r@" + timers.getTick());
+                timers.schedule(this, timers.getTick() + 100);
+            }
+        };
+        timers.schedule(repeating, 100);
+
+        advance(350);
+        assertEquals(List.of("r@100", "r@200", "r@300"), expired);
+        assertTrue(repeating.isScheduled());
+        assertEquals(400, repeating.getTick());
+    }
+
+    /**
+     * Tests that deadlines must be scheduled after the current tick.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testScheduleAtCurrentTick() {
+        advance(3);
+        timers.schedule(new Named("now"), 3);
+    }
+}
@@ -0,0 +1,176 @@
+package builder.timing;
+
+import engine.timing.FixedTimer;
+import engine.timing.RepeatingTimer;
+import engine.timing.TickTimer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TrackedFixedTimer and TrackedRepeatingTimer classes.
+ * Tests that they count exactly like the engine timers and that progress can be restored.
+ */
+public class TrackedTimerTest {
+
+    private static void assertSameCounting(TickTimer expected, TickTimer actual, int ticks) {
+        for (int tick = 0; tick < ticks; tick++) {
+            assertEquals("Finished before tick " + tick,
+                    expected.isFinished(), actual.isFinished());
+            expected.tick();
+            actual.tick();
+        }
+        assertEquals(expected.isFinished(), actual.isFinished());
+    }
+
+    /**
+     * Tests that a tracked fixed timer finishes on the same ticks as a fixed timer.
+     */
+    @Test
+    public void testFixedTimerMatchesEngine() {
+        for (int duration : new int[] {1, 2, 5, 30}) {
+            assertSameCounting(new FixedTimer(duration), new TrackedFixedTimer(duration), 100);
+        }
+    }
+
+    /**
+     * Tests that a tracked repeating timer finishes on the same ticks as a repeating timer.
+     */
+    @Test
+    public void testRepeatingTimerMatchesEngine() {
+        for (int interval : new int[] {1, 2, 5, 30}) {
+            assertSameCounting(new RepeatingTimer(interval), new TrackedRepeatingTimer(interval),
+                    100);
+        }
+    }
+
+    /**
+     * Tests that the progress of a fixed timer can be read and restored into a new timer.
+     */
+    @Test
+    public void testFixedTimerRestore() {
+        for (int ticks = 0; ticks < 12; ticks++) {
+            TrackedFixedTimer original = new TrackedFixedTimer(5);
+            for (int i = 0; i < ticks; i++) {
+                original.tick();
+            }
+            TrackedFixedTimer restored = new TrackedFixedTimer(5);
+            restored.restore(original.getCurrent(), original.isExpired());
+
+            assertEquals(5, restored.getDuration());
+            assertSameCounting(original, restored, 10);
+        }
+    }
+
+    /**
+     * Tests that the progress of a repeating timer can be read and restored into a new timer.
+     */
+    @Test
+    public void testRepeatingTimerRestore() {
+        for (int ticks = 0; ticks < 12; ticks++) {
+            TrackedRepeatingTimer original = new TrackedRepeatingTimer(5);
+            for (int i = 0; i < ticks; i++) {
+                original.tick();
+            }
+            TrackedRepeatingTimer restored = new TrackedRepeatingTimer(5);
+            restored.restore(original.getCurrent());
+
+            assertEquals(5, restored.getInterval());
+            assertSameCounting(original, restored, 10);
+        }
+    }
+
+    /**
+     * Tests that fixed timer progress beyond its duration is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFixedTimerRestoreOutOfRange() {
+        new TrackedFixedTimer(5).restore(6, false);
+    }
+
+    /**
+     * Tests that negative repeating timer progress is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRepeatingTimerRestoreOutOfRange() {
+        new TrackedRepeatingTimer(5).restore(-1);
+    }
+
+    /**
+     * Tests that a repeating timer scheduled part way through its interval reads and finishes as
+     * if its owner kept ticking it, and notifies its owner on exactly the ticks it finishes.
+     */
+    @Test
+    public void testScheduledRepeatingTimerMatchesTicked() {
+        for (int interval : new int[] {1, 2, 5, 30}) {
+            TimingWheel timers = new TimingWheel();
+            TrackedRepeatingTimer ticked = new TrackedRepeatingTimer(interval);
+            TrackedRepeatingTimer scheduled = new TrackedRepeatingTimer(interval);
+            for (int i = 0; i < 3; i++) {
+                timers.advance();
+                ticked.tick();
+                scheduled.tick();
+            }
+            int[] finishes = new int[1];
+            scheduled.schedule(timers, () -> finishes[0]++);
+            assertTrue(scheduled.isScheduled());
+
+            int expected = 0;
+            for (int tick = 0; tick < 200; tick++) {
+                timers.advance();
+                ticked.tick();
+                if (ticked.isFinished()) {
+                    expected++;
+                }
+                assertEquals("Progress at tick " + tick,
+                        ticked.getCurrent(), scheduled.getCurrent());
+                assertEquals(ticked.isFinished(), scheduled.isFinished());
+                assertEquals("Notifications by tick " + tick, expected, finishes[0]);
+            }
+        }
+    }
+
+    /**
+     * Tests that a scheduled timer can be restored, ticked by hand and unscheduled, continuing
+     * from its progress each time.
+     */
+    @Test
+    public void testScheduledRepeatingTimerRestoreAndUnschedule() {
+        TimingWheel timers = new TimingWheel();
+        TrackedRepeatingTimer ticked = new TrackedRepeatingTimer(5);
+        TrackedRepeatingTimer scheduled = new TrackedRepeatingTimer(5);
+        int[] finishes = new int[1];
+        scheduled.schedule(timers, () -> finishes[0]++);
+
+        ticked.restore(3);
+        scheduled.restore(3);
+        assertEquals(3, scheduled.getCurrent());
+        ticked.tick();
+        scheduled.tick();
+        assertEquals(4, scheduled.getCurrent());
+
+        timers.advance();
+        ticked.tick();
+        assertTrue(scheduled.isFinished());
+        assertEquals(1, finishes[0]);
+
+        timers.advance();
+        ticked.tick();
+        scheduled.unschedule();
+        assertFalse(scheduled.isScheduled());
+        assertEquals(0, timers.size());
+        assertSameCounting(ticked, scheduled, 20);
+        assertEquals(1, finishes[0]);
+    }
+
+    /**
+     * Tests that a timer never finishing is left to be ticked by its owner.
+     */
+    @Test
+    public void testZeroIntervalTimerIsNotScheduled() {
+        TrackedRepeatingTimer timer = new TrackedRepeatingTimer(0);
+        timer.schedule(new TimingWheel(), () -> fail("Timer should never finish"));
+        assertFalse(timer.isScheduled());
+    }
+}
@@ -0,0 +1,173 @@
+package builder.ui;
+
+import engine.art.ArtNotFoundException;
+import engine.art.loader.ArtLoader;
+import engine.art.sprites.Colour;
+import engine.art.sprites.Sprite;
+import engine.art.sprites.SpriteGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the ArtCache class.
+ * Tests that cached groups match the parsed art and that stale or damaged caches are rebuilt.
+ */
+public class ArtCacheTest {
+
+    private static final String DOT = "dot:a:\n" + "|k  kk  k|\n".repeat(8);
+    private static final String CHANGED_DOT =
+            "dot:a:\n" + "|kkkkkkkk|\n".repeat(8) + "dot:b:\n" + "|k       |\n".repeat(8);
+
+    private Path directory;
+    private Path cacheDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("art");
+        cacheDirectory = directory.resolve("cache");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void assertSameArt(SpriteGroup expected, SpriteGroup actual) {
+        assertEquals(expected.getLabel(), actual.getLabel());
+        List<Sprite> expectedSprites = expected.getSprites();
+        List<Sprite> actualSprites = actual.getSprites();
+        assertEquals(expectedSprites.size(), actualSprites.size());
+        for (int i = 0; i < expectedSprites.size(); i++) {
+            Sprite sprite = expectedSprites.get(i);
+            Sprite cached = actualSprites.get(i);
+            assertEquals(sprite.getLabel(), cached.getLabel());
+            assertEquals(sprite.getGroup(), cached.getGroup());
+            assertEquals(sprite.getWidth(), cached.getWidth());
+            assertEquals(sprite.getHeight(), cached.getHeight());
+            for (int row = 0; row < sprite.getHeight(); row++) {
+                for (int column = 0; column < sprite.getWidth(); column++) {
+                    Colour colour = sprite.colourAt(row, column);
+                    Colour cachedColour = cached.colourAt(row, column);
+                    assertEquals(colour.getRed(), cachedColour.getRed());
+                    assertEquals(colour.getGreen(), cachedColour.getGreen());
+                    assertEquals(colour.getBlue(), cachedColour.getBlue());
+                    assertEquals(colour.getAlpha(), cachedColour.getAlpha());
+                    assertEquals(colour.toString(), cachedColour.toString());
+                }
+            }
+            assertEquals(sprite.toUtfBlockString(), cached.toUtfBlockString());
+            if (sprite.getWidth() == sprite.getHeight()) {
+                assertEquals(sprite.toString(), cached.toString());
+            }
+        }
+    }
+
+    /**
+     * Tests that a group read back from the cache matches the group parsed from the art file,
+     * pixel for pixel.
+     */
+    @Test
+    public void testCachedGroupMatchesParsedArt() throws Exception {
+        Path art = Path.of("resources", "art");
+        ArtCache first = new ArtCache(art, cacheDirectory);
+        SpriteGroup parsed = first.load("Pigeon", "pigeon");
+        assertEquals(0, first.getHits());
+        assertEquals(1, first.getMisses());
+        assertTrue(Files.isRegularFile(first.getCachePath("Pigeon")));
+
+        ArtCache second = new ArtCache(art, cacheDirectory);
+        SpriteGroup cached = second.load("Pigeon", "pigeon");
+        assertEquals(1, second.getHits());
+        assertEquals(0, second.getMisses());
+        assertSameArt(ArtLoader.load("resources/art/Pigeon.art").lookup("pigeon"), parsed);
+        assertSameArt(parsed, cached);
+        assertSame(cached.getSprite("down"), cached.getSprite("down"));
+    }
+
+    /**
+     * Tests that every group in the gallery survives a round trip through the cache.
+     */
+    @Test
+    public void testEveryGalleryGroupRoundTrips() throws Exception {
+        Path art = Path.of("resources", "art");
+        String[][] groups = {{"Icons", "icons"}, {"Inventory", "inventory"}, {"Tools", "tools"},
+            {"Tilled", "tilled"}, {"Grass", "grass"}, {"Field", "field"}, {"Water", "water"},
+            {"Brutus", "brutus"}, {"ChickenFarmer", "chickenFarmer"}, {"Rock", "rock"},
+            {"Cabbage", "cabbage"}, {"Eagle", "eagle"}, {"Magpie", "magpie"}, {"Hive", "hive"},
+            {"Bee", "bee"}, {"Scarecrow", "scarecrow"}, {"Letters", "letter"}};
+        for (String[] group : groups) {
+            SpriteGroup parsed = new ArtCache(art, cacheDirectory).load(group[0], group[1]);
+            ArtCache cache = new ArtCache(art, cacheDirectory);
+            assertSameArt(parsed, cache.load(group[0], group[1]));
+            assertEquals(group[0], 1, cache.getHits());
+        }
+    }
+
+    /**
+     * Tests that changing the art file invalidates its cache.
+     */
+    @Test
+    public void testChangedArtRebuildsCache() throws Exception {
+        Path file = directory.resolve("Dot.art");
+        Files.writeString(file, DOT);
+        new ArtCache(directory, cacheDirectory).load("Dot", "dot");
+
+        Files.writeString(file, CHANGED_DOT);
+        ArtCache cache = new ArtCache(directory, cacheDirectory);
+        SpriteGroup group = cache.load("Dot", "dot");
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, group.getSprites().size());
+        assertSameArt(ArtLoader.load(file.toString()).lookup("dot"), group);
+
+        ArtCache rebuilt = new ArtCache(directory, cacheDirectory);
+        assertSameArt(group, rebuilt.load("Dot", "dot"));
+        assertEquals(1, rebuilt.getHits());
+    }
+
+    /**
+     * Tests that a damaged cache file is ignored and rewritten.
+     */
+    @Test
+    public void testDamagedCacheRebuilt() throws Exception {
+        Files.writeString(directory.resolve("Dot.art"), DOT);
+        ArtCache cache = new ArtCache(directory, cacheDirectory);
+        SpriteGroup parsed = cache.load("Dot", "dot");
+        Path cached = cache.getCachePath("Dot");
+        byte[] bytes = Files.readAllBytes(cached);
+        Files.write(cached, Arrays.copyOf(bytes, bytes.length - 6));
+
+        ArtCache damaged = new ArtCache(directory, cacheDirectory);
+        assertSameArt(parsed, damaged.load("Dot", "dot"));
+        assertEquals(1, damaged.getMisses());
+        assertArrayEquals(bytes, Files.readAllBytes(cached));
+    }
+
+    /**
+     * Tests that a cached group reports missing sprites and groups as parsed art does.
+     */
+    @Test
+    public void testMissingArtNotFound() throws Exception {
+        Files.writeString(directory.resolve("Dot.art"), DOT);
+        new ArtCache(directory, cacheDirectory).load("Dot", "dot");
+        SpriteGroup cached = new ArtCache(directory, cacheDirectory).load("Dot", "dot");
+        assertThrows(ArtNotFoundException.class, () -> cached.getSprite("b"));
+        assertThrows(ArtNotFoundException.class,
+                () -> new ArtCache(directory, cacheDirectory).load("Dot", "square"));
+    }
+}
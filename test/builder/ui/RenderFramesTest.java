@@ -0,0 +1,223 @@
+package builder.ui;
+
+import builder.JavaBeanFarm;
+import builder.entities.npc.NpcPool;
+import builder.entities.npc.enemies.Pigeon;
+import builder.entities.tiles.Grass;
+import builder.headless.HeadlessRunner;
+import builder.world.WorldLoadException;
+
+import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
+import engine.renderer.TileGrid;
+
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the RenderFrames, RenderFrame and BufferedGame classes.
+ * Tests that published frames are immutable copies, that held frames are never refilled, and that
+ * frames are pooled.
+ */
+public class RenderFramesTest {
+
+    private static final Dimensions DIMENSIONS = new TileGrid(25, 800);
+
+    private static List<String> describe(List<Renderable> renderables) {
+        List<String> result = new ArrayList<>();
+        for (Renderable renderable : renderables) {
+            result.add(renderable.getID() + " " + renderable.getSprite().getLabel()
+                    + "@" + renderable.getX() + "," + renderable.getY());
+        }
+        return result;
+    }
+
+    /**
+     * Tests that a frame keeps the state its renderables had when it was published.
+     */
+    @Test
+    public void testFrameIsCopy() {
+        Grass grass = new Grass(32, 64);
+        List<Renderable> renderables = new ArrayList<>(List.of(grass));
+        RenderFrames frames = new RenderFrames();
+        frames.publish(renderables, 7);
+
+        grass.setX(96);
+        renderables.clear();
+        RenderFrame frame = frames.acquire();
+        assertEquals(7, frame.getTick());
+        assertEquals(1, frame.size());
+        assertEquals(32, frame.get(0).getX());
+        assertEquals(64, frame.get(0).getY());
+        assertSame(grass.getSprite(), frame.get(0).getSprite());
+        assertEquals(grass.getID(), frame.get(0).getID());
+        frame.release();
+    }
+
+    /**
+     * Tests that a frame keeps the id a pooled npc had when the frame was published, after the
+     * npc has been reused as a new npc.
+     */
+    @Test
+    public void testFrameKeepsRecycledNpcId() {
+        NpcPool<Pigeon> pool = new NpcPool<>(Pigeon.class, Pigeon::new);
+        Pigeon pigeon = pool.obtain(32, 64, null);
+        String id = pigeon.getID();
+        RenderFrames frames = new RenderFrames();
+        frames.publish(List.of(pigeon), 3);
+
+        pigeon.markForRemoval();
+        assertTrue(pool.release(pigeon));
+        assertSame(pigeon, pool.obtain(96, 96, null));
+        assertNotEquals(id, pigeon.getID());
+        RenderFrame frame = frames.acquire();
+        assertEquals(id, frame.get(0).getID());
+        frame.release();
+    }
+
+    /**
+     * Tests that the latest frame is empty before anything is published.
+     */
+    @Test
+    public void testEmptyBeforePublish() {
+        RenderFrame frame = new RenderFrames().acquire();
+        assertTrue(frame.isEmpty());
+        assertEquals(-1, frame.getTick());
+    }
+
+    /**
+     * Tests that a held frame is not refilled, and that frames are reused once released.
+     */
+    @Test
+    public void testHeldFramesNotRefilled() {
+        RenderFrames frames = new RenderFrames();
+        frames.publish(List.of(new Grass(0, 0)), 0);
+        RenderFrame held = frames.acquire();
+        for (int tick = 1; tick < 100; tick++) {
+            frames.publish(List.of(new Grass(tick, 0)), tick);
+        }
+        assertEquals(0, held.getTick());
+        assertEquals(0, held.get(0).getX());
+        assertEquals(3, frames.getPoolSize());
+
+        held.release();
+        for (int tick = 100; tick < 200; tick++) {
+            RenderFrame frame = frames.acquire();
+            frames.publish(List.of(new Grass(tick, 0)), tick);
+            assertEquals(tick - 1, frame.getTick());
+            frame.release();
+        }
+        assertEquals("Frames should be reused once released", 3, frames.getPoolSize());
+    }
+
+    /**
+     * Tests that releasing a frame that is not held fails.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testReleaseUnheldFrame() {
+        RenderFrames frames = new RenderFrames();
+        RenderFrame frame = frames.acquire();
+        frame.release();
+        frame.release();
+    }
+
+    /**
+     * Tests that frames drawn on another thread are never seen part way through being published.
+     */
+    @Test
+    public void testNoTearingAcrossThreads() throws InterruptedException {
+        RenderFrames frames = new RenderFrames();
+        List<Grass> tiles = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tiles.add(new Grass(0, i));
+        }
+        List<Renderable> renderables = new ArrayList<>(tiles);
+        AtomicReference<String> torn = new AtomicReference<>();
+        Thread[] drawers = new Thread[2];
+        for (int d = 0; d < drawers.length; d++) {
+            drawers[d] = new Thread(() -> {
+                for (int i = 0; i < 20000 && torn.get() == null; i++) {
+                    RenderFrame frame = frames.acquire();
+                    for (Renderable renderable : frame) {
+                        if (renderable.getX() != frame.getTick()) {
+                            torn.set("Tick " + frame.getTick() + " drew x " + renderable.getX());
+                        }
+                    }
+                    frame.release();
+                }
+            });
+            drawers[d].start();
+        }
+        int tick = 0;
+        while (drawers[0].isAlive() || drawers[1].isAlive()) {
+            tick++;
+            for (Grass tile : tiles) {
+                tile.setX(tick);
+            }
+            frames.publish(renderables, tick);
+        }
+        for (Thread drawer : drawers) {
+            drawer.join();
+        }
+        assertNull(torn.get());
+        assertTrue("Pool should stay small, was " + frames.getPoolSize(),
+                frames.getPoolSize() <= 2 + drawers.length);
+    }
+
+    /**
+     * Tests that a farm publishing frames publishes exactly what it renders, and that a buffered
+     * game renders those frames.
+     */
+    @Test
+    public void testFarmPublishesRenderedFrame() throws IOException, WorldLoadException {
+        JavaBeanFarm farm = new JavaBeanFarm(DIMENSIONS,
+                new FileReader("resources/testmaps/bigTest.map"),
+                new FileReader("resources/testmaps/bigTest.details"));
+        RenderFrames frames = farm.publishFrames();
+        assertSame(frames, farm.publishFrames());
+        BufferedGame game = new BufferedGame(farm, frames);
+        HeadlessRunner runner = new HeadlessRunner(game, DIMENSIONS);
+        runner.setScript((tick, input) -> {
+            input.releaseAll();
+            input.press(tick % 40 < 20 ? 'd' : 's');
+        });
+        for (int i = 0; i < 50; i++) {
+            runner.step(1);
+            List<Renderable> frame = game.render();
+            assertEquals(runner.currentTick() - 1, ((RenderFrame) frame).getTick());
+            assertEquals(describe(farm.render()), describe(frame));
+        }
+        assertTrue("Buffered frames should be pooled", frames.getPoolSize() <= 4);
+    }
+
+    /**
+     * Tests that a list rendered by a farm is not changed by rendering the next two frames, as the
+     * engine may still be drawing it.
+     */
+    @Test
+    public void testFarmRenderKeepsDrawnList() throws IOException, WorldLoadException {
+        JavaBeanFarm farm = new JavaBeanFarm(DIMENSIONS,
+                new FileReader("resources/testmaps/bigTest.map"),
+                new FileReader("resources/testmaps/bigTest.details"));
+        HeadlessRunner runner = new HeadlessRunner(farm, DIMENSIONS);
+        runner.setScript((tick, input) -> {
+            input.releaseAll();
+            input.press('d');
+        });
+        runner.step(10);
+        List<Renderable> first = farm.render();
+        List<Renderable> drawn = new ArrayList<>(first);
+        // the engine renders the second frame once the next tick is done
+        runner.step(1);
+        List<Renderable> third = farm.render();
+        assertNotSame(first, third);
+        assertEquals(drawn, first);
+    }
+}
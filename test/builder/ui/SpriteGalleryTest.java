@@ -0,0 +1,111 @@
+package builder.ui;
+
+import engine.art.sprites.Sprite;
+import engine.art.sprites.SpriteGroup;
+
+import org.junit.Test;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SpriteGallery and LazySpriteGroup classes.
+ * Tests that groups are only loaded once needed and that warming up loads every group.
+ */
+public class SpriteGalleryTest {
+
+    /**
+     * Tests that a lazy group is only loaded once a sprite is needed, and then holds the sprites
+     * of the group in its art file.
+     */
+    @Test
+    public void testGroupLoadsOnFirstUse() {
+        LazySpriteGroup group = new LazySpriteGroup("Pigeon", "pigeon");
+        assertEquals("pigeon", group.getLabel());
+        assertFalse(group.isLoaded());
+        assertEquals(-1, group.getLoadNanos());
+
+        Sprite down = group.getSprite("down");
+        assertTrue(group.isLoaded());
+        assertTrue(group.getLoadNanos() >= 0);
+        assertEquals("pigeon", down.getGroup());
+        assertSame(down, group.getSprite("down"));
+        assertEquals(group.load().getSprites(), group.getSprites());
+    }
+
+    /**
+     * Tests that threads needing a group at the same time all get the same loaded group.
+     */
+    @Test
+    public void testConcurrentLoadsLoadOnce() throws Exception {
+        LazySpriteGroup group = new LazySpriteGroup("Bee", "bee");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SpriteGroup>> loads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                loads.add(pool.submit(group::load));
+            }
+            SpriteGroup loaded = loads.get(0).get();
+            for (Future<SpriteGroup> load : loads) {
+                assertSame(loaded, load.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a group whose art file is missing fails when built, rather than when first
+     * needed.
+     */
+    @Test(expected = UncheckedIOException.class)
+    public void testMissingArtFails() {
+        new LazySpriteGroup("NoSuchArt", "none");
+    }
+
+    /**
+     * Tests that a group missing from its art file fails with the file it was looked for in.
+     */
+    @Test
+    public void testMissingGroupFails() {
+        LazySpriteGroup group = new LazySpriteGroup("Pigeon", "none");
+        try {
+            group.getSprites();
+            fail("Expected the missing group to fail to load");
+        } catch (ArtLoadException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Pigeon"));
+        }
+    }
+
+    /**
+     * Tests that warming up loads every group of the gallery, each labelled as its sprites are.
+     */
+    @Test
+    public void testWarmUpLoadsEveryGroup() {
+        SpriteGallery.warmUp(4);
+        Map<String, Long> times = SpriteGallery.getLoadTimes();
+        assertEquals(18, times.size());
+        assertTrue(times.containsKey("Letters"));
+        for (String label : List.of("icons", "tools", "brutus", "pigeon", "letter")) {
+            SpriteGroup group = SpriteGallery.group(label);
+            assertEquals(label, group.getLabel());
+            assertEquals(label, group.getSprites().get(0).getGroup());
+        }
+        assertTrue(SpriteGallery.loadReport().contains("art loaded 18 of 18 groups"));
+    }
+
+    /**
+     * Tests that warming up needs at least one thread.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWarmUpWithoutThreads() {
+        SpriteGallery.warmUp(0);
+    }
+}
@@ -0,0 +1,83 @@
+package builder.ui;
+
+import builder.ui.SpriteGallery.Facing;
+import builder.ui.SpriteGallery.Slot;
+import builder.ui.SpriteGallery.Tool;
+import builder.ui.SpriteGallery.Wear;
+
+import engine.art.ArtNotFoundException;
+import engine.art.sprites.SpriteGroup;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the SpriteTable class and the tables of the SpriteGallery.
+ * Tests that tables hold exactly the sprites looking them up by label gives.
+ */
+public class SpriteTableTest {
+
+    private static <K extends Enum<K> & SpriteTable.Key> void assertResolved(
+            SpriteTable<K> table, SpriteGroup group, Class<K> keys) {
+        assertSame(group, table.getGroup());
+        for (K key : keys.getEnumConstants()) {
+            if (table.has(key)) {
+                assertSame(key.toString(), group.getSprite(key.getLabel()), table.get(key));
+            }
+        }
+    }
+
+    /**
+     * Tests that every table of the gallery holds the sprites of its group.
+     */
+    @Test
+    public void testGalleryTablesMatchGroups() {
+        assertResolved(SpriteGallery.inventoryTable, SpriteGallery.inventory, Slot.class);
+        assertResolved(SpriteGallery.toolsTable, SpriteGallery.tools, Tool.class);
+        assertResolved(SpriteGallery.chickenFarmerTable, SpriteGallery.chickenFarmer,
+                Facing.class);
+        assertResolved(SpriteGallery.rockTable, SpriteGallery.rock, Wear.class);
+        assertResolved(SpriteGallery.eagleTable, SpriteGallery.eagle, Facing.class);
+        assertResolved(SpriteGallery.pigeonTable, SpriteGallery.pigeon, Facing.class);
+        assertResolved(SpriteGallery.magpieTable, SpriteGallery.magpie, Facing.class);
+        assertResolved(SpriteGallery.beeTable, SpriteGallery.bee, Facing.class);
+    }
+
+    /**
+     * Tests that the tables hold every sprite the game chooses from them.
+     */
+    @Test
+    public void testTablesComplete() {
+        for (SpriteTable<Facing> table : List.of(SpriteGallery.eagleTable,
+                SpriteGallery.pigeonTable, SpriteGallery.magpieTable, SpriteGallery.beeTable)) {
+            assertTrue(table.has(Facing.DEFAULT));
+            assertTrue(table.has(Facing.UP));
+            assertTrue(table.has(Facing.DOWN));
+        }
+        assertTrue(SpriteGallery.beeTable.has(Facing.LEFT));
+        assertTrue(SpriteGallery.beeTable.has(Facing.RIGHT));
+        assertTrue(SpriteGallery.chickenFarmerTable.has(Facing.UP));
+        assertTrue(SpriteGallery.chickenFarmerTable.has(Facing.DOWN));
+        for (Wear wear : Wear.values()) {
+            assertTrue(SpriteGallery.rockTable.has(wear));
+        }
+        for (Slot slot : Slot.values()) {
+            assertTrue(SpriteGallery.inventoryTable.has(slot));
+        }
+        for (Tool tool : Tool.values()) {
+            assertTrue(SpriteGallery.toolsTable.has(tool));
+        }
+    }
+
+    /**
+     * Tests that getting a sprite the group does not have fails as looking it up would.
+     */
+    @Test(expected = ArtNotFoundException.class)
+    public void testMissingSprite() {
+        assertFalse(SpriteGallery.pigeonTable.has(Facing.LEFT));
+        SpriteGallery.pigeonTable.get(Facing.LEFT);
+    }
+}
@@ -3,9 +3,12 @@ package builder.world;
 import builder.JavaBeanGameState;
 import builder.entities.npc.NpcManager;
 import builder.entities.npc.enemies.EnemyManager;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
 import builder.entities.tiles.Tile;
 import builder.inventory.TinyInventory;
 import builder.player.ChickenFarmer;
+import builder.timing.TimingWheel;
 import engine.renderer.Dimensions;
 import engine.renderer.Renderable;
 import engine.renderer.TileGrid;
@@ -13,7 +16,11 @@ import org.junit.Before;
 import org.junit.Test;
 import scenarios.mocks.MockEngineState;
 
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static org.junit.Assert.*;
@@ -120,6 +127,60 @@ public class BeanWorldTest {
         assertFalse("Should not find tile at different position", tilesAt100.contains(tile2));
     }
 
+    /**
+     * Tests that collecting the tiles at a position into a list adds the same tiles as
+     * tilesAtPosition returns, keeping what the list already held.
+     */
+    @Test
+    public void testTilesAtPositionIntoList() {
+        Dimensions dims = new TileGrid(25, 2000);
+        Tile tile = new builder.entities.tiles.Grass(100, 100);
+        Tile other = new builder.entities.tiles.Grass(200, 200);
+        world.place(tile);
+        world.place(other);
+
+        List<Tile> tiles = new ArrayList<>(List.of(other));
+        world.tilesAtPosition(100, 100, dims, tiles);
+        assertEquals(List.of(other, tile), tiles);
+        world.tilesAtPosition(500, 500, dims, tiles);
+        assertEquals(List.of(other, tile), tiles);
+    }
+
+    /**
+     * Tests that the tile of a terrain cell is created when first looked up, is the same tile on
+     * every later lookup, and can then be replaced like any other tile.
+     */
+    @Test
+    public void testTerrainMaterialisedOnLookup() throws Exception {
+        String map = ("g".repeat(25) + "\n").repeat(25);
+        BeanWorld terrain = WorldBuilder.worldFromReader(dimensions, new StringReader(map));
+        assertEquals(625, terrain.getTerrainCellCount());
+        assertEquals(625, terrain.render().size());
+        int version = terrain.getLayerVersion();
+
+        List<Tile> tiles = terrain.tilesAtPosition(100, 110, dimensions);
+        assertEquals(1, tiles.size());
+        Tile grass = tiles.get(0);
+        assertTrue(grass instanceof Grass);
+        assertEquals(dimensions.tileToPixel(1), grass.getX());
+        assertEquals(dimensions.tileToPixel(1), grass.getY());
+        assertEquals(List.of(grass), terrain.tilesAtPosition(grass.getX(), grass.getY(),
+                dimensions));
+        assertEquals(624, terrain.getTerrainCellCount());
+        assertNotEquals(version, terrain.getLayerVersion());
+        List<Renderable> renderables = terrain.render();
+        assertEquals(625, renderables.size());
+        assertTrue(renderables.contains(grass));
+
+        grass.markForRemoval();
+        Tile dirt = new Dirt(grass.getX(), grass.getY());
+        terrain.place(dirt);
+        terrain.cleanup();
+        assertEquals(List.of(dirt), terrain.tilesAtPosition(100, 110, dimensions));
+        assertEquals(625, terrain.render().size());
+        assertEquals(624, terrain.getTerrainCellCount());
+    }
+
     /**
      * Tests line 54: gridX == tileX check (false case)
      */
@@ -267,6 +328,11 @@ public class BeanWorldTest {
         final boolean[] superTickCalled = {false};
         
         Tile tile = new builder.entities.tiles.Grass(100, 100) {
+            @Override
+            protected boolean hasOwnTick() {
+                return true;
+            }
+
             @Override
             public void tick(engine.EngineState state) {
                 tickCalled[0] = true;
@@ -293,6 +359,11 @@ public class BeanWorldTest {
         final int[] superTickCount = {0};
         
         Tile tile1 = new builder.entities.tiles.Grass(100, 100) {
+            @Override
+            protected boolean hasOwnTick() {
+                return true;
+            }
+
             @Override
             public void tick(engine.EngineState state) {
                 tickCount[0]++;
@@ -302,6 +373,11 @@ public class BeanWorldTest {
         };
         
         Tile tile2 = new builder.entities.tiles.Grass(200, 200) {
+            @Override
+            protected boolean hasOwnTick() {
+                return true;
+            }
+
             @Override
             public void tick(engine.EngineState state) {
                 tickCount[0]++;
@@ -467,4 +543,393 @@ public class BeanWorldTest {
         assertEquals("Render order should be consistent", 
                      renderables1.size(), renderables2.size());
     }
+
+    /**
+     * Tests tilesAtPosition reflects tiles placed after the first lookup.
+     */
+    @Test
+    public void testTilesAtPositionAfterPlace() {
+        Dimensions dims = new TileGrid(25, 2000);
+
+        Tile grass = new builder.entities.tiles.Grass(100, 100);
+        world.place(grass);
+        assertEquals(List.of(grass), world.tilesAtPosition(100, 100, dims));
+
+        Tile dirt = new builder.entities.tiles.Dirt(100, 100);
+        world.place(dirt);
+
+        assertEquals("Replacement tile should follow the original",
+                     List.of(grass, dirt), world.tilesAtPosition(100, 100, dims));
+    }
+
+    /**
+     * Tests tilesAtPosition with different dimensions between calls.
+     */
+    @Test
+    public void testTilesAtPositionDimensionsChange() {
+        Tile tile = new builder.entities.tiles.Grass(100, 100);
+        world.place(tile);
+
+        assertTrue(world.tilesAtPosition(100, 100, new TileGrid(25, 2000)).contains(tile));
+        assertTrue(world.tilesAtPosition(100, 100, new TileGrid(25, 800)).contains(tile));
+        assertFalse(world.tilesAtPosition(140, 100, new TileGrid(25, 800)).contains(tile));
+    }
+
+    /**
+     * Tests tick removes tiles marked for removal and counts them.
+     */
+    @Test
+    public void testTickReapsRemovedTiles() {
+        Dimensions dims = new TileGrid(25, 2000);
+
+        Tile grass = new builder.entities.tiles.Grass(100, 100);
+        Tile other = new builder.entities.tiles.Grass(200, 200);
+        world.place(grass);
+        world.place(other);
+        world.tilesAtPosition(100, 100, dims);
+
+        grass.markForRemoval();
+        Tile dirt = new builder.entities.tiles.Dirt(100, 100);
+        world.place(dirt);
+        world.tick(mockEngine, gameState);
+
+        assertEquals(List.of(other, dirt), world.allTiles());
+        assertEquals(List.of(dirt), world.tilesAtPosition(100, 100, dims));
+        assertFalse("Removed tile should not be rendered", world.render().contains(grass));
+        assertEquals(1, world.getReclaimedTiles());
+
+        world.tick(mockEngine, gameState);
+        assertEquals("Tiles should only be reclaimed once", 1, world.getReclaimedTiles());
+    }
+
+    /**
+     * Tests closestCabbageTile follows cabbages being planted and removed.
+     */
+    @Test
+    public void testClosestCabbageTileTracksCabbages() {
+        Dimensions dims = new TileGrid(25, 2000);
+
+        Tile near = new builder.entities.tiles.Dirt(100, 100);
+        Tile far = new builder.entities.tiles.Dirt(1000, 1000);
+        far.placeOn(new builder.entities.resources.Cabbage(1000, 1000));
+        world.place(near);
+        world.place(far);
+
+        assertSame("Cabbage stacked before placing should be indexed",
+                   far, world.closestCabbageTile(100, 100, dims));
+
+        builder.entities.resources.Cabbage cabbage =
+                new builder.entities.resources.Cabbage(100, 100);
+        near.placeOn(cabbage);
+        assertSame(near, world.closestCabbageTile(100, 100, dims));
+
+        cabbage.markForRemoval();
+        world.tick(mockEngine, gameState);
+        assertSame("Removed cabbage should leave the index",
+                   far, world.closestCabbageTile(100, 100, dims));
+    }
+
+    /**
+     * Tests closestCabbageTile returns null when there are no cabbages.
+     */
+    @Test
+    public void testClosestCabbageTileNoCabbages() {
+        world.place(new builder.entities.tiles.Dirt(100, 100));
+
+        assertNull(world.closestCabbageTile(100, 100, new TileGrid(25, 2000)));
+    }
+
+    /**
+     * Tests renderInto appends the same renderables in the same order as render.
+     */
+    @Test
+    public void testRenderIntoMatchesRender() {
+        Tile tile1 = new builder.entities.tiles.Grass(100, 100);
+        Tile tile2 = new builder.entities.tiles.OreVein(200, 200);
+        world.place(tile1);
+        world.place(tile2);
+
+        List<Renderable> sink = new java.util.ArrayList<>();
+        sink.add(tile2);
+        world.renderInto(sink);
+
+        assertEquals(world.render(), sink.subList(1, sink.size()));
+        assertEquals(List.of(tile2, tile1, tile2, ((builder.entities.tiles.OreVein) tile2).getOre()),
+                     sink);
+    }
+
+    /**
+     * Tests render reflects changes made after an earlier render and that the layer version
+     * only changes when the world's renderables change.
+     */
+    @Test
+    public void testRenderAfterChanges() {
+        Tile tile = new builder.entities.tiles.Dirt(100, 100);
+        world.place(tile);
+        assertEquals(List.of(tile), world.render());
+        int version = world.getLayerVersion();
+
+        ((builder.entities.tiles.Dirt) tile).till();
+        world.render();
+        assertEquals("Sprite changes should not change the layer",
+                     version, world.getLayerVersion());
+
+        builder.entities.resources.Cabbage cabbage =
+                new builder.entities.resources.Cabbage(100, 100);
+        tile.placeOn(cabbage);
+        assertNotEquals(version, world.getLayerVersion());
+        assertEquals(List.of(tile, cabbage), world.render());
+
+        Tile other = new builder.entities.tiles.Grass(200, 200);
+        world.place(other);
+        assertEquals(List.of(tile, cabbage, other), world.render());
+
+        cabbage.markForRemoval();
+        world.tick(mockEngine, gameState);
+        assertEquals(List.of(tile, other), world.render());
+    }
+
+    /**
+     * Tests that only tiles with stacked entities are ticked, and that tiles become active when
+     * an entity is stacked on them and inactive once their stacked entities are removed.
+     */
+    @Test
+    public void testTickSkipsInertTiles() {
+        Tile grass = new builder.entities.tiles.Grass(0, 0);
+        Tile dirt = new builder.entities.tiles.Dirt(100, 100);
+        world.place(grass);
+        world.place(dirt);
+        assertEquals("Tiles without stacked entities should be inactive",
+                     0, world.getActiveTileCount());
+
+        builder.entities.resources.Cabbage cabbage =
+                new builder.entities.resources.Cabbage(100, 100);
+        dirt.placeOn(cabbage);
+        assertEquals(1, world.getActiveTileCount());
+        world.tick(mockEngine, gameState);
+        assertEquals(1, world.getActiveTileCount());
+
+        cabbage.markForRemoval();
+        world.tick(mockEngine, gameState);
+        assertEquals("Tile should become inactive once its entities are removed",
+                     0, world.getActiveTileCount());
+    }
+
+    /**
+     * Tests that tiles placed with stacked entities are active and that reaped tiles are no
+     * longer ticked.
+     */
+    @Test
+    public void testTickActiveTilesPlacedWithEntities() {
+        Tile dirt = new builder.entities.tiles.Dirt(100, 100);
+        dirt.placeOn(new builder.entities.resources.Cabbage(100, 100));
+        world.place(dirt);
+        assertEquals(1, world.getActiveTileCount());
+
+        dirt.markForRemoval();
+        world.tick(mockEngine, gameState);
+        assertEquals(0, world.getActiveTileCount());
+    }
+
+    /**
+     * Tests that with a timing wheel, dirt carrying a cabbage sleeps between growth stages yet
+     * the cabbage grows on the same ticks as one ticked every tick, and that removing the cabbage
+     * wakes its tile.
+     */
+    @Test
+    public void testCabbageTilesSleepOnTimingWheel() {
+        TimingWheel timers = new TimingWheel();
+        JavaBeanGameState timedState = new JavaBeanGameState(world, gameState.getPlayer(),
+                gameState.getInventory(), gameState.getNpcs(), gameState.getEnemies(), timers);
+        Tile dirt = new builder.entities.tiles.Dirt(100, 100);
+        builder.entities.resources.Cabbage cabbage =
+                new builder.entities.resources.Cabbage(100, 100);
+        builder.entities.resources.Cabbage ticked =
+                new builder.entities.resources.Cabbage(100, 100);
+        dirt.placeOn(cabbage);
+        world.place(dirt);
+
+        for (int tick = 0; tick < 450; tick++) {
+            timers.advance();
+            world.tick(mockEngine, timedState);
+            ticked.tick(mockEngine);
+            assertEquals("Growth at tick " + tick,
+                    ticked.getGrowthState(), cabbage.getGrowthState());
+            assertEquals(ticked.getGrowthTimer().getCurrent(),
+                    cabbage.getGrowthTimer().getCurrent());
+            assertEquals(0, world.getActiveTileCount());
+            assertEquals(1, world.getSleepingTileCount());
+        }
+        assertEquals(List.of(dirt), world.getActiveTiles());
+
+        cabbage.markForRemoval();
+        assertEquals("Removing the cabbage should wake its tile",
+                     1, world.getActiveTileCount());
+        timers.advance();
+        world.tick(mockEngine, timedState);
+        assertTrue(dirt.getStackedEntities().isEmpty());
+        assertEquals(0, world.getActiveTileCount());
+        assertEquals(0, world.getSleepingTileCount());
+        assertEquals(0, timers.size());
+    }
+
+    /**
+     * Tests that tile types with their own tick behaviour are always ticked.
+     */
+    @Test
+    public void testTickAlwaysTicksOverridingTiles() {
+        final int[] ticks = {0};
+        Tile custom = new builder.entities.tiles.Grass(0, 0) {
+            @Override
+            protected boolean hasOwnTick() {
+                return true;
+            }
+
+            @Override
+            public void tick(engine.EngineState engine) {
+                ticks[0]++;
+                super.tick(engine);
+            }
+        };
+        world.place(custom);
+        world.place(new builder.entities.tiles.Grass(32, 0));
+        assertEquals(1, world.getActiveTileCount());
+
+        world.tick(mockEngine, gameState);
+        world.tick(mockEngine, gameState);
+        assertEquals(2, ticks[0]);
+        assertEquals(1, world.getActiveTileCount());
+    }
+
+    /**
+     * Tests that the listener is notified as tiles are placed, changed and removed.
+     */
+    @Test
+    public void testListenerNotified() {
+        List<String> events = new ArrayList<>();
+        world.setListener(new WorldListener() {
+            @Override
+            public void placed(Tile tile) {
+                events.add("placed " + tile.getX());
+            }
+
+            @Override
+            public void changed(Tile tile) {
+                events.add("changed " + tile.getX());
+            }
+
+            @Override
+            public void removed(Tile tile) {
+                events.add("removed " + tile.getX());
+            }
+        });
+        builder.entities.tiles.Dirt dirt = new builder.entities.tiles.Dirt(0, 0);
+        Tile grass = new builder.entities.tiles.Grass(32, 0);
+        world.place(dirt);
+        world.place(grass);
+        dirt.till();
+        dirt.placeOn(new builder.entities.resources.Cabbage(0, 0));
+        grass.markForRemoval();
+        world.cleanup();
+
+        assertEquals(List.of("placed 0", "placed 32", "changed 0", "changed 0", "changed 32",
+                "removed 32"), events);
+    }
+
+    /**
+     * Tests that replacement tiles take the place of the tiles they replace and are indexed and
+     * ticked in their place.
+     */
+    @Test
+    public void testReplaceTiles() {
+        Tile first = new builder.entities.tiles.Grass(0, 0);
+        Tile second = new builder.entities.tiles.Grass(80, 0);
+        Tile third = new builder.entities.tiles.Grass(160, 0);
+        world.place(first);
+        world.place(second);
+        world.place(third);
+        assertEquals(List.of(second), world.tilesAtPosition(80, 0, dimensions));
+
+        Tile dirt = new builder.entities.tiles.Dirt(80, 0);
+        dirt.placeOn(new builder.entities.resources.Cabbage(80, 0));
+        world.replaceTiles(Map.of(second, dirt));
+
+        assertEquals(List.of(first, dirt, third), world.allTiles());
+        assertEquals(List.of(dirt), world.tilesAtPosition(80, 0, dimensions));
+        assertEquals(List.of(dirt), world.getActiveTiles());
+        second.placeOn(new builder.entities.resources.Cabbage(80, 0));
+        assertEquals("Replaced tiles should no longer be listened to",
+                List.of(dirt), world.getActiveTiles());
+    }
+
+    /**
+     * Tests that removed tiles are dropped whether or not they are marked for removal, leaving
+     * marked tiles that were not removed in place.
+     */
+    @Test
+    public void testRemoveTiles() {
+        Tile first = new builder.entities.tiles.Grass(0, 0);
+        Tile second = new builder.entities.tiles.Grass(32, 0);
+        Tile third = new builder.entities.tiles.Grass(64, 0);
+        world.place(first);
+        world.place(second);
+        world.place(third);
+        third.markForRemoval();
+
+        world.removeTiles(Set.of(first));
+
+        assertEquals(List.of(second, third), world.allTiles());
+        assertEquals(1, world.getReclaimedTiles());
+    }
+
+    /**
+     * Tests that a copy of the world's renderables is brought up to date by replaying the edits
+     * made since, as tiles are created from terrain, stacked on, placed and removed.
+     */
+    @Test
+    public void testReplayLayer() throws Exception {
+        String map = ("g".repeat(25) + "\n").repeat(25);
+        BeanWorld terrain = WorldBuilder.worldFromReader(dimensions, new StringReader(map));
+        List<Renderable> copy = terrain.render();
+        int version = terrain.getLayerVersion();
+        Renderable untouched = copy.get(600);
+
+        Tile grass = terrain.tilesAtPosition(100, 110, dimensions).get(0);
+        grass.markForRemoval();
+        Dirt dirt = new Dirt(grass.getX(), grass.getY());
+        terrain.place(dirt);
+        dirt.till();
+        builder.entities.resources.Cabbage cabbage =
+                new builder.entities.resources.Cabbage(dirt.getX(), dirt.getY());
+        dirt.placeOn(cabbage);
+        terrain.cleanup();
+
+        assertTrue(terrain.replayLayer(version, copy));
+        List<Renderable> rendered = terrain.render();
+        assertEquals(rendered, copy);
+        assertEquals(List.of(dirt, cabbage), rendered.subList(624, 626));
+        assertSame("Unchanged terrain should not be rendered again", untouched, rendered.get(599));
+        assertTrue(terrain.replayLayer(terrain.getLayerVersion(), copy));
+        assertEquals(rendered, copy);
+    }
+
+    /**
+     * Tests that a copy too far behind the world's renderables is left for the caller to refill.
+     */
+    @Test
+    public void testReplayLayerTooFarBehind() {
+        List<Renderable> copy = world.render();
+        int version = world.getLayerVersion();
+        for (int i = 0; i < 100; i++) {
+            world.place(new Grass(i * 80, 0));
+        }
+        assertFalse(world.replayLayer(version, copy));
+        assertTrue(copy.isEmpty());
+
+        List<Renderable> recent = world.render();
+        version = world.getLayerVersion();
+        world.replaceTiles(Map.of(world.allTiles().get(0), new Dirt(0, 0)));
+        assertFalse("Replacing tiles should render the world afresh",
+                world.replayLayer(version, recent));
+    }
 }
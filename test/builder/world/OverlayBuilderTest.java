@@ -3,6 +3,10 @@ package builder.world;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -883,4 +887,147 @@ public class OverlayBuilderTest {
                    str.contains("11") && str.contains("22") && 
                    str.contains("33") && str.contains("44"));
     }
+
+    /**
+     * Tests getSection throws an IOException for a missing section in non-empty content.
+     */
+    @Test(expected = IOException.class)
+    public void testGetSectionMissingSectionInContent() throws IOException {
+        OverlayBuilder.getSection("missing", ":test:\nline1\nend;");
+    }
+
+    /** A handler recording every entry as a string, in the order they are received. */
+    private static class RecordingHandler implements DetailsHandler {
+        private final List<String> entries = new ArrayList<>();
+
+        @Override
+        public void player(PlayerDetails details) {
+            entries.add("player " + details.getX() + " " + details.getY() + " "
+                        + details.getStartingCoins() + " " + details.getStartingFood());
+        }
+
+        @Override
+        public void cabbage(CabbageDetails details) {
+            entries.add("cabbage " + details.getX() + " " + details.getY());
+        }
+
+        @Override
+        public void magpieSpawner(SpawnerDetails details) {
+            entries.add("magpie " + details.getX() + " " + details.getY() + " "
+                        + details.getDuration());
+        }
+
+        @Override
+        public void eagleSpawner(SpawnerDetails details) {
+            entries.add("eagle " + details.getX() + " " + details.getY() + " "
+                        + details.getDuration());
+        }
+
+        @Override
+        public void pigeonSpawner(SpawnerDetails details) {
+            entries.add("pigeon " + details.getX() + " " + details.getY() + " "
+                        + details.getDuration());
+        }
+    }
+
+    private static final String ALL_SECTIONS = String.join("\n",
+            ":chickenFarmer:", "|x:400 y:300 coins:2 food:3", "end;", "",
+            ":cabbages:", "|x:5 y:3", "", "|x:125 y:500", "end;",
+            ":magpiespawner:", "|x:2 y:1 duration:360", "end;",
+            ":EagleSpawner:", "  |x:1 y:2 duration:200  ", "END;",
+            ":pigeonspawner:", "|x:4 y:1 duration:200", "|x:5 y:5 duration:100", "end;");
+
+    /**
+     * Tests parse passes every entry to the handler in file order, ignoring case, surrounding
+     * whitespace and blank lines.
+     */
+    @Test
+    public void testParseDispatchesEverySection() throws IOException {
+        RecordingHandler handler = new RecordingHandler();
+        OverlayBuilder.parse(new StringReader(ALL_SECTIONS), handler);
+
+        assertEquals(List.of("player 400 300 2 3", "cabbage 5 3", "cabbage 125 500",
+                             "magpie 2 1 360", "eagle 1 2 200", "pigeon 4 1 200",
+                             "pigeon 5 5 100"),
+                     handler.entries);
+    }
+
+    /**
+     * Tests parse agrees with the section based methods on a test map's details.
+     */
+    @Test
+    public void testParseMatchesGetSection() throws IOException {
+        String content = Files.readString(Path.of(PIGEON_TEST_FILE));
+        RecordingHandler handler = new RecordingHandler();
+        OverlayBuilder.parse(new StringReader(content), handler);
+
+        List<String> expected = new ArrayList<>();
+        for (SpawnerDetails details : OverlayBuilder.getPigeonSpawnDetailsFromString(content)) {
+            expected.add("pigeon " + details.getX() + " " + details.getY() + " "
+                         + details.getDuration());
+        }
+        List<String> pigeons = new ArrayList<>();
+        for (String entry : handler.entries) {
+            if (entry.startsWith("pigeon")) {
+                pigeons.add(entry);
+            }
+        }
+        assertEquals(expected, pigeons);
+    }
+
+    /**
+     * Tests parse only reads the first section with each label.
+     */
+    @Test
+    public void testParseIgnoresRepeatedSection() throws IOException {
+        RecordingHandler handler = new RecordingHandler();
+        OverlayBuilder.parse(
+                new StringReader(ALL_SECTIONS + "\n:cabbages:\n|x:9 y:9\nend;"), handler);
+
+        assertFalse(handler.entries.contains("cabbage 9 9"));
+    }
+
+    /**
+     * Tests parse throws an IOException when a section is missing.
+     */
+    @Test(expected = IOException.class)
+    public void testParseMissingSection() throws IOException {
+        OverlayBuilder.parse(new StringReader(":cabbages:\n|x:5 y:3\nend;"),
+                             new DetailsHandler() {});
+    }
+
+    /**
+     * Tests parse throws an IOException when a section has no end marker.
+     */
+    @Test(expected = IOException.class)
+    public void testParseUnterminatedSection() throws IOException {
+        OverlayBuilder.parse(new StringReader(ALL_SECTIONS.replaceFirst("(?s)end;$", "")),
+                             new DetailsHandler() {});
+    }
+
+    /**
+     * Tests parse throws an IOException for an entry missing values.
+     */
+    @Test(expected = IOException.class)
+    public void testParseMalformedEntry() throws IOException {
+        OverlayBuilder.parse(new StringReader(ALL_SECTIONS.replace("duration:360", "duration:")),
+                             new DetailsHandler() {});
+    }
+
+    /**
+     * Tests parse handles a large generated file.
+     */
+    @Test
+    public void testParseLargeFile() throws IOException {
+        String content = ALL_SECTIONS.replace(
+                ":pigeonspawner:\n", ":pigeonspawner:\n" + "|x:7 y:8 duration:9\n".repeat(20000));
+        int[] pigeons = {0};
+        OverlayBuilder.parse(new StringReader(content), new DetailsHandler() {
+            @Override
+            public void pigeonSpawner(SpawnerDetails details) {
+                pigeons[0]++;
+            }
+        });
+        assertEquals(20002, pigeons[0]);
+    }
 }
@@ -0,0 +1,157 @@
+package builder.world;
+
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.Tile;
+import engine.renderer.Dimensions;
+import engine.renderer.TileGrid;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TileIndex class.
+ * Tests grid cell lookup, stacking of replacement tiles and overflow handling.
+ */
+public class TileIndexTest {
+
+    private Dimensions dimensions;
+    private TileIndex index;
+
+    /**
+     * Sets up test fixtures before each test.
+     */
+    @Before
+    public void setUp() {
+        dimensions = new TileGrid(25, 800);
+        index = new TileIndex(dimensions);
+    }
+
+    private List<Tile> at(int x, int y) {
+        List<Tile> result = new ArrayList<>();
+        index.collect(x, y, result);
+        return result;
+    }
+
+    /**
+     * Tests that a tile is found from any pixel within its grid cell.
+     */
+    @Test
+    public void testCollectAnyPixelInCell() {
+        Tile tile = new Grass(64, 96);
+        index.add(tile);
+
+        assertEquals(List.of(tile), at(64, 96));
+        assertEquals(List.of(tile), at(95, 127));
+        assertTrue("Neighbouring cell should be empty", at(96, 96).isEmpty());
+    }
+
+    /**
+     * Tests that replacement tiles share a cell in placement order.
+     */
+    @Test
+    public void testReplacementTilesStackInOrder() {
+        Tile grass = new Grass(32, 32);
+        Tile dirt = new Dirt(32, 32);
+        index.add(grass);
+        index.add(dirt);
+
+        assertEquals(List.of(grass, dirt), at(40, 40));
+    }
+
+    /**
+     * Tests that removed tiles are no longer found.
+     */
+    @Test
+    public void testRemove() {
+        Tile grass = new Grass(32, 32);
+        Tile dirt = new Dirt(32, 32);
+        index.add(grass);
+        index.add(dirt);
+        index.remove(grass);
+
+        assertEquals(List.of(dirt), at(32, 32));
+    }
+
+    /**
+     * Tests that tiles outside the grid are still found through the overflow list.
+     */
+    @Test
+    public void testOverflowOutsideGrid() {
+        Tile outside = new Grass(900, 900);
+        index.add(outside);
+
+        assertEquals(List.of(outside), at(900, 900));
+        assertTrue(at(0, 0).isEmpty());
+
+        index.remove(outside);
+        assertTrue(at(900, 900).isEmpty());
+    }
+
+    /**
+     * Tests that the index only matches dimensions describing the same grid.
+     */
+    @Test
+    public void testMatches() {
+        assertTrue(index.matches(new TileGrid(25, 800)));
+        assertFalse(index.matches(new TileGrid(25, 2000)));
+        assertFalse(index.matches(new TileGrid(40, 800)));
+    }
+
+    /**
+     * Tests nearest returns null for an empty index.
+     */
+    @Test
+    public void testNearestEmpty() {
+        assertNull(index.nearest(100, 100));
+    }
+
+    /**
+     * Tests nearest prefers a closer tile in a further cell over a tile in a nearer ring.
+     */
+    @Test
+    public void testNearestAcrossCells() {
+        Tile near = new Grass(96, 64);
+        Tile far = new Grass(320, 320);
+        index.add(far);
+        index.add(near);
+
+        assertSame(near, index.nearest(90, 60));
+        assertSame(far, index.nearest(700, 700));
+    }
+
+    /**
+     * Tests nearest agrees with a linear search over randomly placed tiles.
+     */
+    @Test
+    public void testNearestMatchesLinearSearch() {
+        Random random = new Random(2002);
+        List<Tile> tiles = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Tile tile = new Grass(random.nextInt(25) * 32, random.nextInt(25) * 32);
+            tiles.add(tile);
+            index.add(tile);
+        }
+        for (int i = 0; i < 200; i++) {
+            int x = random.nextInt(1000) - 100;
+            int y = random.nextInt(1000) - 100;
+            long expected = Long.MAX_VALUE;
+            for (Tile tile : tiles) {
+                expected = Math.min(expected, distanceSquared(tile, x, y));
+            }
+            assertEquals("Nearest tile to " + x + ", " + y,
+                    expected, distanceSquared(index.nearest(x, y), x, y));
+        }
+    }
+
+    private static long distanceSquared(Tile tile, int x, int y) {
+        long deltaX = tile.getX() - x;
+        long deltaY = tile.getY() - y;
+        return deltaX * deltaX + deltaY * deltaY;
+    }
+}
@@ -2,11 +2,20 @@ package builder.world;
 
 import builder.entities.tiles.Tile;
 import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
 import engine.renderer.TileGrid;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -142,4 +151,188 @@ public class WorldBuilderTest {
         assertNotNull(world);
         assertFalse(world.allTiles().isEmpty());
     }
+
+    /** Returns a 10 by 10 grass map with the given line replacing the given row. */
+    private static String mapWithRow(int row, String line) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            text.append(i == row ? line : "gggggggggg").append("\n");
+        }
+        return text.toString();
+    }
+
+    /** Returns the message of the exception thrown when loading the text from every source. */
+    private List<String> loadErrors(String text) throws IOException {
+        List<String> messages = new ArrayList<>();
+        try {
+            WorldBuilder.fromString(dimensions, text);
+            messages.add("loaded");
+        } catch (WorldLoadException e) {
+            messages.add(e.getMessage());
+        }
+        try {
+            WorldBuilder.fromReader(dimensions, new StringReader(text));
+            messages.add("loaded");
+        } catch (WorldLoadException e) {
+            messages.add(e.getMessage());
+        }
+        Path file = Files.createTempFile("world", ".map");
+        try {
+            Files.writeString(file, text);
+            WorldBuilder.fromPath(dimensions, file);
+            messages.add("loaded");
+        } catch (WorldLoadException e) {
+            messages.add(e.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+        return messages;
+    }
+
+    /**
+     * Tests every loader reports the row and column of problems in the same way.
+     */
+    @Test
+    public void testLoadErrorsReportPosition() throws IOException {
+        assertEquals(List.of("Expected 10 lines to match the given dimensions but got 1"),
+                     List.copyOf(new LinkedHashSet<>(loadErrors("gggggggggg\n"))));
+        assertEquals(
+                List.of("Expected 10 characters to match the given dimensions but got 5 on line 4"),
+                List.copyOf(new LinkedHashSet<>(loadErrors(mapWithRow(3, "ggggg")))));
+        assertEquals(List.of("Unknown symbol: 'X' on line 6, character 6"),
+                     List.copyOf(new LinkedHashSet<>(
+                             loadErrors(mapWithRow(5, "gggggXgggg")))));
+    }
+
+    /**
+     * Tests a wrong line length is reported before an unknown symbol on the same line, and the
+     * first problem line is reported.
+     */
+    @Test
+    public void testLoadErrorsPreferLineLength() throws IOException {
+        String text = mapWithRow(2, "Xgg").replaceFirst("(?s)^((?:.*?\n){3})gggggggggg",
+                                                        "$1ggZggggggg");
+        assertTrue(text.contains("ggZggggggg"));
+        for (String message : loadErrors(text)) {
+            assertEquals("Expected 10 characters to match the given dimensions but got 3 on line 3",
+                         message);
+        }
+    }
+
+    /**
+     * Tests trailing empty lines are ignored but empty lines within the map are not.
+     */
+    @Test
+    public void testLoadEmptyLines() throws IOException {
+        for (String message : loadErrors(mapWithRow(-1, "") + "\n\n")) {
+            assertEquals("loaded", message);
+        }
+        for (String message : loadErrors(mapWithRow(4, ""))) {
+            assertEquals("Expected 10 characters to match the given dimensions but got 0 on line 5",
+                         message);
+        }
+    }
+
+    /**
+     * Tests every loader produces the same tiles as fromString for a test map.
+     */
+    @Test
+    public void testLoadersMatchFromString() throws IOException, WorldLoadException {
+        Dimensions mapDimensions = new TileGrid(25, 800);
+        Path map = Path.of("resources/testmaps/base.map");
+        List<Tile> expected = WorldBuilder.fromString(mapDimensions, Files.readString(map));
+        List<Tile> mapped = WorldBuilder.fromPath(mapDimensions, map);
+        List<Tile> read = WorldBuilder.fromReader(
+                mapDimensions, new StringReader(Files.readString(map)));
+
+        assertEquals(describe(expected), describe(mapped));
+        assertEquals(describe(expected), describe(read));
+    }
+
+    /**
+     * Tests loading a map larger than the read buffers through a channel.
+     */
+    @Test
+    public void testFromChannelLargeMap() throws IOException, WorldLoadException {
+        Dimensions large = new TileGrid(100, 800);
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 100; row++) {
+            for (int col = 0; col < 100; col++) {
+                text.append("gdwo".charAt((row + col) % 4));
+            }
+            text.append("\n");
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        List<Tile> tiles = WorldBuilder.fromChannel(
+                large, Channels.newChannel(new ByteArrayInputStream(bytes)));
+
+        assertEquals(describe(WorldBuilder.fromString(large, text.toString())), describe(tiles));
+    }
+
+    /**
+     * Tests the reader accepts carriage return line separators.
+     */
+    @Test
+    public void testFromReaderCarriageReturns() throws IOException, WorldLoadException {
+        String text = mapWithRow(-1, "");
+        List<Tile> tiles = WorldBuilder.fromReader(
+                dimensions, new StringReader(text.replace("\n", "\r\n")));
+        assertEquals(describe(WorldBuilder.fromString(dimensions, text)), describe(tiles));
+    }
+
+    /**
+     * Tests a world read as terrain holds the same tiles as a world of every tile, creating the
+     * tiles of plain grass, water and dirt only once every tile is asked for.
+     */
+    @Test
+    public void testWorldFromReaderKeepsTerrain() throws IOException, WorldLoadException {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < TILES_PER_ROW; row++) {
+            for (int col = 0; col < TILES_PER_ROW; col++) {
+                text.append("gdwot".charAt((row + col) % 5));
+            }
+            text.append("\n");
+        }
+        BeanWorld world = WorldBuilder.worldFromReader(
+                dimensions, new StringReader(text.toString()));
+        assertEquals(60, world.getTerrainCellCount());
+
+        List<String> expected = describe(WorldBuilder.fromString(dimensions, text.toString()));
+        List<String> actual = describe(world.allTiles());
+        expected.sort(null);
+        actual.sort(null);
+        assertEquals(expected, actual);
+        assertEquals(0, world.getTerrainCellCount());
+    }
+
+    /**
+     * Tests a map file is loaded with its terrain, which renders as its tiles would.
+     */
+    @Test
+    public void testFromFileRendersTerrain() throws IOException, WorldLoadException {
+        Dimensions mapDimensions = new TileGrid(25, 800);
+        BeanWorld world = WorldBuilder.fromFile(mapDimensions, "resources/testmaps/base.map");
+        BeanWorld tiles = WorldBuilder.fromTiles(
+                WorldBuilder.fromPath(mapDimensions, Path.of("resources/testmaps/base.map")));
+        assertTrue(world.getTerrainCellCount() > 0);
+        assertEquals(describeRender(tiles.render()), describeRender(world.render()));
+    }
+
+    private static List<String> describeRender(List<Renderable> renderables) {
+        List<String> result = new ArrayList<>();
+        for (Renderable renderable : renderables) {
+            result.add(renderable.getSprite().getLabel()
+                    + "@" + renderable.getX() + "," + renderable.getY());
+        }
+        result.sort(null);
+        return result;
+    }
+
+    private static List<String> describe(List<Tile> tiles) {
+        List<String> result = new ArrayList<>();
+        for (Tile tile : tiles) {
+            result.add(tile.getClass().getSimpleName() + "@" + tile.getX() + "," + tile.getY());
+        }
+        return result;
+    }
 }